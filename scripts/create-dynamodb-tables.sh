@@ -56,6 +56,51 @@ create_table() {
               --endpoint-url $ENDPOINT \
               --region $REGION > /dev/null 2>&1
             ;;
+
+        "defect-tickets-batch-summaries")
+            aws dynamodb create-table \
+              --table-name defect-tickets-batch-summaries \
+              --attribute-definitions \
+                AttributeName=batchId,AttributeType=S \
+              --key-schema AttributeName=batchId,KeyType=HASH \
+              --billing-mode PAY_PER_REQUEST \
+              --endpoint-url $ENDPOINT \
+              --region $REGION > /dev/null 2>&1
+            ;;
+
+        "defect-tickets-dedup-keys")
+            aws dynamodb create-table \
+              --table-name defect-tickets-dedup-keys \
+              --attribute-definitions \
+                AttributeName=dedupKey,AttributeType=S \
+              --key-schema AttributeName=dedupKey,KeyType=HASH \
+              --billing-mode PAY_PER_REQUEST \
+              --endpoint-url $ENDPOINT \
+              --region $REGION > /dev/null 2>&1
+            ;;
+
+        "defect-tickets-agreement-counters")
+            aws dynamodb create-table \
+              --table-name defect-tickets-agreement-counters \
+              --attribute-definitions \
+                AttributeName=segment,AttributeType=S \
+              --key-schema AttributeName=segment,KeyType=HASH \
+              --billing-mode PAY_PER_REQUEST \
+              --endpoint-url $ENDPOINT \
+              --region $REGION > /dev/null 2>&1
+            ;;
+
+        "defect-tickets-learned-models")
+            aws dynamodb create-table \
+              --table-name defect-tickets-learned-models \
+              --attribute-definitions \
+                AttributeName=version,AttributeType=N \
+                AttributeName=chunk,AttributeType=N \
+              --key-schema AttributeName=version,KeyType=HASH AttributeName=chunk,KeyType=RANGE \
+              --billing-mode PAY_PER_REQUEST \
+              --endpoint-url $ENDPOINT \
+              --region $REGION > /dev/null 2>&1
+            ;;
     esac
     
     if [ $? -eq 0 ]; then
@@ -75,6 +120,10 @@ create_table() {
 create_table "defect-tickets-tickets"
 create_table "defect-tickets-approvals"
 create_table "defect-tickets-workflow-states"
+create_table "defect-tickets-batch-summaries"
+create_table "defect-tickets-dedup-keys"
+create_table "defect-tickets-agreement-counters"
+create_table "defect-tickets-learned-models"
 
 echo ""
 echo "📊 Listing tables:"
@@ -78,6 +78,39 @@ create_table_if_not_exists() {
                   --global-secondary-indexes \
                     '[{"IndexName":"batch-index","KeySchema":[{"AttributeName":"batchId","KeyType":"HASH"}],"Projection":{"ProjectionType":"ALL"}}]' > /dev/null
                 ;;
+            "defect-tickets-batch-summaries")
+                aws --endpoint-url=http://localhost:4566 dynamodb create-table \
+                  --table-name defect-tickets-batch-summaries \
+                  --attribute-definitions \
+                    AttributeName=batchId,AttributeType=S \
+                  --key-schema AttributeName=batchId,KeyType=HASH \
+                  --billing-mode PAY_PER_REQUEST > /dev/null
+                ;;
+            "defect-tickets-dedup-keys")
+                aws --endpoint-url=http://localhost:4566 dynamodb create-table \
+                  --table-name defect-tickets-dedup-keys \
+                  --attribute-definitions \
+                    AttributeName=dedupKey,AttributeType=S \
+                  --key-schema AttributeName=dedupKey,KeyType=HASH \
+                  --billing-mode PAY_PER_REQUEST > /dev/null
+                ;;
+            "defect-tickets-agreement-counters")
+                aws --endpoint-url=http://localhost:4566 dynamodb create-table \
+                  --table-name defect-tickets-agreement-counters \
+                  --attribute-definitions \
+                    AttributeName=segment,AttributeType=S \
+                  --key-schema AttributeName=segment,KeyType=HASH \
+                  --billing-mode PAY_PER_REQUEST > /dev/null
+                ;;
+            "defect-tickets-learned-models")
+                aws --endpoint-url=http://localhost:4566 dynamodb create-table \
+                  --table-name defect-tickets-learned-models \
+                  --attribute-definitions \
+                    AttributeName=version,AttributeType=N \
+                    AttributeName=chunk,AttributeType=N \
+                  --key-schema AttributeName=version,KeyType=HASH AttributeName=chunk,KeyType=RANGE \
+                  --billing-mode PAY_PER_REQUEST > /dev/null
+                ;;
         esac
         echo "   ✓ Created $TABLE_NAME"
     fi
@@ -86,6 +119,10 @@ create_table_if_not_exists() {
 create_table_if_not_exists "defect-tickets-tickets"
 create_table_if_not_exists "defect-tickets-approvals"
 create_table_if_not_exists "defect-tickets-workflow-states"
+create_table_if_not_exists "defect-tickets-batch-summaries"
+create_table_if_not_exists "defect-tickets-dedup-keys"
+create_table_if_not_exists "defect-tickets-agreement-counters"
+create_table_if_not_exists "defect-tickets-learned-models"
 
 # Check and create SQS queue
 echo "📨 Checking SQS queues..."
@@ -27,7 +27,7 @@ if [ -z "$TABLES" ]; then
     exit 1
 fi
 
-EXPECTED_TABLES=("defect-tickets-tickets" "defect-tickets-approvals" "defect-tickets-workflow-states")
+EXPECTED_TABLES=("defect-tickets-tickets" "defect-tickets-approvals" "defect-tickets-workflow-states" "defect-tickets-batch-summaries" "defect-tickets-dedup-keys" "defect-tickets-agreement-counters" "defect-tickets-learned-models")
 MISSING=0
 
 for TABLE in "${EXPECTED_TABLES[@]}"; do
@@ -2,8 +2,10 @@ package com.client.defectticket.api.controller;
 
 import com.client.defectticket.api.dto.BatchProgressDto;
 import com.client.defectticket.api.dto.TicketStatsDto;
+import com.client.defectticket.api.dto.UsageTotalsDto;
 import com.client.defectticket.domain.service.BatchProgressService;
 import com.client.defectticket.domain.service.TicketStatsService;
+import com.client.defectticket.domain.service.UsageAccountingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +23,7 @@ public class BatchController {
 
     private final BatchProgressService progressService;
     private final TicketStatsService statsService;
+    private final UsageAccountingService usageAccounting;
 
     /**
      * Get batch processing progress.
@@ -33,6 +36,17 @@ public class BatchController {
         return ResponseEntity.ok(progress);
     }
 
+    /**
+     * Get LLM token usage, latency and estimated cost of a batch.
+     */
+    @GetMapping("/{batchId}/usage")
+    public ResponseEntity<UsageTotalsDto> getBatchUsage(@PathVariable String batchId) {
+        log.info("API: Fetching LLM usage for batch: {}", batchId);
+        UsageTotalsDto usage = usageAccounting.getBatchUsage(batchId)
+                .orElseThrow(() -> new IllegalArgumentException("No usage recorded for batch: " + batchId));
+        return ResponseEntity.ok(usage);
+    }
+
     /**
      * Get ticket statistics over time.
      * Shows how many tickets were auto-processed vs manual review.
@@ -3,24 +3,42 @@ package com.client.defectticket.api.controller;
 import com.client.defectticket.domain.model.DefectTicket;
 import com.client.defectticket.domain.model.enums.TicketStatus;
 import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.service.BatchChecksum;
+import com.client.defectticket.domain.service.IngestionAdmissionService;
+import com.client.defectticket.domain.service.IngestionLedger;
+import com.client.defectticket.domain.service.StreamingIngestionService;
+import com.client.defectticket.domain.service.TicketDeduplicationService;
 import com.client.defectticket.lambda.handler.dto.BatchIngestionRequest;
+import com.client.defectticket.lambda.handler.dto.BatchReference;
+import com.client.defectticket.messaging.sqs.IngestionCoalescer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * REST API controller for batch ingestion.
- * Stores tickets in DynamoDB and sends message to SQS.
+ * Stores tickets in DynamoDB and sends a claim check (BatchReference) to SQS.
  */
 @Slf4j
 @RestController
@@ -28,9 +46,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class BatchIngestionController {
 
+    private static final long COALESCED_QUEUE_TIMEOUT_SECONDS = 30;
+
     private final DefectTicketRepository ticketRepository;
     private final SqsClient sqsClient;
     private final ObjectMapper objectMapper;
+    private final StreamingIngestionService streamingIngestionService;
+    private final TicketDeduplicationService deduplicationService;
+    private final IngestionAdmissionService admissionService;
+    private final IngestionCoalescer coalescer;
 
     @Value("${aws.sqs.ingestion-queue-url}")
     private String queueUrl;
@@ -38,16 +62,42 @@ public class BatchIngestionController {
     /**
      * Submit a batch of defect tickets for processing.
      * 
-     * 1. Stores full ticket data in DynamoDB (Claim Check Pattern)
-     * 2. Sends lightweight message to SQS queue
-     * 3. SQS consumer triggers Step Functions workflow
+     * 0. Admission control: 429 with Retry-After on queue backlog, DynamoDB
+     *    throttling or an exhausted sourceSystem quota
+     * 1. Stores full ticket data in DynamoDB (Claim Check Pattern),
+     *    skipping or linking re-submitted sourceReferences per dedup policy
+     * 2. Sends a BatchReference (batchId, count, checksum) to SQS; small
+     *    batches are coalesced with other requests of the same sourceSystem
+     *    into one message and one workflow execution (IngestionCoalescer);
+     *    if the combined message fails, the batch is sent on its own
+     * 3. SQS consumer verifies the stored batch and triggers Step Functions
+     *
+     * The response lists the stored ticket IDs, so a coalesced request still
+     * reports its own tickets. If storing or queueing fails, the stored
+     * tickets are deleted and their sourceReferences released before the
+     * error is returned, so the client can retry the same batch.
      */
     @PostMapping("/ingest")
-    public ResponseEntity<Map<String, Object>> ingestBatch(@RequestBody BatchIngestionRequest request) {
+    public ResponseEntity<Map<String, Object>> ingestBatch(@RequestBody BatchIngestionRequest request)
+            throws JsonProcessingException {
+        admissionService.admit(request.getSourceSystem(), request.getTickets().size());
         log.info("Ingesting batch: {} with {} tickets", request.getBatchId(), request.getTickets().size());
 
+        IngestionLedger ledger = new IngestionLedger();
+        try {
+            return storeAndQueue(request, ledger);
+        } catch (RuntimeException | JsonProcessingException e) {
+            deduplicationService.rollback(ledger);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> storeAndQueue(BatchIngestionRequest request, IngestionLedger ledger)
+            throws JsonProcessingException {
         // Step 1: Store full ticket data in DynamoDB (Claim Check Pattern)
-        int storedCount = 0;
+        List<DefectTicket> toStore = new ArrayList<>(request.getTickets().size());
+        BatchChecksum checksum = new BatchChecksum();
+        int dedupedCount = 0;
         for (BatchIngestionRequest.TicketInput ticketInput : request.getTickets()) {
             DefectTicket ticket = new DefectTicket();
             ticket.setTicketId(UUID.randomUUID().toString());
@@ -60,37 +110,161 @@ public class BatchIngestionController {
             ticket.setCreatedAt(Instant.now());
             ticket.setUpdatedAt(Instant.now());
             
-            ticketRepository.save(ticket);
-            storedCount++;
-            log.debug("Stored ticket: {} from {}", ticket.getTicketId(), ticketInput.getSourceReference());
+            TicketDeduplicationService.Outcome outcome = deduplicationService.deduplicate(ticket);
+            if (outcome.duplicate()) {
+                dedupedCount++;
+            }
+            if (outcome.ticketToStore() != null) {
+                toStore.add(outcome.ticketToStore());
+                ledger.add(outcome.ticketToStore());
+                checksum.add(outcome.ticketToStore().getTicketId());
+            }
         }
+        ticketRepository.saveAll(toStore);
+
+        log.info("Stored {} tickets in DynamoDB for batch: {} ({} deduped)",
+                toStore.size(), request.getBatchId(), dedupedCount);
 
-        log.info("Stored {} tickets in DynamoDB for batch: {}", storedCount, request.getBatchId());
+        Map<String, Object> response = new HashMap<>();
+        response.put("batchId", request.getBatchId());
+        response.put("ticketsIngested", toStore.size());
+        response.put("ticketsDeduped", dedupedCount);
+        response.put("ticketIds", toStore.stream().map(DefectTicket::getTicketId).toList());
 
-        // Step 2: Send lightweight message to SQS
+        // Step 2: Send the claim check to SQS
+        if (coalescer.accepts(checksum.count())) {
+            IngestionCoalescer.CoalescedBatch coalesced = queueCoalesced(BatchReference.builder()
+                    .batchId(request.getBatchId())
+                    .sourceSystem(request.getSourceSystem())
+                    .ticketCount(checksum.count())
+                    .checksum(checksum.value())
+                    .build());
+            if (coalesced != null) {
+                response.put("coalescedBatchId", coalesced.batchId());
+                response.put("sqsMessageId", coalesced.sqsMessageId());
+                response.put("status", "QUEUED");
+                return ResponseEntity.accepted().body(response);
+            }
+        }
+        String sqsMessageId = sendReference(request.getBatchId(), request.getSourceSystem(), checksum.count(),
+                checksum.value());
+        response.put("sqsMessageId", sqsMessageId);
+        response.put("status", sqsMessageId != null ? "QUEUED" : "NO_NEW_TICKETS");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Submit a large batch without binding it into memory.
+     *
+     * Accepts JSON (application/json), NDJSON (application/x-ndjson) and CSV
+     * (text/csv), optionally with Content-Encoding: gzip. The body is parsed
+     * incrementally and tickets are stored in write batches while it is read
+     * (see StreamingIngestionService); invalid records are skipped and
+     * reported by line. As for /ingest, the SQS message is a BatchReference,
+     * so it stays small regardless of batch size. Admission control applies
+     * as for /ingest; the ticket count is charged to the source's quota
+     * once the upload has been read.
+     *
+     * An upload cut off by an unreadable part still queues the tickets
+     * stored before it; the response has status PARTIAL, the batchId and
+     * the failure, so the client can re-send the rest. An upload that fails
+     * otherwise (ticket write, SQS send) is rolled back as for /ingest.
+     */
+    @PostMapping(value = "/ingest-stream",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<Map<String, Object>> ingestStream(
+            @RequestParam(required = false) String batchId,
+            @RequestParam(required = false) String sourceSystem,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        admissionService.admit(sourceSystem, 0);
+        IngestionLedger ledger = new IngestionLedger();
+        StreamingIngestionService.IngestionResult result;
+        String sqsMessageId;
         try {
-            String messageBody = objectMapper.writeValueAsString(request);
-            
-            SendMessageRequest sqsRequest = SendMessageRequest.builder()
-                    .queueUrl(queueUrl)
-                    .messageBody(messageBody)
-                    .build();
-            
-            var sqsResponse = sqsClient.sendMessage(sqsRequest);
-            
-            log.info("Sent SQS message {} for batch: {}", sqsResponse.messageId(), request.getBatchId());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("batchId", request.getBatchId());
-            response.put("ticketsIngested", storedCount);
-            response.put("sqsMessageId", sqsResponse.messageId());
-            response.put("status", "QUEUED");
-            
-            return ResponseEntity.accepted().body(response);
-            
-        } catch (Exception e) {
-            log.error("Failed to send SQS message for batch: {}", request.getBatchId(), e);
-            throw new RuntimeException("Failed to queue batch for processing", e);
+            result = streamingIngestionService.ingest(StreamingIngestionService.decode(body, contentEncoding),
+                    StreamingIngestionService.formatOf(contentType), batchId, sourceSystem, ledger);
+            log.info("Stored {} tickets in DynamoDB for batch: {} ({} invalid records{})",
+                    result.ticketCount(), result.batchId(), result.failedCount(),
+                    result.failure() != null ? ", cut off: " + result.failure() : "");
+            sqsMessageId = sendReference(result.batchId(), result.sourceSystem(), result.ticketCount(),
+                    result.checksum());
+        } catch (IOException | RuntimeException e) {
+            deduplicationService.rollback(ledger);
+            throw e;
+        }
+        admissionService.charge(result.sourceSystem(), result.ticketCount());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("batchId", result.batchId());
+        response.put("ticketsIngested", result.ticketCount());
+        response.put("ticketsFailed", result.failedCount());
+        response.put("ticketsDeduped", result.dedupedCount());
+        response.put("errors", result.errors());
+        response.put("sqsMessageId", sqsMessageId);
+        if (result.failure() != null) {
+            response.put("failure", result.failure());
+            response.put("status", "PARTIAL");
+        } else {
+            response.put("status", sqsMessageId != null ? "QUEUED" : "NO_NEW_TICKETS");
+        }
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Send the claim check for a stored batch.
+     *
+     * @return the SQS message ID, or null if no ticket was stored and there is nothing to process
+     */
+    private String sendReference(String batchId, String sourceSystem, int ticketCount, String checksum)
+            throws JsonProcessingException {
+        if (ticketCount == 0) {
+            log.info("No new tickets in batch: {}; not queued", batchId);
+            return null;
+        }
+        BatchReference reference = BatchReference.builder()
+                .batchId(batchId)
+                .sourceSystem(sourceSystem)
+                .ticketCount(ticketCount)
+                .checksum(checksum)
+                .build();
+        var sqsResponse = sqsClient.sendMessage(SendMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .messageBody(objectMapper.writeValueAsString(reference))
+                .build());
+        log.info("Sent SQS message {} for batch: {} ({} tickets)", sqsResponse.messageId(), batchId, ticketCount);
+        return sqsResponse.messageId();
+    }
+
+    /**
+     * Wait until a small batch has been sent as part of a coalesced message.
+     * A request whose buffer is not sent in time is withdrawn; one whose buffer is being sent
+     * waits for that send.
+     *
+     * @return the coalesced message, or null if the batch was not queued and must be sent on its own
+     */
+    private IngestionCoalescer.CoalescedBatch queueCoalesced(BatchReference reference) {
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> queued = coalescer.submit(reference);
+        try {
+            try {
+                return queued.get(COALESCED_QUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (coalescer.withdraw(reference, queued)) {
+                    log.warn("Coalesced message for batch {} not sent within {}s; queueing it on its own",
+                            reference.getBatchId(), COALESCED_QUEUE_TIMEOUT_SECONDS);
+                    return null;
+                }
+                return queued.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            coalescer.withdraw(reference, queued);
+            throw new IllegalStateException("Interrupted while queueing batch: " + reference.getBatchId(), e);
+        } catch (ExecutionException e) {
+            log.warn("Coalesced message for batch {} failed; queueing it on its own", reference.getBatchId(),
+                    e.getCause());
+            return null;
         }
     }
 }
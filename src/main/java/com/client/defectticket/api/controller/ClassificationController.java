@@ -1,21 +1,24 @@
 package com.client.defectticket.api.controller;
 
-import com.client.defectticket.domain.model.DefectTicket;
-import com.client.defectticket.domain.model.enums.ApprovalGate;
-import com.client.defectticket.domain.repository.DefectTicketRepository;
-import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.api.dto.BatchClassificationDto;
+import com.client.defectticket.api.dto.BulkClassificationJobDto;
+import com.client.defectticket.api.dto.ReclassificationJobDto;
+import com.client.defectticket.api.dto.ReclassificationRequestDto;
+import com.client.defectticket.domain.service.BatchClassificationService;
+import com.client.defectticket.domain.service.BulkClassificationService;
+import com.client.defectticket.domain.service.ProgressiveClassificationService;
+import com.client.defectticket.domain.service.ReclassificationService;
 import com.client.defectticket.lambda.handler.ClassificationHandler;
-import com.client.defectticket.lambda.handler.dto.ApprovalCreationRequest;
 import com.client.defectticket.lambda.handler.dto.ClassificationRequest;
 import com.client.defectticket.lambda.handler.dto.ClassificationResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST API controller for testing ticket classification.
@@ -28,16 +31,26 @@ import java.util.Map;
 public class ClassificationController {
 
     private final ClassificationHandler classificationHandler;
-    private final ApprovalRequestHandler approvalRequestHandler;
-    private final DefectTicketRepository ticketRepository;
+    private final BatchClassificationService batchClassificationService;
+    private final ProgressiveClassificationService progressiveClassificationService;
+    private final BulkClassificationService bulkClassificationService;
+    private final ReclassificationService reclassificationService;
 
     /**
      * Classify a ticket by ID.
      * Triggers the full classification workflow (AI + Rules).
+     * With progressive=true returns a provisional result from the local stages
+     * immediately and refines it with the LLM in the background; fetch
+     * GET /{ticketId} or subscribe to GET /{ticketId}/events for the final result.
      */
     @PostMapping("/{ticketId}")
-    public ResponseEntity<ClassificationResponse> classifyTicket(@PathVariable String ticketId) {
-        log.info("API: Classifying ticket: {}", ticketId);
+    public ResponseEntity<ClassificationResponse> classifyTicket(@PathVariable String ticketId,
+                                                                 @RequestParam(defaultValue = "false") boolean progressive) {
+        log.info("API: Classifying ticket: {} (progressive={})", ticketId, progressive);
+
+        if (progressive) {
+            return ResponseEntity.ok(progressiveClassificationService.classify(ticketId));
+        }
         
         ClassificationRequest request = ClassificationRequest.builder()
                 .ticketId(ticketId)
@@ -48,64 +61,99 @@ public class ClassificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the current classification of a ticket.
+     * provisional=true while the LLM refinement is still running.
+     */
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<ClassificationResponse> getClassification(@PathVariable String ticketId) {
+        log.debug("API: Fetching classification of ticket: {}", ticketId);
+        return ResponseEntity.ok(progressiveClassificationService.get(ticketId));
+    }
+
+    /**
+     * Subscribe to the refined classification of a ticket (server-sent events).
+     * Emits one "classification" (or "refinement-failed") event, then completes.
+     */
+    @GetMapping(value = "/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToClassification(@PathVariable String ticketId) {
+        log.debug("API: Subscribing to classification of ticket: {}", ticketId);
+        return progressiveClassificationService.subscribe(ticketId);
+    }
+
     /**
      * Classify all tickets in a batch.
-     * Processes all NEW tickets and creates approval requests where needed.
+     * Classifies tickets concurrently and creates approval requests where needed.
      * Simulates the full Step Functions workflow for local testing.
+     * With async=true returns 202 and a job id immediately; poll /batch/jobs/{jobId}.
      */
     @PostMapping("/batch/{batchId}")
-    public ResponseEntity<Map<String, Object>> classifyBatch(@PathVariable String batchId) {
-        log.info("API: Classifying all tickets in batch: {}", batchId);
+    public ResponseEntity<BatchClassificationDto> classifyBatch(@PathVariable String batchId,
+                                                                @RequestParam(defaultValue = "false") boolean async) {
+        log.info("API: Classifying all tickets in batch: {} (async={})", batchId, async);
 
-        List<DefectTicket> tickets = ticketRepository.findByBatchId(batchId);
-        
-        if (tickets.isEmpty()) {
-            throw new IllegalArgumentException("Batch not found or has no tickets: " + batchId);
+        if (async) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(batchClassificationService.submitBatch(batchId));
         }
+        return ResponseEntity.ok(batchClassificationService.classifyBatch(batchId));
+    }
 
-        int classifiedCount = 0;
-        int approvalsCreated = 0;
-        int failedCount = 0;
+    /**
+     * Get progress of an async batch classification job.
+     */
+    @GetMapping("/batch/jobs/{jobId}")
+    public ResponseEntity<BatchClassificationDto> getBatchJob(@PathVariable String jobId) {
+        log.debug("API: Fetching batch classification job: {}", jobId);
+        return ResponseEntity.ok(batchClassificationService.getJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Batch classification job not found: " + jobId)));
+    }
 
-        for (DefectTicket ticket : tickets) {
-            try {
-                // Step 1: Classify the ticket
-                ClassificationRequest classificationRequest = ClassificationRequest.builder()
-                        .ticketId(ticket.getTicketId())
-                        .build();
-                
-                ClassificationResponse classificationResponse = classificationHandler.handle(classificationRequest);
-                classifiedCount++;
-                log.debug("Classified ticket: {}", ticket.getTicketId());
-                
-                // Step 2: Create approval request if needed
-                if (classificationResponse.getClassification().isRequiresHumanApproval()) {
-                    ApprovalCreationRequest approvalRequest = ApprovalCreationRequest.builder()
-                            .ticketId(ticket.getTicketId())
-                            .gate(ApprovalGate.CLASSIFICATION_REVIEW)
-                            .taskToken("local-test-token-" + System.currentTimeMillis())
-                            .build();
-                    
-                    approvalRequestHandler.handle(approvalRequest);
-                    approvalsCreated++;
-                    log.debug("Created approval request for ticket: {}", ticket.getTicketId());
-                }
-                
-            } catch (Exception e) {
-                failedCount++;
-                log.error("Failed to classify ticket: {}", ticket.getTicketId(), e);
-            }
-        }
+    /**
+     * Classify the pending tickets of a batch offline via batch inference.
+     * Returns 202 with the job; poll /bulk/jobs/{jobId} for progress.
+     */
+    @PostMapping("/bulk/{batchId}")
+    public ResponseEntity<BulkClassificationJobDto> classifyBulk(@PathVariable String batchId) {
+        log.info("API: Starting bulk classification for batch: {}", batchId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkClassificationService.start(batchId));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("batchId", batchId);
-        response.put("totalTickets", tickets.size());
-        response.put("classified", classifiedCount);
-        response.put("approvalsCreated", approvalsCreated);
-        response.put("failed", failedCount);
-        response.put("message", String.format("Batch classification completed: %d classified, %d approvals created",
-                classifiedCount, approvalsCreated));
+    /**
+     * Get progress of a bulk classification job.
+     */
+    @GetMapping("/bulk/jobs/{jobId}")
+    public ResponseEntity<BulkClassificationJobDto> getBulkJob(@PathVariable String jobId) {
+        log.debug("API: Fetching bulk classification job: {}", jobId);
+        return ResponseEntity.ok(bulkClassificationService.getJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Bulk classification job not found: " + jobId)));
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Reclassify existing tickets matching the given criteria, e.g. after a rule change.
+     * Returns 202 with the job; poll /reclassification/{jobId} for progress.
+     */
+    @PostMapping("/reclassification")
+    public ResponseEntity<ReclassificationJobDto> reclassify(@Valid @RequestBody ReclassificationRequestDto request) {
+        log.info("API: Starting reclassification job: {}", request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reclassificationService.start(request));
+    }
+
+    /**
+     * Resume a stopped or failed reclassification job from its last checkpoint.
+     */
+    @PostMapping("/reclassification/{jobId}/resume")
+    public ResponseEntity<ReclassificationJobDto> resumeReclassification(@PathVariable String jobId) {
+        log.info("API: Resuming reclassification job: {}", jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reclassificationService.resume(jobId));
+    }
+
+    /**
+     * Get progress of a reclassification job.
+     */
+    @GetMapping("/reclassification/{jobId}")
+    public ResponseEntity<ReclassificationJobDto> getReclassificationJob(@PathVariable String jobId) {
+        log.debug("API: Fetching reclassification job: {}", jobId);
+        return ResponseEntity.ok(reclassificationService.getJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Reclassification job not found: " + jobId)));
     }
 }
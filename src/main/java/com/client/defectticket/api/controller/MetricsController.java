@@ -0,0 +1,183 @@
+package com.client.defectticket.api.controller;
+
+import com.client.defectticket.api.dto.AutoApprovalPolicyDto;
+import com.client.defectticket.api.dto.IngestionAdmissionDto;
+import com.client.defectticket.api.dto.UsageTotalsDto;
+import com.client.defectticket.domain.service.AutoApprovalPolicy;
+import com.client.defectticket.domain.service.IngestionAdmissionService;
+import com.client.defectticket.domain.service.UsageAccountingService;
+import com.client.defectticket.lambda.classifier.AdaptiveConcurrencyLimiter;
+import com.client.defectticket.lambda.classifier.CascadePolicy;
+import com.client.defectticket.lambda.classifier.CircuitBreakerSnapshot;
+import com.client.defectticket.lambda.classifier.LatencySnapshot;
+import com.client.defectticket.lambda.classifier.LearnedClassifier;
+import com.client.defectticket.lambda.classifier.LearnedModelInfo;
+import com.client.defectticket.lambda.classifier.LearnedModelTrainer;
+import com.client.defectticket.lambda.classifier.LenientOutputParser;
+import com.client.defectticket.lambda.classifier.LlmLatencyTracker;
+import com.client.defectticket.lambda.classifier.LlmCircuitBreaker;
+import com.client.defectticket.lambda.classifier.LimiterSnapshot;
+import com.client.defectticket.lambda.classifier.OutputRepairSnapshot;
+import com.client.defectticket.lambda.classifier.TierStats;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import com.client.defectticket.lambda.pipeline.StageStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API controller for operational metrics.
+ * Exposes classification runtime state for dashboards and capacity planning.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LlmCircuitBreaker circuitBreaker;
+    private final ClassificationPipeline classificationPipeline;
+    private final LlmLatencyTracker latencyTracker;
+    private final UsageAccountingService usageAccounting;
+    private final CascadePolicy cascadePolicy;
+    private final LearnedClassifier learnedClassifier;
+    private final ObjectProvider<LearnedModelTrainer> learnedModelTrainer;
+    private final LenientOutputParser outputParser;
+    private final AutoApprovalPolicy autoApprovalPolicy;
+    private final IngestionAdmissionService admissionService;
+
+    /**
+     * Get adaptive LLM concurrency limiter state.
+     * Shows current limit, queue depth and throttle rate.
+     */
+    @GetMapping("/llm/limiter")
+    public ResponseEntity<LimiterSnapshot> getLimiterMetrics() {
+        log.debug("API: Fetching LLM limiter metrics");
+        return ResponseEntity.ok(concurrencyLimiter.snapshot());
+    }
+
+    /**
+     * Get LLM circuit breaker state.
+     * OPEN means tickets are classified in degraded (rules-only) mode.
+     */
+    @GetMapping("/llm/circuit-breaker")
+    public ResponseEntity<CircuitBreakerSnapshot> getCircuitBreakerMetrics() {
+        log.debug("API: Fetching LLM circuit breaker metrics");
+        return ResponseEntity.ok(circuitBreaker.snapshot());
+    }
+
+    /**
+     * Get LLM call latency.
+     * Compares streaming time-to-decision against blocking calls.
+     */
+    @GetMapping("/llm/latency")
+    public ResponseEntity<LatencySnapshot> getLatencyMetrics() {
+        log.debug("API: Fetching LLM latency metrics");
+        return ResponseEntity.ok(latencyTracker.snapshot());
+    }
+
+    /**
+     * Get LLM token usage and estimated cost per source system.
+     * Sorted by cost, highest first.
+     */
+    @GetMapping("/llm/usage")
+    public ResponseEntity<List<UsageTotalsDto>> getUsageMetrics() {
+        log.debug("API: Fetching LLM usage metrics");
+        return ResponseEntity.ok(usageAccounting.getSourceUsage());
+    }
+
+    /**
+     * Get model cascade statistics.
+     * Shows the share of tickets each model tier decided, with latency and tokens.
+     */
+    @GetMapping("/llm/cascade")
+    public ResponseEntity<List<TierStats>> getCascadeMetrics() {
+        log.debug("API: Fetching LLM cascade metrics");
+        return ResponseEntity.ok(cascadePolicy.stats());
+    }
+
+    /**
+     * Get LLM output parsing statistics.
+     * Repaired responses would otherwise have failed and triggered a new LLM call.
+     */
+    @GetMapping("/llm/output-repair")
+    public ResponseEntity<OutputRepairSnapshot> getOutputRepairMetrics() {
+        log.debug("API: Fetching LLM output repair metrics");
+        return ResponseEntity.ok(outputParser.snapshot());
+    }
+
+    /**
+     * Get classification pipeline stage statistics.
+     * Hit rate shows how many tickets each stage finalized before the LLM.
+     */
+    @GetMapping("/classification/pipeline")
+    public ResponseEntity<List<StageStats>> getPipelineMetrics() {
+        log.debug("API: Fetching classification pipeline metrics");
+        return ResponseEntity.ok(classificationPipeline.stats());
+    }
+
+    /**
+     * Get the active learned-classifier snapshot.
+     * Shows model version, training examples and known labels.
+     */
+    @GetMapping("/classification/learned-model")
+    public ResponseEntity<LearnedModelInfo> getLearnedModelMetrics() {
+        log.debug("API: Fetching learned classifier metrics");
+        return ResponseEntity.ok(learnedClassifier.info());
+    }
+
+    /**
+     * Retrain the learned classifier from all approved decisions and publish the snapshot.
+     * Only where the trainer runs (409 otherwise).
+     */
+    @PostMapping("/classification/learned-model/retrain")
+    public ResponseEntity<LearnedModelInfo> retrainLearnedModel() {
+        LearnedModelTrainer trainer = learnedModelTrainer.getIfAvailable();
+        if (trainer == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        log.info("API: Retraining learned classifier");
+        trainer.retrain();
+        return ResponseEntity.ok(learnedClassifier.info());
+    }
+
+    /**
+     * Get auto-approval policy state.
+     * Shows AI vs human agreement per category and severity, and how many reviews were skipped.
+     */
+    @GetMapping("/hitl/auto-approval")
+    public ResponseEntity<AutoApprovalPolicyDto> getAutoApprovalMetrics() {
+        log.debug("API: Fetching auto-approval policy metrics");
+        return ResponseEntity.ok(autoApprovalPolicy.snapshot());
+    }
+
+    /**
+     * Recount auto-approval agreement from all decided approvals.
+     * Seeds the agreement counters from decisions saved before they were tracked.
+     */
+    @PostMapping("/hitl/auto-approval/recount")
+    public ResponseEntity<AutoApprovalPolicyDto> recountAutoApproval() {
+        log.info("API: Recounting auto-approval agreement");
+        autoApprovalPolicy.recount();
+        return ResponseEntity.ok(autoApprovalPolicy.snapshot());
+    }
+
+    /**
+     * Get ingestion admission control state.
+     * Shows sampled queue depth and write throttling, rejections by reason and source quota balances.
+     */
+    @GetMapping("/ingestion/admission")
+    public ResponseEntity<IngestionAdmissionDto> getIngestionAdmissionMetrics() {
+        log.debug("API: Fetching ingestion admission metrics");
+        return ResponseEntity.ok(admissionService.snapshot());
+    }
+}
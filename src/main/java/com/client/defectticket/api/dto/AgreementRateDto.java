@@ -0,0 +1,19 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * DTO for AI vs human agreement in one auto-approval segment.
+ * Segment is "category:<name>" or "severity:<level>".
+ */
+@Value
+@Builder
+public class AgreementRateDto {
+    String segment;
+    long decisions;
+    long agreed;
+    double agreementRate;
+    double lowerBound;  // Wilson score lower bound
+    boolean eligible;  // Enough decisions and lower bound >= min-agreement
+}
@@ -0,0 +1,21 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * DTO for auto-approval policy state: decisions taken and per-segment agreement.
+ */
+@Value
+@Builder
+public class AutoApprovalPolicyDto {
+    boolean enabled;
+    double minAgreement;
+    long minSamples;
+    double auditRate;
+    long autoApproved;
+    long auditSamples;
+    List<AgreementRateDto> segments;  // Highest lower bound first
+}
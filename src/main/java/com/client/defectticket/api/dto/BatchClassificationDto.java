@@ -0,0 +1,28 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO for a local batch classification run.
+ * Returned when the run completes, or immediately (status RUNNING) in async mode.
+ */
+@Value
+@Builder
+public class BatchClassificationDto {
+    String jobId;
+    String batchId;
+    String status;  // "RUNNING", "COMPLETED"
+    int totalTickets;
+    int classified;
+    int approvalsCreated;
+    int failed;
+    Map<String, String> failures;  // ticketId -> error message (first failures only)
+    String message;
+    Instant startedAt;
+    Instant completedAt;
+    long durationMillis;
+}
@@ -0,0 +1,28 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * DTO for an offline bulk classification job (batch inference).
+ */
+@Value
+@Builder
+public class BulkClassificationJobDto {
+    String jobId;
+    String batchId;
+    String status;  // "RUNNING", "COMPLETED", "FAILED"
+    String currentStep;  // "BATCH_INFERENCE", "APPLY_RESULTS", "DONE"
+    String inferenceJobId;
+    int totalTickets;
+    int classifiedLocally;  // Finalized by local pipeline stages, never submitted
+    int submitted;  // Records sent to batch inference
+    int classifiedFromBatch;
+    int fallbackOnDemand;  // Failed or missing records classified with on-demand calls
+    int approvalsCreated;
+    int failed;
+    Instant startedAt;
+    Instant completedAt;
+}
@@ -0,0 +1,23 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * DTO for ingestion admission control: sampled signals, decisions and source quota balances.
+ */
+@Value
+@Builder
+public class IngestionAdmissionDto {
+    boolean enabled;
+    long queueDepth;
+    long maxQueueDepth;
+    double drainPerSecond;
+    double writeThrottleRate;
+    double maxWriteThrottleRate;
+    long admitted;
+    Map<String, Long> rejected;  // By reason: QUEUE_DEPTH, WRITE_THROTTLING, SOURCE_QUOTA
+    Map<String, Double> sourceBalances;  // Tickets left per sourceSystem; negative = in debt
+}
@@ -0,0 +1,30 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * DTO for reclassification job progress.
+ */
+@Value
+@Builder
+public class ReclassificationJobDto {
+    String jobId;
+    String status;  // "RUNNING", "COMPLETED", "FAILED"
+    String criteria;  // Human-readable selection criteria
+    int segments;
+    int segmentsCompleted;
+    long scanned;  // Tickets read (after the status filter)
+    long matched;  // Tickets inside the date range (reviewed tickets only if included)
+    long reclassified;  // Classification changed and written
+    long unchanged;  // Same classification; no write
+    long conflicts;  // Ticket modified concurrently; skipped
+    long approvalsCreated;  // Changed results that need human review
+    long failed;
+    double ticketsPerSecond;  // Matched tickets per second in the current run
+    Instant startedAt;
+    Instant updatedAt;
+    Instant completedAt;
+}
@@ -0,0 +1,33 @@
+package com.client.defectticket.api.dto;
+
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * DTO for starting a reclassification job.
+ * All criteria are optional and combined; batchId switches from a parallel
+ * table scan to a paged batch-index query. Tickets whose classification a
+ * reviewer approved or rejected are left alone unless includeReviewed is set
+ * or status names one of those statuses.
+ */
+@Data
+public class ReclassificationRequestDto {
+
+    private TicketStatus status;
+
+    private String batchId;
+
+    private Instant createdFrom;  // Inclusive
+
+    private Instant createdTo;  // Exclusive
+
+    private boolean includeReviewed;  // Also overwrite human-reviewed classifications
+
+    @Min(1)
+    @Max(64)
+    private Integer segments;  // Parallel scan segments; default classification.reclassification.segments
+}
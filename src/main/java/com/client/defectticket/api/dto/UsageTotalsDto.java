@@ -0,0 +1,24 @@
+package com.client.defectticket.api.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * DTO for aggregated LLM usage and cost.
+ * Key is a batchId or a sourceSystem, depending on the endpoint.
+ */
+@Value
+@Builder
+public class UsageTotalsDto {
+    String key;
+    String sourceSystem;
+    long classifiedCount;
+    long llmCalls;
+    long inputTokens;
+    long outputTokens;
+    long cacheReadInputTokens;
+    long cacheWriteInputTokens;
+    double averageLlmLatencyMillis;
+    long retries;
+    double estimatedCostUsd;
+}
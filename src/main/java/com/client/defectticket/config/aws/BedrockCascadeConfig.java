@@ -0,0 +1,49 @@
+package com.client.defectticket.config.aws;
+
+import com.client.defectticket.lambda.classifier.ModelTier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.bedrock.anthropic.AnthropicChatOptions;
+import org.springframework.ai.bedrock.anthropic.BedrockAnthropicChatModel;
+import org.springframework.ai.bedrock.anthropic.api.AnthropicChatBedrockApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+
+/**
+ * Small (fast, cheap) Bedrock model for the classification cascade.
+ * The large model remains the auto-configured spring.ai.bedrock.anthropic.chat model.
+ */
+@Slf4j
+@Configuration
+@Profile("!local & !test")
+@ConditionalOnProperty(name = "llm.cascade.enabled", havingValue = "true")
+public class BedrockCascadeConfig {
+
+    @Value("${llm.cascade.small-model-id}")
+    private String smallModelId;
+
+    @Value("${llm.cascade.small-max-tokens:1024}")
+    private int smallMaxTokens;
+
+    @Value("${spring.ai.bedrock.anthropic.chat.options.temperature:0.3}")
+    private double temperature;
+
+    @Bean
+    public ModelTier smallModelTier(Region region, ObjectMapper objectMapper) {
+        log.info("Cascade small model: {}", smallModelId);
+        AnthropicChatBedrockApi api = new AnthropicChatBedrockApi(
+                smallModelId, DefaultCredentialsProvider.create(), region, objectMapper, Duration.ofMinutes(1));
+        AnthropicChatOptions options = AnthropicChatOptions.builder()
+                .withTemperature(temperature)
+                .withMaxTokensToSample(smallMaxTokens)
+                .build();
+        return new ModelTier(ModelTier.SMALL, smallModelId, new BedrockAnthropicChatModel(api, options));
+    }
+}
@@ -1,7 +1,11 @@
 package com.client.defectticket.config.aws;
 
+import com.client.defectticket.domain.model.AgreementCounter;
 import com.client.defectticket.domain.model.ApprovalRequest;
+import com.client.defectticket.domain.model.BatchSummary;
+import com.client.defectticket.domain.model.DedupKey;
 import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.LearnedModelChunk;
 import com.client.defectticket.domain.model.WorkflowState;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -35,10 +39,12 @@ public class DynamoDbConfig {
 
     @Bean
     @Profile("local | test")
-    public DynamoDbClient dynamoDbClientLocal(Region region, URI localstackEndpoint) {
+    public DynamoDbClient dynamoDbClientLocal(Region region, URI localstackEndpoint,
+                                              DynamoDbWriteThrottleMonitor throttleMonitor) {
         var builder = DynamoDbClient.builder()
                 .region(region)
-                .endpointOverride(localstackEndpoint);
+                .endpointOverride(localstackEndpoint)
+                .overrideConfiguration(c -> c.addExecutionInterceptor(throttleMonitor));
         
         // Use static credentials for LocalStack if provided
         if (accessKeyId != null && !accessKeyId.isEmpty() &&
@@ -55,9 +61,10 @@ public class DynamoDbConfig {
 
     @Bean
     @Profile("!local & !test")
-    public DynamoDbClient dynamoDbClientAws(Region region) {
+    public DynamoDbClient dynamoDbClientAws(Region region, DynamoDbWriteThrottleMonitor throttleMonitor) {
         return DynamoDbClient.builder()
                 .region(region)
+                .overrideConfiguration(c -> c.addExecutionInterceptor(throttleMonitor))
                 .build();
     }
 
@@ -82,4 +89,24 @@ public class DynamoDbConfig {
     public DynamoDbTable<WorkflowState> workflowStateTable(DynamoDbEnhancedClient enhancedClient) {
         return enhancedClient.table(tablePrefix + "-workflow-states", TableSchema.fromBean(WorkflowState.class));
     }
+
+    @Bean
+    public DynamoDbTable<BatchSummary> batchSummaryTable(DynamoDbEnhancedClient enhancedClient) {
+        return enhancedClient.table(tablePrefix + "-batch-summaries", TableSchema.fromBean(BatchSummary.class));
+    }
+
+    @Bean
+    public DynamoDbTable<DedupKey> dedupKeyTable(DynamoDbEnhancedClient enhancedClient) {
+        return enhancedClient.table(tablePrefix + "-dedup-keys", TableSchema.fromBean(DedupKey.class));
+    }
+
+    @Bean
+    public DynamoDbTable<AgreementCounter> agreementCounterTable(DynamoDbEnhancedClient enhancedClient) {
+        return enhancedClient.table(tablePrefix + "-agreement-counters", TableSchema.fromBean(AgreementCounter.class));
+    }
+
+    @Bean
+    public DynamoDbTable<LearnedModelChunk> learnedModelTable(DynamoDbEnhancedClient enhancedClient) {
+        return enhancedClient.table(tablePrefix + "-learned-models", TableSchema.fromBean(LearnedModelChunk.class));
+    }
 }
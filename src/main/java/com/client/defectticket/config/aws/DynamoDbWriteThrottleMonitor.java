@@ -0,0 +1,85 @@
+package com.client.defectticket.config.aws;
+
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts DynamoDB writes and how many of them were throttled.
+ *
+ * A write counts as throttled if the SDK had to retry it (retries absorb
+ * most throttling before it surfaces as an exception), if it failed with a
+ * throttling error, or if a BatchWriteItem returned unprocessed items.
+ * Registered on the DynamoDbClient; read by ingestion admission control.
+ */
+@Component
+public class DynamoDbWriteThrottleMonitor implements ExecutionInterceptor {
+
+    private static final Set<String> WRITE_OPERATIONS =
+            Set.of("PutItem", "UpdateItem", "DeleteItem", "BatchWriteItem", "TransactWriteItems");
+    private static final ExecutionAttribute<Integer> ATTEMPTS = new ExecutionAttribute<>("DynamoDbWriteAttempts");
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        if (WRITE_OPERATIONS.contains(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))) {
+            executionAttributes.putAttribute(ATTEMPTS, 0);
+        }
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        // Called once per attempt
+        Integer attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts != null) {
+            executionAttributes.putAttribute(ATTEMPTS, attempts + 1);
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        Integer attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts == null) {
+            return;
+        }
+        boolean unprocessed = context.response() instanceof BatchWriteItemResponse response
+                && response.hasUnprocessedItems() && !response.unprocessedItems().isEmpty();
+        record(attempts > 1 || unprocessed);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Integer attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts == null) {
+            return;
+        }
+        boolean throttling = context.exception() instanceof AwsServiceException e && e.isThrottlingException();
+        record(attempts > 1 || throttling);
+    }
+
+    /**
+     * Writes and throttled writes since the previous call.
+     */
+    public synchronized WriteSample sampleAndReset() {
+        return new WriteSample(writes.sumThenReset(), throttled.sumThenReset());
+    }
+
+    private void record(boolean wasThrottled) {
+        writes.increment();
+        if (wasThrottled) {
+            throttled.increment();
+        }
+    }
+
+    public record WriteSample(long writes, long throttled) {}
+}
@@ -0,0 +1,38 @@
+package com.client.defectticket.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.Instant;
+
+/**
+ * AI vs human agreement for one auto-approval segment ("category:Bug",
+ * "severity:HIGH").
+ *
+ * Incremented atomically as reviewer decisions are saved and read by the
+ * classifier, so every process sees the same counts without scanning the
+ * approval table.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class AgreementCounter {
+
+    private String segment;
+    private Long decisions;
+    private Long agreed;
+    private Instant updatedAt;
+
+    @DynamoDbPartitionKey
+    public String getSegment() {
+        return segment;
+    }
+}
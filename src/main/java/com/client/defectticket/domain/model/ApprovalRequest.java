@@ -39,6 +39,7 @@ public class ApprovalRequest {
     /**
      * Step Functions task token for callback pattern.
      * Used to resume workflow after manual approval.
+     * Null for approvals created outside a workflow (bulk classification).
      */
     private String taskToken;
 
@@ -0,0 +1,47 @@
+package com.client.defectticket.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.Instant;
+
+/**
+ * Per-batch classification cost and latency summary.
+ *
+ * Counters are only ever incremented with atomic DynamoDB ADD updates
+ * (see BatchSummaryRepository#addUsage), so concurrent classifier
+ * instances can flush into the same batch without read-modify-write.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class BatchSummary {
+
+    private String batchId;
+    private String sourceSystem;
+
+    private Long classifiedCount;
+    private Long llmCalls;
+    private Long inputTokens;
+    private Long outputTokens;
+    private Long cacheReadInputTokens;
+    private Long cacheWriteInputTokens;
+    private Long totalLlmLatencyMillis;
+    private Long retries;
+    private Double estimatedCostUsd;
+
+    private Instant updatedAt;
+
+    @DynamoDbPartitionKey
+    public String getBatchId() {
+        return batchId;
+    }
+}
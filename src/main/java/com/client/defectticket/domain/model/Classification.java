@@ -12,7 +12,7 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
  * Contains both AI-based and rule-based classification information.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @DynamoDbBean
@@ -23,6 +23,11 @@ public class Classification {
     private Integer priority;
     private Double confidenceScore;
     private String reasoning;
-    private String classificationSource;  // "LLM", "RULES", "HYBRID"
+    private String classificationSource;  // "LLM", "RULES", "HYBRID", "DEGRADED"
     private boolean requiresHumanApproval;
+    private String decisionStage;  // Pipeline stage that finalized: "RULES", "CACHE", "HEURISTIC", "LLM"
+    private Integer inputTokenEstimate;  // Estimated prompt tokens sent to the LLM (null if no LLM call)
+    private LlmUsage llmUsage;  // Actual token usage, latency and retries of the LLM call (null if no LLM call)
+    private String decisionTier;  // Model cascade tier that decided: "SMALL", "LARGE" (null if no LLM call)
+    private String approvalPolicy;  // "AUTO_APPROVED" or "AUDIT_SAMPLE" if the auto-approval policy applied (null otherwise)
 }
@@ -0,0 +1,38 @@
+package com.client.defectticket.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.Instant;
+
+/**
+ * Ingestion idempotency key: maps (sourceSystem, sourceReference) to the
+ * ticket created for it.
+ *
+ * Written with a conditional put (attribute_not_exists), so exactly one
+ * ingestion claims a reference even when batches are re-submitted
+ * concurrently. Expires with the ticket (same TTL).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class DedupKey {
+
+    private String dedupKey;  // "<sourceSystem>#<sourceReference>"
+    private String ticketId;
+    private Instant createdAt;
+    private Long ttl;
+
+    @DynamoDbPartitionKey
+    public String getDedupKey() {
+        return dedupKey;
+    }
+}
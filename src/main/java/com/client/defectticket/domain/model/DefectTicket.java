@@ -37,6 +37,7 @@ public class DefectTicket {
     private TicketStatus status;
     private Classification classification;
     private Assignment assignment;
+    private String linkedTicketId;  // Earlier ticket with the same sourceReference (dedup policy LINK)
 
     @Builder.Default
     private List<AuditEntry> auditTrail = new ArrayList<>();
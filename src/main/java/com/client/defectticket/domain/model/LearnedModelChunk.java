@@ -0,0 +1,45 @@
+package com.client.defectticket.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+/**
+ * One chunk of a published learned-classifier snapshot.
+ *
+ * A snapshot (compressed training counts) is split into chunks below the
+ * DynamoDB item size limit, all under the snapshot's version. The item at
+ * version 0 is the pointer: its latestVersion names the snapshot classifiers
+ * should load. Old versions expire through the table TTL.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class LearnedModelChunk {
+
+    private Long version;
+    private Integer chunk;
+    private Integer chunks;          // Number of chunks in this version
+    private SdkBytes data;
+    private Long latestVersion;      // Pointer item only
+    private Long ttl;                // Epoch seconds; unset on the pointer
+
+    @DynamoDbPartitionKey
+    public Long getVersion() {
+        return version;
+    }
+
+    @DynamoDbSortKey
+    public Integer getChunk() {
+        return chunk;
+    }
+}
@@ -0,0 +1,27 @@
+package com.client.defectticket.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+
+/**
+ * Token usage and latency of the LLM call behind a classification.
+ * Null on classifications decided without an LLM call (rules, cache, heuristic).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class LlmUsage {
+    private String modelId;
+    private Integer inputTokens;
+    private Integer outputTokens;
+    private Integer cacheReadInputTokens;  // Prompt prefix tokens served from the provider cache
+    private Integer cacheWriteInputTokens;  // Prompt prefix tokens written to the provider cache
+    private Long latencyMillis;
+    private Integer retryCount;  // Step Functions retries before this attempt succeeded
+    private boolean estimated;  // true if Bedrock returned no usage metadata (e.g. cancelled stream)
+}
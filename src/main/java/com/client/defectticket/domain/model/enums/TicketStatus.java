@@ -6,6 +6,7 @@ package com.client.defectticket.domain.model.enums;
 public enum TicketStatus {
     NEW,
     VALIDATED,
+    CLASSIFIED_PROVISIONAL,  // Local result shown while the LLM refinement runs
     CLASSIFIED,
     PENDING_CLASSIFICATION_APPROVAL,
     CLASSIFICATION_APPROVED,
@@ -0,0 +1,57 @@
+package com.client.defectticket.domain.repository;
+
+import com.client.defectticket.domain.model.AgreementCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for auto-approval agreement counters.
+ * Counters are incremented atomically; the table holds one item per segment,
+ * so it is read with a scan.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class AgreementCounterRepository {
+
+    private final DynamoDbTable<AgreementCounter> agreementCounterTable;
+    private final DynamoDbClient dynamoDbClient;
+
+    /**
+     * Atomically count one decision for a segment (creates the counter if missing).
+     */
+    public void increment(String segment, boolean agreed) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(agreementCounterTable.tableName())
+                .key(Map.of("segment", AttributeValue.fromS(segment)))
+                .updateExpression("ADD decisions :one, agreed :agreed SET updatedAt = :updatedAt")
+                .expressionAttributeValues(Map.of(
+                        ":one", AttributeValue.fromN("1"),
+                        ":agreed", AttributeValue.fromN(agreed ? "1" : "0"),
+                        ":updatedAt", AttributeValue.fromS(Instant.now().toString())))
+                .build();
+
+        dynamoDbClient.updateItem(request);
+        log.debug("Counted decision for segment {} (agreed: {})", segment, agreed);
+    }
+
+    /**
+     * Overwrite a counter with recounted totals.
+     */
+    public void save(AgreementCounter counter) {
+        agreementCounterTable.putItem(counter);
+    }
+
+    public List<AgreementCounter> findAll() {
+        return agreementCounterTable.scan().items().stream().toList();
+    }
+}
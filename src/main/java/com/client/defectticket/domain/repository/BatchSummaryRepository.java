@@ -0,0 +1,72 @@
+package com.client.defectticket.domain.repository;
+
+import com.client.defectticket.domain.model.BatchSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository for BatchSummary entity.
+ * Usage counters are incremented atomically; reads go through the Enhanced Client.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class BatchSummaryRepository {
+
+    private final DynamoDbTable<BatchSummary> batchSummaryTable;
+    private final DynamoDbClient dynamoDbClient;
+
+    /**
+     * Find summary by batch ID.
+     */
+    public Optional<BatchSummary> findById(String batchId) {
+        Key key = Key.builder().partitionValue(batchId).build();
+        return Optional.ofNullable(batchSummaryTable.getItem(key));
+    }
+
+    /**
+     * Atomically add usage deltas to a batch summary (creates it if missing).
+     */
+    public void addUsage(BatchSummary delta) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(batchSummaryTable.tableName())
+                .key(Map.of("batchId", AttributeValue.fromS(delta.getBatchId())))
+                .updateExpression("ADD classifiedCount :classified, llmCalls :llmCalls, "
+                        + "inputTokens :inputTokens, outputTokens :outputTokens, "
+                        + "cacheReadInputTokens :cacheRead, cacheWriteInputTokens :cacheWrite, "
+                        + "totalLlmLatencyMillis :latency, retries :retries, estimatedCostUsd :cost "
+                        + "SET sourceSystem = if_not_exists(sourceSystem, :source), updatedAt = :updatedAt")
+                .expressionAttributeValues(Map.ofEntries(
+                        Map.entry(":classified", number(delta.getClassifiedCount())),
+                        Map.entry(":llmCalls", number(delta.getLlmCalls())),
+                        Map.entry(":inputTokens", number(delta.getInputTokens())),
+                        Map.entry(":outputTokens", number(delta.getOutputTokens())),
+                        Map.entry(":cacheRead", number(delta.getCacheReadInputTokens())),
+                        Map.entry(":cacheWrite", number(delta.getCacheWriteInputTokens())),
+                        Map.entry(":latency", number(delta.getTotalLlmLatencyMillis())),
+                        Map.entry(":retries", number(delta.getRetries())),
+                        Map.entry(":cost", AttributeValue.fromN(Double.toString(delta.getEstimatedCostUsd()))),
+                        Map.entry(":source", AttributeValue.fromS(
+                                delta.getSourceSystem() != null ? delta.getSourceSystem() : "UNKNOWN")),
+                        Map.entry(":updatedAt", AttributeValue.fromS(Instant.now().toString()))))
+                .build();
+
+        dynamoDbClient.updateItem(request);
+        log.debug("Added usage to batch summary {}: {} classifications, {} LLM calls",
+                delta.getBatchId(), delta.getClassifiedCount(), delta.getLlmCalls());
+    }
+
+    private AttributeValue number(Long value) {
+        return AttributeValue.fromN(Long.toString(value != null ? value : 0L));
+    }
+}
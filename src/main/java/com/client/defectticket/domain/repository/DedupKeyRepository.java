@@ -0,0 +1,102 @@
+package com.client.defectticket.domain.repository;
+
+import com.client.defectticket.domain.model.DedupKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.Optional;
+
+/**
+ * Repository for ingestion dedup keys.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class DedupKeyRepository {
+
+    private final DynamoDbTable<DedupKey> dedupKeyTable;
+
+    /**
+     * Store the key unless it already exists.
+     *
+     * @return false if another ingestion claimed the key first; nothing is written
+     */
+    public boolean putIfAbsent(DedupKey key) {
+        try {
+            dedupKeyTable.putItem(PutItemEnhancedRequest.builder(DedupKey.class)
+                    .item(key)
+                    .conditionExpression(Expression.builder()
+                            .expression("attribute_not_exists(#key)")
+                            .putExpressionName("#key", "dedupKey")
+                            .build())
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Dedup key {} already claimed", key.getDedupKey());
+            return false;
+        }
+    }
+
+    /**
+     * Repoint the key at a new ticket if it still points at the expected one.
+     *
+     * @return false if another ingestion repointed the key first; nothing is written
+     */
+    public boolean replaceIf(DedupKey key, String expectedTicketId) {
+        try {
+            dedupKeyTable.putItem(PutItemEnhancedRequest.builder(DedupKey.class)
+                    .item(key)
+                    .conditionExpression(Expression.builder()
+                            .expression("#ticketId = :expected")
+                            .putExpressionName("#ticketId", "ticketId")
+                            .putExpressionValue(":expected", AttributeValue.builder().s(expectedTicketId).build())
+                            .build())
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Dedup key {} repointed concurrently", key.getDedupKey());
+            return false;
+        }
+    }
+
+    /**
+     * Delete the key if it still points at the given ticket.
+     *
+     * @return false if the key is gone or points at another ticket; nothing is deleted
+     */
+    public boolean deleteIf(String dedupKey, String expectedTicketId) {
+        try {
+            dedupKeyTable.deleteItem(DeleteItemEnhancedRequest.builder()
+                    .key(Key.builder().partitionValue(dedupKey).build())
+                    .conditionExpression(Expression.builder()
+                            .expression("#ticketId = :expected")
+                            .putExpressionName("#ticketId", "ticketId")
+                            .putExpressionValue(":expected", AttributeValue.builder().s(expectedTicketId).build())
+                            .build())
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.debug("Dedup key {} no longer points at ticket {}", dedupKey, expectedTicketId);
+            return false;
+        }
+    }
+
+    /**
+     * Strongly consistent read, so a key claimed a moment ago is seen.
+     */
+    public Optional<DedupKey> findById(String dedupKey) {
+        return Optional.ofNullable(dedupKeyTable.getItem(GetItemEnhancedRequest.builder()
+                .key(Key.builder().partitionValue(dedupKey).build())
+                .consistentRead(true)
+                .build()));
+    }
+}
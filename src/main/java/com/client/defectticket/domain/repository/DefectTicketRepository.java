@@ -5,13 +5,26 @@ import com.client.defectticket.domain.model.enums.TicketStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,17 +37,132 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DefectTicketRepository {
 
+    /**
+     * DynamoDB BatchWriteItem limit.
+     */
+    public static final int MAX_BATCH_WRITE_ITEMS = 25;
+
+    private static final int MAX_BATCH_GET_ITEMS = 100;
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 5;
+    private static final long BATCH_WRITE_BACKOFF_MILLIS = 50;
+
     private final DynamoDbTable<DefectTicket> ticketTable;
+    private final DynamoDbEnhancedClient enhancedClient;
 
     /**
      * Save or update a ticket (upsert).
+     * Increments the version so a pending conditional write (saveIfVersion) detects the change.
      */
     public DefectTicket save(DefectTicket ticket) {
+        ticket.setVersion(nextVersion(ticket.getVersion()));
         ticketTable.putItem(ticket);
         log.debug("Saved ticket: {}", ticket.getTicketId());
         return ticket;
     }
 
+    /**
+     * Save the ticket only if the stored version still equals the ticket's
+     * current version (optimistic locking), then increment it.
+     *
+     * @return false if the ticket was modified in the meantime; nothing is written
+     */
+    public boolean saveIfVersion(DefectTicket ticket) {
+        Long expectedVersion = ticket.getVersion();
+        Expression condition = expectedVersion == null
+                ? Expression.builder()
+                        .expression("attribute_not_exists(#version)")
+                        .putExpressionName("#version", "version")
+                        .build()
+                : Expression.builder()
+                        .expression("#version = :expected")
+                        .putExpressionName("#version", "version")
+                        .putExpressionValue(":expected", AttributeValue.fromN(expectedVersion.toString()))
+                        .build();
+
+        ticket.setVersion(nextVersion(expectedVersion));
+        try {
+            ticketTable.putItem(PutItemEnhancedRequest.builder(DefectTicket.class)
+                    .item(ticket)
+                    .conditionExpression(condition)
+                    .build());
+            log.debug("Saved ticket {} at version {}", ticket.getTicketId(), ticket.getVersion());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            ticket.setVersion(expectedVersion);
+            log.info("Conditional save of ticket {} rejected: version {} is stale",
+                    ticket.getTicketId(), expectedVersion);
+            return false;
+        }
+    }
+
+    /**
+     * Save new tickets with BatchWriteItem, up to 25 per request.
+     * Unprocessed items (throttling) are retried with exponential backoff.
+     * Unconditional puts, so only for tickets that are not yet shared.
+     */
+    public void saveAll(List<DefectTicket> tickets) {
+        for (int from = 0; from < tickets.size(); from += MAX_BATCH_WRITE_ITEMS) {
+            List<DefectTicket> pending = tickets.subList(from, Math.min(from + MAX_BATCH_WRITE_ITEMS, tickets.size()));
+            pending.forEach(ticket -> ticket.setVersion(nextVersion(ticket.getVersion())));
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                if (attempt > MAX_BATCH_WRITE_ATTEMPTS) {
+                    throw new IllegalStateException(pending.size() + " tickets still unprocessed after "
+                            + MAX_BATCH_WRITE_ATTEMPTS + " batch write attempts");
+                }
+                if (attempt > 1) {
+                    backoff(attempt);
+                }
+                WriteBatch.Builder<DefectTicket> batch = WriteBatch.builder(DefectTicket.class)
+                        .mappedTableResource(ticketTable);
+                pending.forEach(batch::addPutItem);
+                BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                        .writeBatches(batch.build())
+                        .build());
+                pending = new ArrayList<>(result.unprocessedPutItemsForTable(ticketTable));
+            }
+        }
+        log.debug("Saved {} tickets in batch writes", tickets.size());
+    }
+
+    /**
+     * Delete tickets with BatchWriteItem, up to 25 per request.
+     * Unprocessed items (throttling) are retried with exponential backoff; missing tickets are ignored.
+     */
+    public void deleteAll(List<String> ticketIds) {
+        for (int from = 0; from < ticketIds.size(); from += MAX_BATCH_WRITE_ITEMS) {
+            List<Key> pending = ticketIds.subList(from, Math.min(from + MAX_BATCH_WRITE_ITEMS, ticketIds.size()))
+                    .stream()
+                    .map(ticketId -> Key.builder().partitionValue(ticketId).build())
+                    .toList();
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                if (attempt > MAX_BATCH_WRITE_ATTEMPTS) {
+                    throw new IllegalStateException(pending.size() + " tickets still not deleted after "
+                            + MAX_BATCH_WRITE_ATTEMPTS + " batch write attempts");
+                }
+                if (attempt > 1) {
+                    backoff(attempt);
+                }
+                WriteBatch.Builder<DefectTicket> batch = WriteBatch.builder(DefectTicket.class)
+                        .mappedTableResource(ticketTable);
+                pending.forEach(batch::addDeleteItem);
+                BatchWriteResult result = enhancedClient.batchWriteItem(BatchWriteItemEnhancedRequest.builder()
+                        .writeBatches(batch.build())
+                        .build());
+                pending = new ArrayList<>(result.unprocessedDeleteItemsForTable(ticketTable));
+            }
+        }
+        log.debug("Deleted {} tickets in batch writes", ticketIds.size());
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(BATCH_WRITE_BACKOFF_MILLIS << (attempt - 2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying batch write", e);
+        }
+    }
+
     /**
      * Find ticket by primary key (ticketId).
      */
@@ -43,6 +171,27 @@ public class DefectTicketRepository {
         return Optional.ofNullable(ticketTable.getItem(key));
     }
 
+    /**
+     * Find tickets by ID with BatchGetItem, up to 100 per request; missing tickets are left out.
+     * The result pages also fetch keys DynamoDB left unprocessed.
+     */
+    public List<DefectTicket> findAllById(List<String> ticketIds) {
+        List<String> distinct = ticketIds.stream().distinct().toList();  // BatchGetItem rejects duplicate keys
+        List<DefectTicket> tickets = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_BATCH_GET_ITEMS) {
+            ReadBatch.Builder<DefectTicket> batch = ReadBatch.builder(DefectTicket.class)
+                    .mappedTableResource(ticketTable);
+            distinct.subList(from, Math.min(from + MAX_BATCH_GET_ITEMS, distinct.size()))
+                    .forEach(ticketId -> batch.addGetItem(Key.builder().partitionValue(ticketId).build()));
+            enhancedClient.batchGetItem(BatchGetItemEnhancedRequest.builder()
+                            .readBatches(batch.build())
+                            .build())
+                    .resultsForTable(ticketTable)
+                    .forEach(tickets::add);
+        }
+        return tickets;
+    }
+
     /**
      * Find all tickets in a batch using batch-index GSI.
      */
@@ -79,6 +228,63 @@ public class DefectTicketRepository {
                 .collect(Collectors.toList());
     }
 
+    private static long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+
+    /**
+     * One page of a parallel scan segment, optionally filtered by status.
+     * A page may be empty (all items filtered out) and still have a continuation.
+     *
+     * @param startAfterTicketId continuation from the previous page, or null to start
+     */
+    public TicketPage scanSegment(int segment, int totalSegments, String startAfterTicketId, int limit,
+                                  TicketStatus status) {
+        ScanEnhancedRequest.Builder request = ScanEnhancedRequest.builder()
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .limit(limit);
+        if (startAfterTicketId != null) {
+            request.exclusiveStartKey(Map.of("ticketId", AttributeValue.fromS(startAfterTicketId)));
+        }
+        if (status != null) {
+            request.filterExpression(Expression.builder()
+                    .expression("#status = :status")
+                    .putExpressionName("#status", "status")
+                    .putExpressionValue(":status", AttributeValue.fromS(status.name()))
+                    .build());
+        }
+        return toTicketPage(ticketTable.scan(request.build()).iterator().next(), "ticketId");
+    }
+
+    /**
+     * One page of the tickets in a batch (batch-index GSI).
+     *
+     * @param startAfterTicketId continuation from the previous page, or null to start
+     */
+    public TicketPage findByBatchIdPage(String batchId, String startAfterTicketId, int limit) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(batchId).build()))
+                .limit(limit);
+        if (startAfterTicketId != null) {
+            request.exclusiveStartKey(Map.of(
+                    "batchId", AttributeValue.fromS(batchId),
+                    "ticketId", AttributeValue.fromS(startAfterTicketId)));
+        }
+        return toTicketPage(ticketTable.index("batch-index").query(request.build()).iterator().next(), "ticketId");
+    }
+
+    private TicketPage toTicketPage(Page<DefectTicket> page, String keyName) {
+        Map<String, AttributeValue> lastKey = page.lastEvaluatedKey();
+        String last = lastKey == null || !lastKey.containsKey(keyName) ? null : lastKey.get(keyName).s();
+        return new TicketPage(page.items(), last);
+    }
+
+    /**
+     * A page of tickets and the continuation (null when there are no more pages).
+     */
+    public record TicketPage(List<DefectTicket> tickets, String lastEvaluatedTicketId) {}
+
     /**
      * Delete a ticket by ID.
      */
@@ -0,0 +1,109 @@
+package com.client.defectticket.domain.repository;
+
+import com.client.defectticket.domain.model.LearnedModelChunk;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository for published learned-classifier snapshots.
+ * Chunks are written first, then the pointer is moved to the new version, so
+ * a reader following the pointer never sees a partly written snapshot.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class LearnedModelRepository {
+
+    /**
+     * Chunk payload size, below the 400 KB DynamoDB item limit.
+     */
+    static final int CHUNK_BYTES = 350 * 1024;
+
+    private static final long POINTER_VERSION = 0L;
+    private static final int POINTER_CHUNK = 0;
+    private static final Duration RETENTION = Duration.ofDays(1);  // Readers still loading an old version
+
+    private final DynamoDbTable<LearnedModelChunk> learnedModelTable;
+    private final DynamoDbClient dynamoDbClient;
+
+    /**
+     * Version the pointer names, 0 if nothing was published yet.
+     */
+    public long latestVersion() {
+        Key key = Key.builder().partitionValue(POINTER_VERSION).sortValue(POINTER_CHUNK).build();
+        LearnedModelChunk pointer = learnedModelTable.getItem(key);
+        return pointer != null && pointer.getLatestVersion() != null ? pointer.getLatestVersion() : 0L;
+    }
+
+    /**
+     * Snapshot bytes of a version, empty if the version is incomplete or has expired.
+     */
+    public Optional<byte[]> load(long version) {
+        List<LearnedModelChunk> chunks = learnedModelTable.query(QueryConditional.keyEqualTo(
+                        Key.builder().partitionValue(version).build()))
+                .items().stream().toList();  // Sorted by chunk
+        if (chunks.isEmpty() || chunks.size() != chunks.get(0).getChunks()) {
+            log.warn("Learned model v{} has {} chunks; not loading it", version, chunks.size());
+            return Optional.empty();
+        }
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        chunks.forEach(chunk -> data.writeBytes(chunk.getData().asByteArray()));
+        return Optional.of(data.toByteArray());
+    }
+
+    /**
+     * Write a snapshot and point readers to it.
+     *
+     * @return false if the pointer already names this or a newer version (another trainer published)
+     */
+    public boolean publish(long version, byte[] data) {
+        int chunks = Math.max(1, (data.length + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        long ttl = Instant.now().plus(RETENTION).getEpochSecond();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk * CHUNK_BYTES;
+            learnedModelTable.putItem(LearnedModelChunk.builder()
+                    .version(version)
+                    .chunk(chunk)
+                    .chunks(chunks)
+                    .data(SdkBytes.fromByteArray(
+                            Arrays.copyOfRange(data, from, Math.min(from + CHUNK_BYTES, data.length))))
+                    .ttl(ttl)
+                    .build());
+        }
+
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(learnedModelTable.tableName())
+                .key(Map.of(
+                        "version", AttributeValue.fromN(Long.toString(POINTER_VERSION)),
+                        "chunk", AttributeValue.fromN(Integer.toString(POINTER_CHUNK))))
+                .updateExpression("SET latestVersion = :version")
+                .conditionExpression("attribute_not_exists(latestVersion) OR latestVersion < :version")
+                .expressionAttributeValues(Map.of(":version", AttributeValue.fromN(Long.toString(version))))
+                .build();
+        try {
+            dynamoDbClient.updateItem(request);
+        } catch (ConditionalCheckFailedException e) {
+            log.warn("Learned model v{} not published: pointer already names a newer version", version);
+            return false;
+        }
+        log.debug("Published learned model v{} ({} bytes in {} chunks)", version, data.length, chunks);
+        return true;
+    }
+}
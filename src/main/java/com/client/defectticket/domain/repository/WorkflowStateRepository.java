@@ -5,10 +5,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.util.List;
 import java.util.Optional;
@@ -60,6 +63,23 @@ public class WorkflowStateRepository {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Find the running workflow states at a step (table scan; for startup recovery only).
+     */
+    public List<WorkflowState> findRunningByCurrentStep(String currentStep) {
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .filterExpression(Expression.builder()
+                        .expression("#step = :step AND #status = :running")
+                        .putExpressionName("#step", "currentStep")
+                        .putExpressionName("#status", "status")
+                        .putExpressionValue(":step", AttributeValue.fromS(currentStep))
+                        .putExpressionValue(":running", AttributeValue.fromS("RUNNING"))
+                        .build())
+                .build();
+        return workflowStateTable.scan(request).items().stream()
+                .collect(Collectors.toList());
+    }
+
     /**
      * Check if workflow state exists.
      */
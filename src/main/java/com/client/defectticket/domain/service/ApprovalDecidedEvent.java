@@ -0,0 +1,18 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.Classification;
+
+/**
+ * Published after a human reviewer's decision has been saved.
+ * An approved decision confirms the AI classification and is a labeled
+ * training example; a rejection only says the classification was wrong.
+ *
+ * @param aiRecommendation the reviewed AI classification (null if none was stored)
+ */
+public record ApprovalDecidedEvent(
+    String approvalId,
+    String ticketId,
+    boolean approved,
+    Boolean aiVsHumanDivergence,
+    Classification aiRecommendation
+) {}
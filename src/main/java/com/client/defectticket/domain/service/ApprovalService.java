@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.sfn.SfnClient;
 import software.amazon.awssdk.services.sfn.model.SendTaskFailureRequest;
@@ -24,6 +25,8 @@ import java.util.stream.Collectors;
 /**
  * Service for managing HITL approval workflow.
  * Handles approval decisions and tracks AI vs Human divergence.
+ * Each saved decision is published as an ApprovalDecidedEvent (training data
+ * for the learned classifier).
  */
 @Slf4j
 @Service
@@ -33,6 +36,7 @@ public class ApprovalService {
     private final ApprovalRequestRepository approvalRepository;
     private final SfnClient sfnClient;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${hitl.approval.track-divergence:true}")
     private boolean trackDivergence;
@@ -52,7 +56,8 @@ public class ApprovalService {
 
     /**
      * Process approval decision from human reviewer.
-     * Tracks divergence if enabled and resumes Step Functions workflow.
+     * Tracks divergence if enabled and resumes Step Functions workflow,
+     * unless the approval has no task token (created outside a workflow, e.g. bulk classification).
      */
     public void processDecision(ApprovalDecisionDto decision) {
         ApprovalRequest approval = approvalRepository.findById(decision.getApprovalId())
@@ -61,9 +66,11 @@ public class ApprovalService {
         log.info("Processing approval decision: {} by {}", 
                 approval.getApprovalId(), decision.getReviewerEmail());
 
+        Classification aiClassification = readAiRecommendation(approval);
+
         // Track AI vs Human divergence
         if (trackDivergence) {
-            boolean divergence = calculateDivergence(approval, decision);
+            boolean divergence = calculateDivergence(aiClassification, decision);
             approval.setAiVsHumanDivergence(divergence);
             
             if (divergence) {
@@ -81,8 +88,13 @@ public class ApprovalService {
 
         approvalRepository.save(approval);
 
+        eventPublisher.publishEvent(new ApprovalDecidedEvent(approval.getApprovalId(), approval.getTicketId(),
+                decision.getApproved(), approval.getAiVsHumanDivergence(), aiClassification));
+
         // Resume Step Functions execution (skip in local mode for testing)
-        if (!skipWorkflowCallback) {
+        if (approval.getTaskToken() == null) {
+            log.info("Approval {} was created outside a workflow; nothing to resume", approval.getApprovalId());
+        } else if (!skipWorkflowCallback) {
             resumeStepFunctionsWorkflow(approval, decision.getApproved());
         } else {
             log.warn("Skipping Step Functions workflow callback (local testing mode)");
@@ -96,30 +108,36 @@ public class ApprovalService {
      * Calculate if human decision diverges from AI recommendation.
      * Returns true if human overrides AI decision.
      */
-    private boolean calculateDivergence(ApprovalRequest approval, ApprovalDecisionDto decision) {
-        try {
-            if (approval.getAiRecommendation() == null) {
-                return false;  // No AI recommendation to compare
-            }
-
-            Classification aiClassification = objectMapper.readValue(
-                approval.getAiRecommendation(), Classification.class);
+    private boolean calculateDivergence(Classification aiClassification, ApprovalDecisionDto decision) {
+        if (aiClassification == null) {
+            return false;  // No AI recommendation to compare
+        }
 
-            // If AI required approval and human rejected, that's divergence
-            if (aiClassification.isRequiresHumanApproval() && !decision.getApproved()) {
-                return true;
-            }
+        // If AI required approval and human rejected, that's divergence
+        if (aiClassification.isRequiresHumanApproval() && !decision.getApproved()) {
+            return true;
+        }
 
-            // If AI was confident (no approval needed) but human rejected, that's divergence
-            if (!aiClassification.isRequiresHumanApproval() && !decision.getApproved()) {
-                return true;
-            }
+        // If AI was confident (no approval needed) but human rejected, that's divergence
+        if (!aiClassification.isRequiresHumanApproval() && !decision.getApproved()) {
+            return true;
+        }
 
-            return false;
+        return false;
+    }
 
+    /**
+     * Original AI classification stored with the approval request, or null if absent or unreadable.
+     */
+    private Classification readAiRecommendation(ApprovalRequest approval) {
+        if (approval.getAiRecommendation() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(approval.getAiRecommendation(), Classification.class);
         } catch (Exception e) {
-            log.error("Failed to calculate divergence for approval {}", approval.getApprovalId(), e);
-            return false;
+            log.error("Failed to read AI recommendation for approval {}", approval.getApprovalId(), e);
+            return null;
         }
     }
 
@@ -0,0 +1,307 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.AgreementRateDto;
+import com.client.defectticket.api.dto.AutoApprovalPolicyDto;
+import com.client.defectticket.domain.model.AgreementCounter;
+import com.client.defectticket.domain.model.ApprovalRequest;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.enums.ApprovalStatus;
+import com.client.defectticket.domain.repository.AgreementCounterRepository;
+import com.client.defectticket.domain.repository.ApprovalRequestRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Skips human review for LLM classifications in segments where reviewers
+ * have historically agreed with the AI.
+ *
+ * Agreement is counted per category and per severity from reviewer
+ * decisions (an approval without divergence is an agreement). A low-confidence
+ * LLM classification is auto-approved only if both its category and its
+ * severity have at least min-samples decisions and the Wilson score lower
+ * bound of their agreement rate reaches min-agreement, so a segment with few
+ * decisions cannot qualify on a lucky streak. A random audit-rate share of
+ * eligible tickets still goes to review, which keeps the counters fed.
+ *
+ * Rule-forced reviews (RULES, HYBRID) and degraded results are never
+ * auto-approved. Counters live in the agreement counter table: the process
+ * that saves a decision increments them, and the classifier re-reads the
+ * (small) table every refresh-interval-ms. The approval table is only
+ * scanned by an explicit recount.
+ */
+@Slf4j
+@Service
+public class AutoApprovalPolicy {
+
+    public static final String AUTO_APPROVED = "AUTO_APPROVED";
+    public static final String AUDIT_SAMPLE = "AUDIT_SAMPLE";
+
+    private static final String LLM_SOURCE = "LLM";
+    private static final String CATEGORY = "category";
+    private static final String SEVERITY = "severity";
+
+    private final ApprovalRequestRepository approvalRepository;
+    private final AgreementCounterRepository counterRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double minAgreement;
+    private final long minSamples;
+    private final double z;
+    private final double auditRate;
+    private final long refreshIntervalNanos;
+    private final DoubleSupplier random;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Counters counters;
+    private final LongAdder autoApproved = new LongAdder();
+    private final LongAdder audited = new LongAdder();
+
+    @Autowired
+    public AutoApprovalPolicy(
+            ApprovalRequestRepository approvalRepository,
+            AgreementCounterRepository counterRepository,
+            ObjectMapper objectMapper,
+            @Value("${hitl.auto-approval.enabled:false}") boolean enabled,
+            @Value("${hitl.auto-approval.min-agreement:0.95}") double minAgreement,
+            @Value("${hitl.auto-approval.min-samples:200}") long minSamples,
+            @Value("${hitl.auto-approval.z:1.96}") double z,
+            @Value("${hitl.auto-approval.audit-rate:0.05}") double auditRate,
+            @Value("${hitl.auto-approval.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this(approvalRepository, counterRepository, objectMapper, enabled, minAgreement, minSamples, z, auditRate,
+                refreshIntervalMs, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    AutoApprovalPolicy(ApprovalRequestRepository approvalRepository, AgreementCounterRepository counterRepository,
+                       ObjectMapper objectMapper, boolean enabled, double minAgreement, long minSamples, double z,
+                       double auditRate, long refreshIntervalMs, DoubleSupplier random) {
+        this.approvalRepository = approvalRepository;
+        this.counterRepository = counterRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minAgreement = minAgreement;
+        this.minSamples = minSamples;
+        this.z = z;
+        this.auditRate = auditRate;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+        this.random = random;
+    }
+
+    /**
+     * Clear requiresHumanApproval if the classification's segments qualify.
+     * Sets approvalPolicy to AUTO_APPROVED, or AUDIT_SAMPLE if the ticket was
+     * eligible but drawn for review.
+     */
+    public void apply(Classification classification) {
+        if (!enabled || !classification.isRequiresHumanApproval()
+                || !LLM_SOURCE.equals(classification.getClassificationSource())
+                || classification.getCategory() == null || classification.getSeverity() == null) {
+            return;
+        }
+        Map<String, Agreement> current = agreements();
+        if (!qualifies(current.get(key(CATEGORY, classification.getCategory())))
+                || !qualifies(current.get(key(SEVERITY, classification.getSeverity().name())))) {
+            return;
+        }
+        if (random.getAsDouble() < auditRate) {
+            classification.setApprovalPolicy(AUDIT_SAMPLE);
+            audited.increment();
+            return;
+        }
+        classification.setRequiresHumanApproval(false);
+        classification.setApprovalPolicy(AUTO_APPROVED);
+        autoApproved.increment();
+    }
+
+    /**
+     * Count a reviewer decision as soon as it is saved.
+     * Runs in the process that saved the decision; classifiers see it on their next refresh.
+     */
+    @EventListener
+    public void onApprovalDecided(ApprovalDecidedEvent event) {
+        if (event.aiRecommendation() == null) {
+            return;
+        }
+        boolean agreed = agreed(event.approved(), event.aiVsHumanDivergence());
+        try {
+            for (String segment : segments(event.aiRecommendation())) {
+                counterRepository.increment(segment, agreed);
+            }
+        } catch (Exception e) {
+            log.warn("Agreement counters not updated for approval {}", event.approvalId(), e);
+        }
+    }
+
+    /**
+     * Recount all decided approvals and overwrite the counters.
+     * Seeds the counter table from decisions saved before it existed.
+     *
+     * @return number of segments written
+     */
+    public int recount() {
+        Map<String, long[]> recounted = new HashMap<>();
+        for (ApprovalStatus status : List.of(ApprovalStatus.APPROVED, ApprovalStatus.REJECTED)) {
+            for (ApprovalRequest approval : approvalRepository.findByStatus(status)) {
+                Classification recommendation = readAiRecommendation(approval);
+                if (recommendation == null) {
+                    continue;
+                }
+                boolean agreed = agreed(status == ApprovalStatus.APPROVED, approval.getAiVsHumanDivergence());
+                for (String segment : segments(recommendation)) {
+                    long[] counts = recounted.computeIfAbsent(segment, key -> new long[2]);
+                    counts[0]++;
+                    if (agreed) {
+                        counts[1]++;
+                    }
+                }
+            }
+        }
+        Instant now = Instant.now();
+        recounted.forEach((segment, counts) -> counterRepository.save(AgreementCounter.builder()
+                .segment(segment)
+                .decisions(counts[0])
+                .agreed(counts[1])
+                .updatedAt(now)
+                .build()));
+        counters = null;
+        log.info("Auto-approval agreement counters recounted: {} segments", recounted.size());
+        return recounted.size();
+    }
+
+    public AutoApprovalPolicyDto snapshot() {
+        List<AgreementRateDto> segments = agreements().entrySet().stream()
+                .map(entry -> {
+                    long decisions = entry.getValue().decisions();
+                    long agreed = entry.getValue().agreed();
+                    double lowerBound = wilsonLowerBound(agreed, decisions, z);
+                    return AgreementRateDto.builder()
+                            .segment(entry.getKey())
+                            .decisions(decisions)
+                            .agreed(agreed)
+                            .agreementRate(decisions > 0 ? (double) agreed / decisions : 0.0)
+                            .lowerBound(lowerBound)
+                            .eligible(decisions >= minSamples && lowerBound >= minAgreement)
+                            .build();
+                })
+                .sorted(Comparator.comparingDouble(AgreementRateDto::getLowerBound).reversed())
+                .toList();
+        return AutoApprovalPolicyDto.builder()
+                .enabled(enabled)
+                .minAgreement(minAgreement)
+                .minSamples(minSamples)
+                .auditRate(auditRate)
+                .autoApproved(autoApproved.sum())
+                .auditSamples(audited.sum())
+                .segments(segments)
+                .build();
+    }
+
+    /**
+     * Lower bound of the Wilson score interval for agreed/decisions at the given z.
+     */
+    static double wilsonLowerBound(long agreed, long decisions, double z) {
+        if (decisions == 0) {
+            return 0.0;
+        }
+        double p = (double) agreed / decisions;
+        double z2 = z * z;
+        double center = p + z2 / (2 * decisions);
+        double margin = z * Math.sqrt(p * (1 - p) / decisions + z2 / (4.0 * decisions * decisions));
+        return (center - margin) / (1 + z2 / decisions);
+    }
+
+    private boolean qualifies(Agreement agreement) {
+        if (agreement == null) {
+            return false;
+        }
+        return agreement.decisions() >= minSamples
+                && wilsonLowerBound(agreement.agreed(), agreement.decisions(), z) >= minAgreement;
+    }
+
+    /**
+     * Cached counters, re-read from the counter table once refresh-interval-ms has passed.
+     * A failed read keeps the previous counters until the next interval.
+     */
+    private Map<String, Agreement> agreements() {
+        Counters current = counters;
+        if (current != null && System.nanoTime() - current.loadedAtNanos() < refreshIntervalNanos) {
+            return current.segments();
+        }
+        refreshLock.lock();
+        try {
+            current = counters;
+            if (current == null || System.nanoTime() - current.loadedAtNanos() >= refreshIntervalNanos) {
+                current = load(current);
+                counters = current;
+            }
+            return current.segments();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Counters load(Counters previous) {
+        try {
+            Map<String, Agreement> loaded = new HashMap<>();
+            for (AgreementCounter counter : counterRepository.findAll()) {
+                loaded.put(counter.getSegment(), new Agreement(
+                        counter.getDecisions() != null ? counter.getDecisions() : 0L,
+                        counter.getAgreed() != null ? counter.getAgreed() : 0L));
+            }
+            return new Counters(Map.copyOf(loaded), System.nanoTime());
+        } catch (Exception e) {
+            log.warn("Agreement counters could not be read; keeping the previous counters", e);
+            return new Counters(previous != null ? previous.segments() : Map.of(), System.nanoTime());
+        }
+    }
+
+    private static boolean agreed(boolean approved, Boolean divergence) {
+        return divergence != null ? !divergence : approved;
+    }
+
+    private static List<String> segments(Classification recommendation) {
+        List<String> segments = new ArrayList<>(2);
+        if (recommendation.getCategory() != null) {
+            segments.add(key(CATEGORY, recommendation.getCategory()));
+        }
+        if (recommendation.getSeverity() != null) {
+            segments.add(key(SEVERITY, recommendation.getSeverity().name()));
+        }
+        return segments;
+    }
+
+    private static String key(String dimension, String value) {
+        return dimension + ":" + value;
+    }
+
+    private Classification readAiRecommendation(ApprovalRequest approval) {
+        if (approval.getAiRecommendation() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(approval.getAiRecommendation(), Classification.class);
+        } catch (Exception e) {
+            log.debug("Skipping unreadable AI recommendation for approval {}", approval.getApprovalId());
+            return null;
+        }
+    }
+
+    private record Agreement(long decisions, long agreed) {}
+
+    private record Counters(Map<String, Agreement> segments, long loadedAtNanos) {}
+}
@@ -0,0 +1,59 @@
+package com.client.defectticket.domain.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * Order-independent checksum over the ticket IDs of a batch.
+ *
+ * Sums the first 64 bits of each ID's SHA-256, so the producer can compute
+ * it while streaming tickets and the consumer can recompute it from a batch
+ * query in any order. Not thread-safe.
+ */
+public final class BatchChecksum {
+
+    private final MessageDigest digest;
+    private long sum;
+    private int count;
+
+    public BatchChecksum() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public BatchChecksum add(String ticketId) {
+        byte[] hash = digest.digest(ticketId.getBytes(StandardCharsets.UTF_8));
+        sum += ByteBuffer.wrap(hash, 0, Long.BYTES).getLong();
+        count++;
+        return this;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Hex value of the checksum (16 characters).
+     */
+    public String value() {
+        return HexFormat.of().toHexDigits(sum);
+    }
+
+    /**
+     * Checksum of the union of disjoint batches: the checksum over all their ticket IDs.
+     */
+    public static String combine(Collection<String> checksums) {
+        long combined = 0;
+        for (String checksum : checksums) {
+            combined += HexFormat.fromHexDigitsToLong(checksum);
+        }
+        return HexFormat.of().toHexDigits(combined);
+    }
+}
@@ -0,0 +1,217 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.BatchClassificationDto;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.ApprovalGate;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ApprovalCreationRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local (non-Step Functions) batch classification.
+ *
+ * Each ticket runs on its own virtual thread: load → classify → persist →
+ * approval request, with per-ticket failure isolation. Fan-out is bounded
+ * by two permit pools so a large batch neither floods Bedrock nor exhausts
+ * DynamoDB capacity; a ticket holds at most one permit at a time.
+ *
+ * Async runs are tracked in memory by job id until job-retention-minutes
+ * after completion.
+ */
+@Slf4j
+@Service
+public class BatchClassificationService {
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    private final ClassificationHandler classificationHandler;
+    private final ApprovalRequestHandler approvalRequestHandler;
+    private final DefectTicketRepository ticketRepository;
+    private final Semaphore llmPermits;
+    private final Semaphore dynamoDbPermits;
+    private final Duration jobRetention;
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService asyncJobs = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchClassificationService(
+            ClassificationHandler classificationHandler,
+            ApprovalRequestHandler approvalRequestHandler,
+            DefectTicketRepository ticketRepository,
+            @Value("${classification.batch.llm-permits:8}") int llmPermits,
+            @Value("${classification.batch.dynamodb-permits:32}") int dynamoDbPermits,
+            @Value("${classification.batch.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.classificationHandler = classificationHandler;
+        this.approvalRequestHandler = approvalRequestHandler;
+        this.ticketRepository = ticketRepository;
+        this.llmPermits = new Semaphore(llmPermits, true);
+        this.dynamoDbPermits = new Semaphore(dynamoDbPermits, true);
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+    }
+
+    /**
+     * Classify all tickets in a batch and wait for the result.
+     */
+    public BatchClassificationDto classifyBatch(String batchId) {
+        List<String> ticketIds = findTicketIds(batchId);
+        BatchJob job = new BatchJob(batchId, ticketIds.size());
+        run(job, ticketIds);
+        return job.toDto();
+    }
+
+    /**
+     * Start classifying a batch in the background.
+     *
+     * @return the job in RUNNING state; poll {@link #getJob(String)} for progress
+     */
+    public BatchClassificationDto submitBatch(String batchId) {
+        List<String> ticketIds = findTicketIds(batchId);
+        evictExpiredJobs();
+        BatchJob job = new BatchJob(batchId, ticketIds.size());
+        jobs.put(job.jobId, job);
+        asyncJobs.submit(() -> run(job, ticketIds));
+        log.info("Batch classification job {} submitted for batch {} ({} tickets)", job.jobId, batchId, ticketIds.size());
+        return job.toDto();
+    }
+
+    public Optional<BatchClassificationDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(BatchJob::toDto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncJobs.shutdown();
+    }
+
+    private List<String> findTicketIds(String batchId) {
+        List<DefectTicket> tickets = withPermit(dynamoDbPermits, () -> ticketRepository.findByBatchId(batchId));
+        if (tickets.isEmpty()) {
+            throw new IllegalArgumentException("Batch not found or has no tickets: " + batchId);
+        }
+        return tickets.stream().map(DefectTicket::getTicketId).toList();
+    }
+
+    private void run(BatchJob job, List<String> ticketIds) {
+        // Closing the executor waits for every ticket task
+        try (ExecutorService tickets = Executors.newVirtualThreadPerTaskExecutor()) {
+            ticketIds.forEach(ticketId -> tickets.submit(() -> classifyTicket(job, ticketId)));
+        }
+        job.completedAt = Instant.now();
+        log.info("Batch {} classification completed in {} ms: {} classified, {} approvals, {} failed",
+                job.batchId, job.durationMillis(), job.classified.get(), job.approvalsCreated.get(), job.failed.get());
+    }
+
+    private void classifyTicket(BatchJob job, String ticketId) {
+        try {
+            DefectTicket ticket = withPermit(dynamoDbPermits, () -> classificationHandler.load(ticketId));
+            Classification classification = withPermit(llmPermits, () -> classificationHandler.classify(ticket));
+            withPermit(dynamoDbPermits, () -> {
+                classificationHandler.persist(ticket, classification, 0);
+                return null;
+            });
+            job.classified.incrementAndGet();
+
+            if (classification.isRequiresHumanApproval()) {
+                ApprovalCreationRequest approvalRequest = ApprovalCreationRequest.builder()
+                        .ticketId(ticketId)
+                        .gate(ApprovalGate.CLASSIFICATION_REVIEW)
+                        .taskToken("local-test-token-" + System.currentTimeMillis())
+                        .build();
+                withPermit(dynamoDbPermits, () -> approvalRequestHandler.handle(approvalRequest));
+                job.approvalsCreated.incrementAndGet();
+                log.debug("Created approval request for ticket: {}", ticketId);
+            }
+        } catch (Exception e) {
+            job.failed.incrementAndGet();
+            if (job.failures.size() < MAX_REPORTED_FAILURES) {
+                job.failures.put(ticketId, String.valueOf(e.getMessage()));
+            }
+            log.error("Failed to classify ticket: {}", ticketId, e);
+        }
+    }
+
+    private static <T> T withPermit(Semaphore permits, Callable<T> task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for permit", e);
+        }
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    private static final class BatchJob {
+        private final String jobId = UUID.randomUUID().toString();
+        private final String batchId;
+        private final int totalTickets;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger classified = new AtomicInteger();
+        private final AtomicInteger approvalsCreated = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Map<String, String> failures = new ConcurrentHashMap<>();
+        private volatile Instant completedAt;
+
+        private BatchJob(String batchId, int totalTickets) {
+            this.batchId = batchId;
+            this.totalTickets = totalTickets;
+        }
+
+        private long durationMillis() {
+            Instant end = completedAt != null ? completedAt : Instant.now();
+            return Duration.between(startedAt, end).toMillis();
+        }
+
+        private BatchClassificationDto toDto() {
+            boolean completed = completedAt != null;
+            return BatchClassificationDto.builder()
+                    .jobId(jobId)
+                    .batchId(batchId)
+                    .status(completed ? "COMPLETED" : "RUNNING")
+                    .totalTickets(totalTickets)
+                    .classified(classified.get())
+                    .approvalsCreated(approvalsCreated.get())
+                    .failed(failed.get())
+                    .failures(Map.copyOf(failures))
+                    .message(completed
+                            ? String.format("Batch classification completed: %d classified, %d approvals created",
+                                    classified.get(), approvalsCreated.get())
+                            : String.format("Batch classification running: %d of %d tickets processed",
+                                    classified.get() + failed.get(), totalTickets))
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .durationMillis(durationMillis())
+                    .build();
+        }
+    }
+}
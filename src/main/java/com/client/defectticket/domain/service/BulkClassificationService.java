@@ -0,0 +1,511 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.BulkClassificationJobDto;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.LlmUsage;
+import com.client.defectticket.domain.model.WorkflowState;
+import com.client.defectticket.domain.model.enums.ApprovalGate;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.repository.WorkflowStateRepository;
+import com.client.defectticket.lambda.classifier.BatchInferenceClient;
+import com.client.defectticket.lambda.classifier.BatchInferenceStatus;
+import com.client.defectticket.lambda.classifier.ClassificationPrompt;
+import com.client.defectticket.lambda.classifier.LenientOutputParser;
+import com.client.defectticket.lambda.classifier.PromptBuilder;
+import com.client.defectticket.lambda.classifier.SpringAiClassificationService;
+import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ApprovalCreationRequest;
+import com.client.defectticket.lambda.pipeline.ClassificationContext;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline bulk classification through batch inference, for backlog imports
+ * where per-ticket on-demand calls are the slowest and most expensive option.
+ *
+ * 1. In the background, pending (NEW) tickets of the batch run through the
+ *    local pipeline stages; tickets those finalize are stored right away.
+ * 2. The rest are written as JSONL records (same prompt as on-demand calls)
+ *    and submitted through BatchInferenceClient.
+ * 3. A scheduled poller waits for the job, then streams the output file line
+ *    by line into DefectTicket.classification, combined with rule results.
+ * 4. Records that failed, could not be parsed or are missing from the output
+ *    fall back to on-demand classification.
+ *
+ * Job progress is stored in WorkflowState (checkpointData holds the counters).
+ * At startup, jobs still preparing their input are prepared again (only
+ * tickets still NEW are picked up), and jobs waiting on batch inference or
+ * interrupted while applying results are polled again, so a restart does not
+ * strand a backlog import. Applying results is repeatable: the records to
+ * apply are the batch's tickets still NEW, read from the ticket table rather
+ * than from the local input file, and only NEW tickets are written.
+ */
+@Slf4j
+@Service
+public class BulkClassificationService {
+
+    static final String STEP_PREPARE_INPUT = "PREPARE_INPUT";
+    static final String STEP_BATCH_INFERENCE = "BATCH_INFERENCE";
+    static final String STEP_APPLY_RESULTS = "APPLY_RESULTS";
+    static final String STEP_DONE = "DONE";
+
+    private static final String ANTHROPIC_VERSION = "bedrock-2023-05-31";
+    private static final String DECISION_STAGE = "LLM_BATCH";
+
+    private static final String INFERENCE_JOB_ID = "inferenceJobId";
+    private static final String TOTAL = "totalTickets";
+    private static final String CLASSIFIED_LOCALLY = "classifiedLocally";
+    private static final String SUBMITTED = "submitted";
+    private static final String CLASSIFIED_FROM_BATCH = "classifiedFromBatch";
+    private static final String FALLBACK = "fallbackOnDemand";
+    private static final String APPROVALS = "approvalsCreated";
+    private static final String FAILED = "failed";
+
+    private final DefectTicketRepository ticketRepository;
+    private final WorkflowStateRepository workflowStateRepository;
+    private final ClassificationHandler classificationHandler;
+    private final ClassificationPipeline classificationPipeline;
+    private final ApprovalRequestHandler approvalRequestHandler;
+    private final RuleEvaluationService ruleEvaluator;
+    private final PromptBuilder promptBuilder;
+    private final LenientOutputParser outputParser;
+    private final BatchInferenceClient inferenceClient;
+    private final ObjectMapper objectMapper;
+    private final Path workDir;
+    private final int maxTokens;
+    private final double confidenceThreshold;
+    private final String modelId;
+    private final Executor preparation;
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BulkClassificationService(
+            DefectTicketRepository ticketRepository,
+            WorkflowStateRepository workflowStateRepository,
+            ClassificationHandler classificationHandler,
+            ClassificationPipeline classificationPipeline,
+            ApprovalRequestHandler approvalRequestHandler,
+            RuleEvaluationService ruleEvaluator,
+            PromptBuilder promptBuilder,
+            LenientOutputParser outputParser,
+            BatchInferenceClient inferenceClient,
+            ObjectMapper objectMapper,
+            @Value("${classification.bulk.work-dir:${java.io.tmpdir}/bulk-classification}") String workDir,
+            @Value("${spring.ai.bedrock.anthropic.chat.options.max-tokens:2048}") int maxTokens,
+            @Value("${llm.confidence-threshold}") double confidenceThreshold,
+            @Value("${llm.model-id:unknown}") String modelId) {
+        this(ticketRepository, workflowStateRepository, classificationHandler, classificationPipeline,
+                approvalRequestHandler, ruleEvaluator, promptBuilder, outputParser, inferenceClient, objectMapper,
+                workDir, maxTokens, confidenceThreshold, modelId, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    BulkClassificationService(
+            DefectTicketRepository ticketRepository,
+            WorkflowStateRepository workflowStateRepository,
+            ClassificationHandler classificationHandler,
+            ClassificationPipeline classificationPipeline,
+            ApprovalRequestHandler approvalRequestHandler,
+            RuleEvaluationService ruleEvaluator,
+            PromptBuilder promptBuilder,
+            LenientOutputParser outputParser,
+            BatchInferenceClient inferenceClient,
+            ObjectMapper objectMapper,
+            String workDir,
+            int maxTokens,
+            double confidenceThreshold,
+            String modelId,
+            Executor preparation) {
+        this.ticketRepository = ticketRepository;
+        this.workflowStateRepository = workflowStateRepository;
+        this.classificationHandler = classificationHandler;
+        this.classificationPipeline = classificationPipeline;
+        this.approvalRequestHandler = approvalRequestHandler;
+        this.ruleEvaluator = ruleEvaluator;
+        this.promptBuilder = promptBuilder;
+        this.outputParser = outputParser;
+        this.inferenceClient = inferenceClient;
+        this.objectMapper = objectMapper;
+        this.workDir = Path.of(workDir);
+        this.maxTokens = maxTokens;
+        this.confidenceThreshold = confidenceThreshold;
+        this.modelId = modelId;
+        this.preparation = preparation;
+    }
+
+    /**
+     * Start a job in the background: classify pending tickets locally where possible
+     * and submit the rest as a batch inference job.
+     */
+    public BulkClassificationJobDto start(String batchId) {
+        if (ticketRepository.findByBatchIdPage(batchId, null, 1).tickets().isEmpty()) {
+            throw new IllegalArgumentException("Batch not found: " + batchId);
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        WorkflowState state = WorkflowState.builder()
+                .executionId(jobId)
+                .batchId(batchId)
+                .currentStep(STEP_PREPARE_INPUT)
+                .status("RUNNING")
+                .checkpointData(new HashMap<>(Map.of(TOTAL, "0")))
+                .startedAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+        workflowStateRepository.save(state);
+        preparation.execute(() -> prepare(state));
+
+        log.info("Bulk classification job {} started for batch {}", jobId, batchId);
+        return toDto(state);
+    }
+
+    /**
+     * Re-register jobs interrupted by a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverJobs() {
+        for (WorkflowState state : workflowStateRepository.findRunningByCurrentStep(STEP_PREPARE_INPUT)) {
+            log.info("Bulk classification job {} was preparing its input; preparing again", state.getExecutionId());
+            preparation.execute(() -> prepare(state));
+        }
+        // Jobs interrupted while applying results are polled again and re-apply them
+        for (String step : List.of(STEP_BATCH_INFERENCE, STEP_APPLY_RESULTS)) {
+            for (WorkflowState state : workflowStateRepository.findRunningByCurrentStep(step)) {
+                if (state.getCheckpointData() != null && state.getCheckpointData().containsKey(INFERENCE_JOB_ID)) {
+                    activeJobs.add(state.getExecutionId());
+                }
+            }
+        }
+        if (!activeJobs.isEmpty()) {
+            log.info("Recovered {} bulk classification jobs waiting on or applying batch inference",
+                    activeJobs.size());
+        }
+    }
+
+    private void prepare(WorkflowState state) {
+        String batchId = state.getBatchId();
+        try {
+            List<DefectTicket> pending = ticketRepository.findByBatchId(batchId).stream()
+                    .filter(ticket -> ticket.getStatus() == TicketStatus.NEW)
+                    .toList();
+            set(state, TOTAL, pending.size());
+
+            Path inputFile = workDir.resolve(state.getExecutionId() + ".jsonl");
+            int classifiedLocally = 0;
+            int submitted = 0;
+            Files.createDirectories(workDir);
+            try (BufferedWriter writer = Files.newBufferedWriter(inputFile, StandardCharsets.UTF_8)) {
+                for (DefectTicket ticket : pending) {
+                    Optional<Classification> local = classificationPipeline.classifyLocally(ticket, new ClassificationContext());
+                    if (local.isPresent()) {
+                        classificationHandler.persist(ticket, local.get(), 0);
+                        requestApprovalIfNeeded(ticket.getTicketId(), local.get(), state);
+                        classifiedLocally++;
+                        continue;
+                    }
+                    writer.write(objectMapper.writeValueAsString(record(ticket)));
+                    writer.newLine();
+                    submitted++;
+                }
+            }
+
+            set(state, CLASSIFIED_LOCALLY, classifiedLocally);
+            set(state, SUBMITTED, submitted);
+            if (submitted == 0) {
+                complete(state, "COMPLETED");
+            } else {
+                state.getCheckpointData().put(INFERENCE_JOB_ID, inferenceClient.submit("bulk-" + batchId, inputFile));
+                state.setCurrentStep(STEP_BATCH_INFERENCE);
+                state.setUpdatedAt(Instant.now());
+            }
+            workflowStateRepository.save(state);
+            if (submitted > 0) {
+                activeJobs.add(state.getExecutionId());
+            }
+
+            log.info("Bulk classification job {} for batch {}: {} pending, {} classified locally, {} submitted",
+                    state.getExecutionId(), batchId, pending.size(), classifiedLocally, submitted);
+        } catch (Exception e) {
+            log.error("Preparing bulk classification job {} for batch {} failed", state.getExecutionId(), batchId, e);
+            complete(state, "FAILED");
+            workflowStateRepository.save(state);
+        }
+    }
+
+    public Optional<BulkClassificationJobDto> getJob(String jobId) {
+        return workflowStateRepository.findById(jobId)
+                .filter(state -> state.getCheckpointData() != null && state.getCheckpointData().containsKey(TOTAL))
+                .map(this::toDto);
+    }
+
+    /**
+     * Check running jobs and apply the results of completed ones.
+     */
+    @Scheduled(fixedDelayString = "${classification.bulk.poll-interval-ms:30000}")
+    public void pollJobs() {
+        for (String jobId : activeJobs) {
+            try {
+                poll(jobId);
+            } catch (Exception e) {
+                log.error("Polling bulk classification job {} failed", jobId, e);
+            }
+        }
+    }
+
+    void poll(String jobId) {
+        WorkflowState state = workflowStateRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Bulk classification job not found: " + jobId));
+        String inferenceJobId = state.getCheckpointData().get(INFERENCE_JOB_ID);
+        BatchInferenceStatus status = statusOf(inferenceJobId);
+
+        if (status == BatchInferenceStatus.SUBMITTED || status == BatchInferenceStatus.IN_PROGRESS) {
+            return;
+        }
+
+        state.setCurrentStep(STEP_APPLY_RESULTS);
+        state.setUpdatedAt(Instant.now());
+        workflowStateRepository.save(state);
+
+        Set<String> unresolved = applyResults(state, status == BatchInferenceStatus.COMPLETED
+                ? inferenceClient.outputFile(inferenceJobId) : null);
+        if (!unresolved.isEmpty()) {
+            log.warn("Bulk classification job {}: {} records without a usable batch result; classifying on demand",
+                    jobId, unresolved.size());
+            unresolved.forEach(ticketId -> classifyOnDemand(ticketId, state));
+        }
+        complete(state, "COMPLETED");
+        workflowStateRepository.save(state);
+        // Only now: if applying failed, the next poll applies again
+        activeJobs.remove(jobId);
+
+        log.info("Bulk classification job {} completed: {} from batch inference, {} on demand, {} failed",
+                jobId, get(state, CLASSIFIED_FROM_BATCH), get(state, FALLBACK), get(state, FAILED));
+    }
+
+    /**
+     * Job status; a job the client no longer knows (e.g. lost with a restart) counts as failed,
+     * so its records fall back to on-demand classification.
+     */
+    private BatchInferenceStatus statusOf(String inferenceJobId) {
+        try {
+            return inferenceClient.status(inferenceJobId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Batch inference job {} is unknown: {}", inferenceJobId, e.getMessage());
+            return BatchInferenceStatus.FAILED;
+        }
+    }
+
+    /**
+     * Stream the output file into the tickets.
+     *
+     * @return ids of submitted tickets that still need classifying
+     */
+    private Set<String> applyResults(WorkflowState state, Path outputFile) {
+        Set<String> unresolved = pendingTicketIds(state);
+        if (outputFile == null) {
+            log.error("Batch inference job {} failed; classifying all {} records on demand",
+                    state.getCheckpointData().get(INFERENCE_JOB_ID), unresolved.size());
+            return unresolved;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(outputFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode record = objectMapper.readTree(line);
+                String ticketId = record.path(BatchInferenceClient.RECORD_ID).asText();
+                if (!unresolved.contains(ticketId) || record.has(BatchInferenceClient.ERROR)) {
+                    continue;  // Unknown or failed record; failures fall back below
+                }
+                try {
+                    applyRecord(ticketId, record.path(BatchInferenceClient.MODEL_OUTPUT), state);
+                    unresolved.remove(ticketId);
+                } catch (Exception e) {
+                    log.warn("Batch result for ticket {} not applied: {}", ticketId, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read batch inference output {}", outputFile, e);
+        }
+        return unresolved;
+    }
+
+    private void applyRecord(String ticketId, JsonNode modelOutput, WorkflowState state) {
+        DefectTicket ticket = classificationHandler.load(ticketId);
+        if (ticket.getStatus() != TicketStatus.NEW) {
+            log.info("Ticket {} was classified while the batch job ran; batch result ignored", ticketId);
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        modelOutput.path("content").forEach(content -> text.append(content.path("text").asText("")));
+        SpringAiClassificationService.ClassificationOutput output = outputParser.parse(text.toString());
+
+        Classification classification = Classification.builder()
+                .category(output.category())
+                .subcategory(output.subcategory())
+                .severity(Severity.valueOf(output.severity()))
+                .priority(output.priority())
+                .confidenceScore(output.confidenceScore())
+                .reasoning(output.reasoning())
+                .classificationSource("LLM")
+                .decisionStage(DECISION_STAGE)
+                .requiresHumanApproval(output.confidenceScore() < confidenceThreshold)
+                .llmUsage(usageOf(modelOutput))
+                .build();
+        Classification combined = ruleEvaluator.evaluateRules(ticket)
+                .map(rule -> ruleEvaluator.combineWithLlmResult(classification, rule))
+                .orElse(classification);
+
+        classificationHandler.persist(ticket, combined, 0);
+        increment(state, CLASSIFIED_FROM_BATCH);
+        requestApprovalIfNeeded(ticketId, combined, state);
+    }
+
+    private void classifyOnDemand(String ticketId, WorkflowState state) {
+        try {
+            DefectTicket ticket = classificationHandler.load(ticketId);
+            if (ticket.getStatus() != TicketStatus.NEW) {
+                return;
+            }
+            Classification classification = classificationHandler.classify(ticket);
+            classificationHandler.persist(ticket, classification, 0);
+            increment(state, FALLBACK);
+            requestApprovalIfNeeded(ticketId, classification, state);
+        } catch (Exception e) {
+            increment(state, FAILED);
+            log.error("On-demand fallback failed for ticket {}", ticketId, e);
+        }
+    }
+
+    private void requestApprovalIfNeeded(String ticketId, Classification classification, WorkflowState state) {
+        if (!classification.isRequiresHumanApproval()) {
+            return;
+        }
+        // No task token: no workflow execution waits for the decision
+        approvalRequestHandler.handle(ApprovalCreationRequest.builder()
+                .ticketId(ticketId)
+                .gate(ApprovalGate.CLASSIFICATION_REVIEW)
+                .build());
+        increment(state, APPROVALS);
+    }
+
+    /**
+     * One batch inference record: the same system prefix and user message as an on-demand call.
+     */
+    private ObjectNode record(DefectTicket ticket) {
+        ClassificationPrompt prompt = promptBuilder.build(ticket);
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put(BatchInferenceClient.RECORD_ID, ticket.getTicketId());
+        ObjectNode modelInput = record.putObject(BatchInferenceClient.MODEL_INPUT);
+        modelInput.put("anthropic_version", ANTHROPIC_VERSION);
+        modelInput.put("max_tokens", maxTokens);
+        modelInput.put("system", prompt.getSystemText());
+        modelInput.putArray("messages").addObject()
+                .put("role", "user")
+                .putArray("content").addObject()
+                .put("type", "text")
+                .put("text", prompt.getUserText());
+        return record;
+    }
+
+    private LlmUsage usageOf(JsonNode modelOutput) {
+        JsonNode usage = modelOutput.path("usage");
+        return LlmUsage.builder()
+                .modelId(modelOutput.path("model").asText(modelId))
+                .inputTokens(usage.path("input_tokens").asInt(0))
+                .outputTokens(usage.path("output_tokens").asInt(0))
+                .cacheReadInputTokens(usage.path("cache_read_input_tokens").asInt(0))
+                .cacheWriteInputTokens(usage.path("cache_creation_input_tokens").asInt(0))
+                .latencyMillis(0L)  // Not meaningful per record in a batch job
+                .retryCount(0)
+                .estimated(!usage.has("input_tokens"))
+                .build();
+    }
+
+    /**
+     * Submitted tickets not yet classified: the batch's tickets still NEW. Tickets
+     * finalized locally were stored during preparation, and results already applied
+     * before an interruption are not applied twice.
+     */
+    private Set<String> pendingTicketIds(WorkflowState state) {
+        Set<String> ticketIds = new HashSet<>();
+        for (DefectTicket ticket : ticketRepository.findByBatchId(state.getBatchId())) {
+            if (ticket.getStatus() == TicketStatus.NEW) {
+                ticketIds.add(ticket.getTicketId());
+            }
+        }
+        return ticketIds;
+    }
+
+    private void complete(WorkflowState state, String status) {
+        state.setStatus(status);
+        state.setCurrentStep(STEP_DONE);
+        state.setCompletedAt(Instant.now());
+        state.setUpdatedAt(Instant.now());
+    }
+
+    private static int get(WorkflowState state, String key) {
+        return Integer.parseInt(state.getCheckpointData().getOrDefault(key, "0"));
+    }
+
+    private static void set(WorkflowState state, String key, int value) {
+        state.getCheckpointData().put(key, String.valueOf(value));
+    }
+
+    private static void increment(WorkflowState state, String key) {
+        set(state, key, get(state, key) + 1);
+    }
+
+    private BulkClassificationJobDto toDto(WorkflowState state) {
+        return BulkClassificationJobDto.builder()
+                .jobId(state.getExecutionId())
+                .batchId(state.getBatchId())
+                .status(state.getStatus())
+                .currentStep(state.getCurrentStep())
+                .inferenceJobId(state.getCheckpointData().get(INFERENCE_JOB_ID))
+                .totalTickets(get(state, TOTAL))
+                .classifiedLocally(get(state, CLASSIFIED_LOCALLY))
+                .submitted(get(state, SUBMITTED))
+                .classifiedFromBatch(get(state, CLASSIFIED_FROM_BATCH))
+                .fallbackOnDemand(get(state, FALLBACK))
+                .approvalsCreated(get(state, APPROVALS))
+                .failed(get(state, FAILED))
+                .startedAt(state.getStartedAt())
+                .completedAt(state.getCompletedAt())
+                .build();
+    }
+}
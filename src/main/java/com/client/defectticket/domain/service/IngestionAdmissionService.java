@@ -0,0 +1,295 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.IngestionAdmissionDto;
+import com.client.defectticket.config.aws.DynamoDbWriteThrottleMonitor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for batch ingestion.
+ *
+ * Ingestion is refused with 429 and a Retry-After instead of growing an
+ * unbounded backlog when:
+ * - the ingestion queue holds more than max-queue-depth messages; Retry-After
+ *   is the time to drain the excess at the observed drain rate
+ * - more than max-write-throttle-rate of recent DynamoDB writes were throttled
+ * - the sourceSystem has used up its quota (token bucket in tickets per second)
+ *
+ * Queue depth and throttle rate are sampled periodically, so admission is a
+ * few comparisons per request. A source bucket may go into debt: a batch is
+ * admitted while the balance is positive, even if larger than the balance,
+ * and the source is refused until the debt is repaid. Large batches are never
+ * starved by a bucket smaller than the batch.
+ */
+@Slf4j
+@Service
+public class IngestionAdmissionService {
+
+    private static final String UNKNOWN_SOURCE = "UNKNOWN";
+
+    private final SqsClient sqsClient;
+    private final DynamoDbWriteThrottleMonitor throttleMonitor;
+    private final String queueUrl;
+    private final boolean enabled;
+    private final long maxQueueDepth;
+    private final double maxWriteThrottleRate;
+    private final long minWriteSamples;
+    private final long retryAfterSeconds;
+    private final long maxRetryAfterSeconds;
+    private final double defaultTicketsPerSecond;
+    private final Map<String, Double> sourceQuotas;
+    private final double burstSeconds;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+
+    private volatile long queueDepth;
+    private volatile double drainPerSecond;
+    private volatile double writeThrottleRate;
+    private long lastDepthSampleNanos;
+
+    @Autowired
+    public IngestionAdmissionService(
+            SqsClient sqsClient,
+            DynamoDbWriteThrottleMonitor throttleMonitor,
+            @Value("${aws.sqs.ingestion-queue-url}") String queueUrl,
+            @Value("${batch.ingestion.admission.enabled:true}") boolean enabled,
+            @Value("${batch.ingestion.admission.max-queue-depth:10000}") long maxQueueDepth,
+            @Value("${batch.ingestion.admission.max-write-throttle-rate:0.1}") double maxWriteThrottleRate,
+            @Value("${batch.ingestion.admission.min-write-samples:20}") long minWriteSamples,
+            @Value("${batch.ingestion.admission.retry-after-seconds:30}") long retryAfterSeconds,
+            @Value("${batch.ingestion.admission.max-retry-after-seconds:600}") long maxRetryAfterSeconds,
+            @Value("${batch.ingestion.admission.default-tickets-per-second:0}") double defaultTicketsPerSecond,
+            @Value("${batch.ingestion.admission.source-quotas:}") String sourceQuotas,
+            @Value("${batch.ingestion.admission.burst-seconds:60}") double burstSeconds) {
+        this(sqsClient, throttleMonitor, queueUrl, enabled, maxQueueDepth, maxWriteThrottleRate, minWriteSamples,
+                retryAfterSeconds, maxRetryAfterSeconds, defaultTicketsPerSecond, sourceQuotas, burstSeconds,
+                System::nanoTime);
+    }
+
+    IngestionAdmissionService(SqsClient sqsClient, DynamoDbWriteThrottleMonitor throttleMonitor, String queueUrl,
+                              boolean enabled, long maxQueueDepth, double maxWriteThrottleRate,
+                              long minWriteSamples, long retryAfterSeconds, long maxRetryAfterSeconds,
+                              double defaultTicketsPerSecond, String sourceQuotas, double burstSeconds,
+                              LongSupplier nanoClock) {
+        this.sqsClient = sqsClient;
+        this.throttleMonitor = throttleMonitor;
+        this.queueUrl = queueUrl;
+        this.enabled = enabled;
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxWriteThrottleRate = maxWriteThrottleRate;
+        this.minWriteSamples = minWriteSamples;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+        this.defaultTicketsPerSecond = defaultTicketsPerSecond;
+        this.sourceQuotas = parseQuotas(sourceQuotas);
+        this.burstSeconds = burstSeconds;
+        this.nanoClock = nanoClock;
+        if (enabled) {
+            log.info("Ingestion admission control enabled: max queue depth {}, max write throttle rate {}, "
+                    + "source quotas {} (default {} tickets/s)", maxQueueDepth, maxWriteThrottleRate,
+                    this.sourceQuotas, defaultTicketsPerSecond);
+        }
+    }
+
+    /**
+     * Admit a batch or refuse it.
+     *
+     * @param ticketCount tickets charged to the source's quota; 0 when not known up front (streaming)
+     * @throws IngestionRejectedException with the seconds the client should wait
+     */
+    public void admit(String sourceSystem, int ticketCount) {
+        if (!enabled) {
+            return;
+        }
+        if (queueDepth > maxQueueDepth) {
+            long excess = queueDepth - maxQueueDepth;
+            long wait = drainPerSecond > 0 ? (long) Math.ceil(excess / drainPerSecond) : retryAfterSeconds;
+            reject("QUEUE_DEPTH", "Ingestion queue holds " + queueDepth + " batches (limit " + maxQueueDepth + ")",
+                    wait);
+        }
+        if (writeThrottleRate > maxWriteThrottleRate) {
+            reject("WRITE_THROTTLING", String.format("%.0f%% of recent DynamoDB writes were throttled",
+                    writeThrottleRate * 100), retryAfterSeconds);
+        }
+        TokenBucket bucket = bucketFor(sourceSystem);
+        if (bucket != null) {
+            double missing = bucket.tryTake(ticketCount);
+            if (missing >= 0) {
+                reject("SOURCE_QUOTA", "Ingestion quota of " + keyOf(sourceSystem) + " exhausted ("
+                        + bucket.rate + " tickets/s)", (long) Math.ceil(missing / bucket.rate));
+            }
+        }
+        admitted.increment();
+    }
+
+    /**
+     * Charge tickets counted after admission (streaming uploads) to the source's quota.
+     */
+    public void charge(String sourceSystem, int ticketCount) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket bucket = bucketFor(sourceSystem);
+        if (bucket != null) {
+            bucket.take(ticketCount);
+        }
+    }
+
+    /**
+     * Sample queue depth and DynamoDB write throttling.
+     */
+    @Scheduled(fixedDelayString = "${batch.ingestion.admission.sample-interval-ms:5000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+        DynamoDbWriteThrottleMonitor.WriteSample writes = throttleMonitor.sampleAndReset();
+        if (writes.writes() >= minWriteSamples) {
+            writeThrottleRate = (double) writes.throttled() / writes.writes();
+        } else {
+            writeThrottleRate /= 2;  // Too few writes to judge; let an old reading fade
+        }
+
+        try {
+            String depth = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                            .queueUrl(queueUrl)
+                            .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                            .build())
+                    .attributes()
+                    .get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
+            recordQueueDepth(depth != null ? Long.parseLong(depth) : 0);
+        } catch (RuntimeException e) {
+            log.warn("Failed to sample ingestion queue depth; keeping last value {}: {}", queueDepth, e.getMessage());
+        }
+    }
+
+    public IngestionAdmissionDto snapshot() {
+        Map<String, Double> balances = new TreeMap<>();
+        buckets.forEach((source, bucket) -> balances.put(source, bucket.balance()));
+        Map<String, Long> rejected = new TreeMap<>();
+        rejections.forEach((reason, count) -> rejected.put(reason, count.sum()));
+        return IngestionAdmissionDto.builder()
+                .enabled(enabled)
+                .queueDepth(queueDepth)
+                .maxQueueDepth(maxQueueDepth)
+                .drainPerSecond(drainPerSecond)
+                .writeThrottleRate(writeThrottleRate)
+                .maxWriteThrottleRate(maxWriteThrottleRate)
+                .admitted(admitted.sum())
+                .rejected(rejected)
+                .sourceBalances(balances)
+                .build();
+    }
+
+    private synchronized void recordQueueDepth(long depth) {
+        long now = nanoClock.getAsLong();
+        if (lastDepthSampleNanos != 0 && depth < queueDepth) {
+            double seconds = (now - lastDepthSampleNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            double rate = (queueDepth - depth) / Math.max(seconds, 0.001);
+            // Smoothed; only falling depth is evidence of draining
+            drainPerSecond = drainPerSecond == 0 ? rate : 0.7 * drainPerSecond + 0.3 * rate;
+        }
+        queueDepth = depth;
+        lastDepthSampleNanos = now;
+    }
+
+    private void reject(String reason, String message, long waitSeconds) {
+        long retryAfter = Math.max(1, Math.min(maxRetryAfterSeconds, waitSeconds));
+        rejections.computeIfAbsent(reason, r -> new LongAdder()).increment();
+        log.warn("Ingestion rejected ({}): {}; retry after {} s", reason, message, retryAfter);
+        throw new IngestionRejectedException(message, retryAfter);
+    }
+
+    private TokenBucket bucketFor(String sourceSystem) {
+        String key = keyOf(sourceSystem);
+        double rate = sourceQuotas.getOrDefault(key, defaultTicketsPerSecond);
+        if (rate <= 0) {
+            return null;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, Math.max(1, rate * burstSeconds)));
+    }
+
+    private static String keyOf(String sourceSystem) {
+        return sourceSystem == null || sourceSystem.isBlank() ? UNKNOWN_SOURCE : sourceSystem.strip().toUpperCase();
+    }
+
+    private static Map<String, Double> parseQuotas(String value) {
+        Map<String, Double> quotas = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return quotas;
+        }
+        // Format: "JIRA:200,SERVICENOW:50" (tickets per second)
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid batch.ingestion.admission.source-quotas entry: " + entry);
+            }
+            quotas.put(keyOf(parts[0]), Double.parseDouble(parts[1].strip()));
+        }
+        return quotas;
+    }
+
+    /**
+     * Token bucket that may be overdrawn.
+     */
+    private final class TokenBucket {
+        private final double rate;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double rate, double capacity) {
+            this.rate = rate;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = nanoClock.getAsLong();
+        }
+
+        /**
+         * Take tokens if the balance is positive.
+         *
+         * @return -1 if taken, otherwise the tokens missing before anything can be taken
+         */
+        synchronized double tryTake(int count) {
+            refill();
+            if (tokens <= 0) {
+                return -tokens + Math.min(1, capacity);
+            }
+            tokens -= count;
+            return -1;
+        }
+
+        synchronized void take(int count) {
+            refill();
+            tokens -= count;
+        }
+
+        synchronized double balance() {
+            refill();
+            return tokens;
+        }
+
+        private void refill() {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+        }
+    }
+}
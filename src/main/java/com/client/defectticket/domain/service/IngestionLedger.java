@@ -0,0 +1,44 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.DefectTicket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tickets one ingestion request has stored or is about to store, and the
+ * dedup keys they claimed.
+ *
+ * Kept until the request's batch is queued, so a request that fails before
+ * (ticket write, SQS send) can be rolled back with
+ * TicketDeduplicationService.rollback and retried by the client. Holds IDs
+ * only, not the tickets.
+ */
+public final class IngestionLedger {
+
+    private final List<String> ticketIds = new ArrayList<>();
+    private final List<String> dedupKeys = new ArrayList<>();
+
+    /**
+     * Record a ticket returned by TicketDeduplicationService.deduplicate for storing.
+     */
+    public void add(DefectTicket ticket) {
+        ticketIds.add(ticket.getTicketId());
+        dedupKeys.add(TicketDeduplicationService.keyOf(ticket));
+    }
+
+    public int size() {
+        return ticketIds.size();
+    }
+
+    List<String> ticketIds() {
+        return ticketIds;
+    }
+
+    /**
+     * Dedup key of each ticket (same order as ticketIds), null where the ticket has no sourceReference.
+     */
+    List<String> dedupKeys() {
+        return dedupKeys;
+    }
+}
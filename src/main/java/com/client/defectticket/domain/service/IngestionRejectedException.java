@@ -0,0 +1,18 @@
+package com.client.defectticket.domain.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown by admission control when ingestion has to back off
+ * (queue backlog, DynamoDB throttling or an exhausted source quota).
+ */
+@Getter
+public class IngestionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.client.defectticket.domain.service;
+
+/**
+ * Thrown when an upload cannot be read at all (bad header, unsupported
+ * encoding, truncated input), as opposed to single invalid records, which
+ * are reported per line.
+ */
+public class MalformedIngestionException extends RuntimeException {
+
+    public MalformedIngestionException(String message) {
+        super(message);
+    }
+
+    public MalformedIngestionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
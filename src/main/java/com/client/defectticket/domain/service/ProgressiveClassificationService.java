@@ -0,0 +1,243 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.lambda.classifier.RoutingDecision;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ClassificationResponse;
+import com.client.defectticket.lambda.pipeline.ClassificationContext;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Progressive classification for interactive clients.
+ *
+ * The local pipeline stages (rules, cache, learned model, heuristic) answer
+ * within milliseconds. If one of them finalizes, that is the result; otherwise
+ * the best local result is stored as CLASSIFIED_PROVISIONAL and returned,
+ * and the LLM refinement continues on a virtual thread with the same
+ * pipeline context.
+ *
+ * The refined result replaces the provisional one with a conditional write on
+ * the ticket version, so a ticket changed in the meantime (e.g. reclassified
+ * or edited) is not overwritten. Clients poll the ticket's classification or
+ * subscribe to server-sent events: a "routing" event with severity and
+ * confidence as soon as they are parsed from the streamed LLM response, and
+ * a final event once the refinement is done.
+ *
+ * A refinement lost to a restart, or one that failed, would leave the ticket
+ * provisional. A scheduled sweep over the status index therefore classifies
+ * CLASSIFIED_PROVISIONAL tickets not updated for stale-after-minutes again
+ * (local stages, then LLM) and writes the result the same way.
+ */
+@Slf4j
+@Service
+public class ProgressiveClassificationService {
+
+    static final String EVENT_ROUTING = "routing";
+    static final String EVENT_CLASSIFIED = "classification";
+    static final String EVENT_REFINEMENT_FAILED = "refinement-failed";
+
+    private final ClassificationHandler classificationHandler;
+    private final ClassificationPipeline classificationPipeline;
+    private final DefectTicketRepository ticketRepository;
+    private final long subscriptionTimeoutMs;
+    private final boolean recoveryEnabled;
+    private final Duration staleAfter;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<String> refining = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refinements = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProgressiveClassificationService(
+            ClassificationHandler classificationHandler,
+            ClassificationPipeline classificationPipeline,
+            DefectTicketRepository ticketRepository,
+            @Value("${classification.progressive.subscription-timeout-ms:120000}") long subscriptionTimeoutMs,
+            @Value("${classification.progressive.recovery.enabled:true}") boolean recoveryEnabled,
+            @Value("${classification.progressive.recovery.stale-after-minutes:10}") long staleAfterMinutes) {
+        this.classificationHandler = classificationHandler;
+        this.classificationPipeline = classificationPipeline;
+        this.ticketRepository = ticketRepository;
+        this.subscriptionTimeoutMs = subscriptionTimeoutMs;
+        this.recoveryEnabled = recoveryEnabled;
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+    }
+
+    /**
+     * Classify with the local stages now and refine with the LLM in the background.
+     *
+     * @throws ConcurrentModificationException if the ticket changed while the provisional result was computed
+     */
+    public ClassificationResponse classify(String ticketId) {
+        DefectTicket ticket = classificationHandler.load(ticketId);
+        ClassificationContext context = new ClassificationContext();
+
+        Optional<Classification> local = classificationPipeline.classifyLocally(ticket, context);
+        if (local.isPresent()) {
+            classificationHandler.persist(ticket, local.get(), 0);
+            return response(ticket);
+        }
+
+        Optional<Classification> provisional = classificationPipeline.provisional(context);
+        if (provisional.isEmpty()) {
+            // No local opinion to show; classify synchronously
+            log.info("No local result for ticket {}; classifying synchronously", ticketId);
+            classificationHandler.persist(ticket, classificationPipeline.refine(ticket, context), 0);
+            return response(ticket);
+        }
+
+        if (!classificationHandler.persistProvisional(ticket, provisional.get())) {
+            throw new ConcurrentModificationException("Ticket " + ticketId + " was modified during classification");
+        }
+        ClassificationResponse response = response(ticket);
+        context.setRoutingListener(decision -> notify(ticketId, decision));
+        refining.add(ticketId);
+        refinements.submit(() -> refine(ticket, context, true));
+        return response;
+    }
+
+    /**
+     * Classify again the provisional tickets whose refinement was lost or failed.
+     */
+    @Scheduled(fixedDelayString = "${classification.progressive.recovery.interval-ms:300000}")
+    public void recoverStaleProvisional() {
+        if (!recoveryEnabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(staleAfter);
+        int recovered = 0;
+        for (DefectTicket ticket : ticketRepository.findByStatus(TicketStatus.CLASSIFIED_PROVISIONAL)) {
+            boolean stale = ticket.getUpdatedAt() == null || ticket.getUpdatedAt().isBefore(cutoff);
+            if (stale && refining.add(ticket.getTicketId())) {
+                refinements.submit(() -> refine(ticket, new ClassificationContext(), false));
+                recovered++;
+            }
+        }
+        if (recovered > 0) {
+            log.warn("Refining {} tickets left provisional for more than {}", recovered, staleAfter);
+        }
+    }
+
+    /**
+     * Current classification of a ticket; provisional while the refinement is pending.
+     */
+    public ClassificationResponse get(String ticketId) {
+        return response(classificationHandler.load(ticketId));
+    }
+
+    /**
+     * Subscribe to the refined classification. Completes immediately with the
+     * current classification if the ticket is not provisional.
+     */
+    public SseEmitter subscribe(String ticketId) {
+        SseEmitter emitter = new SseEmitter(subscriptionTimeoutMs);
+        DefectTicket ticket = classificationHandler.load(ticketId);
+        if (ticket.getStatus() != TicketStatus.CLASSIFIED_PROVISIONAL) {
+            send(emitter, EVENT_CLASSIFIED, response(ticket));
+            return emitter;
+        }
+
+        List<SseEmitter> ticketSubscribers = subscribers.computeIfAbsent(ticketId, id -> new CopyOnWriteArrayList<>());
+        ticketSubscribers.add(emitter);
+        emitter.onCompletion(() -> ticketSubscribers.remove(emitter));
+        emitter.onTimeout(() -> ticketSubscribers.remove(emitter));
+
+        // The refinement may have finished between the load and the registration
+        ticketRepository.findById(ticketId)
+                .filter(current -> current.getStatus() != TicketStatus.CLASSIFIED_PROVISIONAL)
+                .ifPresent(current -> send(emitter, EVENT_CLASSIFIED, response(current)));
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refinements.shutdownNow();
+    }
+
+    /**
+     * @param localStagesDone whether the context already holds the local stage results
+     */
+    private void refine(DefectTicket ticket, ClassificationContext context, boolean localStagesDone) {
+        String ticketId = ticket.getTicketId();
+        try {
+            Classification refined = localStagesDone
+                    ? classificationPipeline.refine(ticket, context)
+                    : classificationPipeline.classify(ticket, context);
+            if (classificationHandler.persistRefined(ticket, refined)) {
+                publish(ticketId, EVENT_CLASSIFIED, response(ticket));
+            } else {
+                log.warn("Ticket {} changed after its provisional classification; refined result discarded",
+                        ticketId);
+                publish(ticketId, EVENT_CLASSIFIED, response(classificationHandler.load(ticketId)));
+            }
+        } catch (Exception e) {
+            // The provisional classification stays in place until the recovery sweep
+            log.error("LLM refinement failed for ticket {}", ticketId, e);
+            publish(ticketId, EVENT_REFINEMENT_FAILED, get(ticketId));
+        } finally {
+            refining.remove(ticketId);
+        }
+    }
+
+    private void publish(String ticketId, String event, ClassificationResponse response) {
+        List<SseEmitter> ticketSubscribers = subscribers.remove(ticketId);
+        if (ticketSubscribers != null) {
+            ticketSubscribers.forEach(emitter -> send(emitter, event, response));
+        }
+    }
+
+    /**
+     * Send the early routing decision; subscribers stay open for the final event.
+     */
+    private void notify(String ticketId, RoutingDecision decision) {
+        List<SseEmitter> ticketSubscribers = subscribers.get(ticketId);
+        if (ticketSubscribers == null) {
+            return;
+        }
+        for (SseEmitter emitter : ticketSubscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_ROUTING).data(decision));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not deliver {} event: {}", EVENT_ROUTING, e.getMessage());
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, ClassificationResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(response));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            log.debug("Could not deliver {} event: {}", event, e.getMessage());
+        }
+    }
+
+    private ClassificationResponse response(DefectTicket ticket) {
+        return ClassificationResponse.builder()
+                .ticketId(ticket.getTicketId())
+                .classification(ticket.getClassification())
+                .provisional(ticket.getStatus() == TicketStatus.CLASSIFIED_PROVISIONAL)
+                .build();
+    }
+}
@@ -0,0 +1,465 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.ReclassificationJobDto;
+import com.client.defectticket.api.dto.ReclassificationRequestDto;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.WorkflowState;
+import com.client.defectticket.domain.model.enums.ApprovalGate;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository.TicketPage;
+import com.client.defectticket.domain.repository.WorkflowStateRepository;
+import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ApprovalCreationRequest;
+import com.client.defectticket.lambda.pipeline.ClassificationContext;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Resumable reclassification of existing tickets, e.g. after a rule keyword
+ * or model change.
+ *
+ * Tickets are selected by status, creation date range and/or batch. Tickets
+ * whose classification a reviewer approved or rejected are skipped unless the
+ * request opts in (includeReviewed, or a status filter naming them). Without
+ * a batch the table is read as a parallel scan (one virtual thread per
+ * segment); with a batch the batch-index is queried page by page. Every
+ * ticket passes a shared rate limit before it is classified.
+ *
+ * After each page the segment cursor and counters are checkpointed in
+ * WorkflowState.checkpointData, so resume() continues where a crashed or
+ * stopped job left off. Tickets after the last checkpoint are classified
+ * again, which is harmless: results equal to the stored classification
+ * (category, subcategory, severity, priority, approval flag) are not
+ * written, and changed results are written with a conditional update on the
+ * ticket version. A changed result that needs human review gets a
+ * classification review approval request (no workflow waits on it).
+ */
+@Slf4j
+@Service
+public class ReclassificationService {
+
+    static final String STEP = "RECLASSIFY";
+
+    /**
+     * Statuses of tickets whose classification a human confirmed or rejected.
+     */
+    static final Set<TicketStatus> REVIEWED = EnumSet.of(
+            TicketStatus.CLASSIFICATION_APPROVED, TicketStatus.CLASSIFICATION_REJECTED);
+
+    private static final String STATUS = "criteria.status";
+    private static final String BATCH_ID = "criteria.batchId";
+    private static final String CREATED_FROM = "criteria.createdFrom";
+    private static final String CREATED_TO = "criteria.createdTo";
+    private static final String INCLUDE_REVIEWED = "criteria.includeReviewed";
+    private static final String SEGMENTS = "segments";
+    private static final String CURSOR = "cursor.";
+    private static final String DONE = "done.";
+    private static final String SCANNED = "scanned";
+    private static final String MATCHED = "matched";
+    private static final String RECLASSIFIED = "reclassified";
+    private static final String UNCHANGED = "unchanged";
+    private static final String CONFLICTS = "conflicts";
+    private static final String APPROVALS = "approvalsCreated";
+    private static final String FAILED = "failed";
+    private static final String[] COUNTERS = {SCANNED, MATCHED, RECLASSIFIED, UNCHANGED, CONFLICTS, APPROVALS, FAILED};
+
+    private final DefectTicketRepository ticketRepository;
+    private final WorkflowStateRepository workflowStateRepository;
+    private final ClassificationPipeline classificationPipeline;
+    private final ClassificationHandler classificationHandler;
+    private final ApprovalRequestHandler approvalRequestHandler;
+    private final UsageAccountingService usageAccounting;
+    private final int defaultSegments;
+    private final int pageSize;
+    private final RateLimiter rateLimiter;
+    private final Set<String> skippedStages;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final ExecutorService jobs = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ReclassificationService(
+            DefectTicketRepository ticketRepository,
+            WorkflowStateRepository workflowStateRepository,
+            ClassificationPipeline classificationPipeline,
+            ClassificationHandler classificationHandler,
+            ApprovalRequestHandler approvalRequestHandler,
+            UsageAccountingService usageAccounting,
+            @Value("${classification.reclassification.segments:4}") int defaultSegments,
+            @Value("${classification.reclassification.page-size:100}") int pageSize,
+            @Value("${classification.reclassification.tickets-per-second:5.0}") double ticketsPerSecond,
+            @Value("${classification.reclassification.skip-stages:CACHE}") String skippedStages) {
+        this.ticketRepository = ticketRepository;
+        this.workflowStateRepository = workflowStateRepository;
+        this.classificationPipeline = classificationPipeline;
+        this.classificationHandler = classificationHandler;
+        this.approvalRequestHandler = approvalRequestHandler;
+        this.usageAccounting = usageAccounting;
+        this.defaultSegments = defaultSegments;
+        this.pageSize = pageSize;
+        this.rateLimiter = new RateLimiter(ticketsPerSecond);
+        this.skippedStages = Arrays.stream(skippedStages.split(","))
+                .map(String::trim)
+                .filter(stage -> !stage.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Start a reclassification job in the background.
+     */
+    public ReclassificationJobDto start(ReclassificationRequestDto request) {
+        Map<String, String> checkpoint = new HashMap<>();
+        if (request.getStatus() != null) {
+            checkpoint.put(STATUS, request.getStatus().name());
+        }
+        if (request.getBatchId() != null) {
+            checkpoint.put(BATCH_ID, request.getBatchId());
+        }
+        if (request.getCreatedFrom() != null) {
+            checkpoint.put(CREATED_FROM, request.getCreatedFrom().toString());
+        }
+        if (request.getCreatedTo() != null) {
+            checkpoint.put(CREATED_TO, request.getCreatedTo().toString());
+        }
+        if (request.isIncludeReviewed() || REVIEWED.contains(request.getStatus())) {
+            checkpoint.put(INCLUDE_REVIEWED, "true");
+        }
+        // A batch is read with one paged query; segments only apply to the table scan
+        int segments = request.getBatchId() != null ? 1
+                : request.getSegments() != null ? request.getSegments() : defaultSegments;
+        checkpoint.put(SEGMENTS, String.valueOf(segments));
+
+        WorkflowState state = WorkflowState.builder()
+                .executionId("reclassify-" + UUID.randomUUID())
+                .batchId(request.getBatchId())
+                .currentStep(STEP)
+                .status("RUNNING")
+                .checkpointData(checkpoint)
+                .startedAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+        workflowStateRepository.save(state);
+
+        Run run = launch(state);
+        log.info("Reclassification job {} started: {} ({} segments)", state.getExecutionId(), run.criteria(), segments);
+        return run.toDto();
+    }
+
+    /**
+     * Continue a stopped or crashed job from its last checkpoint.
+     */
+    public ReclassificationJobDto resume(String jobId) {
+        Run active = runs.get(jobId);
+        if (active != null && !active.finished) {
+            return active.toDto();
+        }
+        WorkflowState state = findState(jobId);
+        if ("COMPLETED".equals(state.getStatus())) {
+            return new Run(state).toDto();
+        }
+        state.setStatus("RUNNING");
+        Run run = launch(state);
+        log.info("Reclassification job {} resumed from checkpoint", jobId);
+        return run.toDto();
+    }
+
+    public Optional<ReclassificationJobDto> getJob(String jobId) {
+        Run active = runs.get(jobId);
+        if (active != null) {
+            return Optional.of(active.toDto());
+        }
+        return workflowStateRepository.findById(jobId)
+                .filter(state -> STEP.equals(state.getCurrentStep()))
+                .map(state -> new Run(state).toDto());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted segments resume from their last checkpoint
+        jobs.shutdownNow();
+    }
+
+    private WorkflowState findState(String jobId) {
+        return workflowStateRepository.findById(jobId)
+                .filter(state -> STEP.equals(state.getCurrentStep()))
+                .orElseThrow(() -> new IllegalArgumentException("Reclassification job not found: " + jobId));
+    }
+
+    private Run launch(WorkflowState state) {
+        Run run = new Run(state);
+        runs.put(state.getExecutionId(), run);
+        jobs.submit(() -> runJob(run));
+        return run;
+    }
+
+    private void runJob(Run run) {
+        // Closing the executor waits for every segment
+        try (ExecutorService segments = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int segment = 0; segment < run.segments; segment++) {
+                if (!run.isDone(segment)) {
+                    int current = segment;
+                    segments.submit(() -> runSegment(run, current));
+                }
+            }
+        }
+        run.finish();
+        log.info("Reclassification job {} {}: {} matched, {} reclassified ({} for review), {} unchanged, "
+                        + "{} conflicts, {} failed",
+                run.state.getExecutionId(), run.state.getStatus(), run.counters.get(MATCHED).get(),
+                run.counters.get(RECLASSIFIED).get(), run.counters.get(APPROVALS).get(),
+                run.counters.get(UNCHANGED).get(), run.counters.get(CONFLICTS).get(), run.counters.get(FAILED).get());
+    }
+
+    private void runSegment(Run run, int segment) {
+        String cursor = run.cursor(segment);
+        try {
+            do {
+                TicketPage page = run.batchId != null
+                        ? ticketRepository.findByBatchIdPage(run.batchId, cursor, pageSize)
+                        : ticketRepository.scanSegment(segment, run.segments, cursor, pageSize, run.status);
+                for (DefectTicket ticket : page.tickets()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;  // Shutdown; the last checkpoint stands
+                    }
+                    run.counters.get(SCANNED).incrementAndGet();
+                    if (run.matches(ticket)) {
+                        run.counters.get(MATCHED).incrementAndGet();
+                        rateLimiter.acquire();
+                        reclassify(run, ticket);
+                    }
+                }
+                cursor = page.lastEvaluatedTicketId();
+                run.checkpoint(segment, cursor);
+            } while (cursor != null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            run.segmentFailed = true;
+            log.error("Reclassification job {} segment {} failed at cursor {}; resume to continue",
+                    run.state.getExecutionId(), segment, cursor, e);
+        }
+    }
+
+    private void reclassify(Run run, DefectTicket ticket) {
+        try {
+            ClassificationContext context = new ClassificationContext();
+            context.setSkippedStages(skippedStages);
+            Classification fresh = classificationPipeline.classify(ticket, context);
+            usageAccounting.record(ticket, fresh, 0);
+
+            if (sameDecision(ticket.getClassification(), fresh)) {
+                run.counters.get(UNCHANGED).incrementAndGet();
+                return;
+            }
+            String reason = String.format("Reclassified by job %s (stage: %s, was %s/%s)", run.state.getExecutionId(),
+                    fresh.getDecisionStage(), ticket.getClassification().getCategory(),
+                    ticket.getClassification().getSeverity());
+            if (!classificationHandler.persistReclassification(ticket, fresh, reason)) {
+                run.counters.get(CONFLICTS).incrementAndGet();
+                return;
+            }
+            run.counters.get(RECLASSIFIED).incrementAndGet();
+            if (fresh.isRequiresHumanApproval()) {
+                approvalRequestHandler.handle(ApprovalCreationRequest.builder()
+                        .ticketId(ticket.getTicketId())
+                        .gate(ApprovalGate.CLASSIFICATION_REVIEW)
+                        .build());
+                run.counters.get(APPROVALS).incrementAndGet();
+            }
+        } catch (Exception e) {
+            run.counters.get(FAILED).incrementAndGet();
+            log.error("Reclassification of ticket {} failed", ticket.getTicketId(), e);
+        }
+    }
+
+    /**
+     * Whether the decision-relevant fields are unchanged; reasoning and confidence are ignored.
+     */
+    static boolean sameDecision(Classification stored, Classification fresh) {
+        return Objects.equals(stored.getCategory(), fresh.getCategory())
+                && Objects.equals(stored.getSubcategory(), fresh.getSubcategory())
+                && stored.getSeverity() == fresh.getSeverity()
+                && Objects.equals(stored.getPriority(), fresh.getPriority())
+                && stored.isRequiresHumanApproval() == fresh.isRequiresHumanApproval();
+    }
+
+    /**
+     * In-memory state of one (re)started job; counters continue from the checkpoint.
+     */
+    private final class Run {
+        private final WorkflowState state;
+        private final TicketStatus status;
+        private final String batchId;
+        private final Instant createdFrom;
+        private final Instant createdTo;
+        private final boolean includeReviewed;
+        private final int segments;
+        private final Map<String, AtomicLong> counters = new HashMap<>();
+        private final long runStartNanos = System.nanoTime();
+        private final long matchedAtRunStart;
+        private volatile boolean segmentFailed;
+        private volatile boolean finished;
+
+        private Run(WorkflowState state) {
+            this.state = state;
+            Map<String, String> data = state.getCheckpointData();
+            this.status = data.containsKey(STATUS) ? TicketStatus.valueOf(data.get(STATUS)) : null;
+            this.batchId = data.get(BATCH_ID);
+            this.createdFrom = data.containsKey(CREATED_FROM) ? Instant.parse(data.get(CREATED_FROM)) : null;
+            this.createdTo = data.containsKey(CREATED_TO) ? Instant.parse(data.get(CREATED_TO)) : null;
+            this.includeReviewed = Boolean.parseBoolean(data.get(INCLUDE_REVIEWED));
+            this.segments = Integer.parseInt(data.getOrDefault(SEGMENTS, "1"));
+            for (String counter : COUNTERS) {
+                counters.put(counter, new AtomicLong(Long.parseLong(data.getOrDefault(counter, "0"))));
+            }
+            this.matchedAtRunStart = counters.get(MATCHED).get();
+        }
+
+        /**
+         * Classified tickets matching the criteria not already applied by the query.
+         */
+        private boolean matches(DefectTicket ticket) {
+            if (ticket.getClassification() == null) {
+                return false;  // Never classified; nothing to reclassify
+            }
+            // The batch query does not filter by status
+            if (status != null && ticket.getStatus() != status) {
+                return false;
+            }
+            if (!includeReviewed && REVIEWED.contains(ticket.getStatus())) {
+                return false;  // Keep the human-confirmed classification
+            }
+            Instant created = ticket.getCreatedAt();
+            if (createdFrom != null && (created == null || created.isBefore(createdFrom))) {
+                return false;
+            }
+            return createdTo == null || (created != null && created.isBefore(createdTo));
+        }
+
+        private String cursor(int segment) {
+            synchronized (state) {
+                return state.getCheckpointData().get(CURSOR + segment);
+            }
+        }
+
+        private boolean isDone(int segment) {
+            synchronized (state) {
+                return state.getCheckpointData().containsKey(DONE + segment);
+            }
+        }
+
+        private void checkpoint(int segment, String cursor) {
+            synchronized (state) {
+                Map<String, String> data = state.getCheckpointData();
+                if (cursor != null) {
+                    data.put(CURSOR + segment, cursor);
+                } else {
+                    data.remove(CURSOR + segment);
+                    data.put(DONE + segment, "true");
+                }
+                counters.forEach((counter, value) -> data.put(counter, String.valueOf(value.get())));
+                state.setUpdatedAt(Instant.now());
+                workflowStateRepository.save(state);
+            }
+        }
+
+        private void finish() {
+            synchronized (state) {
+                counters.forEach((counter, value) -> state.getCheckpointData().put(counter, String.valueOf(value.get())));
+                boolean allDone = true;
+                for (int segment = 0; segment < segments; segment++) {
+                    allDone &= state.getCheckpointData().containsKey(DONE + segment);
+                }
+                state.setStatus(allDone ? "COMPLETED" : "FAILED");
+                if (allDone) {
+                    state.setCompletedAt(Instant.now());
+                }
+                state.setUpdatedAt(Instant.now());
+                workflowStateRepository.save(state);
+            }
+            finished = true;
+        }
+
+        private String criteria() {
+            return String.format("status=%s, batchId=%s, createdFrom=%s, createdTo=%s, includeReviewed=%s",
+                    status, batchId, createdFrom, createdTo, includeReviewed);
+        }
+
+        private ReclassificationJobDto toDto() {
+            synchronized (state) {
+                int segmentsCompleted = 0;
+                for (int segment = 0; segment < segments; segment++) {
+                    if (state.getCheckpointData().containsKey(DONE + segment)) {
+                        segmentsCompleted++;
+                    }
+                }
+                double seconds = Duration.ofNanos(System.nanoTime() - runStartNanos).toMillis() / 1000.0;
+                long matchedThisRun = counters.get(MATCHED).get() - matchedAtRunStart;
+                return ReclassificationJobDto.builder()
+                        .jobId(state.getExecutionId())
+                        .status(state.getStatus())
+                        .criteria(criteria())
+                        .segments(segments)
+                        .segmentsCompleted(segmentsCompleted)
+                        .scanned(counters.get(SCANNED).get())
+                        .matched(counters.get(MATCHED).get())
+                        .reclassified(counters.get(RECLASSIFIED).get())
+                        .unchanged(counters.get(UNCHANGED).get())
+                        .conflicts(counters.get(CONFLICTS).get())
+                        .approvalsCreated(counters.get(APPROVALS).get())
+                        .failed(counters.get(FAILED).get())
+                        .ticketsPerSecond(!finished && seconds > 0 ? matchedThisRun / seconds : 0.0)
+                        .startedAt(state.getStartedAt())
+                        .updatedAt(state.getUpdatedAt())
+                        .completedAt(state.getCompletedAt())
+                        .build();
+            }
+        }
+    }
+
+    /**
+     * Spaces permits evenly at the configured rate (no bursts), shared by all segments.
+     */
+    static final class RateLimiter {
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        RateLimiter(double permitsPerSecond) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
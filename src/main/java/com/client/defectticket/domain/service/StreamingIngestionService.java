@@ -0,0 +1,390 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.AuditEntry;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.lambda.handler.dto.BatchIngestionRequest;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Stores an uploaded batch while it is being read, without binding the whole
+ * request.
+ *
+ * Three formats are accepted, optionally gzip-compressed:
+ * - JSON: the BatchIngestionRequest shape (or a bare array of tickets), read
+ *   with Jackson's streaming parser one TicketInput at a time
+ * - NDJSON: one TicketInput object per line
+ * - CSV: header row naming sourceReference, title, description (any order,
+ *   other columns ignored), then one ticket per record
+ *
+ * Each ticket is converted to a DefectTicket and buffered until
+ * write-batch-size tickets are flushed with BatchWriteItem, so heap use is
+ * bounded by the write batch, not the upload size; only the IDs of stored
+ * tickets are kept (IngestionLedger), so the caller can roll the upload
+ * back if it fails before the batch is queued. An invalid record is
+ * reported with its line number and skipped. An upload that becomes
+ * unreadable partway through (malformed JSON, truncated gzip) is cut off
+ * there: the tickets read so far are stored and reported with the failure,
+ * so the caller still queues them; their sourceReferences are already
+ * claimed, so a retry would skip them. Only an upload that fails before
+ * any ticket is stored fails as a whole. Re-submitted sourceReferences are
+ * deduplicated (TicketDeduplicationService) before they are buffered.
+ *
+ * batchId and sourceSystem come from the query parameters or, for JSON,
+ * from body fields preceding "tickets". A batchId is generated if neither
+ * provides one.
+ */
+@Slf4j
+@Service
+public class StreamingIngestionService {
+
+    public enum Format { JSON, NDJSON, CSV }
+
+    private static final String TICKETS = "tickets";
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    private final DefectTicketRepository ticketRepository;
+    private final TicketDeduplicationService deduplicationService;
+    private final ObjectMapper objectMapper;
+    private final int writeBatchSize;
+    private final int ttlDays;
+
+    public StreamingIngestionService(
+            DefectTicketRepository ticketRepository,
+            TicketDeduplicationService deduplicationService,
+            ObjectMapper objectMapper,
+            @Value("${batch.ingestion.write-batch-size:100}") int writeBatchSize,
+            @Value("${batch.ttl-days:90}") int ttlDays) {
+        this.ticketRepository = ticketRepository;
+        this.deduplicationService = deduplicationService;
+        this.objectMapper = objectMapper;
+        this.writeBatchSize = writeBatchSize;
+        this.ttlDays = ttlDays;
+    }
+
+    /**
+     * Wrap the body according to its Content-Encoding.
+     *
+     * @throws MalformedIngestionException for encodings other than gzip and identity
+     */
+    public static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank()
+                || contentEncoding.trim().equalsIgnoreCase("identity")) {
+            return body;
+        }
+        if (contentEncoding.trim().equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(body, GZIP_BUFFER_BYTES);
+        }
+        throw new MalformedIngestionException("Unsupported Content-Encoding: " + contentEncoding);
+    }
+
+    /**
+     * Format for a request Content-Type; anything else is read as JSON.
+     */
+    public static Format formatOf(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/x-ndjson")) {
+            return Format.NDJSON;
+        }
+        if (type.startsWith("text/csv")) {
+            return Format.CSV;
+        }
+        return Format.JSON;
+    }
+
+    /**
+     * Parse and store the tickets of one upload.
+     *
+     * @param batchId batch to store into, or null to take it from the body
+     * @param sourceSystem source system, or null to take it from the body
+     * @param ledger receives every ticket as it is buffered for storing, including tickets of a failed upload
+     * @throws JsonParseException if a JSON body is malformed or batchId follows the tickets,
+     *         before any ticket was stored
+     * @throws MalformedIngestionException if the upload cannot be read (bad CSV header, truncated gzip),
+     *         before any ticket was stored
+     */
+    public IngestionResult ingest(InputStream body, Format format, String batchId, String sourceSystem,
+                                  IngestionLedger ledger) throws IOException {
+        TicketWriter writer = new TicketWriter(batchId, sourceSystem, ledger);
+        String failure = null;
+        try {
+            try {
+                switch (format) {
+                    case JSON -> readJson(body, writer);
+                    case NDJSON -> readNdjson(body, writer);
+                    case CSV -> readCsv(body, writer);
+                }
+            } catch (ZipException | EOFException e) {
+                throw new MalformedIngestionException("Corrupt or truncated compressed body", e);
+            }
+        } catch (IOException | MalformedIngestionException e) {
+            if (writer.count == 0) {
+                throw e;
+            }
+            failure = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+            log.warn("Upload into batch {} cut off after {} tickets: {}", writer.batchId, writer.count, failure);
+        }
+        writer.flush();
+        if (writer.batchId == null) {
+            writer.start();  // Body without a ticket array
+        }
+        log.info("Streamed {} {} tickets into batch {} ({} write batches, {} invalid records, {} deduped)",
+                writer.count, format, writer.batchId, writer.flushes, writer.failed, writer.deduped);
+        return new IngestionResult(writer.batchId, writer.sourceSystem, writer.count, writer.failed,
+                writer.deduped, writer.checksum.value(), List.copyOf(writer.errors), failure);
+    }
+
+    private void readJson(InputStream body, TicketWriter writer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.START_ARRAY) {
+                readTickets(parser, writer);
+            } else if (first == JsonToken.START_OBJECT) {
+                readRequest(parser, writer);
+            } else {
+                throw new JsonParseException(parser, "Expected a batch object or an array of tickets");
+            }
+        }
+    }
+
+    private void readRequest(JsonParser parser, TicketWriter writer) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "batchId" -> writer.header(parser, "batchId", parser.getValueAsString());
+                case "sourceSystem" -> writer.header(parser, "sourceSystem", parser.getValueAsString());
+                case TICKETS -> {
+                    if (value != JsonToken.START_ARRAY) {
+                        throw new JsonParseException(parser, "\"tickets\" must be an array");
+                    }
+                    readTickets(parser, writer);
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readTickets(JsonParser parser, TicketWriter writer) throws IOException {
+        writer.start();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            long line = parser.currentLocation().getLineNr();
+            // Syntax errors end the upload; a well-formed object that does not bind is one invalid record
+            JsonNode record = objectMapper.readTree(parser);
+            try {
+                writer.add(line, objectMapper.treeToValue(record, BatchIngestionRequest.TicketInput.class));
+            } catch (JsonProcessingException e) {
+                writer.reject(line, "Invalid ticket: " + e.getOriginalMessage());
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected a ticket object");
+        }
+    }
+
+    private void readNdjson(InputStream body, TicketWriter writer) throws IOException {
+        writer.start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                writer.add(line, objectMapper.readValue(text, BatchIngestionRequest.TicketInput.class));
+            } catch (JsonProcessingException e) {
+                writer.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(InputStream body, TicketWriter writer) throws IOException {
+        writer.start();
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            return;
+        }
+        int sourceReference = column(header, "sourceReference");
+        int title = column(header, "title");
+        int description = column(header, "description");
+        if (title < 0) {
+            throw new MalformedIngestionException("CSV header must contain a title column: " + header);
+        }
+
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            if (record.size() != header.size()) {
+                writer.reject(reader.recordLine(),
+                        "Expected " + header.size() + " fields but found " + record.size());
+                continue;
+            }
+            writer.add(reader.recordLine(), BatchIngestionRequest.TicketInput.builder()
+                    .sourceReference(field(record, sourceReference))
+                    .title(field(record, title))
+                    .description(field(record, description))
+                    .build());
+        }
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().replace("\uFEFF", "").equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> record, int index) {
+        return index >= 0 ? record.get(index) : null;
+    }
+
+    /**
+     * Outcome of one streamed upload.
+     *
+     * @param checksum BatchChecksum over the IDs of the stored tickets
+     * @param errors the first invalid records (at most 100); failedCount has the total
+     * @param failure why the upload was cut off after ticketCount tickets, or null if it was read to the end
+     */
+    public record IngestionResult(String batchId, String sourceSystem, int ticketCount, int failedCount,
+                                  int dedupedCount, String checksum, List<IngestionError> errors,
+                                  String failure) {}
+
+    /**
+     * An invalid record and the line it starts on (1-based).
+     */
+    public record IngestionError(long line, String message) {}
+
+    /**
+     * Buffers converted tickets and writes them in batches.
+     */
+    private final class TicketWriter {
+        private final List<DefectTicket> buffer = new ArrayList<>(writeBatchSize);
+        private final List<IngestionError> errors = new ArrayList<>();
+        private final BatchChecksum checksum = new BatchChecksum();
+        private final Instant now = Instant.now();
+        private final IngestionLedger ledger;
+        private String batchId;
+        private String sourceSystem;
+        private boolean started;
+        private int count;
+        private int failed;
+        private int deduped;
+        private int flushes;
+
+        private TicketWriter(String batchId, String sourceSystem, IngestionLedger ledger) {
+            this.batchId = batchId;
+            this.sourceSystem = sourceSystem;
+            this.ledger = ledger;
+        }
+
+        /**
+         * Take a header field from the body unless already given as a parameter.
+         */
+        private void header(JsonParser parser, String field, String value) throws JsonParseException {
+            if (started) {
+                throw new JsonParseException(parser, "\"" + field + "\" must precede \"tickets\"");
+            }
+            if ("batchId".equals(field) && batchId == null) {
+                batchId = value;
+            } else if ("sourceSystem".equals(field) && sourceSystem == null) {
+                sourceSystem = value;
+            }
+        }
+
+        /**
+         * Called when the tickets begin; header fields are final from here on.
+         */
+        private void start() {
+            started = true;
+            if (batchId == null) {
+                batchId = "batch-" + UUID.randomUUID();
+            }
+        }
+
+        private void add(long line, BatchIngestionRequest.TicketInput input) {
+            if (input.getTitle() == null || input.getTitle().isBlank()) {
+                reject(line, "title is required");
+                return;
+            }
+            DefectTicket ticket = DefectTicket.builder()
+                    .ticketId(UUID.randomUUID().toString())
+                    .batchId(batchId)
+                    .sourceSystem(sourceSystem)
+                    .sourceReference(input.getSourceReference())
+                    .title(input.getTitle())
+                    .description(input.getDescription())
+                    .status(TicketStatus.NEW)
+                    .auditTrail(List.of(AuditEntry.builder()
+                            .toStatus(TicketStatus.NEW)
+                            .actor("SYSTEM")
+                            .reason("Streaming batch ingestion")
+                            .timestamp(now)
+                            .build()))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .ttl(now.plus(ttlDays, ChronoUnit.DAYS).getEpochSecond())
+                    .build();
+            TicketDeduplicationService.Outcome outcome = deduplicationService.deduplicate(ticket);
+            if (outcome.duplicate()) {
+                deduped++;
+            }
+            if (outcome.ticketToStore() == null) {
+                return;
+            }
+            buffer.add(outcome.ticketToStore());
+            ledger.add(outcome.ticketToStore());
+            checksum.add(outcome.ticketToStore().getTicketId());
+            count++;
+            if (buffer.size() >= writeBatchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new IngestionError(line, message));
+            }
+            log.debug("Rejected record on line {} of batch {}: {}", line, batchId, message);
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            ticketRepository.saveAll(buffer);
+            buffer.clear();
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.AuditEntry;
+import com.client.defectticket.domain.model.DedupKey;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.repository.DedupKeyRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Idempotent ingestion keyed on (sourceSystem, sourceReference).
+ *
+ * Every new ticket claims its reference with a conditional put on a dedup
+ * key item; a failed claim means the reference was ingested before. An
+ * in-memory Bloom filter of the references this instance has seen fronts
+ * the table: a reference the filter has never seen goes straight to the
+ * conditional put (one write), a possibly seen one is read first, so a
+ * re-submitted batch costs reads instead of failed conditional writes.
+ *
+ * Duplicates are handled per policy:
+ * - SKIP: nothing is stored
+ * - UPDATE_DESCRIPTION: the existing ticket gets the new description
+ * - LINK: a new ticket is stored with linkedTicketId pointing at the existing one
+ *
+ * The key is claimed before the ticket is written (the caller stores its
+ * tickets in write batches), so a key whose ticket is not stored yet is a
+ * duplicate of an ingestion still in flight: a reference repeated within
+ * one request, or a retry overlapping the first attempt. Only a key older
+ * than claim-grace-seconds whose ticket is missing (expired, or the ticket
+ * write failed after the claim) is repointed at the new ticket, with a
+ * conditional put on the old ticketId so one ingestion wins.
+ *
+ * A request that fails after claiming (ticket write, SQS send) rolls its
+ * claims back (rollback): its tickets are deleted and the keys that still
+ * point at them are released, so the client's retry is not reported as a
+ * duplicate of tickets that were never queued.
+ */
+@Slf4j
+@Service
+public class TicketDeduplicationService {
+
+    public enum Policy { SKIP, UPDATE_DESCRIPTION, LINK }
+
+    private static final String UNKNOWN_SOURCE = "UNKNOWN";
+
+    private final DedupKeyRepository dedupKeyRepository;
+    private final DefectTicketRepository ticketRepository;
+    private final boolean enabled;
+    private final Policy policy;
+    private final Duration claimGrace;
+    private final BloomFilter seen;
+
+    public TicketDeduplicationService(
+            DedupKeyRepository dedupKeyRepository,
+            DefectTicketRepository ticketRepository,
+            @Value("${batch.ingestion.dedup.enabled:true}") boolean enabled,
+            @Value("${batch.ingestion.dedup.policy:SKIP}") Policy policy,
+            @Value("${batch.ingestion.dedup.bloom-expected-insertions:1000000}") long expectedInsertions,
+            @Value("${batch.ingestion.dedup.bloom-false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${batch.ingestion.dedup.claim-grace-seconds:900}") long claimGraceSeconds) {
+        this.dedupKeyRepository = dedupKeyRepository;
+        this.ticketRepository = ticketRepository;
+        this.enabled = enabled;
+        this.policy = policy;
+        this.claimGrace = Duration.ofSeconds(claimGraceSeconds);
+        this.seen = new BloomFilter(expectedInsertions, falsePositiveRate);
+        log.info("Ingestion dedup {} (policy {}, Bloom filter {} bits, {} hashes)",
+                enabled ? "enabled" : "disabled", policy, seen.bitSize(), seen.hashCount());
+    }
+
+    /**
+     * Claim the candidate's reference and apply the policy.
+     * The caller stores outcome.ticketToStore() if present.
+     */
+    public Outcome deduplicate(DefectTicket candidate) {
+        if (!enabled || candidate.getSourceReference() == null || candidate.getSourceReference().isBlank()) {
+            return new Outcome(candidate, false);
+        }
+        String key = keyOf(candidate);
+
+        Optional<DedupKey> claimed = Optional.empty();
+        if (seen.mightContain(key)) {
+            claimed = dedupKeyRepository.findById(key);
+        }
+        if (claimed.isEmpty()) {
+            if (dedupKeyRepository.putIfAbsent(dedupKey(key, candidate))) {
+                seen.add(key);
+                return new Outcome(candidate, false);
+            }
+            // Claimed by another instance, or before this instance started
+            claimed = dedupKeyRepository.findById(key);
+        }
+        seen.add(key);
+        if (claimed.isEmpty()) {
+            // Expired between the failed claim and the read
+            return dedupKeyRepository.putIfAbsent(dedupKey(key, candidate))
+                    ? new Outcome(candidate, false) : new Outcome(null, true);
+        }
+
+        Optional<DefectTicket> existing = ticketRepository.findById(claimed.get().getTicketId());
+        if (existing.isPresent()) {
+            return applyPolicy(existing.get(), candidate);
+        }
+        if (isWithinGrace(claimed.get())) {
+            return applyPendingPolicy(claimed.get(), candidate);
+        }
+        if (dedupKeyRepository.replaceIf(dedupKey(key, candidate), claimed.get().getTicketId())) {
+            log.info("Dedup key {} pointed at a missing ticket; repointed to {}", key, candidate.getTicketId());
+            return new Outcome(candidate, false);
+        }
+        // Repointed by a concurrent ingestion, whose ticket is now in flight
+        return dedupKeyRepository.findById(key)
+                .map(winner -> applyPendingPolicy(winner, candidate))
+                .orElse(new Outcome(null, true));
+    }
+
+    /**
+     * Undo a failed request: delete the tickets it stored and release the keys they claimed.
+     * Keys are only released once the tickets are gone; if the delete fails, the keys stay claimed
+     * (a retry skips the references) rather than letting the retry store them twice.
+     */
+    public void rollback(IngestionLedger ledger) {
+        if (ledger.size() == 0) {
+            return;
+        }
+        try {
+            ticketRepository.deleteAll(ledger.ticketIds());
+        } catch (RuntimeException e) {
+            log.error("Rollback failed: {} stored tickets not deleted, their sourceReferences stay claimed",
+                    ledger.size(), e);
+            return;
+        }
+        int released = 0;
+        if (enabled) {
+            for (int i = 0; i < ledger.size(); i++) {
+                String key = ledger.dedupKeys().get(i);
+                try {
+                    if (key != null && dedupKeyRepository.deleteIf(key, ledger.ticketIds().get(i))) {
+                        released++;
+                    }
+                } catch (RuntimeException e) {
+                    // The key expires into a repoint after claim-grace-seconds
+                    log.warn("Dedup key {} not released", key, e);
+                }
+            }
+        }
+        log.info("Rolled back {} tickets, released {} dedup keys", ledger.size(), released);
+    }
+
+    private boolean isWithinGrace(DedupKey key) {
+        return key.getCreatedAt() != null && key.getCreatedAt().plus(claimGrace).isAfter(Instant.now());
+    }
+
+    /**
+     * Duplicate of a ticket that is claimed but not stored yet.
+     * There is no stored ticket to update, so UPDATE_DESCRIPTION behaves like SKIP.
+     */
+    private Outcome applyPendingPolicy(DedupKey claimed, DefectTicket candidate) {
+        log.debug("Duplicate {} {} in batch {} (ticket {} not stored yet): {}", candidate.getSourceSystem(),
+                candidate.getSourceReference(), candidate.getBatchId(), claimed.getTicketId(), policy);
+        if (policy == Policy.LINK) {
+            candidate.setLinkedTicketId(claimed.getTicketId());
+            return new Outcome(candidate, true);
+        }
+        return new Outcome(null, true);
+    }
+
+    private Outcome applyPolicy(DefectTicket existing, DefectTicket candidate) {
+        log.debug("Duplicate {} {} in batch {} (existing ticket {}): {}", candidate.getSourceSystem(),
+                candidate.getSourceReference(), candidate.getBatchId(), existing.getTicketId(), policy);
+        switch (policy) {
+            case UPDATE_DESCRIPTION -> {
+                if (!Objects.equals(existing.getDescription(), candidate.getDescription())) {
+                    existing.setDescription(candidate.getDescription());
+                    existing.setUpdatedAt(Instant.now());
+                    if (existing.getAuditTrail() == null) {
+                        existing.setAuditTrail(new ArrayList<>());
+                    }
+                    existing.getAuditTrail().add(AuditEntry.builder()
+                            .fromStatus(existing.getStatus())
+                            .toStatus(existing.getStatus())
+                            .actor("SYSTEM")
+                            .reason("Description updated by re-ingestion in batch " + candidate.getBatchId())
+                            .timestamp(Instant.now())
+                            .build());
+                    ticketRepository.save(existing);
+                }
+                return new Outcome(null, true);
+            }
+            case LINK -> {
+                candidate.setLinkedTicketId(existing.getTicketId());
+                return new Outcome(candidate, true);
+            }
+            default -> {
+                return new Outcome(null, true);
+            }
+        }
+    }
+
+    private static DedupKey dedupKey(String key, DefectTicket ticket) {
+        return DedupKey.builder()
+                .dedupKey(key)
+                .ticketId(ticket.getTicketId())
+                .createdAt(Instant.now())
+                .ttl(ticket.getTtl())
+                .build();
+    }
+
+    /**
+     * Dedup key of a ticket, or null if it has no sourceReference.
+     */
+    static String keyOf(DefectTicket ticket) {
+        if (ticket.getSourceReference() == null || ticket.getSourceReference().isBlank()) {
+            return null;
+        }
+        String source = ticket.getSourceSystem() != null ? ticket.getSourceSystem() : UNKNOWN_SOURCE;
+        return source + "#" + ticket.getSourceReference();
+    }
+
+    /**
+     * Result of deduplicating one ticket.
+     *
+     * @param ticketToStore the ticket the caller should store, or null if nothing is to be stored
+     * @param duplicate whether the reference had been ingested before
+     */
+    public record Outcome(DefectTicket ticketToStore, boolean duplicate) {}
+}
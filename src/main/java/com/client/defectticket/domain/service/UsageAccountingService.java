@@ -0,0 +1,253 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.UsageTotalsDto;
+import com.client.defectticket.domain.model.BatchSummary;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.LlmUsage;
+import com.client.defectticket.domain.repository.BatchSummaryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-batch and per-sourceSystem LLM usage accounting.
+ *
+ * Classifications are recorded into LongAdder counters (no locks on the hot
+ * path). Pending per-batch deltas are periodically drained and flushed to the
+ * batch's BatchSummary with atomic ADD updates; per-source totals are kept
+ * in memory for the metrics endpoint.
+ *
+ * Cost counts uncached input, prompt cache reads and cache writes at their
+ * own rates (cached prefix tokens are not part of inputTokens).
+ */
+@Slf4j
+@Service
+public class UsageAccountingService {
+
+    private static final String UNKNOWN_SOURCE = "UNKNOWN";
+
+    private final BatchSummaryRepository summaryRepository;
+    private final double inputCostPer1k;
+    private final double outputCostPer1k;
+    private final double cacheReadCostPer1k;
+    private final double cacheWriteCostPer1k;
+
+    private final Map<String, UsageCounters> pendingByBatch = new ConcurrentHashMap<>();
+    private final Map<String, UsageCounters> totalsBySource = new ConcurrentHashMap<>();
+
+    public UsageAccountingService(
+            BatchSummaryRepository summaryRepository,
+            @Value("${llm.pricing.input-per-1k-tokens:0.003}") double inputCostPer1k,
+            @Value("${llm.pricing.output-per-1k-tokens:0.015}") double outputCostPer1k,
+            @Value("${llm.pricing.cache-read-per-1k-tokens:0.0003}") double cacheReadCostPer1k,
+            @Value("${llm.pricing.cache-write-per-1k-tokens:0.00375}") double cacheWriteCostPer1k) {
+        this.summaryRepository = summaryRepository;
+        this.inputCostPer1k = inputCostPer1k;
+        this.outputCostPer1k = outputCostPer1k;
+        this.cacheReadCostPer1k = cacheReadCostPer1k;
+        this.cacheWriteCostPer1k = cacheWriteCostPer1k;
+    }
+
+    /**
+     * Record a finished classification.
+     *
+     * @param retryCount Step Functions retries before this attempt (0 if unknown)
+     */
+    public void record(DefectTicket ticket, Classification classification, int retryCount) {
+        String source = ticket.getSourceSystem() != null ? ticket.getSourceSystem() : UNKNOWN_SOURCE;
+        LlmUsage usage = classification.getLlmUsage();
+
+        totalsBySource.computeIfAbsent(source, key -> new UsageCounters(source)).add(usage, retryCount);
+        if (ticket.getBatchId() != null) {
+            pendingByBatch.computeIfAbsent(ticket.getBatchId(), key -> new UsageCounters(source)).add(usage, retryCount);
+        }
+    }
+
+    /**
+     * Flush pending per-batch deltas to DynamoDB.
+     * Counters are drained with sumThenReset, so increments racing with the
+     * flush are carried over to the next one instead of being lost.
+     */
+    @Scheduled(fixedDelayString = "${llm.usage.flush-interval-ms:10000}", initialDelay = 10000)
+    public void flush() {
+        for (Map.Entry<String, UsageCounters> entry : pendingByBatch.entrySet()) {
+            String batchId = entry.getKey();
+            UsageCounters counters = entry.getValue();
+            BatchSummary delta = counters.drain(batchId);
+            if (delta.getClassifiedCount() == 0) {
+                // Idle since last flush; evict and carry over anything recorded meanwhile
+                pendingByBatch.remove(batchId, counters);
+                delta = counters.drain(batchId);
+                if (delta.getClassifiedCount() == 0) {
+                    continue;
+                }
+            }
+            delta.setEstimatedCostUsd(cost(delta.getInputTokens(), delta.getOutputTokens(),
+                    delta.getCacheReadInputTokens(), delta.getCacheWriteInputTokens()));
+            try {
+                summaryRepository.addUsage(delta);
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush usage for batch {}, re-queueing", batchId, e);
+                pendingByBatch.computeIfAbsent(batchId, key -> new UsageCounters(counters.sourceSystem))
+                        .restore(delta);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Persisted batch usage plus anything not yet flushed by this instance.
+     */
+    public Optional<UsageTotalsDto> getBatchUsage(String batchId) {
+        Optional<BatchSummary> persisted = summaryRepository.findById(batchId);
+        UsageCounters pending = pendingByBatch.get(batchId);
+        if (persisted.isEmpty() && pending == null) {
+            return Optional.empty();
+        }
+
+        BatchSummary summary = persisted.orElseGet(() -> BatchSummary.builder().batchId(batchId).build());
+        long classified = value(summary.getClassifiedCount());
+        long llmCalls = value(summary.getLlmCalls());
+        long inputTokens = value(summary.getInputTokens());
+        long outputTokens = value(summary.getOutputTokens());
+        long cacheRead = value(summary.getCacheReadInputTokens());
+        long cacheWrite = value(summary.getCacheWriteInputTokens());
+        long latency = value(summary.getTotalLlmLatencyMillis());
+        long retries = value(summary.getRetries());
+        String source = summary.getSourceSystem();
+        if (pending != null) {
+            classified += pending.classified.sum();
+            llmCalls += pending.llmCalls.sum();
+            inputTokens += pending.inputTokens.sum();
+            outputTokens += pending.outputTokens.sum();
+            cacheRead += pending.cacheReadTokens.sum();
+            cacheWrite += pending.cacheWriteTokens.sum();
+            latency += pending.latencyMillis.sum();
+            retries += pending.retries.sum();
+            source = source != null ? source : pending.sourceSystem;
+        }
+
+        return Optional.of(UsageTotalsDto.builder()
+                .key(batchId)
+                .sourceSystem(source)
+                .classifiedCount(classified)
+                .llmCalls(llmCalls)
+                .inputTokens(inputTokens)
+                .outputTokens(outputTokens)
+                .cacheReadInputTokens(cacheRead)
+                .cacheWriteInputTokens(cacheWrite)
+                .averageLlmLatencyMillis(llmCalls > 0 ? (double) latency / llmCalls : 0.0)
+                .retries(retries)
+                .estimatedCostUsd(cost(inputTokens, outputTokens, cacheRead, cacheWrite))
+                .build());
+    }
+
+    /**
+     * Usage totals per sourceSystem since this instance started.
+     */
+    public List<UsageTotalsDto> getSourceUsage() {
+        return totalsBySource.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingDouble(UsageTotalsDto::getEstimatedCostUsd).reversed())
+                .toList();
+    }
+
+    private double cost(long inputTokens, long outputTokens, long cacheReadTokens, long cacheWriteTokens) {
+        return inputTokens / 1000.0 * inputCostPer1k + outputTokens / 1000.0 * outputCostPer1k
+                + cacheReadTokens / 1000.0 * cacheReadCostPer1k + cacheWriteTokens / 1000.0 * cacheWriteCostPer1k;
+    }
+
+    private long value(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private final class UsageCounters {
+        private final String sourceSystem;
+        private final LongAdder classified = new LongAdder();
+        private final LongAdder llmCalls = new LongAdder();
+        private final LongAdder inputTokens = new LongAdder();
+        private final LongAdder outputTokens = new LongAdder();
+        private final LongAdder cacheReadTokens = new LongAdder();
+        private final LongAdder cacheWriteTokens = new LongAdder();
+        private final LongAdder latencyMillis = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+
+        private UsageCounters(String sourceSystem) {
+            this.sourceSystem = sourceSystem;
+        }
+
+        private void add(LlmUsage usage, int retryCount) {
+            classified.increment();
+            retries.add(retryCount);
+            if (usage != null) {
+                llmCalls.increment();
+                inputTokens.add(usage.getInputTokens() != null ? usage.getInputTokens() : 0);
+                outputTokens.add(usage.getOutputTokens() != null ? usage.getOutputTokens() : 0);
+                cacheReadTokens.add(usage.getCacheReadInputTokens() != null ? usage.getCacheReadInputTokens() : 0);
+                cacheWriteTokens.add(usage.getCacheWriteInputTokens() != null ? usage.getCacheWriteInputTokens() : 0);
+                latencyMillis.add(usage.getLatencyMillis() != null ? usage.getLatencyMillis() : 0);
+            }
+        }
+
+        private void restore(BatchSummary delta) {
+            classified.add(delta.getClassifiedCount());
+            llmCalls.add(delta.getLlmCalls());
+            inputTokens.add(delta.getInputTokens());
+            outputTokens.add(delta.getOutputTokens());
+            cacheReadTokens.add(delta.getCacheReadInputTokens());
+            cacheWriteTokens.add(delta.getCacheWriteInputTokens());
+            latencyMillis.add(delta.getTotalLlmLatencyMillis());
+            retries.add(delta.getRetries());
+        }
+
+        private BatchSummary drain(String batchId) {
+            return BatchSummary.builder()
+                    .batchId(batchId)
+                    .sourceSystem(sourceSystem)
+                    .classifiedCount(classified.sumThenReset())
+                    .llmCalls(llmCalls.sumThenReset())
+                    .inputTokens(inputTokens.sumThenReset())
+                    .outputTokens(outputTokens.sumThenReset())
+                    .cacheReadInputTokens(cacheReadTokens.sumThenReset())
+                    .cacheWriteInputTokens(cacheWriteTokens.sumThenReset())
+                    .totalLlmLatencyMillis(latencyMillis.sumThenReset())
+                    .retries(retries.sumThenReset())
+                    .build();
+        }
+
+        private UsageTotalsDto toDto(String key) {
+            long calls = llmCalls.sum();
+            long input = inputTokens.sum();
+            long output = outputTokens.sum();
+            long cacheRead = cacheReadTokens.sum();
+            long cacheWrite = cacheWriteTokens.sum();
+            return UsageTotalsDto.builder()
+                    .key(key)
+                    .sourceSystem(sourceSystem)
+                    .classifiedCount(classified.sum())
+                    .llmCalls(calls)
+                    .inputTokens(input)
+                    .outputTokens(output)
+                    .cacheReadInputTokens(cacheRead)
+                    .cacheWriteInputTokens(cacheWrite)
+                    .averageLlmLatencyMillis(calls > 0 ? (double) latencyMillis.sum() / calls : 0.0)
+                    .retries(retries.sum())
+                    .estimatedCostUsd(cost(input, output, cacheRead, cacheWrite))
+                    .build();
+        }
+    }
+}
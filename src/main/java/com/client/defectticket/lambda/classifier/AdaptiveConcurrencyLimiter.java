@@ -0,0 +1,185 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive concurrency limiter (AIMD) for Bedrock chat model calls.
+ *
+ * The permit count grows by one after a full window of healthy calls and is
+ * cut multiplicatively when Bedrock throttles or latency exceeds the target.
+ * Bounded by llm.max-concurrency so we run close to quota without retry storms.
+ *
+ * Waiters park on a ReentrantLock condition (not synchronized) so virtual
+ * threads unmount while queued instead of pinning their carrier.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double THROTTLE_RATE_ALPHA = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final long acquireTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    // Guarded by lock
+    private int limit;
+    private int inFlight;
+    private int queueDepth;
+    private int successesSinceIncrease;
+    private long lastDecreaseNanos;
+    private double throttleRate;
+
+    private final LongAdder totalCalls = new LongAdder();
+    private final LongAdder throttledCalls = new LongAdder();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(
+            @Value("${llm.limiter.initial-limit:4}") int initialLimit,
+            @Value("${llm.limiter.min-limit:1}") int minLimit,
+            @Value("${llm.max-concurrency:10}") int maxLimit,
+            @Value("${llm.limiter.backoff-ratio:0.5}") double backoffRatio,
+            @Value("${llm.limiter.latency-threshold-ms:20000}") long latencyThresholdMs,
+            @Value("${llm.limiter.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+    }
+
+    /**
+     * Run a call under the current concurrency limit.
+     *
+     * @throws LlmThrottlingException if no permit becomes available within the acquire timeout
+     */
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        boolean throttled = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            throttled = isThrottling(e);
+            throw e;
+        } finally {
+            release(throttled, System.nanoTime() - start);
+        }
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            long remaining = acquireTimeoutNanos;
+            queueDepth++;
+            try {
+                while (inFlight >= limit) {
+                    if (remaining <= 0L) {
+                        rejectedCalls.increment();
+                        throw new LlmConcurrencyLimitException(
+                                "Local LLM concurrency limit reached (limit=" + limit + ")");
+                    }
+                    remaining = permitAvailable.awaitNanos(remaining);
+                }
+            } finally {
+                queueDepth--;
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmConcurrencyLimitException("Interrupted while waiting for LLM permit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(boolean throttled, long latencyNanos) {
+        totalCalls.increment();
+        totalLatencyMillis.add(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        if (throttled) {
+            throttledCalls.increment();
+        }
+
+        lock.lock();
+        try {
+            inFlight--;
+            throttleRate += THROTTLE_RATE_ALPHA * ((throttled ? 1.0 : 0.0) - throttleRate);
+
+            if (throttled || latencyNanos > latencyThresholdNanos) {
+                decrease(throttled ? "throttled" : "latency above threshold");
+            } else if (++successesSinceIncrease >= limit && limit < maxLimit) {
+                limit++;
+                successesSinceIncrease = 0;
+                log.debug("LLM concurrency limit increased to {}", limit);
+            }
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Multiplicative decrease, at most once per latency window so a burst of
+     * throttles from calls already in flight does not collapse the limit.
+     */
+    private void decrease(String reason) {
+        successesSinceIncrease = 0;
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < latencyThresholdNanos) {
+            return;
+        }
+        int previous = limit;
+        limit = Math.max(minLimit, (int) Math.floor(limit * backoffRatio));
+        lastDecreaseNanos = now;
+        log.warn("LLM concurrency limit decreased {} -> {} ({})", previous, limit, reason);
+    }
+
+    private boolean isThrottling(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ThrottlingException || t instanceof LlmThrottlingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Current limiter state for monitoring.
+     */
+    public LimiterSnapshot snapshot() {
+        lock.lock();
+        try {
+            long calls = totalCalls.sum();
+            return LimiterSnapshot.builder()
+                    .limit(limit)
+                    .maxLimit(maxLimit)
+                    .inFlight(inFlight)
+                    .queueDepth(queueDepth)
+                    .throttleRate(throttleRate)
+                    .totalCalls(calls)
+                    .throttledCalls(throttledCalls.sum())
+                    .rejectedCalls(rejectedCalls.sum())
+                    .averageLatencyMillis(calls > 0 ? (double) totalLatencyMillis.sum() / calls : 0.0)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
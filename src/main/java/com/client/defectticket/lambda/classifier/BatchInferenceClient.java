@@ -0,0 +1,41 @@
+package com.client.defectticket.lambda.classifier;
+
+import java.nio.file.Path;
+
+/**
+ * Offline batch inference (Bedrock model invocation jobs).
+ *
+ * Input and output are JSONL files in the Bedrock batch record format, one
+ * record per line:
+ * - input:  {"recordId": "...", "modelInput": {Anthropic messages request}}
+ * - output: the input record plus "modelOutput" (Anthropic messages response)
+ *           or "error" ({"errorCode": ..., "errorMessage": ...})
+ *
+ * Jobs are asynchronous: submit, poll status, then read the output file.
+ */
+public interface BatchInferenceClient {
+
+    String RECORD_ID = "recordId";
+    String MODEL_INPUT = "modelInput";
+    String MODEL_OUTPUT = "modelOutput";
+    String ERROR = "error";
+
+    /**
+     * Submit a job for the given JSONL input file.
+     *
+     * @return job id for {@link #status(String)} and {@link #outputFile(String)}
+     */
+    String submit(String jobName, Path inputFile);
+
+    /**
+     * Current job status.
+     *
+     * @throws IllegalArgumentException if the job is unknown
+     */
+    BatchInferenceStatus status(String jobId);
+
+    /**
+     * JSONL output of a COMPLETED job.
+     */
+    Path outputFile(String jobId);
+}
@@ -0,0 +1,11 @@
+package com.client.defectticket.lambda.classifier;
+
+/**
+ * Lifecycle of a batch inference job.
+ */
+public enum BatchInferenceStatus {
+    SUBMITTED,
+    IN_PROGRESS,
+    COMPLETED,  // Output file is complete; individual records may still have failed
+    FAILED      // Whole job failed; no usable output
+}
@@ -0,0 +1,130 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.LlmUsage;
+import com.client.defectticket.domain.model.enums.Severity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escalation policy and statistics for the small → large model cascade.
+ *
+ * A small-model result is escalated to the large model when its confidence
+ * is below the threshold for its category, or when it reports a severity at
+ * or above llm.cascade.escalate-severity (high-impact tickets always get the
+ * large model's opinion).
+ */
+@Slf4j
+@Component
+public class CascadePolicy {
+
+    private static final List<String> TIERS = List.of(ModelTier.SMALL, ModelTier.LARGE);
+
+    private final boolean enabled;
+    private final double defaultThreshold;
+    private final Map<String, Double> categoryThresholds;
+    private final Severity escalateSeverity;
+    private final Map<String, TierCounters> counters = new ConcurrentHashMap<>();
+
+    public CascadePolicy(
+            @Value("${llm.cascade.enabled:false}") boolean enabled,
+            @Value("${llm.cascade.escalation-threshold:0.85}") double defaultThreshold,
+            @Value("${llm.cascade.category-thresholds:}") String categoryThresholds,
+            @Value("${llm.cascade.escalate-severity:HIGH}") Severity escalateSeverity) {
+        this.enabled = enabled;
+        this.defaultThreshold = defaultThreshold;
+        this.categoryThresholds = parseThresholds(categoryThresholds);
+        this.escalateSeverity = escalateSeverity;
+        TIERS.forEach(tier -> counters.put(tier, new TierCounters()));
+        if (enabled) {
+            log.info("Model cascade enabled: default threshold {}, category thresholds {}, escalate at {} or above",
+                    defaultThreshold, this.categoryThresholds, escalateSeverity);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether a small-model result must be re-classified by the large model.
+     */
+    public boolean shouldEscalate(Classification smallResult) {
+        if (smallResult.getConfidenceScore() == null || smallResult.getSeverity() == null) {
+            return true;
+        }
+        if (smallResult.getSeverity().ordinal() <= escalateSeverity.ordinal()) {
+            return true;
+        }
+        return smallResult.getConfidenceScore() < thresholdFor(smallResult.getCategory());
+    }
+
+    public double thresholdFor(String category) {
+        if (category == null) {
+            return defaultThreshold;
+        }
+        return categoryThresholds.getOrDefault(category.toLowerCase(Locale.ROOT), defaultThreshold);
+    }
+
+    /**
+     * Record the tier that decided a ticket, with end-to-end latency (including
+     * the small-model attempt for escalated tickets) and combined token usage.
+     */
+    public void recordDecision(String tier, long latencyMillis, LlmUsage usage) {
+        TierCounters tierCounters = counters.get(tier);
+        tierCounters.latency.record(latencyMillis);
+        if (usage != null) {
+            tierCounters.inputTokens.add(usage.getInputTokens() != null ? usage.getInputTokens() : 0);
+            tierCounters.outputTokens.add(usage.getOutputTokens() != null ? usage.getOutputTokens() : 0);
+        }
+    }
+
+    public List<TierStats> stats() {
+        long total = counters.values().stream().mapToLong(c -> c.latency.count()).sum();
+        return TIERS.stream()
+                .map(tier -> {
+                    TierCounters c = counters.get(tier);
+                    long decided = c.latency.count();
+                    return TierStats.builder()
+                            .tier(tier)
+                            .decided(decided)
+                            .decidedRate(total > 0 ? (double) decided / total : 0.0)
+                            .averageLatencyMillis(c.latency.averageMillis())
+                            .p95LatencyMillis(c.latency.percentileMillis(95))
+                            .inputTokens(c.inputTokens.sum())
+                            .outputTokens(c.outputTokens.sum())
+                            .build();
+                })
+                .toList();
+    }
+
+    private static Map<String, Double> parseThresholds(String value) {
+        Map<String, Double> thresholds = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return thresholds;
+        }
+        // Format: "Security:0.95,Performance:0.9"
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid llm.cascade.category-thresholds entry: " + entry);
+            }
+            thresholds.put(parts[0].strip().toLowerCase(Locale.ROOT), Double.parseDouble(parts[1].strip()));
+        }
+        return thresholds;
+    }
+
+    private static final class TierCounters {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder inputTokens = new LongAdder();
+        private final LongAdder outputTokens = new LongAdder();
+    }
+}
@@ -0,0 +1,19 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of the LLM circuit breaker.
+ */
+@Value
+@Builder
+public class CircuitBreakerSnapshot {
+    CircuitState state;
+    double failureRate;
+    int bufferedCalls;
+    long rejectedCalls;
+    Instant openedAt;
+}
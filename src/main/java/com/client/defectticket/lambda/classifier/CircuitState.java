@@ -0,0 +1,10 @@
+package com.client.defectticket.lambda.classifier;
+
+/**
+ * State of the LLM circuit breaker.
+ */
+public enum CircuitState {
+    CLOSED,     // LLM calls flow normally, failures are recorded
+    OPEN,       // LLM calls short-circuit to degraded classification
+    HALF_OPEN   // Limited trial calls decide whether to close again
+}
@@ -0,0 +1,27 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Prompt sent to the LLM for one ticket, with its token estimate.
+ * The system text is the static, cacheable prefix; the user text holds the ticket.
+ */
+@Value
+@Builder
+public class ClassificationPrompt {
+    String systemText;
+    String userText;
+    int inputTokenEstimate;
+    int systemTokenEstimate;
+    int originalDescriptionChars;
+    int sentDescriptionChars;
+    boolean descriptionTrimmed;
+
+    /**
+     * Full prompt text (system prefix followed by the ticket).
+     */
+    public String getText() {
+        return systemText + userText;
+    }
+}
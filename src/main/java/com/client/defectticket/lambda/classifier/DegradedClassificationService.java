@@ -0,0 +1,42 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Degraded classification used while the LLM circuit is open.
+ * Combines deterministic rules with the local heuristic and always
+ * routes the result to human review so the batch keeps moving.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DegradedClassificationService {
+
+    public static final String SOURCE = "DEGRADED";
+
+    private final RuleEvaluationService ruleEvaluator;
+    private final HeuristicClassifier heuristicClassifier;
+
+    public Classification classify(DefectTicket ticket) {
+        log.warn("LLM unavailable, using degraded classification for ticket {}", ticket.getTicketId());
+
+        Classification heuristic = heuristicClassifier.classify(ticket);
+        Optional<Classification> ruleResult = ruleEvaluator.evaluateRules(ticket);
+
+        Classification result = ruleResult
+                .map(rule -> ruleEvaluator.combineWithLlmResult(heuristic, rule))
+                .orElse(heuristic);
+
+        result.setClassificationSource(SOURCE);
+        result.setRequiresHumanApproval(true);
+        result.setReasoning("LLM unavailable (circuit open), degraded classification: " + result.getReasoning());
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.client.defectticket.lambda.classifier;
+
+import java.util.Arrays;
+
+/**
+ * Hashed word unigram and bigram features for the learned classifier.
+ *
+ * Tokens are lowercased and hashed character by character while scanning,
+ * so no substrings or lowercase copies of the (possibly very large)
+ * description are allocated. Collisions are accepted (feature hashing).
+ */
+public final class HashedNgramFeatures {
+
+    // Long descriptions are mostly stack traces; the head carries the signal
+    static final int MAX_CHARS = 8_000;
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int BIGRAM_SEED = 0x9e3779b9;
+
+    private HashedNgramFeatures() {
+    }
+
+    /**
+     * Feature indices in [0, 2^bits), one per token and one per adjacent token pair.
+     * Repeated n-grams yield repeated indices (term counts).
+     */
+    public static int[] extract(CharSequence text, int bits) {
+        int mask = (1 << bits) - 1;
+        int limit = Math.min(text.length(), MAX_CHARS);
+        int[] features = new int[64];
+        int count = 0;
+
+        int hash = FNV_OFFSET;
+        int tokenLength = 0;
+        int previous = 0;
+        boolean hasPrevious = false;
+
+        for (int i = 0; i <= limit; i++) {
+            char c = i < limit ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                tokenLength++;
+                continue;
+            }
+            if (tokenLength > 1) {
+                if (count + 2 > features.length) {
+                    features = Arrays.copyOf(features, features.length * 2);
+                }
+                features[count++] = mix(hash) & mask;
+                if (hasPrevious) {
+                    features[count++] = mix((previous * 31 + hash) ^ BIGRAM_SEED) & mask;
+                }
+                previous = hash;
+                hasPrevious = true;
+            }
+            hash = FNV_OFFSET;
+            tokenLength = 0;
+        }
+        return Arrays.copyOf(features, count);
+    }
+
+    // MurmurHash3 finalizer: spreads FNV's weak low bits before masking
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,125 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.lambda.rules.KeywordMatcher;
+import com.client.defectticket.lambda.rules.TicketText;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local keyword heuristic classifier.
+ * Produces a best-effort classification without any LLM call.
+ *
+ * Used by MockClassificationService for local development and as the
+ * fallback for degraded mode when the Bedrock circuit is open.
+ */
+@Component
+public class HeuristicClassifier {
+
+    private static final Set<String> CRITICAL_KEYWORDS = Set.of(
+        "crash", "critical", "security", "breach", "down", "outage", "data loss"
+    );
+
+    private static final Set<String> HIGH_KEYWORDS = Set.of(
+        "error", "fail", "broken", "cannot", "unable", "bug"
+    );
+
+    private static final Set<String> SECURITY_KEYWORDS = Set.of(
+        "security", "vulnerability", "injection", "xss", "authentication", "authorization"
+    );
+
+    private static final Set<String> COSMETIC_KEYWORDS = Set.of(
+        "ui", "alignment", "cosmetic", "style"
+    );
+
+    private static final long CRITICAL = 1L;
+    private static final long HIGH = 1L << 1;
+    private static final long SECURITY = 1L << 2;
+    private static final long COSMETIC = 1L << 3;
+
+    // All four keyword sets are scanned in a single pass over the ticket text
+    private static final KeywordMatcher MATCHER = KeywordMatcher.compile(
+        List.of(CRITICAL_KEYWORDS, HIGH_KEYWORDS, SECURITY_KEYWORDS, COSMETIC_KEYWORDS),
+        KeywordMatcher.Boundary.WORD_START
+    );
+
+    @Value("${llm.confidence-threshold}")
+    private double confidenceThreshold;
+
+    /**
+     * Classify a ticket using keyword analysis.
+     * Source is "HEURISTIC"; callers may relabel it.
+     */
+    public Classification classify(DefectTicket ticket) {
+        long matched = MATCHER.match(TicketText.of(ticket));
+
+        Severity severity;
+        String category;
+        String subcategory;
+        int priority;
+        double confidence;
+        String reasoning;
+
+        // Determine severity and category based on keywords
+        if ((matched & CRITICAL) != 0) {
+            severity = Severity.CRITICAL;
+            priority = 1;
+            confidence = 0.95;
+            reasoning = "Heuristic detected critical keywords";
+
+            if ((matched & SECURITY) != 0) {
+                category = "Security";
+                subcategory = "Critical Security Vulnerability";
+            } else {
+                category = "Bug";
+                subcategory = "Critical System Failure";
+            }
+
+        } else if ((matched & HIGH) != 0) {
+            severity = Severity.HIGH;
+            priority = 2;
+            confidence = 0.85;
+            reasoning = "Heuristic detected high severity keywords";
+
+            if ((matched & SECURITY) != 0) {
+                category = "Security";
+                subcategory = "Security Issue";
+            } else {
+                category = "Bug";
+                subcategory = "Major Functionality Issue";
+            }
+
+        } else if ((matched & COSMETIC) != 0) {
+            severity = Severity.LOW;
+            priority = 4;
+            confidence = 0.75;
+            reasoning = "Heuristic detected UI/cosmetic issue";
+            category = "Enhancement";
+            subcategory = "UI/UX Improvement";
+
+        } else {
+            severity = Severity.MEDIUM;
+            priority = 3;
+            confidence = 0.70;
+            reasoning = "Heuristic default classification";
+            category = "Bug";
+            subcategory = "General Issue";
+        }
+
+        return Classification.builder()
+                .category(category)
+                .subcategory(subcategory)
+                .severity(severity)
+                .priority(priority)
+                .confidenceScore(confidence)
+                .reasoning(reasoning)
+                .classificationSource("HEURISTIC")
+                .requiresHumanApproval(confidence < confidenceThreshold)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Incremental parser for a single JSON object arriving in streamed chunks.
+ *
+ * Tracks nesting and string state character by character; each top-level
+ * member is parsed as soon as its value is terminated (by ',' or the closing
+ * brace), so routing fields are available before the object is complete.
+ * Text before the opening brace (e.g. a markdown fence) and anything after
+ * the closing brace is ignored.
+ *
+ * Not thread-safe; one instance per streamed response.
+ */
+public class IncrementalJsonParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final Map<String, JsonNode> fields = new LinkedHashMap<>();
+
+    private boolean started;
+    private boolean complete;
+    private boolean inString;
+    private boolean escaped;
+    private int depth;
+    private int memberStart;
+
+    /**
+     * Feed the next chunk of model output.
+     */
+    public void feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length() && !complete; i++) {
+            char c = chunk.charAt(i);
+            if (!started) {
+                if (c == '{') {
+                    started = true;
+                    depth = 1;
+                    buffer.append(c);
+                    memberStart = buffer.length();
+                }
+                continue;
+            }
+
+            buffer.append(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> inString = true;
+                case '{', '[' -> depth++;
+                case '}', ']' -> {
+                    depth--;
+                    if (depth == 0) {
+                        completeMember(buffer.length() - 1);
+                        complete = true;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        completeMember(buffer.length() - 1);
+                        memberStart = buffer.length();
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Whether the top-level object has been closed.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Whether all given top-level fields have been fully parsed.
+     */
+    public boolean hasFields(String... names) {
+        for (String name : names) {
+            if (!fields.containsKey(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Optional<JsonNode> field(String name) {
+        return Optional.ofNullable(fields.get(name));
+    }
+
+    /**
+     * JSON text received so far, starting at the opening brace.
+     */
+    public String json() {
+        return buffer.toString();
+    }
+
+    private void completeMember(int end) {
+        String member = buffer.substring(memberStart, end).strip();
+        if (member.isEmpty()) {
+            return;
+        }
+        try {
+            JsonNode node = MAPPER.readTree("{" + member + "}");
+            node.fields().forEachRemaining(entry -> fields.put(entry.getKey(), entry.getValue()));
+        } catch (JsonProcessingException e) {
+            // Malformed member; left for the full-response converter to report
+        }
+    }
+}
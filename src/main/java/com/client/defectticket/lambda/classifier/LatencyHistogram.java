@@ -0,0 +1,64 @@
+package com.client.defectticket.lambda.classifier;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free fixed-bucket latency histogram for percentile estimates.
+ * Percentiles are reported as the upper bound of the containing bucket,
+ * which is precise enough for threshold tuning (1-2-5 bucket scale).
+ */
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = {
+        1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMillis = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long millis) {
+        int index = 0;
+        while (index < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        totalMillis.add(millis);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double averageMillis() {
+        long n = count.sum();
+        return n > 0 ? (double) totalMillis.sum() / n : 0.0;
+    }
+
+    /**
+     * Upper bound of the bucket containing the given percentile (0-100).
+     * Returns Long.MAX_VALUE if it falls into the overflow bucket.
+     */
+    public long percentileMillis(double percentile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(n * percentile / 100.0);
+        long cumulative = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            cumulative += buckets[i].sum();
+            if (cumulative >= target) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
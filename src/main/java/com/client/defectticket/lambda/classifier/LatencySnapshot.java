@@ -0,0 +1,18 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Point-in-time view of LLM call latency (blocking vs streaming).
+ */
+@Value
+@Builder
+public class LatencySnapshot {
+    long blockingCalls;
+    double averageBlockingMillis;
+    long streamingCalls;
+    double averageTimeToDecisionMillis;
+    double averageStreamingCompleteMillis;
+    long earlyStops;
+}
@@ -0,0 +1,265 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.repository.LearnedModelRepository;
+import com.client.defectticket.lambda.rules.TicketText;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded text classifier trained from human-approved classifications.
+ *
+ * Two naive Bayes models (category, severity) over hashed word n-grams.
+ * Classification reads an immutable snapshot, so it is lock-free and takes
+ * microseconds. Snapshots are trained in one process by LearnedModelTrainer
+ * and published as versioned training counts to the learned-models table.
+ * Every process, including the classify Lambda, checks the published version
+ * every refresh-interval-ms (one item read, on the classifying thread that
+ * finds the check due) and loads a newer snapshot when there is one.
+ *
+ * Rejected decisions carry no label (the reviewer does not say what the
+ * correct classification is) and are not used.
+ */
+@Slf4j
+@Component
+public class LearnedClassifier {
+
+    public static final String SOURCE = "LEARNED";
+
+    private static final double SMOOTHING = 1.0;
+    private static final int FORMAT_VERSION = 1;
+
+    private final LearnedModelRepository modelRepository;
+    private final int featureBits;
+    private final int minTrainingExamples;
+    private final double confidenceThreshold;
+    private final long refreshIntervalNanos;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile long checkedAtNanos;
+
+    public LearnedClassifier(
+            LearnedModelRepository modelRepository,
+            @Value("${classification.pipeline.learned.feature-bits:16}") int featureBits,
+            @Value("${classification.pipeline.learned.min-training-examples:200}") int minTrainingExamples,
+            @Value("${llm.confidence-threshold}") double confidenceThreshold,
+            @Value("${classification.pipeline.learned.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.modelRepository = modelRepository;
+        this.featureBits = featureBits;
+        this.minTrainingExamples = minTrainingExamples;
+        this.confidenceThreshold = confidenceThreshold;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+        this.checkedAtNanos = System.nanoTime() - refreshIntervalNanos;  // First use checks
+    }
+
+    /**
+     * Classify with the current snapshot.
+     *
+     * @return empty until the model has seen min-training-examples approved decisions
+     */
+    public Optional<Classification> classify(DefectTicket ticket) {
+        Snapshot current = current();
+        if (current == null || current.examples() < minTrainingExamples) {
+            return Optional.empty();
+        }
+
+        int[] features = HashedNgramFeatures.extract(TicketText.of(ticket), featureBits);
+        NaiveBayesModel.Prediction category = current.category().predict(features);
+        NaiveBayesModel.Prediction severity = current.severity().predict(features);
+        if (category == null || severity == null) {
+            return Optional.empty();
+        }
+
+        Severity predictedSeverity = Severity.valueOf(severity.label());
+        double confidence = Math.min(category.probability(), severity.probability());
+        return Optional.of(Classification.builder()
+                .category(category.label())
+                .severity(predictedSeverity)
+                .priority(predictedSeverity.ordinal() + 1)
+                .confidenceScore(confidence)
+                .reasoning(String.format("Learned model v%d: p(category)=%.3f, p(severity)=%.3f",
+                        current.version(), category.probability(), severity.probability()))
+                .classificationSource(SOURCE)
+                .requiresHumanApproval(confidence < confidenceThreshold)
+                .build());
+    }
+
+    /**
+     * Load the published snapshot if it is newer than the current one.
+     * Failures are logged only; classification keeps the current snapshot.
+     */
+    public void refresh() {
+        try {
+            long latest = modelRepository.latestVersion();
+            if (latest > versionOf(snapshot.get())) {
+                Optional<byte[]> data = modelRepository.load(latest);
+                if (data.isPresent()) {
+                    install(latest, decode(data.get()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Learned classifier refresh failed; keeping snapshot v{}", versionOf(snapshot.get()), e);
+        }
+    }
+
+    public LearnedModelInfo info() {
+        Snapshot current = current();
+        if (current == null) {
+            return LearnedModelInfo.builder().categories(List.of()).severities(List.of()).build();
+        }
+        return LearnedModelInfo.builder()
+                .version(current.version())
+                .trainingExamples(current.examples())
+                .ready(current.examples() >= minTrainingExamples)
+                .trainedAt(current.trainedAt())
+                .categories(current.category().labels())
+                .severities(current.severity().labels())
+                .build();
+    }
+
+    /**
+     * Empty training counts for this classifier's feature space.
+     */
+    Trainers newTrainers() {
+        return new Trainers(featureBits);
+    }
+
+    /**
+     * Build a snapshot from training counts and swap it in, unless a newer version is already active.
+     */
+    void install(long version, Trainers source) {
+        Snapshot next = new Snapshot(version, source.examples, source.trainedAt,
+                source.category.build(), source.severity.build());
+        Snapshot previous = snapshot.getAndUpdate(current -> version > versionOf(current) ? next : current);
+        if (version > versionOf(previous)) {
+            log.info("Learned classifier snapshot v{} active ({} examples)", version, next.examples());
+        }
+    }
+
+    /**
+     * Training counts written by {@link Trainers#encode()}.
+     *
+     * @throws IOException if the data is not a snapshot for this feature space
+     */
+    Trainers decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            int format = in.readInt();
+            if (format != FORMAT_VERSION) {
+                throw new IOException("Unknown learned model format " + format);
+            }
+            long examples = in.readLong();
+            Instant trainedAt = Instant.ofEpochMilli(in.readLong());
+            NaiveBayesModel.Trainer category = NaiveBayesModel.Trainer.readFrom(in);
+            NaiveBayesModel.Trainer severity = NaiveBayesModel.Trainer.readFrom(in);
+            if (category.buckets() != 1 << featureBits || severity.buckets() != 1 << featureBits) {
+                throw new IOException("Learned model has " + category.buckets()
+                        + " feature buckets, configured " + (1 << featureBits));
+            }
+            return new Trainers(featureBits, category, severity, examples, trainedAt);
+        }
+    }
+
+    /**
+     * Current snapshot, checking for a newer published one when the refresh interval has passed.
+     * Only one thread checks; the others use the current snapshot meanwhile.
+     */
+    private Snapshot current() {
+        if (System.nanoTime() - checkedAtNanos >= refreshIntervalNanos && refreshLock.tryLock()) {
+            try {
+                if (System.nanoTime() - checkedAtNanos >= refreshIntervalNanos) {
+                    refresh();
+                    checkedAtNanos = System.nanoTime();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return snapshot.get();
+    }
+
+    private static long versionOf(Snapshot snapshot) {
+        return snapshot != null ? snapshot.version() : 0;
+    }
+
+    private record Snapshot(long version, long examples, Instant trainedAt,
+                            NaiveBayesModel category, NaiveBayesModel severity) {}
+
+    /**
+     * Mutable training counts. Not thread-safe; LearnedModelTrainer synchronizes.
+     */
+    static final class Trainers {
+        private final int featureBits;
+        private final NaiveBayesModel.Trainer category;
+        private final NaiveBayesModel.Trainer severity;
+        private long examples;
+        private Instant trainedAt;
+
+        private Trainers(int featureBits) {
+            this(featureBits, new NaiveBayesModel.Trainer(1 << featureBits, SMOOTHING),
+                    new NaiveBayesModel.Trainer(1 << featureBits, SMOOTHING), 0, Instant.now());
+        }
+
+        private Trainers(int featureBits, NaiveBayesModel.Trainer category, NaiveBayesModel.Trainer severity,
+                         long examples, Instant trainedAt) {
+            this.featureBits = featureBits;
+            this.category = category;
+            this.severity = severity;
+            this.examples = examples;
+            this.trainedAt = trainedAt;
+        }
+
+        /**
+         * Add one labeled example.
+         *
+         * @return false if the label has no category or severity
+         */
+        boolean add(DefectTicket ticket, Classification label) {
+            if (label.getCategory() == null || label.getSeverity() == null) {
+                return false;
+            }
+            int[] features = HashedNgramFeatures.extract(TicketText.of(ticket), featureBits);
+            category.add(features, label.getCategory());
+            severity.add(features, label.getSeverity().name());
+            examples++;
+            trainedAt = Instant.now();
+            return true;
+        }
+
+        long examples() {
+            return examples;
+        }
+
+        /**
+         * Gzipped counts, for LearnedModelRepository.publish.
+         */
+        byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(examples);
+                out.writeLong(trainedAt.toEpochMilli());
+                category.writeTo(out);
+                severity.writeTo(out);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
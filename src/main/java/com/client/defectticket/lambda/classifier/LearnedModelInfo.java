@@ -0,0 +1,21 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Version and training state of the active learned-classifier snapshot.
+ */
+@Value
+@Builder
+public class LearnedModelInfo {
+    long version;
+    long trainingExamples;
+    boolean ready;  // Enough examples to classify
+    Instant trainedAt;
+    List<String> categories;
+    List<String> severities;
+}
@@ -0,0 +1,196 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.ApprovalRequest;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.ApprovalStatus;
+import com.client.defectticket.domain.repository.ApprovalRequestRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.repository.LearnedModelRepository;
+import com.client.defectticket.domain.service.ApprovalDecidedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trains the learned classifier from approved reviewer decisions and
+ * publishes versioned snapshots that every LearnedClassifier loads.
+ *
+ * Runs in the one process where decisions are saved (the API); the Lambda
+ * functions turn it off with classification.pipeline.learned.trainer.enabled.
+ * Approved decisions are only queued by the event listener, so a reviewer's
+ * request does no training work; the queue is learned in one batch and
+ * published every publish-interval-ms. At startup the trainer continues from
+ * the latest published snapshot. A full retrain from the approval table runs
+ * only when nothing was published yet, or on request; it also picks up
+ * decisions still queued when the process stopped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "classification.pipeline.learned.trainer.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class LearnedModelTrainer {
+
+    private final LearnedClassifier classifier;
+    private final LearnedModelRepository modelRepository;
+    private final ApprovalRequestRepository approvalRepository;
+    private final DefectTicketRepository ticketRepository;
+    private final ObjectMapper objectMapper;
+    private final Queue<Example> pending = new ConcurrentLinkedQueue<>();
+
+    // Guarded by this
+    private LearnedClassifier.Trainers trainers;
+    private long publishedVersion;
+    private boolean unpublished;
+
+    public LearnedModelTrainer(
+            LearnedClassifier classifier,
+            LearnedModelRepository modelRepository,
+            ApprovalRequestRepository approvalRepository,
+            DefectTicketRepository ticketRepository,
+            ObjectMapper objectMapper) {
+        this.classifier = classifier;
+        this.modelRepository = modelRepository;
+        this.approvalRepository = approvalRepository;
+        this.ticketRepository = ticketRepository;
+        this.objectMapper = objectMapper;
+        this.trainers = classifier.newTrainers();
+    }
+
+    /**
+     * Continue from the latest published snapshot, or train one if there is none.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        try {
+            long latest = modelRepository.latestVersion();
+            Optional<byte[]> data = latest > 0 ? modelRepository.load(latest) : Optional.empty();
+            if (data.isPresent()) {
+                trainers = classifier.decode(data.get());
+                publishedVersion = latest;
+                classifier.install(latest, trainers);
+                log.info("Learned model trainer continues from v{} ({} examples)", latest, trainers.examples());
+                return;
+            }
+            retrain();
+        } catch (Exception e) {
+            log.warn("Learned model trainer could not start from v{}; training from new decisions",
+                    publishedVersion, e);
+        }
+    }
+
+    /**
+     * Queue an approved reviewer decision for the next publish.
+     * Runs inside the reviewer's request, so it does no I/O and cannot fail the approval.
+     */
+    @EventListener
+    public void onApprovalDecided(ApprovalDecidedEvent event) {
+        if (event.approved() && event.aiRecommendation() != null) {
+            pending.add(new Example(event.ticketId(), event.aiRecommendation()));
+        }
+    }
+
+    /**
+     * Learn the queued decisions and publish a new snapshot if anything changed.
+     */
+    @Scheduled(fixedDelayString = "${classification.pipeline.learned.publish-interval-ms:60000}")
+    public synchronized void publishPending() {
+        List<Example> batch = new ArrayList<>();
+        for (Example example = pending.poll(); example != null; example = pending.poll()) {
+            batch.add(example);
+        }
+        if (!batch.isEmpty()) {
+            Map<String, DefectTicket> tickets;
+            try {
+                tickets = ticketsById(batch.stream().map(Example::ticketId).toList());
+            } catch (Exception e) {
+                pending.addAll(batch);
+                log.warn("Loading tickets of {} approved decisions failed; retrying next interval", batch.size(), e);
+                return;
+            }
+            for (Example example : batch) {
+                DefectTicket ticket = tickets.get(example.ticketId());
+                if (ticket != null && trainers.add(ticket, example.label())) {
+                    unpublished = true;
+                }
+            }
+        }
+        if (unpublished) {
+            publish();
+        }
+    }
+
+    /**
+     * Rebuild the training counts from all approved decisions and publish them.
+     *
+     * @return number of training examples
+     */
+    public synchronized long retrain() {
+        pending.clear();  // Already saved, so included in the approval table read below
+        List<ApprovalRequest> approved = approvalRepository.findByStatus(ApprovalStatus.APPROVED);
+        Map<String, DefectTicket> tickets = ticketsById(approved.stream().map(ApprovalRequest::getTicketId).toList());
+
+        LearnedClassifier.Trainers rebuilt = classifier.newTrainers();
+        for (ApprovalRequest approval : approved) {
+            Classification label = readLabel(approval);
+            DefectTicket ticket = tickets.get(approval.getTicketId());
+            if (label != null && ticket != null) {
+                rebuilt.add(ticket, label);
+            }
+        }
+        trainers = rebuilt;
+        unpublished = true;
+        publish();
+        log.info("Learned model retrained from {} approved decisions ({} examples)",
+                approved.size(), rebuilt.examples());
+        return rebuilt.examples();
+    }
+
+    private void publish() {
+        long version = publishedVersion + 1;
+        try {
+            if (modelRepository.publish(version, trainers.encode())) {
+                publishedVersion = version;
+                unpublished = false;
+                classifier.install(version, trainers);
+            } else {
+                // Another trainer published meanwhile; number after it and publish again next interval
+                publishedVersion = modelRepository.latestVersion();
+            }
+        } catch (Exception e) {
+            log.warn("Publishing learned model v{} failed; retrying next interval", version, e);
+        }
+    }
+
+    private Map<String, DefectTicket> ticketsById(List<String> ticketIds) {
+        return ticketRepository.findAllById(ticketIds).stream()
+                .collect(Collectors.toMap(DefectTicket::getTicketId, Function.identity()));
+    }
+
+    private Classification readLabel(ApprovalRequest approval) {
+        if (approval.getAiRecommendation() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(approval.getAiRecommendation(), Classification.class);
+        } catch (Exception e) {
+            log.debug("Skipping unreadable AI recommendation for approval {}", approval.getApprovalId());
+            return null;
+        }
+    }
+
+    private record Example(String ticketId, Classification label) {}
+}
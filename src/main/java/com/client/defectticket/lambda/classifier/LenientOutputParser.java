@@ -0,0 +1,312 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.enums.Severity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tolerant parser for the LLM's structured classification output.
+ *
+ * Strict parsing is tried first. Common deviations are repaired instead of
+ * failing the call (which would make Step Functions re-invoke the Lambda and
+ * pay for a new LLM call):
+ * - markdown fences or prose around the JSON object
+ * - trailing commas, single quotes, unquoted field names, comments
+ * - field names in other casings (e.g. "Severity", "confidence_score")
+ * - lowercase severity and synonyms such as "blocker" or "minor"
+ * - confidence as a percentage ("85%", 85) or outside [0, 1]
+ * - priority as "P2" or outside 1..5
+ *
+ * Only output without a JSON object, or without a usable severity or
+ * confidence, is rejected with LlmOutputParseException and therefore retried.
+ */
+@Slf4j
+@Component
+public class LenientOutputParser {
+
+    /**
+     * Kinds of repair applied to a response; counted for the metrics endpoint.
+     */
+    public enum Repair {
+        SURROUNDING_TEXT,   // Markdown fence or prose around the object
+        SYNTAX,             // Needed the lenient JSON reader
+        FIELD_NAME,         // Field matched by alias or other casing
+        SEVERITY,           // Severity case or synonym mapped onto Severity
+        CONFIDENCE,         // Percentage rescaled or value clamped
+        PRIORITY            // Priority parsed from text or clamped
+    }
+
+    private static final ObjectMapper STRICT = new ObjectMapper();
+    private static final ObjectMapper LENIENT = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .enable(JsonReadFeature.ALLOW_LEADING_PLUS_SIGN_FOR_NUMBERS)
+            .build();
+
+    private static final Map<String, Severity> SEVERITY_SYNONYMS = Map.ofEntries(
+            Map.entry("BLOCKER", Severity.CRITICAL),
+            Map.entry("SEV1", Severity.CRITICAL),
+            Map.entry("P0", Severity.CRITICAL),
+            Map.entry("URGENT", Severity.CRITICAL),
+            Map.entry("MAJOR", Severity.HIGH),
+            Map.entry("SEV2", Severity.HIGH),
+            Map.entry("SEVERE", Severity.HIGH),
+            Map.entry("MODERATE", Severity.MEDIUM),
+            Map.entry("NORMAL", Severity.MEDIUM),
+            Map.entry("MED", Severity.MEDIUM),
+            Map.entry("SEV3", Severity.MEDIUM),
+            Map.entry("MINOR", Severity.LOW),
+            Map.entry("SEV4", Severity.LOW),
+            Map.entry("COSMETIC", Severity.TRIVIAL),
+            Map.entry("NEGLIGIBLE", Severity.TRIVIAL));
+
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final int MIN_PRIORITY = 1;
+    private static final int MAX_PRIORITY = 5;
+
+    private final LongAdder cleanParses = new LongAdder();
+    private final LongAdder repairedParses = new LongAdder();
+    private final LongAdder failedParses = new LongAdder();
+    private final Map<Repair, LongAdder> repairs = new EnumMap<>(Repair.class);
+
+    public LenientOutputParser() {
+        for (Repair repair : Repair.values()) {
+            repairs.put(repair, new LongAdder());
+        }
+    }
+
+    /**
+     * Parse and normalize model output.
+     *
+     * @throws LlmOutputParseException if the output cannot be repaired
+     */
+    public SpringAiClassificationService.ClassificationOutput parse(String content) {
+        Set<Repair> applied = EnumSet.noneOf(Repair.class);
+        try {
+            JsonNode node = readObject(content == null ? "" : content, applied);
+            SpringAiClassificationService.ClassificationOutput output = normalize(node, applied);
+
+            if (applied.isEmpty()) {
+                cleanParses.increment();
+            } else {
+                repairedParses.increment();
+                applied.forEach(repair -> repairs.get(repair).increment());
+                log.debug("Repaired LLM output: {}", applied);
+            }
+            return output;
+        } catch (IllegalArgumentException e) {
+            failedParses.increment();
+            log.warn("LLM output could not be repaired: {}", e.getMessage());
+            throw new LlmOutputParseException("Unparseable LLM output: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Severity from a (possibly partial) response field; empty if not mappable.
+     * Does not count repairs - used for the early streaming decision.
+     */
+    public Optional<Severity> severityOf(JsonNode node) {
+        return node == null || !node.isValueNode()
+                ? Optional.empty()
+                : severityOf(node.asText(), EnumSet.noneOf(Repair.class));
+    }
+
+    /**
+     * Confidence in [0, 1] from a (possibly partial) response field; empty if not numeric.
+     */
+    public OptionalDouble confidenceOf(JsonNode node) {
+        return confidenceOf(node, EnumSet.noneOf(Repair.class));
+    }
+
+    public OutputRepairSnapshot snapshot() {
+        Map<Repair, Long> counts = new EnumMap<>(Repair.class);
+        repairs.forEach((repair, count) -> counts.put(repair, count.sum()));
+        return OutputRepairSnapshot.builder()
+                .cleanParses(cleanParses.sum())
+                .repairedParses(repairedParses.sum())
+                .failedParses(failedParses.sum())
+                .repairs(counts)
+                .build();
+    }
+
+    private JsonNode readObject(String content, Set<Repair> applied) {
+        String text = content.strip();
+        int start = text.indexOf('{');
+        int end = text.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("no JSON object in response");
+        }
+        if (start > 0 || end < text.length() - 1) {
+            applied.add(Repair.SURROUNDING_TEXT);
+        }
+        String json = text.substring(start, end + 1);
+
+        try {
+            return requireObject(STRICT.readTree(json));
+        } catch (JsonProcessingException strictFailure) {
+            try {
+                JsonNode node = requireObject(LENIENT.readTree(json));
+                applied.add(Repair.SYNTAX);
+                return node;
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private JsonNode requireObject(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("response is not a JSON object");
+        }
+        return node;
+    }
+
+    private SpringAiClassificationService.ClassificationOutput normalize(JsonNode node, Set<Repair> applied) {
+        JsonNode severityNode = field(node, "severity", applied);
+        Severity severity = severityNode == null || !severityNode.isValueNode() ? null
+                : severityOf(severityNode.asText(), applied).orElse(null);
+        if (severity == null) {
+            throw new IllegalArgumentException("unknown severity " + severityNode);
+        }
+
+        OptionalDouble confidence = confidenceOf(field(node, "confidenceScore", applied), applied);
+        if (confidence.isEmpty()) {
+            throw new IllegalArgumentException("missing or non-numeric confidenceScore");
+        }
+
+        return new SpringAiClassificationService.ClassificationOutput(
+                severity.name(),
+                confidence.getAsDouble(),
+                priorityOf(field(node, "priority", applied), applied),
+                text(field(node, "category", applied)),
+                text(field(node, "subcategory", applied)),
+                text(field(node, "reasoning", applied)));
+    }
+
+    /**
+     * Field by exact name, else by name ignoring case and '_' / '-' separators.
+     */
+    private JsonNode field(JsonNode node, String name, Set<Repair> applied) {
+        JsonNode exact = node.get(name);
+        if (exact != null) {
+            return exact;
+        }
+        String wanted = canonical(name);
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            String key = canonical(entry.getKey());
+            // "confidence" alone is a common shortening of confidenceScore
+            if (key.equals(wanted) || (wanted.equals("confidencescore") && key.equals("confidence"))) {
+                applied.add(Repair.FIELD_NAME);
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String canonical(String name) {
+        return name.replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    private Optional<Severity> severityOf(String value, Set<Repair> applied) {
+        String trimmed = value.strip();
+        String upper = trimmed.toUpperCase(Locale.ROOT).replace(" ", "").replace("-", "");
+        Severity severity;
+        try {
+            severity = Severity.valueOf(upper);
+        } catch (IllegalArgumentException e) {
+            severity = SEVERITY_SYNONYMS.get(upper);
+        }
+        if (severity != null && !trimmed.equals(severity.name())) {
+            applied.add(Repair.SEVERITY);
+        }
+        return Optional.ofNullable(severity);
+    }
+
+    private OptionalDouble confidenceOf(JsonNode node, Set<Repair> applied) {
+        if (node == null || node.isNull()) {
+            return OptionalDouble.empty();
+        }
+        double value;
+        boolean percent = false;
+        if (node.isNumber()) {
+            value = node.asDouble();
+        } else if (node.isTextual()) {
+            String text = node.asText().strip();
+            percent = text.endsWith("%");
+            try {
+                value = Double.parseDouble(percent ? text.substring(0, text.length() - 1).strip() : text);
+            } catch (NumberFormatException e) {
+                return OptionalDouble.empty();
+            }
+            applied.add(Repair.CONFIDENCE);
+        } else {
+            return OptionalDouble.empty();
+        }
+        if (Double.isNaN(value)) {
+            return OptionalDouble.empty();
+        }
+
+        // 85 or "85%" means 0.85; a near-miss such as 1.2 is clamped, not read as 1.2%
+        boolean looksLikePercent = value > 1.0 && value <= 100.0 && (value >= 2.0 || value == Math.rint(value));
+        if (percent || looksLikePercent) {
+            value = value / 100.0;
+            applied.add(Repair.CONFIDENCE);
+        }
+        if (value < 0.0 || value > 1.0) {
+            value = Math.max(0.0, Math.min(1.0, value));
+            applied.add(Repair.CONFIDENCE);
+        }
+        return OptionalDouble.of(value);
+    }
+
+    private Integer priorityOf(JsonNode node, Set<Repair> applied) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        int priority;
+        if (node.isIntegralNumber()) {
+            priority = node.asInt();
+        } else if (node.isNumber()) {
+            priority = (int) Math.round(node.asDouble());
+            applied.add(Repair.PRIORITY);
+        } else {
+            // "P2", "2 - high"
+            Matcher digits = DIGITS.matcher(node.asText());
+            if (!digits.find()) {
+                return null;
+            }
+            priority = digits.group().length() > 2 ? MAX_PRIORITY : Integer.parseInt(digits.group());
+            applied.add(Repair.PRIORITY);
+        }
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+            priority = Math.max(MIN_PRIORITY, Math.min(MAX_PRIORITY, priority));
+            applied.add(Repair.PRIORITY);
+        }
+        return priority;
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+}
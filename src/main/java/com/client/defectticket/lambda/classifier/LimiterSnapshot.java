@@ -0,0 +1,22 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Point-in-time view of the adaptive LLM concurrency limiter.
+ * throttleRate is an exponentially weighted share of throttled calls.
+ */
+@Value
+@Builder
+public class LimiterSnapshot {
+    int limit;
+    int maxLimit;
+    int inFlight;
+    int queueDepth;
+    double throttleRate;
+    long totalCalls;
+    long throttledCalls;
+    long rejectedCalls;
+    double averageLatencyMillis;
+}
@@ -0,0 +1,196 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker around the Bedrock classifier.
+ *
+ * Failure rate is measured over a count-based sliding window of recent calls.
+ * Once it crosses the threshold the circuit opens and ClassificationHandler
+ * falls back to degraded (rules + heuristic) classification instead of burning
+ * through Step Functions retries. After the open duration a few trial calls
+ * are let through (half-open) to decide whether Bedrock has recovered.
+ */
+@Slf4j
+@Component
+public class LlmCircuitBreaker {
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenPermittedCalls;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final boolean[] outcomes;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAtNanos;
+    private Instant openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private long rejectedCalls;
+
+    public LlmCircuitBreaker(
+            @Value("${llm.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${llm.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${llm.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${llm.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${llm.circuit-breaker.half-open-permitted-calls:3}") int halfOpenPermittedCalls) {
+        this.outcomes = new boolean[Math.max(1, slidingWindowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenPermittedCalls = Math.max(1, halfOpenPermittedCalls);
+    }
+
+    /**
+     * Ask whether an LLM call may proceed.
+     * Returns false while the circuit is open; callers must use degraded mode.
+     */
+    public boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == CircuitState.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    rejectedCalls++;
+                    return false;
+                }
+                transitionTo(CircuitState.HALF_OPEN);
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (halfOpenInFlight >= halfOpenPermittedCalls) {
+                    rejectedCalls++;
+                    return false;
+                }
+                halfOpenInFlight++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a successful LLM call.
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> record(false);
+                case HALF_OPEN -> {
+                    if (++halfOpenSuccesses >= halfOpenPermittedCalls) {
+                        transitionTo(CircuitState.CLOSED);
+                    }
+                }
+                case OPEN -> { /* late result from a call admitted before opening */ }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a failed (throttled or errored) LLM call.
+     */
+    public void onFailure() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    record(true);
+                    if (windowCount >= minimumCalls && failureRate() >= failureRateThreshold) {
+                        transitionTo(CircuitState.OPEN);
+                    }
+                }
+                case HALF_OPEN -> transitionTo(CircuitState.OPEN);
+                case OPEN -> { /* already open */ }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand back a permit for a call that ended without a Bedrock outcome
+     * (neither success nor throttling/service error), so half-open trials cannot leak.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            if (state == CircuitState.HALF_OPEN && halfOpenInFlight > 0) {
+                halfOpenInFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isOpen() {
+        lock.lock();
+        try {
+            return state == CircuitState.OPEN;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CircuitBreakerSnapshot snapshot() {
+        lock.lock();
+        try {
+            return CircuitBreakerSnapshot.builder()
+                    .state(state)
+                    .failureRate(failureRate())
+                    .bufferedCalls(windowCount)
+                    .rejectedCalls(rejectedCalls)
+                    .openedAt(state == CircuitState.CLOSED ? null : openedAt)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == outcomes.length) {
+            if (outcomes[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        outcomes[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % outcomes.length;
+    }
+
+    private double failureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    private void transitionTo(CircuitState next) {
+        log.warn("LLM circuit breaker {} -> {} (failureRate={})", state, next, failureRate());
+        state = next;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (next == CircuitState.OPEN) {
+            openedAtNanos = System.nanoTime();
+            openedAt = Instant.now();
+        } else if (next == CircuitState.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+}
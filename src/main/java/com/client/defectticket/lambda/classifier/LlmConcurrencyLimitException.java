@@ -0,0 +1,17 @@
+package com.client.defectticket.lambda.classifier;
+
+/**
+ * Exception thrown when no local LLM permit could be acquired in time.
+ * The request never reached Bedrock, so the circuit breaker does not count it;
+ * Step Functions retries it like LlmThrottlingException.
+ */
+public class LlmConcurrencyLimitException extends LlmThrottlingException {
+
+    public LlmConcurrencyLimitException(String message) {
+        super(message);
+    }
+
+    public LlmConcurrencyLimitException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,56 @@
+package com.client.defectticket.lambda.classifier;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency counters for LLM classification calls.
+ * Compares time-to-decision of streamed responses against blocking calls.
+ */
+@Component
+public class LlmLatencyTracker {
+
+    private final LongAdder blockingCalls = new LongAdder();
+    private final LongAdder blockingNanos = new LongAdder();
+    private final LongAdder streamingCalls = new LongAdder();
+    private final LongAdder streamingDecisionNanos = new LongAdder();
+    private final LongAdder streamingCompleteNanos = new LongAdder();
+    private final LongAdder earlyStops = new LongAdder();
+
+    public void recordBlocking(long nanos) {
+        blockingCalls.increment();
+        blockingNanos.add(nanos);
+    }
+
+    /**
+     * @param decisionNanos time until routing fields were parsed
+     * @param completeNanos time until the JSON object closed and the stream was cancelled
+     * @param stoppedEarly whether the stream was cancelled before the model finished
+     */
+    public void recordStreaming(long decisionNanos, long completeNanos, boolean stoppedEarly) {
+        streamingCalls.increment();
+        streamingDecisionNanos.add(decisionNanos);
+        streamingCompleteNanos.add(completeNanos);
+        if (stoppedEarly) {
+            earlyStops.increment();
+        }
+    }
+
+    public LatencySnapshot snapshot() {
+        long blocking = blockingCalls.sum();
+        long streaming = streamingCalls.sum();
+        return LatencySnapshot.builder()
+                .blockingCalls(blocking)
+                .averageBlockingMillis(averageMillis(blockingNanos.sum(), blocking))
+                .streamingCalls(streaming)
+                .averageTimeToDecisionMillis(averageMillis(streamingDecisionNanos.sum(), streaming))
+                .averageStreamingCompleteMillis(averageMillis(streamingCompleteNanos.sum(), streaming))
+                .earlyStops(earlyStops.sum())
+                .build();
+    }
+
+    private double averageMillis(long totalNanos, long count) {
+        return count > 0 ? totalNanos / 1_000_000.0 / count : 0.0;
+    }
+}
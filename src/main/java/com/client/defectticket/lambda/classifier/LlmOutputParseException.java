@@ -0,0 +1,13 @@
+package com.client.defectticket.lambda.classifier;
+
+/**
+ * Exception thrown when the LLM answered but its output cannot be repaired.
+ * A bad response says nothing about Bedrock's health, so the circuit breaker
+ * does not count it; Step Functions retries it like LlmServiceException.
+ */
+public class LlmOutputParseException extends LlmServiceException {
+
+    public LlmOutputParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,155 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * File-based stand-in for Bedrock batch inference.
+ *
+ * Processes the input JSONL in the background, one record at a time, through
+ * the available ChatModel (real Bedrock, or SimulatedBedrockChatModel with the
+ * "simulator" profile) and writes the output JSONL next to the input. Without
+ * a ChatModel every record gets an error, so the caller's on-demand fallback
+ * is exercised.
+ *
+ * Job state is in memory only.
+ */
+@Slf4j
+@Component
+public class LocalBatchInferenceClient implements BatchInferenceClient {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ChatModel> chatModel;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LocalBatchInferenceClient(ObjectMapper objectMapper, ObjectProvider<ChatModel> chatModel) {
+        this.objectMapper = objectMapper;
+        this.chatModel = chatModel;
+    }
+
+    @Override
+    public String submit(String jobName, Path inputFile) {
+        String jobId = jobName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Job job = new Job(inputFile.resolveSibling(inputFile.getFileName() + ".out"));
+        jobs.put(jobId, job);
+        executor.submit(() -> run(jobId, job, inputFile));
+        log.info("Local batch inference job {} submitted for {}", jobId, inputFile);
+        return jobId;
+    }
+
+    @Override
+    public BatchInferenceStatus status(String jobId) {
+        return job(jobId).status;
+    }
+
+    @Override
+    public Path outputFile(String jobId) {
+        return job(jobId).outputFile;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Job job(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Batch inference job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(String jobId, Job job, Path inputFile) {
+        job.status = BatchInferenceStatus.IN_PROGRESS;
+        ChatModel model = chatModel.getIfAvailable();
+        int records = 0;
+        int errors = 0;
+        try (BufferedReader reader = Files.newBufferedReader(inputFile, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(job.outputFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                ObjectNode record = (ObjectNode) objectMapper.readTree(line);
+                try {
+                    record.set(MODEL_OUTPUT, invoke(model, record.path(MODEL_INPUT)));
+                } catch (Exception e) {
+                    errors++;
+                    record.putObject(ERROR)
+                            .put("errorCode", e.getClass().getSimpleName())
+                            .put("errorMessage", String.valueOf(e.getMessage()));
+                }
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+                records++;
+            }
+            job.status = BatchInferenceStatus.COMPLETED;
+            log.info("Local batch inference job {} completed: {} records, {} errors", jobId, records, errors);
+        } catch (IOException | RuntimeException e) {
+            job.status = BatchInferenceStatus.FAILED;
+            log.error("Local batch inference job {} failed after {} records", jobId, records, e);
+        }
+    }
+
+    private ObjectNode invoke(ChatModel model, JsonNode modelInput) {
+        if (model == null) {
+            throw new IllegalStateException("No chat model available for batch inference");
+        }
+        String system = modelInput.path("system").asText("");
+        StringBuilder user = new StringBuilder();
+        modelInput.path("messages").forEach(message ->
+                message.path("content").forEach(content -> user.append(content.path("text").asText(""))));
+
+        ChatResponse response = model.call(new Prompt(List.of(new SystemMessage(system), new UserMessage(user.toString()))));
+        String text = response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getContent() : "";
+
+        ObjectNode output = objectMapper.createObjectNode();
+        output.putArray("content").addObject().put("type", "text").put("text", text);
+        if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+            ObjectNode usage = output.putObject("usage");
+            if (response.getMetadata().getUsage().getPromptTokens() != null) {
+                usage.put("input_tokens", response.getMetadata().getUsage().getPromptTokens());
+            }
+            if (response.getMetadata().getUsage().getGenerationTokens() != null) {
+                usage.put("output_tokens", response.getMetadata().getUsage().getGenerationTokens());
+            }
+        }
+        return output;
+    }
+
+    private static final class Job {
+        private final Path outputFile;
+        private volatile BatchInferenceStatus status = BatchInferenceStatus.SUBMITTED;
+
+        private Job(Path outputFile) {
+            this.outputFile = outputFile;
+        }
+    }
+}
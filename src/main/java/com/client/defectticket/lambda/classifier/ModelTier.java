@@ -0,0 +1,17 @@
+package com.client.defectticket.lambda.classifier;
+
+import org.springframework.ai.chat.model.ChatModel;
+
+/**
+ * A chat model in the classification cascade.
+ * Wrapped rather than exposed as a bare chat model bean so it does not
+ * replace the auto-configured (large) model.
+ *
+ * @param name tier name recorded on the classification ("SMALL", "LARGE")
+ * @param modelId Bedrock model id, used for usage accounting
+ */
+public record ModelTier(String name, String modelId, ChatModel chatModel) {
+
+    public static final String SMALL = "SMALL";
+    public static final String LARGE = "LARGE";
+}
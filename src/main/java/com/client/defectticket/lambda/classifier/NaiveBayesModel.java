@@ -0,0 +1,172 @@
+package com.client.defectticket.lambda.classifier;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable multinomial naive Bayes model over hashed features.
+ *
+ * Log-likelihoods are stored in one flat float array (label-major) so a
+ * prediction is a handful of array reads per feature. Built from a
+ * {@link Trainer}, which accumulates counts incrementally and can be written
+ * out (sparse counts, much smaller than the built model) for other processes.
+ */
+public final class NaiveBayesModel {
+
+    private final String[] labels;
+    private final double[] logPriors;
+    private final float[] logLikelihoods;
+    private final int buckets;
+
+    private NaiveBayesModel(String[] labels, double[] logPriors, float[] logLikelihoods, int buckets) {
+        this.labels = labels;
+        this.logPriors = logPriors;
+        this.logLikelihoods = logLikelihoods;
+        this.buckets = buckets;
+    }
+
+    public List<String> labels() {
+        return List.of(labels);
+    }
+
+    /**
+     * Most probable label and its posterior probability, or null if the model has no labels.
+     */
+    public Prediction predict(int[] features) {
+        if (labels.length == 0) {
+            return null;
+        }
+        double[] scores = logPriors.clone();
+        for (int label = 0; label < labels.length; label++) {
+            int offset = label * buckets;
+            double score = scores[label];
+            for (int feature : features) {
+                score += logLikelihoods[offset + feature];
+            }
+            scores[label] = score;
+        }
+
+        int best = 0;
+        for (int label = 1; label < scores.length; label++) {
+            if (scores[label] > scores[best]) {
+                best = label;
+            }
+        }
+        // Softmax relative to the best score avoids underflow
+        double sum = 0;
+        for (double score : scores) {
+            sum += Math.exp(score - scores[best]);
+        }
+        return new Prediction(labels[best], 1.0 / sum);
+    }
+
+    public record Prediction(String label, double probability) {}
+
+    /**
+     * Mutable per-label feature counts. Not thread-safe; callers synchronize.
+     */
+    public static final class Trainer {
+
+        private final int buckets;
+        private final double smoothing;
+        private final Map<String, int[]> featureCounts = new LinkedHashMap<>();
+        private final Map<String, long[]> totals = new LinkedHashMap<>();  // {documents, features}
+
+        public Trainer(int buckets, double smoothing) {
+            this.buckets = buckets;
+            this.smoothing = smoothing;
+        }
+
+        public void add(int[] features, String label) {
+            int[] counts = featureCounts.computeIfAbsent(label, l -> new int[buckets]);
+            long[] labelTotals = totals.computeIfAbsent(label, l -> new long[2]);
+            for (int feature : features) {
+                counts[feature]++;
+            }
+            labelTotals[0]++;
+            labelTotals[1] += features.length;
+        }
+
+        public long documents() {
+            return totals.values().stream().mapToLong(t -> t[0]).sum();
+        }
+
+        /**
+         * Write the counts: per label its totals and the non-zero feature counts.
+         */
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeInt(buckets);
+            out.writeDouble(smoothing);
+            out.writeInt(featureCounts.size());
+            for (Map.Entry<String, int[]> entry : featureCounts.entrySet()) {
+                long[] labelTotals = totals.get(entry.getKey());
+                int[] counts = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(labelTotals[0]);
+                out.writeLong(labelTotals[1]);
+                int nonZero = 0;
+                for (int count : counts) {
+                    nonZero += count != 0 ? 1 : 0;
+                }
+                out.writeInt(nonZero);
+                for (int feature = 0; feature < buckets; feature++) {
+                    if (counts[feature] != 0) {
+                        out.writeInt(feature);
+                        out.writeInt(counts[feature]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Read counts written by {@link #writeTo(DataOutput)}.
+         */
+        public static Trainer readFrom(DataInput in) throws IOException {
+            Trainer trainer = new Trainer(in.readInt(), in.readDouble());
+            int labels = in.readInt();
+            for (int label = 0; label < labels; label++) {
+                String name = in.readUTF();
+                int[] counts = new int[trainer.buckets];
+                trainer.featureCounts.put(name, counts);
+                trainer.totals.put(name, new long[] {in.readLong(), in.readLong()});
+                int nonZero = in.readInt();
+                for (int i = 0; i < nonZero; i++) {
+                    int feature = in.readInt();
+                    counts[feature] = in.readInt();
+                }
+            }
+            return trainer;
+        }
+
+        public int buckets() {
+            return buckets;
+        }
+
+        public NaiveBayesModel build() {
+            List<String> labels = new ArrayList<>(featureCounts.keySet());
+            double documents = documents();
+            double[] logPriors = new double[labels.size()];
+            float[] logLikelihoods = new float[labels.size() * buckets];
+
+            for (int label = 0; label < labels.size(); label++) {
+                String name = labels.get(label);
+                long[] labelTotals = totals.get(name);
+                int[] counts = featureCounts.get(name);
+                logPriors[label] = Math.log(labelTotals[0] / documents);
+
+                // Laplace smoothing: unseen features get a small, label-specific probability
+                double denominator = Math.log(labelTotals[1] + smoothing * buckets);
+                int offset = label * buckets;
+                for (int feature = 0; feature < buckets; feature++) {
+                    logLikelihoods[offset + feature] = (float) (Math.log(counts[feature] + smoothing) - denominator);
+                }
+            }
+            return new NaiveBayesModel(labels.toArray(String[]::new), logPriors, logLikelihoods, buckets);
+        }
+    }
+}
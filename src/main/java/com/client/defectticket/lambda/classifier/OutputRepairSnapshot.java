@@ -0,0 +1,18 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of LLM output parsing: clean, repaired and failed responses.
+ */
+@Value
+@Builder
+public class OutputRepairSnapshot {
+    long cleanParses;
+    long repairedParses;
+    long failedParses;
+    Map<LenientOutputParser.Repair, Long> repairs;
+}
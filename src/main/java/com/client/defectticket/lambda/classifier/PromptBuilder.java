@@ -0,0 +1,258 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.DefectTicket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds token-budgeted classification prompts.
+ *
+ * Instructions and the output schema form a static system prefix, rendered
+ * once and byte-identical on every call so the provider can cache it; only
+ * the short user message with the ticket fields varies.
+ *
+ * Descriptions that would exceed the input token budget (e.g. pasted 50 KB
+ * log dumps) are trimmed:
+ * 1. Repeated stack frames and repeated lines are collapsed.
+ * 2. If still too long, the head and tail are kept together with any
+ *    error/exception lines from the middle.
+ *
+ * Tokens are estimated from character count (llm.prompt.chars-per-token);
+ * this is deliberately conservative and avoids a tokenizer dependency.
+ */
+@Slf4j
+@Component
+public class PromptBuilder {
+
+    private static final String INSTRUCTIONS = """
+            You are an expert defect ticket classifier for a software development team.
+
+            Analyze the defect ticket in the user message and provide a structured classification:
+
+            1. **Category**: Primary classification (Bug, Enhancement, Security, Performance, Documentation, etc.)
+            2. **Subcategory**: More specific classification within the category
+            3. **Severity**: Impact level (CRITICAL, HIGH, MEDIUM, LOW, TRIVIAL)
+               - CRITICAL: System down, data loss, security breach
+               - HIGH: Major functionality broken, significant performance degradation
+               - MEDIUM: Feature not working as expected, moderate impact
+               - LOW: Minor issues, cosmetic problems
+               - TRIVIAL: Typos, very minor improvements
+            4. **Priority**: Urgency (1=Highest to 5=Lowest)
+            5. **Confidence Score**: Your confidence in this classification (0.0 to 1.0)
+            6. **Reasoning**: Brief explanation of your classification
+            """;
+
+    // Schema generation is reflective and expensive; render it once per JVM
+    private static final String OUTPUT_FORMAT = "\n" + SpringAiClassificationService.OUTPUT_CONVERTER.getFormat() + "\n";
+
+    // Must not contain anything per-ticket or per-call: any byte change defeats prompt caching
+    private static final String SYSTEM_PREFIX = INSTRUCTIONS + OUTPUT_FORMAT;
+
+    private static final Pattern STACK_FRAME = Pattern.compile("^at [\\w$.<>/]+\\(.*\\)$");
+    private static final Pattern ERROR_LINE = Pattern.compile(
+            "(?i)(error|exception|fatal|caused by|fail|panic|traceback)");
+
+    private static final double HEAD_SHARE = 0.4;
+    private static final double ERROR_SHARE = 0.3;
+    private static final int MIN_DESCRIPTION_CHARS = 500;
+
+    private final int maxInputTokens;
+    private final double charsPerToken;
+    private final int fixedTokens;
+
+    public PromptBuilder(
+            @Value("${llm.prompt.max-input-tokens:4000}") int maxInputTokens,
+            @Value("${llm.prompt.chars-per-token:4.0}") double charsPerToken) {
+        this.maxInputTokens = maxInputTokens;
+        this.charsPerToken = charsPerToken;
+        this.fixedTokens = estimateTokens(SYSTEM_PREFIX) + estimateTokens(render("", "", ""));
+    }
+
+    /**
+     * Build the classification prompt for a ticket within the input token budget.
+     */
+    public ClassificationPrompt build(DefectTicket ticket) {
+        String title = nullToEmpty(ticket.getTitle());
+        String sourceSystem = nullToEmpty(ticket.getSourceSystem());
+        String description = nullToEmpty(ticket.getDescription());
+
+        int availableTokens = maxInputTokens - fixedTokens - estimateTokens(title) - estimateTokens(sourceSystem);
+        int maxDescriptionChars = Math.max(MIN_DESCRIPTION_CHARS, (int) (availableTokens * charsPerToken));
+        String sentDescription = trimDescription(description, maxDescriptionChars);
+
+        String userText = render(title, sentDescription, sourceSystem);
+        boolean trimmed = sentDescription.length() != description.length();
+        if (trimmed) {
+            log.info("Trimmed description of ticket {} from {} to {} chars to fit {} token budget",
+                    ticket.getTicketId(), description.length(), sentDescription.length(), maxInputTokens);
+        }
+
+        return ClassificationPrompt.builder()
+                .systemText(SYSTEM_PREFIX)
+                .userText(userText)
+                .inputTokenEstimate(estimateTokens(SYSTEM_PREFIX.length() + userText.length()))
+                .systemTokenEstimate(estimateTokens(SYSTEM_PREFIX))
+                .originalDescriptionChars(description.length())
+                .sentDescriptionChars(sentDescription.length())
+                .descriptionTrimmed(trimmed)
+                .build();
+    }
+
+    /**
+     * Estimate token count from character length.
+     */
+    public int estimateTokens(String text) {
+        return estimateTokens(text.length());
+    }
+
+    private int estimateTokens(int chars) {
+        return (int) Math.ceil(chars / charsPerToken);
+    }
+
+    /**
+     * The static system prefix shared by every classification prompt.
+     */
+    public String systemPrefix() {
+        return SYSTEM_PREFIX;
+    }
+
+    /**
+     * Shrink a description to at most maxChars, preferring to drop noise
+     * (repeated frames/lines) before dropping content from the middle.
+     */
+    String trimDescription(String description, int maxChars) {
+        if (description.length() <= maxChars) {
+            return description;
+        }
+
+        List<String> lines = collapseRepeats(description.lines().toList());
+        String collapsed = String.join("\n", lines);
+        if (collapsed.length() <= maxChars) {
+            return collapsed;
+        }
+
+        return keepHeadErrorsAndTail(lines, collapsed, maxChars);
+    }
+
+    private List<String> collapseRepeats(List<String> lines) {
+        List<String> result = new ArrayList<>(lines.size());
+        Set<String> seenFrames = new HashSet<>();
+        String previous = null;
+        int repeatedLines = 0;
+        int skippedFrames = 0;
+
+        for (String line : lines) {
+            String stripped = line.strip();
+            if (STACK_FRAME.matcher(stripped).matches() && !seenFrames.add(stripped)) {
+                skippedFrames++;
+                continue;
+            }
+            if (line.equals(previous)) {
+                repeatedLines++;
+                continue;
+            }
+            if (skippedFrames > 0) {
+                result.add("\t... " + skippedFrames + " repeated stack frames omitted");
+                skippedFrames = 0;
+            }
+            if (repeatedLines > 0) {
+                result.add("[previous line repeated " + repeatedLines + " times]");
+                repeatedLines = 0;
+            }
+            result.add(line);
+            previous = line;
+        }
+
+        if (skippedFrames > 0) {
+            result.add("\t... " + skippedFrames + " repeated stack frames omitted");
+        }
+        if (repeatedLines > 0) {
+            result.add("[previous line repeated " + repeatedLines + " times]");
+        }
+        return result;
+    }
+
+    private String keepHeadErrorsAndTail(List<String> lines, String collapsed, int maxChars) {
+        // Reserve room for the two omission markers
+        int budget = Math.max(0, maxChars - 100);
+        int headBudget = (int) (budget * HEAD_SHARE);
+        int errorBudget = (int) (budget * ERROR_SHARE);
+
+        int headEnd = 0;
+        int headChars = 0;
+        while (headEnd < lines.size() && headChars + lines.get(headEnd).length() + 1 <= headBudget) {
+            headChars += lines.get(headEnd++).length() + 1;
+        }
+
+        // Error lines from the middle are the most useful signal in a log dump
+        List<Integer> errorLines = new ArrayList<>();
+        int errorChars = 0;
+        for (int i = headEnd; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (ERROR_LINE.matcher(line).find() && errorChars + line.length() + 1 <= errorBudget) {
+                errorLines.add(i);
+                errorChars += line.length() + 1;
+            }
+        }
+
+        // Tail takes whatever the head and error lines left unused
+        int tailBudget = budget - headChars - errorChars;
+        int tailStart = lines.size();
+        int tailChars = 0;
+        while (tailStart > headEnd && tailChars + lines.get(tailStart - 1).length() + 1 <= tailBudget) {
+            tailChars += lines.get(--tailStart).length() + 1;
+        }
+        int middleEnd = tailStart;
+        errorLines.removeIf(i -> i >= middleEnd);
+
+        if (headEnd == 0 && errorLines.isEmpty() && tailStart == lines.size()) {
+            // No line fits (e.g. a single minified payload); cut by characters instead
+            int headCut = (int) (budget * (1 - ERROR_SHARE));
+            return collapsed.substring(0, headCut) + "\n... [truncated] ...\n"
+                    + collapsed.substring(collapsed.length() - (budget - headCut));
+        }
+
+        StringBuilder sb = new StringBuilder(maxChars);
+        appendLines(sb, lines, 0, headEnd);
+        int omitted = middleEnd - headEnd - errorLines.size();
+        if (omitted > 0 || !errorLines.isEmpty()) {
+            sb.append("... [").append(omitted).append(" lines omitted, ")
+                    .append(errorLines.size()).append(" error lines kept] ...\n");
+            errorLines.forEach(i -> sb.append(lines.get(i)).append('\n'));
+            if (!errorLines.isEmpty()) {
+                sb.append("... [end of kept error lines] ...\n");
+            }
+        }
+        appendLines(sb, lines, tailStart, lines.size());
+
+        // Single huge lines (minified payloads) can still overflow; hard cut as a last resort
+        String result = sb.toString().stripTrailing();
+        return result.length() <= maxChars ? result : result.substring(0, maxChars);
+    }
+
+    private void appendLines(StringBuilder sb, List<String> lines, int from, int to) {
+        for (int i = from; i < to; i++) {
+            sb.append(lines.get(i)).append('\n');
+        }
+    }
+
+    private String render(String title, String description, String sourceSystem) {
+        return new StringBuilder(title.length() + description.length() + sourceSystem.length() + 96)
+                .append("**Ticket Information:**\n")
+                .append("- Title: ").append(title).append('\n')
+                .append("- Description: ").append(description).append('\n')
+                .append("- Source System: ").append(sourceSystem).append('\n')
+                .toString();
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
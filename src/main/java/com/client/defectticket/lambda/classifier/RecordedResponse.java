@@ -0,0 +1,15 @@
+package com.client.defectticket.lambda.classifier;
+
+/**
+ * One captured Bedrock response, stored as a line of the simulator's NDJSON recording.
+ *
+ * @param promptHash SHA-256 of the prompt text (replay key)
+ */
+public record RecordedResponse(
+    String promptHash,
+    String modelId,
+    String content,
+    long inputTokens,
+    long outputTokens,
+    long latencyMillis
+) {}
@@ -0,0 +1,20 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.enums.Severity;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Early routing decision parsed from a streamed LLM response.
+ * Available as soon as severity and confidence have been generated,
+ * before the rest of the classification (e.g. reasoning) arrives.
+ */
+@Value
+@Builder
+public class RoutingDecision {
+    String ticketId;
+    Severity severity;
+    double confidenceScore;
+    boolean requiresHumanApproval;
+    long elapsedMillis;
+}
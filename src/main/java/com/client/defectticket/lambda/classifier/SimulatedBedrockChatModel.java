@@ -0,0 +1,410 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.bedrock.anthropic.BedrockAnthropicChatModel;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.bedrockruntime.model.InternalServerException;
+import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Simulated Bedrock chat model for offline load tests of the real
+ * SpringAiClassificationService (activate with the "simulator" profile).
+ *
+ * Latency is log-normal around a median with an occasional heavy tail,
+ * a token-per-minute quota throws Bedrock's ThrottlingException, and a
+ * configurable share of calls fails with InternalServerException. Response
+ * content is either synthetic (deterministic per prompt), or recorded from
+ * real Bedrock to an NDJSON file and replayed by prompt hash.
+ *
+ * Prompt caching is simulated on the system message: the first call with a
+ * given prefix (or the first after the 5-minute cache TTL) reports cache
+ * write tokens, later calls cache read tokens. More than one distinct
+ * prefix is logged as a warning, since it means the "static" prefix is not
+ * byte-stable and the provider cache would miss.
+ */
+@Slf4j
+@Component
+@Primary
+@Profile("simulator")
+public class SimulatedBedrockChatModel implements ChatModel {
+
+    private static final String[] SEVERITIES = {"CRITICAL", "HIGH", "MEDIUM", "MEDIUM", "LOW", "LOW", "TRIVIAL"};
+    private static final String[] CATEGORIES = {"Bug", "Bug", "Performance", "Security", "UI", "Enhancement"};
+    private static final int CHUNK_CHARS = 24;
+    private static final long CACHE_TTL_NANOS = Duration.ofMinutes(5).toNanos();
+
+    private final ObjectMapper objectMapper;
+    private final BedrockAnthropicChatModel delegate;
+    private final SimulatorMode mode;
+    private final Path recordingFile;
+    private final double medianLatencyMillis;
+    private final double latencySigma;
+    private final double tailProbability;
+    private final double tailMultiplier;
+    private final long maxLatencyMillis;
+    private final double errorRate;
+    private final boolean replayRecordedLatency;
+    private final String modelId;
+    private final TokenBucket quota;
+    private final Map<String, RecordedResponse> recordings = new ConcurrentHashMap<>();
+    private final Map<String, Long> cachedPrefixes = new ConcurrentHashMap<>();  // prefix hash -> last use
+    private BufferedWriter recorder;
+
+    public SimulatedBedrockChatModel(
+            ObjectMapper objectMapper,
+            Optional<BedrockAnthropicChatModel> delegate,
+            @Value("${llm.simulator.mode:SYNTHETIC}") SimulatorMode mode,
+            @Value("${llm.simulator.recording-file:bedrock-recording.ndjson}") String recordingFile,
+            @Value("${llm.simulator.latency.median-ms:1800}") double medianLatencyMillis,
+            @Value("${llm.simulator.latency.sigma:0.5}") double latencySigma,
+            @Value("${llm.simulator.latency.tail-probability:0.02}") double tailProbability,
+            @Value("${llm.simulator.latency.tail-multiplier:6.0}") double tailMultiplier,
+            @Value("${llm.simulator.latency.max-ms:60000}") long maxLatencyMillis,
+            @Value("${llm.simulator.tokens-per-minute:200000}") long tokensPerMinute,
+            @Value("${llm.simulator.error-rate:0.0}") double errorRate,
+            @Value("${llm.simulator.replay-recorded-latency:true}") boolean replayRecordedLatency,
+            @Value("${llm.model-id:simulated}") String modelId) {
+        this.objectMapper = objectMapper;
+        this.delegate = delegate.orElse(null);
+        this.mode = mode;
+        this.recordingFile = Path.of(recordingFile);
+        this.medianLatencyMillis = medianLatencyMillis;
+        this.latencySigma = latencySigma;
+        this.tailProbability = tailProbability;
+        this.tailMultiplier = tailMultiplier;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.errorRate = errorRate;
+        this.replayRecordedLatency = replayRecordedLatency;
+        this.modelId = modelId;
+        this.quota = new TokenBucket(tokensPerMinute);
+
+        if (mode == SimulatorMode.RECORD) {
+            if (this.delegate == null) {
+                throw new IllegalStateException(
+                        "llm.simulator.mode=RECORD needs the Bedrock chat model (spring.ai.bedrock.anthropic.chat.enabled=true)");
+            }
+            openRecorder();
+        } else if (mode == SimulatorMode.REPLAY) {
+            loadRecordings();
+        }
+        log.info("Bedrock simulator active: mode={}, median latency {} ms, quota {} tokens/min, error rate {}",
+                mode, medianLatencyMillis, tokensPerMinute, errorRate);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        SimulatedCall simulated = simulate(prompt);
+        sleep(simulated.latencyMillis());
+        return response(simulated);
+    }
+
+    /**
+     * Streams the content in small chunks: 30% of the latency before the
+     * first chunk, the rest spread evenly; usage arrives in a final chunk.
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            SimulatedCall simulated = simulate(prompt);
+            List<String> chunks = chunks(simulated.content());
+            long firstChunkMillis = (long) (simulated.latencyMillis() * 0.3);
+            long perChunkMillis = (simulated.latencyMillis() - firstChunkMillis) / Math.max(1, chunks.size());
+
+            Flux<ChatResponse> body = Flux.fromIterable(chunks)
+                    .delayElements(Duration.ofMillis(perChunkMillis))
+                    .map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))));
+            Mono<ChatResponse> usage = Mono.fromSupplier(
+                    () -> response(new SimulatedCall("", simulated.inputTokens(), simulated.outputTokens(),
+                            simulated.cacheReadTokens(), simulated.cacheWriteTokens(), 0)));
+            return Mono.delay(Duration.ofMillis(firstChunkMillis)).thenMany(body.concatWith(usage));
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (recorder != null) {
+            synchronized (this) {
+                recorder.close();
+            }
+        }
+    }
+
+    /**
+     * Number of distinct system prefixes seen; more than one means the prefix is not byte-stable.
+     */
+    public int distinctSystemPrefixes() {
+        return cachedPrefixes.size();
+    }
+
+    private SimulatedCall simulate(Prompt prompt) {
+        String text = prompt.getContents();
+        String promptHash = sha256(text);
+
+        if (mode == SimulatorMode.RECORD) {
+            // Real Bedrock enforces its own quota and errors
+            return record(prompt, promptHash);
+        }
+
+        String systemText = systemText(prompt);
+        long prefixTokens = systemText.isEmpty() ? 0 : estimateTokens(systemText);
+        boolean cacheHit = prefixTokens > 0 && touchCache(systemText);
+        long cacheReadTokens = cacheHit ? prefixTokens : 0;
+        long cacheWriteTokens = !cacheHit ? prefixTokens : 0;
+        // Cached prefix tokens are reported separately, not as input tokens
+        long inputTokens = Math.max(1, estimateTokens(text) - prefixTokens);
+
+        if (!quota.tryConsume(inputTokens + cacheWriteTokens)) {
+            throw ThrottlingException.builder()
+                    .message("Simulated Bedrock throttling: token quota exhausted")
+                    .build();
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw InternalServerException.builder()
+                    .message("Simulated Bedrock internal error")
+                    .build();
+        }
+
+        RecordedResponse recorded = mode == SimulatorMode.REPLAY ? recordings.get(promptHash) : null;
+        if (mode == SimulatorMode.REPLAY && recorded == null) {
+            log.warn("No recorded response for prompt {}; using synthetic response", promptHash);
+        }
+        String content = recorded != null ? recorded.content() : synthetic(promptHash);
+        long outputTokens = recorded != null ? recorded.outputTokens() : estimateTokens(content);
+        long latencyMillis = recorded != null && replayRecordedLatency ? recorded.latencyMillis() : sampleLatency();
+
+        // Output tokens count against the quota too, once generated (may go into debt)
+        quota.consume(outputTokens);
+        return new SimulatedCall(content, recorded != null ? recorded.inputTokens() : inputTokens,
+                outputTokens, cacheReadTokens, cacheWriteTokens, latencyMillis);
+    }
+
+    private String systemText(Prompt prompt) {
+        return prompt.getInstructions().stream()
+                .filter(message -> message.getMessageType() == MessageType.SYSTEM)
+                .map(Message::getContent)
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Mark the prefix as used; true if it was still cached.
+     */
+    private boolean touchCache(String systemText) {
+        String prefixHash = sha256(systemText);
+        long now = System.nanoTime();
+        Long lastUsed = cachedPrefixes.put(prefixHash, now);
+        if (lastUsed == null && cachedPrefixes.size() > 1) {
+            log.warn("System prompt prefix changed ({} distinct prefixes seen); provider prompt cache would miss",
+                    cachedPrefixes.size());
+        }
+        return lastUsed != null && now - lastUsed < CACHE_TTL_NANOS;
+    }
+
+    private SimulatedCall record(Prompt prompt, String promptHash) {
+        long start = System.nanoTime();
+        ChatResponse response = delegate.call(prompt);
+        long latencyMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        String content = response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getContent() : "";
+        ChatResponseMetadata metadata = response.getMetadata();
+        long inputTokens = metadata != null && metadata.getUsage() != null && metadata.getUsage().getPromptTokens() != null
+                ? metadata.getUsage().getPromptTokens() : estimateTokens(prompt.getContents());
+        long outputTokens = metadata != null && metadata.getUsage() != null && metadata.getUsage().getGenerationTokens() != null
+                ? metadata.getUsage().getGenerationTokens() : estimateTokens(content);
+
+        RecordedResponse recorded = new RecordedResponse(promptHash, modelId, content, inputTokens, outputTokens, latencyMillis);
+        append(recorded);
+        // The real call already took its latency
+        return new SimulatedCall(content, inputTokens, outputTokens,
+                metadataTokens(metadata, SpringAiClassificationService.CACHE_READ_TOKENS),
+                metadataTokens(metadata, SpringAiClassificationService.CACHE_WRITE_TOKENS), 0);
+    }
+
+    /**
+     * Deterministic classification JSON for a prompt, so repeated runs agree.
+     */
+    private String synthetic(String promptHash) {
+        SplittableRandom random = new SplittableRandom(Long.parseUnsignedLong(promptHash.substring(0, 15), 16));
+        String severity = SEVERITIES[random.nextInt(SEVERITIES.length)];
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        double confidence = Math.round((0.6 + random.nextDouble() * 0.39) * 100) / 100.0;
+        int priority = List.of("CRITICAL", "HIGH", "MEDIUM", "LOW", "TRIVIAL").indexOf(severity) + 1;
+        try {
+            return objectMapper.writeValueAsString(new SpringAiClassificationService.ClassificationOutput(
+                    severity, confidence, priority, category, "Simulated", "Simulated Bedrock response"));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Log-normal latency around the median; a small share of calls lands in a heavy tail.
+     */
+    long sampleLatency() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latency = medianLatencyMillis * Math.exp(latencySigma * random.nextGaussian());
+        if (random.nextDouble() < tailProbability) {
+            latency *= tailMultiplier;
+        }
+        return Math.min(maxLatencyMillis, Math.round(latency));
+    }
+
+    private ChatResponse response(SimulatedCall simulated) {
+        ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                .withModel(modelId)
+                .withUsage(new DefaultUsage(simulated.inputTokens(), simulated.outputTokens()))
+                .withKeyValue(SpringAiClassificationService.CACHE_READ_TOKENS, simulated.cacheReadTokens())
+                .withKeyValue(SpringAiClassificationService.CACHE_WRITE_TOKENS, simulated.cacheWriteTokens())
+                .build();
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(simulated.content()))), metadata);
+    }
+
+    private static long metadataTokens(ChatResponseMetadata metadata, String key) {
+        return metadata != null && metadata.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+
+    private List<String> chunks(String content) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < content.length(); i += CHUNK_CHARS) {
+            chunks.add(content.substring(i, Math.min(content.length(), i + CHUNK_CHARS)));
+        }
+        return chunks;
+    }
+
+    private void loadRecordings() {
+        if (!Files.exists(recordingFile)) {
+            log.warn("Simulator recording {} not found; all responses will be synthetic", recordingFile);
+            return;
+        }
+        try (var lines = Files.lines(recordingFile, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                try {
+                    RecordedResponse recorded = objectMapper.readValue(line, RecordedResponse.class);
+                    recordings.put(recorded.promptHash(), recorded);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Invalid recording line in " + recordingFile, e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Loaded {} recorded Bedrock responses from {}", recordings.size(), recordingFile);
+    }
+
+    private void openRecorder() {
+        try {
+            recorder = Files.newBufferedWriter(recordingFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void append(RecordedResponse recorded) {
+        try {
+            recorder.write(objectMapper.writeValueAsString(recorded));
+            recorder.newLine();
+            recorder.flush();
+        } catch (IOException e) {
+            log.error("Failed to record Bedrock response {}", recorded.promptHash(), e);
+        }
+    }
+
+    private static long estimateTokens(String text) {
+        return Math.max(1, text.length() / 4);
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during simulated Bedrock call", e);
+        }
+    }
+
+    private record SimulatedCall(String content, long inputTokens, long outputTokens,
+                                 long cacheReadTokens, long cacheWriteTokens, long latencyMillis) {}
+
+    /**
+     * Continuously refilling per-minute token quota.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        private TokenBucket(long tokensPerMinute) {
+            this.capacity = tokensPerMinute;
+            this.refillPerNano = tokensPerMinute / (double) Duration.ofMinutes(1).toNanos();
+            this.available = tokensPerMinute;
+        }
+
+        private synchronized boolean tryConsume(long tokens) {
+            refill();
+            if (available < tokens) {
+                return false;
+            }
+            available -= tokens;
+            return true;
+        }
+
+        private synchronized void consume(long tokens) {
+            refill();
+            available -= tokens;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
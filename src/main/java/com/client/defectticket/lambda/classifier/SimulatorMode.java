@@ -0,0 +1,10 @@
+package com.client.defectticket.lambda.classifier;
+
+/**
+ * Response source of the Bedrock simulator.
+ */
+public enum SimulatorMode {
+    SYNTHETIC,  // Deterministic synthetic classifications derived from the prompt hash
+    RECORD,     // Call real Bedrock and append each response to the recording file
+    REPLAY      // Serve responses from the recording file (synthetic on a miss)
+}
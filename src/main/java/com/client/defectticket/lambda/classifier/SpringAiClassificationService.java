@@ -2,36 +2,95 @@ package com.client.defectticket.lambda.classifier;
 
 import com.client.defectticket.domain.model.Classification;
 import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.LlmUsage;
 import com.client.defectticket.domain.model.enums.Severity;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.bedrock.anthropic.BedrockAnthropicChatModel;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
 /**
  * LLM classification service using Spring AI with AWS Bedrock.
- * Uses BeanOutputConverter for structured JSON output (no manual parsing).
+ * BeanOutputConverter supplies the output schema; responses are parsed by
+ * LenientOutputParser, which repairs common formatting deviations so only
+ * genuinely unusable output fails (and is retried).
+ *
+ * With llm.streaming.enabled the response is streamed and parsed incrementally:
+ * the routing decision is emitted as soon as severity and confidence arrive,
+ * and the stream is cancelled once the JSON object closes so trailing output
+ * is not generated (or paid for).
+ *
+ * The prompt is sent as a static system message (instructions + schema,
+ * cacheable by the provider) followed by a short per-ticket user message;
+ * cache read/write token counts reported by the provider are recorded.
+ *
+ * With llm.cascade.enabled tickets go to a small model first and are only
+ * re-classified by the large model when CascadePolicy escalates them; the
+ * deciding tier is recorded on the classification.
  *
- * Only active in AWS/production profiles. Use MockClassificationService for local development.
+ * Only active in AWS/production profiles, or locally against SimulatedBedrockChatModel
+ * with the "simulator" profile. Use MockClassificationService for local development.
  */
 @Slf4j
 @Service
-@Profile("!local & !test")
+@Profile("(!local & !test) | simulator")
 @RequiredArgsConstructor
 public class SpringAiClassificationService {
 
-    private final BedrockAnthropicChatModel chatModel;
+    // Thread-safe; the schema is generated once and shared with PromptBuilder
+    static final BeanOutputConverter<ClassificationOutput> OUTPUT_CONVERTER =
+        new BeanOutputConverter<>(ClassificationOutput.class);
+
+    private static final String[] ROUTING_FIELDS = {"severity", "confidenceScore"};
+
+    // Bedrock usage field names for prompt cache tokens, carried as response metadata
+    static final String CACHE_READ_TOKENS = "cacheReadInputTokens";
+    static final String CACHE_WRITE_TOKENS = "cacheWriteInputTokens";
+
+    private final ChatModel chatModel;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final PromptBuilder promptBuilder;
+    private final LlmLatencyTracker latencyTracker;
+    private final CascadePolicy cascadePolicy;
+    private final LenientOutputParser outputParser;
+
+    @Autowired(required = false)
+    private ModelTier smallTier;
 
     @Value("${llm.confidence-threshold}")
     private double confidenceThreshold;
 
+    @Value("${llm.model-id:unknown}")
+    private String modelId;
+
+    @Value("${llm.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${llm.streaming.timeout-ms:60000}")
+    private long streamingTimeoutMs;
+
     /**
      * Classify a defect ticket using AI.
      * 
@@ -41,86 +100,260 @@ public class SpringAiClassificationService {
      * @throws LlmServiceException if classification fails
      */
     public Classification classify(DefectTicket ticket) {
+        return classify(ticket, decision -> { });
+    }
+
+    /**
+     * Classify a defect ticket, reporting the routing decision as early as possible.
+     * In streaming mode onDecision runs before the full response has arrived;
+     * in blocking mode it runs once the response is parsed.
+     *
+     * @param ticket The ticket to classify
+     * @param onDecision Callback receiving severity and confidence
+     * @return Classification result with confidence score
+     */
+    public Classification classify(DefectTicket ticket, Consumer<RoutingDecision> onDecision) {
         try {
-            log.info("Classifying ticket {} with Spring AI Bedrock", ticket.getTicketId());
+            boolean cascade = cascadePolicy.isEnabled() && smallTier != null;
+            log.info("Classifying ticket {} with Spring AI Bedrock (streaming={}, cascade={})", 
+                    ticket.getTicketId(), streamingEnabled, cascade);
 
-            BeanOutputConverter<ClassificationOutput> outputConverter = 
-                new BeanOutputConverter<>(ClassificationOutput.class);
+            ClassificationPrompt prompt = promptBuilder.build(ticket);
+            long start = System.nanoTime();
+            AtomicBoolean decisionEmitted = new AtomicBoolean();
+            Consumer<RoutingDecision> emitOnce = decision -> {
+                if (decisionEmitted.compareAndSet(false, true)) {
+                    onDecision.accept(decision);
+                }
+            };
 
-            String prompt = buildClassificationPrompt(ticket, outputConverter.getFormat());
+            Classification classification;
+            if (cascade) {
+                // Small-model decisions are not known to be final until the category threshold is checked
+                Classification small = classifyWith(smallTier.chatModel(), smallTier.modelId(), ticket, prompt,
+                        decision -> { });
+                if (!cascadePolicy.shouldEscalate(small)) {
+                    classification = small;
+                    classification.setDecisionTier(ModelTier.SMALL);
+                } else {
+                    log.info("Escalating ticket {} to large model: small model said {} with confidence {} (threshold {})",
+                            ticket.getTicketId(), small.getSeverity(), small.getConfidenceScore(),
+                            cascadePolicy.thresholdFor(small.getCategory()));
+                    classification = classifyWith(chatModel, modelId, ticket, prompt, emitOnce);
+                    classification.setDecisionTier(ModelTier.LARGE);
+                    classification.setLlmUsage(combine(small.getLlmUsage(), classification.getLlmUsage()));
+                }
+            } else {
+                classification = classifyWith(chatModel, modelId, ticket, prompt, emitOnce);
+                classification.setDecisionTier(ModelTier.LARGE);
+            }
 
-            ChatResponse response = chatModel.call(new Prompt(prompt));
-            
-            ClassificationOutput output = outputConverter.convert(
-                response.getResult().getOutput().getContent());
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            cascadePolicy.recordDecision(classification.getDecisionTier(), elapsedMillis, classification.getLlmUsage());
 
-            Classification classification = Classification.builder()
-                    .category(output.category())
-                    .subcategory(output.subcategory())
-                    .severity(Severity.valueOf(output.severity()))
-                    .priority(output.priority())
-                    .confidenceScore(output.confidenceScore())
-                    .reasoning(output.reasoning())
-                    .classificationSource("LLM")
-                    .requiresHumanApproval(output.confidenceScore() < confidenceThreshold)
-                    .build();
+            LlmUsage usage = classification.getLlmUsage();
+            log.info("Classification complete for ticket {}: category={}, confidence={}, tier={}, tokens={}/{}, latency={}ms", 
+                    ticket.getTicketId(), classification.getCategory(), classification.getConfidenceScore(),
+                    classification.getDecisionTier(), usage.getInputTokens(), usage.getOutputTokens(), elapsedMillis);
 
-            log.info("Classification complete for ticket {}: category={}, confidence={}", 
-                    ticket.getTicketId(), classification.getCategory(), 
-                    classification.getConfidenceScore());
+            emitOnce.accept(RoutingDecision.builder()
+                    .ticketId(ticket.getTicketId())
+                    .severity(classification.getSeverity())
+                    .confidenceScore(classification.getConfidenceScore())
+                    .requiresHumanApproval(classification.isRequiresHumanApproval())
+                    .elapsedMillis(elapsedMillis)
+                    .build());
 
             return classification;
 
         } catch (ThrottlingException e) {
             log.warn("Bedrock throttling for ticket {}", ticket.getTicketId(), e);
             throw new LlmThrottlingException("Bedrock request throttled", e);
+        } catch (LlmThrottlingException e) {
+            log.warn("LLM concurrency limit reached for ticket {}", ticket.getTicketId());
+            throw e;
+        } catch (LlmOutputParseException e) {
+            log.warn("Unparseable LLM output for ticket {}", ticket.getTicketId());
+            throw e;
         } catch (Exception e) {
             log.error("LLM classification failed for ticket {}", ticket.getTicketId(), e);
             throw new LlmServiceException("Failed to classify ticket", e);
         }
     }
 
-    private String buildClassificationPrompt(DefectTicket ticket, String format) {
-        return String.format("""
-                You are an expert defect ticket classifier for a software development team.
-                
-                Analyze the following ticket and provide a structured classification:
-                
-                1. **Category**: Primary classification (Bug, Enhancement, Security, Performance, Documentation, etc.)
-                2. **Subcategory**: More specific classification within the category
-                3. **Severity**: Impact level (CRITICAL, HIGH, MEDIUM, LOW, TRIVIAL)
-                   - CRITICAL: System down, data loss, security breach
-                   - HIGH: Major functionality broken, significant performance degradation
-                   - MEDIUM: Feature not working as expected, moderate impact
-                   - LOW: Minor issues, cosmetic problems
-                   - TRIVIAL: Typos, very minor improvements
-                4. **Priority**: Urgency (1=Highest to 5=Lowest)
-                5. **Confidence Score**: Your confidence in this classification (0.0 to 1.0)
-                6. **Reasoning**: Brief explanation of your classification
-                
-                **Ticket Information:**
-                - Title: %s
-                - Description: %s
-                - Source System: %s
-                
-                %s
-                """, 
-                ticket.getTitle(), 
-                ticket.getDescription(), 
-                ticket.getSourceSystem(),
-                format);
+    /**
+     * One model call: prompt → (streamed or blocking) response → classification.
+     */
+    private Classification classifyWith(ChatModel model, String tierModelId, DefectTicket ticket,
+                                        ClassificationPrompt prompt, Consumer<RoutingDecision> onDecision) {
+        long start = System.nanoTime();
+
+        // AIMD limiter keeps us near the Bedrock quota instead of relying on Step Functions retries
+        CallResult result = concurrencyLimiter.execute(() -> streamingEnabled
+                ? streamUntilComplete(model, ticket, prompt, start, onDecision)
+                : callBlocking(model, prompt, start));
+        LlmUsage usage = usageOf(result, tierModelId, prompt, start);
+
+        ClassificationOutput output = outputParser.parse(result.content());
+
+        return Classification.builder()
+                .category(output.category())
+                .subcategory(output.subcategory())
+                .severity(Severity.valueOf(output.severity()))
+                .priority(output.priority())
+                .confidenceScore(output.confidenceScore())
+                .reasoning(output.reasoning())
+                .classificationSource("LLM")
+                .requiresHumanApproval(output.confidenceScore() < confidenceThreshold)
+                .inputTokenEstimate(prompt.getInputTokenEstimate())
+                .llmUsage(usage)
+                .build();
+    }
+
+    private CallResult callBlocking(ChatModel model, ClassificationPrompt prompt, long start) {
+        ChatResponse response = model.call(toPrompt(prompt));
+        latencyTracker.recordBlocking(System.nanoTime() - start);
+        return new CallResult(contentOf(response), response.getMetadata());
+    }
+
+    private CallResult streamUntilComplete(ChatModel model, DefectTicket ticket, ClassificationPrompt prompt, long start,
+                                       Consumer<RoutingDecision> onDecision) {
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+        AtomicLong decisionNanos = new AtomicLong(-1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicReference<ChatResponseMetadata> metadata = new AtomicReference<>();
+
+        model.stream(toPrompt(prompt))
+                .doOnNext(response -> {
+                    if (hasUsage(response.getMetadata())) {
+                        metadata.set(response.getMetadata());
+                    }
+                })
+                .map(this::contentOf)
+                .doOnCancel(() -> cancelled.set(true))
+                .doOnNext(chunk -> {
+                    parser.feed(chunk);
+                    if (decisionNanos.get() < 0 && parser.hasFields(ROUTING_FIELDS)) {
+                        // Unmappable routing fields wait for the repaired full response
+                        long elapsedNanos = System.nanoTime() - start;
+                        routingDecision(ticket, parser, elapsedNanos).ifPresent(decision -> {
+                            decisionNanos.set(elapsedNanos);
+                            onDecision.accept(decision);
+                        });
+                    }
+                })
+                // Cancel the upstream stream once the object is closed; trailing tokens are not generated
+                .takeUntil(chunk -> parser.isComplete())
+                .blockLast(Duration.ofMillis(streamingTimeoutMs));
+
+        long completeNanos = System.nanoTime() - start;
+        long decisionAfter = decisionNanos.get() >= 0 ? decisionNanos.get() : completeNanos;
+        latencyTracker.recordStreaming(decisionAfter, completeNanos, cancelled.get());
+        log.debug("Streamed classification for ticket {}: decision after {} ms, complete after {} ms",
+                ticket.getTicketId(), Duration.ofNanos(decisionAfter).toMillis(),
+                Duration.ofNanos(completeNanos).toMillis());
+        return new CallResult(parser.json(), metadata.get());
+    }
+
+    private Prompt toPrompt(ClassificationPrompt prompt) {
+        return new Prompt(List.of(new SystemMessage(prompt.getSystemText()), new UserMessage(prompt.getUserText())));
     }
 
+    /**
+     * Token usage as reported by Bedrock; estimated when no usage metadata is
+     * available (e.g. the stream was cancelled before the final usage event).
+     */
+    private LlmUsage usageOf(CallResult result, String tierModelId, ClassificationPrompt prompt, long start) {
+        ChatResponseMetadata metadata = result.metadata();
+        boolean reported = hasUsage(metadata);
+        Usage usage = reported ? metadata.getUsage() : null;
+        String model = metadata != null && metadata.getModel() != null && !metadata.getModel().isEmpty()
+                ? metadata.getModel() : tierModelId;
+
+        return LlmUsage.builder()
+                .modelId(model)
+                .inputTokens(reported ? usage.getPromptTokens().intValue() : prompt.getInputTokenEstimate())
+                .outputTokens(reported && usage.getGenerationTokens() != null
+                        ? usage.getGenerationTokens().intValue()
+                        : promptBuilder.estimateTokens(result.content()))
+                .cacheReadInputTokens(cacheTokens(metadata, CACHE_READ_TOKENS))
+                .cacheWriteInputTokens(cacheTokens(metadata, CACHE_WRITE_TOKENS))
+                .latencyMillis(Duration.ofNanos(System.nanoTime() - start).toMillis())
+                .retryCount(0)
+                .estimated(!reported)
+                .build();
+    }
+
+    /**
+     * Prompt cache token count from provider metadata (0 if the provider does not report it).
+     */
+    private int cacheTokens(ChatResponseMetadata metadata, String key) {
+        if (metadata == null || !metadata.containsKey(key)) {
+            return 0;
+        }
+        Object value = metadata.get(key);
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * Escalated tickets pay for both calls; the large model is recorded as the model.
+     */
+    private LlmUsage combine(LlmUsage small, LlmUsage large) {
+        return LlmUsage.builder()
+                .modelId(large.getModelId())
+                .inputTokens(small.getInputTokens() + large.getInputTokens())
+                .outputTokens(small.getOutputTokens() + large.getOutputTokens())
+                .cacheReadInputTokens(small.getCacheReadInputTokens() + large.getCacheReadInputTokens())
+                .cacheWriteInputTokens(small.getCacheWriteInputTokens() + large.getCacheWriteInputTokens())
+                .latencyMillis(small.getLatencyMillis() + large.getLatencyMillis())
+                .retryCount(large.getRetryCount())
+                .estimated(small.isEstimated() || large.isEstimated())
+                .build();
+    }
+
+    private boolean hasUsage(ChatResponseMetadata metadata) {
+        return metadata != null && metadata.getUsage() != null
+                && metadata.getUsage().getPromptTokens() != null && metadata.getUsage().getPromptTokens() > 0;
+    }
+
+    private Optional<RoutingDecision> routingDecision(DefectTicket ticket, IncrementalJsonParser parser,
+                                                      long elapsedNanos) {
+        Optional<Severity> severity = parser.field("severity").flatMap(outputParser::severityOf);
+        OptionalDouble confidence = outputParser.confidenceOf(parser.field("confidenceScore").orElse(null));
+        if (severity.isEmpty() || confidence.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(RoutingDecision.builder()
+                .ticketId(ticket.getTicketId())
+                .severity(severity.get())
+                .confidenceScore(confidence.getAsDouble())
+                .requiresHumanApproval(confidence.getAsDouble() < confidenceThreshold)
+                .elapsedMillis(Duration.ofNanos(elapsedNanos).toMillis())
+                .build());
+    }
+
+    private String contentOf(ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null
+                || response.getResult().getOutput().getContent() == null) {
+            return "";
+        }
+        return response.getResult().getOutput().getContent();
+    }
+
+    private record CallResult(String content, ChatResponseMetadata metadata) {}
+
     /**
      * Output structure for BeanOutputConverter.
      * Must be a record or simple POJO for Jackson serialization.
+     * Routing fields come first so a streamed response yields them early.
      */
+    @JsonPropertyOrder({"severity", "confidenceScore", "priority", "category", "subcategory", "reasoning"})
     public record ClassificationOutput(
-        @JsonProperty("category") String category,
-        @JsonProperty("subcategory") String subcategory,
         @JsonProperty("severity") String severity,
-        @JsonProperty("priority") Integer priority,
         @JsonProperty("confidenceScore") Double confidenceScore,
+        @JsonProperty("priority") Integer priority,
+        @JsonProperty("category") String category,
+        @JsonProperty("subcategory") String subcategory,
         @JsonProperty("reasoning") String reasoning
     ) {}
 }
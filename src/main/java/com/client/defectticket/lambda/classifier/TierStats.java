@@ -0,0 +1,20 @@
+package com.client.defectticket.lambda.classifier;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Per-tier cascade statistics: how many tickets each model tier decided,
+ * at what latency and token spend.
+ */
+@Value
+@Builder
+public class TierStats {
+    String tier;
+    long decided;
+    double decidedRate;
+    double averageLatencyMillis;
+    long p95LatencyMillis;
+    long inputTokens;
+    long outputTokens;
+}
@@ -5,111 +5,186 @@ import com.client.defectticket.domain.model.Classification;
 import com.client.defectticket.domain.model.DefectTicket;
 import com.client.defectticket.domain.model.enums.TicketStatus;
 import com.client.defectticket.domain.repository.DefectTicketRepository;
-import com.client.defectticket.lambda.classifier.MockClassificationService;
-import com.client.defectticket.lambda.classifier.SpringAiClassificationService;
+import com.client.defectticket.domain.service.AutoApprovalPolicy;
+import com.client.defectticket.domain.service.UsageAccountingService;
+import com.client.defectticket.lambda.classifier.DegradedClassificationService;
 import com.client.defectticket.lambda.handler.dto.ClassificationRequest;
 import com.client.defectticket.lambda.handler.dto.ClassificationResponse;
-import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Optional;
 
 /**
  * Lambda handler for ticket classification.
  * Combines AI-based classification with deterministic rules.
  * Implements Claim Check Pattern - loads full ticket from DynamoDB.
  *
- * Uses MockClassificationService in local/test profiles, real Bedrock in production.
+ * Classification runs through the tiered ClassificationPipeline
+ * (rules → cache → cheap model → LLM), so tickets decided by a cheap
+ * stage never reach Bedrock.
+ *
+ * The AutoApprovalPolicy is applied to the final classification before it
+ * is stored, so callers reading requiresHumanApproval after persisting see
+ * the policy's decision.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ClassificationHandler {
 
     private final DefectTicketRepository ticketRepository;
-    private final RuleEvaluationService ruleEvaluator;
-    
-    @Autowired(required = false)
-    private SpringAiClassificationService aiClassifier;
-    
-    @Autowired(required = false)
-    private MockClassificationService mockClassifier;
-
-    public ClassificationHandler(DefectTicketRepository ticketRepository,
-                                  RuleEvaluationService ruleEvaluator) {
-        this.ticketRepository = ticketRepository;
-        this.ruleEvaluator = ruleEvaluator;
-    }
+    private final ClassificationPipeline classificationPipeline;
+    private final UsageAccountingService usageAccounting;
+    private final AutoApprovalPolicy autoApprovalPolicy;
+
+    /**
+     * Flush usage counters after every invocation. Enabled on Lambda, where
+     * a frozen or recycled execution environment would lose unflushed deltas.
+     */
+    @Value("${llm.usage.flush-each-invocation:false}")
+    private boolean flushUsageEachInvocation;
 
     /**
-     * Classify a ticket using AI and rules.
-     * Rules can override AI classification if severity is higher.
-     * Uses mock classifier in local/test mode, real Bedrock in production.
+     * Classify a ticket using the classification pipeline.
+     * Rules can finalize early or override AI classification if severity is higher.
      */
     public ClassificationResponse handle(ClassificationRequest request) {
         log.info("Classifying ticket: {}", request.getTicketId());
 
-        // Load full ticket from DynamoDB (Claim Check Pattern)
-        DefectTicket ticket = ticketRepository.findById(request.getTicketId())
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found: " + request.getTicketId()));
-
-        // AI classification (use mock in local/test, real Bedrock in production)
-        Classification aiClassification;
-        if (mockClassifier != null) {
-            log.info("Using MOCK classifier for local development");
-            aiClassification = mockClassifier.classify(ticket);
-        } else if (aiClassifier != null) {
-            log.info("Using REAL Bedrock classifier");
-            aiClassification = aiClassifier.classify(ticket);
-        } else {
-            throw new IllegalStateException("No classifier available (neither mock nor Bedrock)");
-        }
-        
-        log.info("AI classification for ticket {}: category={}, severity={}, confidence={}", 
-                ticket.getTicketId(), aiClassification.getCategory(), 
-                aiClassification.getSeverity(), aiClassification.getConfidenceScore());
-
-        // Rule evaluation
-        Optional<Classification> ruleClassification = ruleEvaluator.evaluateRules(ticket);
-
-        // Combine AI and rules
-        Classification finalClassification;
-        if (ruleClassification.isPresent()) {
-            finalClassification = ruleEvaluator.combineWithLlmResult(aiClassification, ruleClassification.get());
-            log.info("Combined classification for ticket {}: source={}", 
-                    ticket.getTicketId(), finalClassification.getClassificationSource());
-        } else {
-            finalClassification = aiClassification;
+        DefectTicket ticket = load(request.getTicketId());
+        Classification finalClassification = classify(ticket);
+        persist(ticket, finalClassification, request.getRetryCount() != null ? request.getRetryCount() : 0);
+
+        return ClassificationResponse.builder()
+                .ticketId(ticket.getTicketId())
+                .classification(finalClassification)
+                .build();
+    }
+
+    /**
+     * Load full ticket from DynamoDB (Claim Check Pattern).
+     */
+    public DefectTicket load(String ticketId) {
+        return ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new IllegalArgumentException("Ticket not found: " + ticketId));
+    }
+
+    /**
+     * Run the ticket through the pipeline. No DynamoDB access; may call Bedrock.
+     */
+    public Classification classify(DefectTicket ticket) {
+        Classification finalClassification = classificationPipeline.classify(ticket);
+
+        log.info("Classification for ticket {}: category={}, severity={}, confidence={}, stage={}, source={}", 
+                ticket.getTicketId(), finalClassification.getCategory(), 
+                finalClassification.getSeverity(), finalClassification.getConfidenceScore(),
+                finalClassification.getDecisionStage(), finalClassification.getClassificationSource());
+        return finalClassification;
+    }
+
+    /**
+     * Apply the auto-approval policy and store the classification on the ticket,
+     * with audit entry and usage accounting.
+     */
+    public void persist(DefectTicket ticket, Classification finalClassification, int retryCount) {
+        if (finalClassification.getLlmUsage() != null) {
+            finalClassification.getLlmUsage().setRetryCount(retryCount);
         }
 
+        autoApprovalPolicy.apply(finalClassification);
+
         // Update ticket in DynamoDB
-        ticket.setClassification(finalClassification);
-        ticket.setStatus(TicketStatus.CLASSIFIED);
+        apply(ticket, finalClassification, TicketStatus.NEW, TicketStatus.CLASSIFIED, auditReason(finalClassification));
+        ticketRepository.save(ticket);
+
+        recordUsage(ticket, finalClassification, retryCount);
+
+        log.info("Ticket {} classified and saved: requiresApproval={}", 
+                ticket.getTicketId(), finalClassification.isRequiresHumanApproval());
+    }
+
+    /**
+     * Store a provisional (local-stages-only) classification, conditional on
+     * the ticket version it was loaded with.
+     *
+     * @return false if the ticket was modified since it was loaded
+     */
+    public boolean persistProvisional(DefectTicket ticket, Classification provisional) {
+        apply(ticket, provisional, ticket.getStatus(), TicketStatus.CLASSIFIED_PROVISIONAL,
+                "Provisional classification (stage: " + provisional.getDecisionStage() + "), LLM refinement pending");
+        boolean saved = ticketRepository.saveIfVersion(ticket);
+        log.info("Ticket {} provisionally classified: saved={}", ticket.getTicketId(), saved);
+        return saved;
+    }
+
+    /**
+     * Replace the provisional classification with the refined one, conditional
+     * on the version written by persistProvisional. Usage is recorded either
+     * way, since the LLM call was made.
+     *
+     * @return false if the ticket was modified after the provisional result; nothing is written
+     */
+    public boolean persistRefined(DefectTicket ticket, Classification refined) {
+        autoApprovalPolicy.apply(refined);
+        apply(ticket, refined, TicketStatus.CLASSIFIED_PROVISIONAL, TicketStatus.CLASSIFIED, auditReason(refined));
+        boolean saved = ticketRepository.saveIfVersion(ticket);
+        recordUsage(ticket, refined, 0);
+        log.info("Ticket {} refined: saved={}, requiresApproval={}",
+                ticket.getTicketId(), saved, refined.isRequiresHumanApproval());
+        return saved;
+    }
+
+    /**
+     * Replace the classification of an already processed ticket (reclassification),
+     * conditional on the version it was read with. The status is unchanged.
+     * Usage is left to the caller, which also pays for unchanged results.
+     *
+     * @return false if the ticket was modified since it was read; nothing is written
+     */
+    public boolean persistReclassification(DefectTicket ticket, Classification classification, String reason) {
+        apply(ticket, classification, ticket.getStatus(), ticket.getStatus(), reason);
+        return ticketRepository.saveIfVersion(ticket);
+    }
+
+    private void apply(DefectTicket ticket, Classification classification, TicketStatus from, TicketStatus to,
+                       String reason) {
+        ticket.setClassification(classification);
+        ticket.setStatus(to);
         ticket.setUpdatedAt(Instant.now());
-        
+
         // Add audit entry
         if (ticket.getAuditTrail() == null) {
             ticket.setAuditTrail(new ArrayList<>());
         }
         ticket.getAuditTrail().add(AuditEntry.builder()
-                .fromStatus(TicketStatus.NEW)
-                .toStatus(TicketStatus.CLASSIFIED)
+                .fromStatus(from)
+                .toStatus(to)
                 .actor("SYSTEM")
-                .reason("AI+Rules classification")
+                .reason(reason)
                 .timestamp(Instant.now())
                 .build());
+    }
 
-        ticketRepository.save(ticket);
-
-        log.info("Ticket {} classified and saved: requiresApproval={}", 
-                ticket.getTicketId(), finalClassification.isRequiresHumanApproval());
+    private void recordUsage(DefectTicket ticket, Classification classification, int retryCount) {
+        usageAccounting.record(ticket, classification, retryCount);
+        if (flushUsageEachInvocation) {
+            usageAccounting.flush();
+        }
+    }
 
-        return ClassificationResponse.builder()
-                .ticketId(ticket.getTicketId())
-                .classification(finalClassification)
-                .build();
+    private String auditReason(Classification classification) {
+        if (DegradedClassificationService.SOURCE.equals(classification.getClassificationSource())) {
+            return "Degraded classification (LLM circuit open)";
+        }
+        String reason = "AI+Rules classification (stage: " + classification.getDecisionStage() + ")";
+        if (AutoApprovalPolicy.AUTO_APPROVED.equals(classification.getApprovalPolicy())) {
+            return reason + ", auto-approved by agreement history";
+        }
+        return reason;
     }
 }
@@ -63,14 +63,28 @@ public class LambdaFunctionConfig {
 
     /**
      * Load batch tickets function (Claim Check Pattern).
-     * Input: Map with batchId
-     * Output: List of ticket IDs
+     * Input: Map with batchId and, for a coalesced execution, batchIds
+     * Output: BatchChunkPlan with page cursors for the Distributed Map state
      */
     @Bean
-    public Function<java.util.Map<String, String>, java.util.List<String>> loadBatchTickets() {
+    public Function<java.util.Map<String, Object>, BatchChunkPlan> loadBatchTickets() {
         return input -> {
             log.info("Lambda function 'loadBatchTickets' invoked for batch: {}", input.get("batchId"));
             return loadBatchTicketsHandler.handle(input);
         };
     }
+
+    /**
+     * Load ticket chunk function (one Distributed Map child execution).
+     * Input: TicketChunk
+     * Output: List of ticket IDs
+     */
+    @Bean
+    public Function<TicketChunk, java.util.List<String>> loadTicketChunk() {
+        return chunk -> {
+            log.info("Lambda function 'loadTicketChunk' invoked for batch: {} after {}",
+                    chunk.getBatchId(), chunk.getStartAfterTicketId());
+            return loadBatchTicketsHandler.loadChunk(chunk);
+        };
+    }
 }
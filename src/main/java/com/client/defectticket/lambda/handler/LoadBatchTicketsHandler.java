@@ -2,43 +2,118 @@ package com.client.defectticket.lambda.handler;
 
 import com.client.defectticket.domain.model.DefectTicket;
 import com.client.defectticket.domain.repository.DefectTicketRepository;
-import lombok.RequiredArgsConstructor;
+import com.client.defectticket.lambda.handler.dto.BatchChunkPlan;
+import com.client.defectticket.lambda.handler.dto.TicketChunk;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
- * Lambda handler to load ticket IDs from DynamoDB by batchId.
+ * Lambda handlers to load a batch from DynamoDB in chunks.
  * Implements Claim Check Pattern for Step Functions.
  * 
- * This prevents 256KB payload limit issues by only passing IDs.
+ * The batch loader returns page cursors (TicketChunk), not ticket IDs, so
+ * the state payload stays far below 256KB even for 100k tickets. Each
+ * Distributed Map child execution loads the IDs of one chunk, which also
+ * keeps every execution history below the 25,000 event limit.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class LoadBatchTicketsHandler {
 
     private final DefectTicketRepository ticketRepository;
+    private final int chunkSize;
+
+    public LoadBatchTicketsHandler(
+            DefectTicketRepository ticketRepository,
+            @Value("${batch.chunk-size:500}") int chunkSize) {
+        this.ticketRepository = ticketRepository;
+        this.chunkSize = chunkSize;
+    }
 
     /**
-     * Load all ticket IDs for a batch.
-     * Returns list of IDs for Map state processing.
+     * Split a batch into chunks of at most chunk-size tickets.
+     * Reads the batch once page by page; only the cursors are kept.
+     * A coalesced execution lists its batches in batchIds; each is planned
+     * separately, so no chunk spans two batches.
      */
-    public List<String> handle(Map<String, String> input) {
-        String batchId = input.get("batchId");
-        log.info("Loading ticket IDs for batch: {}", batchId);
+    public BatchChunkPlan handle(Map<String, Object> input) {
+        String batchId = (String) input.get("batchId");
+        List<String> batchIds = input.get("batchIds") instanceof List<?> ids
+                ? ids.stream().map(String::valueOf).toList()
+                : List.of(batchId);
+
+        List<TicketChunk> chunks = new ArrayList<>();
+        int ticketCount = 0;
+        for (String id : batchIds) {
+            ticketCount += planChunks(id, chunks);
+        }
+        if (batchIds.size() > 1) {
+            log.info("Planned {} chunks for {} tickets in {} batches of {}",
+                    chunks.size(), ticketCount, batchIds.size(), batchId);
+        }
+
+        return BatchChunkPlan.builder()
+                .batchId(batchId)
+                .ticketCount(ticketCount)
+                .chunks(chunks)
+                .build();
+    }
 
-        List<DefectTicket> tickets = ticketRepository.findByBatchId(batchId);
-        
-        List<String> ticketIds = tickets.stream()
-                .map(DefectTicket::getTicketId)
-                .collect(Collectors.toList());
+    private int planChunks(String batchId, List<TicketChunk> chunks) {
+        log.info("Planning ticket chunks for batch: {}", batchId);
+        int planned = chunks.size();
+        int ticketCount = 0;
+        String cursor = null;
+        do {
+            DefectTicketRepository.TicketPage page = ticketRepository.findByBatchIdPage(batchId, cursor, chunkSize);
+            List<DefectTicket> tickets = page.tickets();
+            if (!tickets.isEmpty()) {
+                String endTicketId = tickets.get(tickets.size() - 1).getTicketId();
+                chunks.add(TicketChunk.builder()
+                        .batchId(batchId)
+                        .startAfterTicketId(cursor)
+                        .endTicketId(endTicketId)
+                        .size(tickets.size())
+                        .build());
+                ticketCount += tickets.size();
+            }
+            cursor = page.lastEvaluatedTicketId();
+        } while (cursor != null);
 
-        log.info("Loaded {} ticket IDs for batch {}", ticketIds.size(), batchId);
+        log.info("Planned {} chunks for {} tickets in batch {}", chunks.size() - planned, ticketCount, batchId);
+        return ticketCount;
+    }
+
+    /**
+     * Load the ticket IDs of one chunk, from its start cursor up to and including its end ticket.
+     * Reading up to the end ticket (rather than a fixed count) means tickets added to the
+     * batch after planning shift no ticket into a neighbouring chunk.
+     */
+    public List<String> loadChunk(TicketChunk chunk) {
+        List<String> ticketIds = new ArrayList<>(chunk.getSize());
+        String cursor = chunk.getStartAfterTicketId();
+        int pageSize = Math.max(1, chunk.getSize());
+        do {
+            DefectTicketRepository.TicketPage page =
+                    ticketRepository.findByBatchIdPage(chunk.getBatchId(), cursor, pageSize);
+            for (DefectTicket ticket : page.tickets()) {
+                ticketIds.add(ticket.getTicketId());
+                if (ticket.getTicketId().equals(chunk.getEndTicketId())) {
+                    log.info("Loaded {} ticket IDs for chunk of batch {}", ticketIds.size(), chunk.getBatchId());
+                    return ticketIds;
+                }
+            }
+            cursor = page.lastEvaluatedTicketId();
+        } while (cursor != null);
 
+        // End ticket deleted since planning (TTL); the chunk ran to the end of the batch
+        log.warn("End ticket {} of chunk not found in batch {}; loaded {} ticket IDs",
+                chunk.getEndTicketId(), chunk.getBatchId(), ticketIds.size());
         return ticketIds;
     }
 }
@@ -4,6 +4,7 @@ import com.client.defectticket.domain.model.AuditEntry;
 import com.client.defectticket.domain.model.DefectTicket;
 import com.client.defectticket.domain.model.enums.TicketStatus;
 import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.service.TicketDeduplicationService;
 import com.client.defectticket.lambda.handler.dto.BatchIngestionRequest;
 import com.client.defectticket.lambda.handler.dto.BatchIngestionResponse;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ import java.util.UUID;
 /**
  * Lambda handler for batch ticket ingestion.
  * Stores tickets in DynamoDB and calculates TTL for archival.
+ * Re-submitted sourceReferences are deduplicated (TicketDeduplicationService).
  */
 @Slf4j
 @Component
@@ -27,6 +29,7 @@ import java.util.UUID;
 public class TicketIngestionHandler {
 
     private final DefectTicketRepository ticketRepository;
+    private final TicketDeduplicationService deduplicationService;
 
     @Value("${batch.ttl-days:90}")
     private int ttlDays;
@@ -42,6 +45,7 @@ public class TicketIngestionHandler {
         List<String> ticketIds = new ArrayList<>();
         int successCount = 0;
         int failureCount = 0;
+        int dedupedCount = 0;
         Instant now = Instant.now();
 
         for (var ticketInput : request.getTickets()) {
@@ -66,9 +70,15 @@ public class TicketIngestionHandler {
                         .ttl(now.plus(ttlDays, ChronoUnit.DAYS).getEpochSecond())
                         .build();
 
-                ticketRepository.save(ticket);
-                ticketIds.add(ticket.getTicketId());
-                successCount++;
+                TicketDeduplicationService.Outcome outcome = deduplicationService.deduplicate(ticket);
+                if (outcome.duplicate()) {
+                    dedupedCount++;
+                }
+                if (outcome.ticketToStore() != null) {
+                    ticketRepository.save(outcome.ticketToStore());
+                    ticketIds.add(ticket.getTicketId());
+                    successCount++;
+                }
 
             } catch (Exception e) {
                 log.error("Failed to ingest ticket: {}", ticketInput.getSourceReference(), e);
@@ -76,14 +86,15 @@ public class TicketIngestionHandler {
             }
         }
 
-        log.info("Batch {} ingestion complete: {} success, {} failures", 
-                request.getBatchId(), successCount, failureCount);
+        log.info("Batch {} ingestion complete: {} success, {} failures, {} deduped",
+                request.getBatchId(), successCount, failureCount, dedupedCount);
 
         return BatchIngestionResponse.builder()
                 .batchId(request.getBatchId())
                 .ticketIds(ticketIds)
                 .successCount(successCount)
                 .failureCount(failureCount)
+                .dedupedCount(dedupedCount)
                 .build();
     }
 }
@@ -17,6 +17,6 @@ import lombok.NoArgsConstructor;
 public class ApprovalCreationRequest {
     private String ticketId;
     private ApprovalGate gate;
-    private String taskToken;  // Step Functions task token
+    private String taskToken;  // Step Functions task token (null if no workflow waits for the decision)
     private String context;    // JSON context for dashboard
 }
@@ -0,0 +1,22 @@
+package com.client.defectticket.lambda.handler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for the loadBatchTickets Lambda function.
+ * The chunks are the items of the Distributed Map state.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchChunkPlan {
+    private String batchId;
+    private int ticketCount;
+    private List<TicketChunk> chunks;
+}
@@ -20,4 +20,5 @@ public class BatchIngestionResponse {
     private List<String> ticketIds;
     private int successCount;
     private int failureCount;
+    private int dedupedCount;  // Tickets whose sourceReference was ingested before (see dedup policy)
 }
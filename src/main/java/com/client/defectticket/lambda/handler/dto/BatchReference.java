@@ -0,0 +1,26 @@
+package com.client.defectticket.lambda.handler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SQS message for an ingested batch (Claim Check Pattern).
+ * The tickets are already stored in DynamoDB; the message only references them.
+ * A coalesced message combines several small batches of one source system:
+ * batches lists them, and ticketCount and checksum cover all of them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReference {
+    private String batchId;
+    private String sourceSystem;
+    private int ticketCount;
+    private String checksum;  // BatchChecksum over the stored ticket IDs
+    private List<BatchReference> batches;  // Parts of a coalesced message; null for a single batch
+}
@@ -7,7 +7,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * Request DTO for classification Lambda function.
- * Only contains ticketId (Claim Check Pattern).
+ * Only contains ticketId (Claim Check Pattern), plus the Step Functions
+ * retry count of the task for usage accounting.
  */
 @Data
 @Builder
@@ -15,4 +16,5 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ClassificationRequest {
     private String ticketId;
+    private Integer retryCount;  // $$.State.RetryCount
 }
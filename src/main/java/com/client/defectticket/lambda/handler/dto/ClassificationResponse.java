@@ -16,4 +16,9 @@ import lombok.NoArgsConstructor;
 public class ClassificationResponse {
     private String ticketId;
     private Classification classification;
+
+    /**
+     * True while the classification comes from local stages only and the LLM refinement is pending.
+     */
+    private boolean provisional;
 }
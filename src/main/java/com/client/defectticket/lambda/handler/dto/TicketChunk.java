@@ -0,0 +1,22 @@
+package com.client.defectticket.lambda.handler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A slice of a batch for one Distributed Map child execution.
+ * Page cursors on the batch-index GSI rather than ticket IDs, so the chunk
+ * list stays small for any batch size.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketChunk {
+    private String batchId;
+    private String startAfterTicketId;  // null for the first chunk
+    private String endTicketId;  // Last ticket of the chunk (inclusive)
+    private int size;  // Tickets when the plan was made; page size for loading the chunk
+}
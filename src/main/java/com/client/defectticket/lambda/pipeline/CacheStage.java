@@ -0,0 +1,63 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Stage 2: content-addressed cache of earlier model decisions.
+ * Only model-derived results are cached; rule and degraded results are cheap
+ * to recompute or must not be reused once Bedrock recovers.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheStage implements ClassificationStage {
+
+    private static final Set<String> CACHEABLE_SOURCES = Set.of("LLM", "HYBRID", "MOCK_LLM");
+
+    private final ClassificationCache cache;
+
+    @Value("${classification.pipeline.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classification.pipeline.cache.finalize-confidence:0.0}")
+    private double finalizeConfidence;
+
+    @Override
+    public String name() {
+        return "CACHE";
+    }
+
+    @Override
+    public int order() {
+        return 20;
+    }
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public double finalizeConfidence() {
+        return finalizeConfidence;
+    }
+
+    @Override
+    public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+        return cache.get(ticket);
+    }
+
+    @Override
+    public void onFinalized(DefectTicket ticket, Classification classification, ClassificationContext context) {
+        if (CACHEABLE_SOURCES.contains(classification.getClassificationSource())
+                && !name().equals(classification.getDecisionStage())) {
+            cache.put(ticket, classification);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of final classifications keyed by normalized ticket content.
+ * Re-submitted or duplicated tickets reuse the earlier LLM decision.
+ */
+@Component
+public class ClassificationCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public ClassificationCache(
+            @Value("${classification.pipeline.cache.max-entries:10000}") int maxEntries,
+            @Value("${classification.pipeline.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ClassificationCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Optional<Classification> get(DefectTicket ticket) {
+        String key = keyFor(ticket);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (System.nanoTime() - entry.storedAtNanos() > ttlNanos) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            // A cache hit sends no tokens to the LLM
+            return Optional.of(entry.classification().toBuilder().inputTokenEstimate(null).llmUsage(null)
+                    .decisionTier(null).build());
+        }
+    }
+
+    public void put(DefectTicket ticket, Classification classification) {
+        Entry entry = new Entry(classification.toBuilder().build(), System.nanoTime());
+        String key = keyFor(ticket);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * SHA-256 over source system, title and description with case and
+     * whitespace normalized, so trivial formatting differences still hit.
+     */
+    private String keyFor(DefectTicket ticket) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(normalize(ticket.getSourceSystem()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(ticket.getTitle()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(ticket.getDescription()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private record Entry(Classification classification, long storedAtNanos) {}
+}
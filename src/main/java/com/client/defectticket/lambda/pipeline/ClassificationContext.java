@@ -0,0 +1,46 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.lambda.classifier.RoutingDecision;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Per-ticket state shared between pipeline stages.
+ */
+@Getter
+@Setter
+public class ClassificationContext {
+
+    /**
+     * Result of deterministic rule evaluation, combined with the final
+     * result when a later stage decides.
+     */
+    private Classification ruleResult;
+
+    /**
+     * Non-final results produced by earlier stages, keyed by stage name.
+     */
+    private final Map<String, Classification> candidates = new LinkedHashMap<>();
+
+    /**
+     * Stages not to run for this ticket (e.g. CACHE when reclassifying after a model change).
+     */
+    private Set<String> skippedStages = Set.of();
+
+    /**
+     * Receives the LLM stage's routing decision (severity, confidence) as soon as
+     * it is parsed from the streamed response, before the full classification.
+     */
+    private Consumer<RoutingDecision> routingListener = decision -> { };
+
+    public Optional<Classification> ruleResult() {
+        return Optional.ofNullable(ruleResult);
+    }
+}
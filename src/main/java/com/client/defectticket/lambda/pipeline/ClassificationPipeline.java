@@ -0,0 +1,186 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.classifier.DegradedClassificationService;
+import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ordered classification pipeline: rules → cache → cheap model → full model.
+ *
+ * Each stage may finalize once its result reaches the stage's configured
+ * confidence; later (more expensive) stages are then skipped. A rule match
+ * that did not finalize is still combined with the final result, as before.
+ *
+ * For progressive classification the pipeline can be run in two passes:
+ * the local stages (no Bedrock) give a provisional result immediately, and
+ * refine() later continues with the remote stages on the same context.
+ * Remote stages always run after all local ones.
+ */
+@Slf4j
+@Service
+public class ClassificationPipeline {
+
+    private static final Set<String> SELF_CONTAINED_SOURCES = Set.of("RULES", DegradedClassificationService.SOURCE);
+
+    private final List<ClassificationStage> stages;
+    private final RuleEvaluationService ruleEvaluator;
+    private final Map<String, StageCounters> counters = new ConcurrentHashMap<>();
+
+    public ClassificationPipeline(List<ClassificationStage> stages, RuleEvaluationService ruleEvaluator) {
+        this.stages = stages.stream()
+                .sorted(Comparator.comparingInt(ClassificationStage::order))
+                .toList();
+        this.ruleEvaluator = ruleEvaluator;
+        this.stages.forEach(stage -> counters.put(stage.name(), new StageCounters(stage.order())));
+        log.info("Classification pipeline stages: {}", this.stages.stream()
+                .map(stage -> stage.name() + (stage.enabled() ? "" : " (disabled)"))
+                .toList());
+    }
+
+    /**
+     * Run the ticket through the pipeline until a stage finalizes.
+     */
+    public Classification classify(DefectTicket ticket) {
+        return classify(ticket, new ClassificationContext());
+    }
+
+    /**
+     * Run the ticket through the pipeline with a prepared context (e.g. with skipped stages).
+     */
+    public Classification classify(DefectTicket ticket, ClassificationContext context) {
+        return classifyLocally(ticket, context).orElseGet(() -> refine(ticket, context));
+    }
+
+    /**
+     * Run only the local stages.
+     *
+     * @return the final classification if a local stage finalized; otherwise
+     *         empty, with the local candidates left in the context
+     */
+    public Optional<Classification> classifyLocally(DefectTicket ticket, ClassificationContext context) {
+        return run(ticket, context, false);
+    }
+
+    /**
+     * Continue with the remote stages after classifyLocally() did not finalize.
+     */
+    public Classification refine(DefectTicket ticket, ClassificationContext context) {
+        return run(ticket, context, true)
+                .orElseThrow(() -> new IllegalStateException("No pipeline stage finalized ticket " + ticket.getTicketId()));
+    }
+
+    /**
+     * Best non-final local result (highest confidence), combined with any
+     * rule match; empty if no local stage had an opinion.
+     */
+    public Optional<Classification> provisional(ClassificationContext context) {
+        return context.getCandidates().entrySet().stream()
+                .filter(candidate -> candidate.getValue().getConfidenceScore() != null)
+                .max(Comparator.comparingDouble(candidate -> candidate.getValue().getConfidenceScore()))
+                .map(candidate -> {
+                    Classification classification = candidate.getValue().toBuilder()
+                            .decisionStage(candidate.getKey())
+                            .build();
+                    // Combine against a copy; the rule result is combined again with the refined result
+                    ClassificationContext copy = new ClassificationContext();
+                    context.ruleResult().map(rule -> rule.toBuilder().build()).ifPresent(copy::setRuleResult);
+                    return combineWithRules(classification, copy);
+                });
+    }
+
+    private Optional<Classification> run(DefectTicket ticket, ClassificationContext context, boolean remote) {
+        for (ClassificationStage stage : stages) {
+            if (!stage.enabled() || stage.remote() != remote || context.getSkippedStages().contains(stage.name())) {
+                continue;
+            }
+
+            StageCounters stageCounters = counters.get(stage.name());
+            long start = System.nanoTime();
+            Optional<Classification> result = stage.classify(ticket, context);
+            stageCounters.record(System.nanoTime() - start);
+
+            if (result.isEmpty()) {
+                continue;
+            }
+
+            Classification classification = result.get();
+            if (classification.getConfidenceScore() != null
+                    && classification.getConfidenceScore() >= stage.finalizeConfidence()) {
+                stageCounters.finalized.increment();
+                classification.setDecisionStage(stage.name());
+                Classification finalClassification = combineWithRules(classification, context);
+                log.info("Ticket {} finalized by stage {} (confidence={})",
+                        ticket.getTicketId(), stage.name(), classification.getConfidenceScore());
+                stages.forEach(s -> s.onFinalized(ticket, finalClassification, context));
+                return Optional.of(finalClassification);
+            }
+
+            log.debug("Stage {} below finalize confidence for ticket {} ({} < {})", stage.name(),
+                    ticket.getTicketId(), classification.getConfidenceScore(), stage.finalizeConfidence());
+            context.getCandidates().put(stage.name(), classification);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Per-stage attempts, finalizations and hit rates.
+     */
+    public List<StageStats> stats() {
+        return stages.stream()
+                .map(stage -> counters.get(stage.name()).toStats(stage.name()))
+                .toList();
+    }
+
+    private Classification combineWithRules(Classification classification, ClassificationContext context) {
+        if (SELF_CONTAINED_SOURCES.contains(classification.getClassificationSource())
+                || context.ruleResult().isEmpty()) {
+            return classification;
+        }
+        Classification combined = ruleEvaluator.combineWithLlmResult(classification, context.getRuleResult());
+        if (combined.getDecisionStage() == null) {
+            combined.setDecisionStage(classification.getDecisionStage());
+        }
+        return combined;
+    }
+
+    private static final class StageCounters {
+        private final int order;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder finalized = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private StageCounters(int order) {
+            this.order = order;
+        }
+
+        private void record(long nanos) {
+            attempts.increment();
+            totalNanos.add(nanos);
+        }
+
+        private StageStats toStats(String name) {
+            long attemptCount = attempts.sum();
+            long finalizedCount = finalized.sum();
+            return StageStats.builder()
+                    .stage(name)
+                    .order(order)
+                    .attempts(attemptCount)
+                    .finalized(finalizedCount)
+                    .hitRate(attemptCount > 0 ? (double) finalizedCount / attemptCount : 0.0)
+                    .averageLatencyMicros(attemptCount > 0 ? totalNanos.sum() / 1000.0 / attemptCount : 0.0)
+                    .build();
+        }
+    }
+}
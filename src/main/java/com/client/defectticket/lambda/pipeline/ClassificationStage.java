@@ -0,0 +1,59 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+
+import java.util.Optional;
+
+/**
+ * One tier of the classification pipeline.
+ * Stages run in order (lower = earlier); the first stage whose result reaches
+ * its finalize confidence ends the pipeline, so cheap stages can skip Bedrock.
+ */
+public interface ClassificationStage {
+
+    /**
+     * Short stage name used for metrics and the decisionStage field.
+     */
+    String name();
+
+    /**
+     * Position in the pipeline (lower = earlier).
+     */
+    int order();
+
+    /**
+     * Whether this stage participates in the pipeline.
+     */
+    default boolean enabled() {
+        return true;
+    }
+
+    /**
+     * Whether the stage calls a remote model (Bedrock). Remote stages are
+     * skipped for the provisional result and run in the refinement.
+     */
+    default boolean remote() {
+        return false;
+    }
+
+    /**
+     * Minimum confidence at which this stage's result finalizes the classification.
+     * Values above 1.0 mean the stage never finalizes on its own.
+     */
+    double finalizeConfidence();
+
+    /**
+     * Attempt to classify the ticket.
+     *
+     * @return classification, or empty if the stage has no opinion
+     */
+    Optional<Classification> classify(DefectTicket ticket, ClassificationContext context);
+
+    /**
+     * Called with the final classification once the pipeline has decided.
+     * Lets stages such as the cache learn from later tiers.
+     */
+    default void onFinalized(DefectTicket ticket, Classification classification, ClassificationContext context) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.classifier.HeuristicClassifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Stage 3: cheap local model (keyword heuristic).
+ * Finalize confidence defaults to the heuristic's top tier (0.95, critical
+ * keywords), so only those tickets skip the LLM; high-severity, cosmetic and
+ * default matches (0.85 and below) stay candidates for the later stages.
+ */
+@Component
+@RequiredArgsConstructor
+public class HeuristicStage implements ClassificationStage {
+
+    private final HeuristicClassifier heuristicClassifier;
+
+    @Value("${classification.pipeline.heuristic.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classification.pipeline.heuristic.finalize-confidence:0.95}")
+    private double finalizeConfidence;
+
+    @Override
+    public String name() {
+        return "HEURISTIC";
+    }
+
+    @Override
+    public int order() {
+        return 30;
+    }
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public double finalizeConfidence() {
+        return finalizeConfidence;
+    }
+
+    @Override
+    public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+        return Optional.of(heuristicClassifier.classify(ticket));
+    }
+}
@@ -0,0 +1,53 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.classifier.LearnedClassifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Stage 1b: in-JVM classifier learned from human-approved decisions.
+ * Runs right after the rules; has no opinion until it has seen enough
+ * approved examples, and only finalizes when its posterior is high.
+ */
+@Component
+@RequiredArgsConstructor
+public class LearnedStage implements ClassificationStage {
+
+    private final LearnedClassifier learnedClassifier;
+
+    @Value("${classification.pipeline.learned.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classification.pipeline.learned.finalize-confidence:0.97}")
+    private double finalizeConfidence;
+
+    @Override
+    public String name() {
+        return "LEARNED";
+    }
+
+    @Override
+    public int order() {
+        return 15;
+    }
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public double finalizeConfidence() {
+        return finalizeConfidence;
+    }
+
+    @Override
+    public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+        return learnedClassifier.classify(ticket);
+    }
+}
@@ -0,0 +1,109 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.classifier.DegradedClassificationService;
+import com.client.defectticket.lambda.classifier.LlmCircuitBreaker;
+import com.client.defectticket.lambda.classifier.LlmConcurrencyLimitException;
+import com.client.defectticket.lambda.classifier.LlmOutputParseException;
+import com.client.defectticket.lambda.classifier.LlmServiceException;
+import com.client.defectticket.lambda.classifier.LlmThrottlingException;
+import com.client.defectticket.lambda.classifier.MockClassificationService;
+import com.client.defectticket.lambda.classifier.SpringAiClassificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Final stage: full LLM classification.
+ * Uses MockClassificationService in local/test profiles, real Bedrock in production
+ * (or the Bedrock simulator with the "simulator" profile).
+ * Falls back to degraded (rules + heuristic) classification while the LLM circuit is open.
+ * Always finalizes.
+ */
+@Slf4j
+@Component
+public class LlmStage implements ClassificationStage {
+
+    private final LlmCircuitBreaker circuitBreaker;
+    private final DegradedClassificationService degradedClassifier;
+
+    @Autowired(required = false)
+    private SpringAiClassificationService aiClassifier;
+
+    @Autowired(required = false)
+    private MockClassificationService mockClassifier;
+
+    public LlmStage(LlmCircuitBreaker circuitBreaker,
+                    DegradedClassificationService degradedClassifier) {
+        this.circuitBreaker = circuitBreaker;
+        this.degradedClassifier = degradedClassifier;
+    }
+
+    @Override
+    public String name() {
+        return "LLM";
+    }
+
+    @Override
+    public int order() {
+        return 100;
+    }
+
+    @Override
+    public boolean remote() {
+        return true;
+    }
+
+    @Override
+    public double finalizeConfidence() {
+        return 0.0;
+    }
+
+    @Override
+    public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+        if (mockClassifier != null) {
+            log.info("Using MOCK classifier for local development");
+            return Optional.of(mockClassifier.classify(ticket));
+        }
+        if (aiClassifier != null) {
+            return Optional.of(classifyWithCircuitBreaker(ticket, context));
+        }
+        throw new IllegalStateException("No classifier available (neither mock nor Bedrock)");
+    }
+
+    /**
+     * Call Bedrock through the circuit breaker.
+     * Short-circuits to degraded classification while the circuit is open;
+     * failures that trip the circuit degrade immediately instead of waiting for retries.
+     * Only Bedrock failures and throttling count against the circuit; unparseable
+     * output and a full local limiter say nothing about Bedrock's health.
+     * The early routing decision goes to the context's routing listener.
+     */
+    private Classification classifyWithCircuitBreaker(DefectTicket ticket, ClassificationContext context) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return degradedClassifier.classify(ticket);
+        }
+
+        log.info("Using REAL Bedrock classifier");
+        try {
+            Classification classification = aiClassifier.classify(ticket, context.getRoutingListener());
+            circuitBreaker.onSuccess();
+            return classification;
+        } catch (LlmOutputParseException | LlmConcurrencyLimitException e) {
+            circuitBreaker.release();
+            throw e;
+        } catch (LlmThrottlingException | LlmServiceException e) {
+            circuitBreaker.onFailure();
+            if (circuitBreaker.isOpen()) {
+                return degradedClassifier.classify(ticket);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.release();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Stage 1: deterministic keyword rules.
+ * CriticalKeywordRule (confidence 1.0) finalizes here without any LLM call;
+ * weaker rule matches are kept in the context and combined with the final result.
+ */
+@Component
+@RequiredArgsConstructor
+public class RuleStage implements ClassificationStage {
+
+    private final RuleEvaluationService ruleEvaluator;
+
+    @Value("${classification.pipeline.rules.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classification.pipeline.rules.finalize-confidence:1.0}")
+    private double finalizeConfidence;
+
+    @Override
+    public String name() {
+        return "RULES";
+    }
+
+    @Override
+    public int order() {
+        return 10;
+    }
+
+    @Override
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @Override
+    public double finalizeConfidence() {
+        return finalizeConfidence;
+    }
+
+    @Override
+    public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+        Optional<Classification> result = ruleEvaluator.evaluateRules(ticket);
+        result.ifPresent(context::setRuleResult);
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.client.defectticket.lambda.pipeline;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Per-stage pipeline counters.
+ * hitRate = finalized / attempts for this stage.
+ */
+@Value
+@Builder
+public class StageStats {
+    String stage;
+    int order;
+    long attempts;
+    long finalized;
+    double hitRate;
+    double averageLatencyMicros;
+}
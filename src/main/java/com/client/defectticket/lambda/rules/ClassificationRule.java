@@ -3,6 +3,8 @@ package com.client.defectticket.lambda.rules;
 import com.client.defectticket.domain.model.Classification;
 import com.client.defectticket.domain.model.DefectTicket;
 
+import java.util.Set;
+
 /**
  * Interface for deterministic classification rules.
  * Rules are evaluated in priority order (lower number = higher priority).
@@ -25,6 +27,16 @@ public interface ClassificationRule {
      */
     int priority();
     
+    /**
+     * Keywords that trigger this rule.
+     * Keyword rules are compiled by RuleEvaluationService into a single
+     * automaton and matched in one pass; rules returning an empty set are
+     * evaluated through applies() instead.
+     */
+    default Set<String> keywords() {
+        return Set.of();
+    }
+    
     /**
      * Human-readable name for logging and debugging.
      */
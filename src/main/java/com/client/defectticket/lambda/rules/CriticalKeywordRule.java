@@ -5,6 +5,7 @@ import com.client.defectticket.domain.model.DefectTicket;
 import com.client.defectticket.domain.model.enums.Severity;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -28,10 +29,17 @@ public class CriticalKeywordRule implements ClassificationRule {
             "ddos attack"
     );
 
+    private static final KeywordMatcher MATCHER =
+            KeywordMatcher.compile(List.of(CRITICAL_KEYWORDS), KeywordMatcher.Boundary.WORD_START);
+
     @Override
     public boolean applies(DefectTicket ticket) {
-        String text = (ticket.getTitle() + " " + ticket.getDescription()).toLowerCase();
-        return CRITICAL_KEYWORDS.stream().anyMatch(text::contains);
+        return MATCHER.matchesAny(TicketText.of(ticket));
+    }
+
+    @Override
+    public Set<String> keywords() {
+        return CRITICAL_KEYWORDS;
     }
 
     @Override
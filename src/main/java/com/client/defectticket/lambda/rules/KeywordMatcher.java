@@ -0,0 +1,237 @@
+package com.client.defectticket.lambda.rules;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compiled Aho-Corasick automaton over one or more keyword groups.
+ *
+ * All groups are scanned in a single pass over the text, lowercasing one
+ * character at a time so no lowercase copy of the ticket is allocated.
+ * The result is a bit mask of matched groups (group i = bit i), which lets
+ * RuleEvaluationService dispatch to rules in priority order.
+ *
+ * Immutable and thread-safe once compiled.
+ */
+public final class KeywordMatcher {
+
+    /**
+     * Word-boundary handling for matches.
+     */
+    public enum Boundary {
+        NONE,        // plain substring match
+        WORD_START,  // keyword must start at a word boundary ("injection" matches "injections", not "reinjection")
+        WORD         // keyword must be a whole word or phrase
+    }
+
+    public static final int MAX_GROUPS = Long.SIZE;
+
+    private static final int[] NO_LENGTHS = new int[0];
+    private static final long[] NO_MASKS = new long[0];
+
+    private final Boundary boundary;
+    private final int alphabetSize;
+    private final int[] asciiClasses;
+    private final char[] extraChars;
+    private final int[] transitions;
+    private final int[][] outputLengths;
+    private final long[][] outputMasks;
+
+    private KeywordMatcher(Boundary boundary, int alphabetSize, int[] asciiClasses, char[] extraChars,
+                           int[] transitions, int[][] outputLengths, long[][] outputMasks) {
+        this.boundary = boundary;
+        this.alphabetSize = alphabetSize;
+        this.asciiClasses = asciiClasses;
+        this.extraChars = extraChars;
+        this.transitions = transitions;
+        this.outputLengths = outputLengths;
+        this.outputMasks = outputMasks;
+    }
+
+    /**
+     * Compile keyword groups into a single automaton.
+     * Keywords are matched case-insensitively.
+     *
+     * @param groups keyword sets; the index of each set is its bit in the match mask
+     */
+    public static KeywordMatcher compile(List<? extends Collection<String>> groups, Boundary boundary) {
+        if (groups.size() > MAX_GROUPS) {
+            throw new IllegalArgumentException("At most " + MAX_GROUPS + " keyword groups supported");
+        }
+
+        // Normalize keywords and build the reduced alphabet (class 0 = any other character)
+        TreeSet<Character> alphabet = new TreeSet<>();
+        int totalChars = 0;
+        String[][] normalized = new String[groups.size()][];
+        int g = 0;
+        for (Collection<String> group : groups) {
+            normalized[g] = group.stream()
+                    .map(keyword -> keyword.strip().toLowerCase(Locale.ROOT))
+                    .filter(keyword -> !keyword.isEmpty())
+                    .toArray(String[]::new);
+            for (String keyword : normalized[g]) {
+                totalChars += keyword.length();
+                for (int i = 0; i < keyword.length(); i++) {
+                    alphabet.add(keyword.charAt(i));
+                }
+            }
+            g++;
+        }
+
+        int[] asciiClasses = new int[128];
+        StringBuilder extra = new StringBuilder();
+        int alphabetSize = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClasses[c] = alphabetSize;
+            } else {
+                extra.append(c);
+            }
+            alphabetSize++;
+        }
+        char[] extraChars = extra.toString().toCharArray();
+        int extraBase = alphabetSize - extraChars.length;
+
+        // Build the trie
+        int maxNodes = totalChars + 1;
+        int[] transitions = new int[maxNodes * alphabetSize];
+        Arrays.fill(transitions, -1);
+        List<Map<Integer, Long>> outputs = new ArrayList<>();
+        outputs.add(new TreeMap<>());
+        int nodeCount = 1;
+
+        for (g = 0; g < normalized.length; g++) {
+            for (String keyword : normalized[g]) {
+                int node = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int cls = classOf(keyword.charAt(i), asciiClasses, extraChars, extraBase);
+                    int index = node * alphabetSize + cls;
+                    if (transitions[index] == -1) {
+                        transitions[index] = nodeCount++;
+                        outputs.add(new TreeMap<>());
+                    }
+                    node = transitions[index];
+                }
+                outputs.get(node).merge(keyword.length(), 1L << g, (a, b) -> a | b);
+            }
+        }
+
+        // Breadth-first failure links; missing transitions become DFA edges
+        int[] fail = new int[nodeCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int child = transitions[cls];
+            if (child == -1) {
+                transitions[cls] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            outputs.get(fail[node]).forEach((length, mask) ->
+                    outputs.get(node).merge(length, mask, (a, b) -> a | b));
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int index = node * alphabetSize + cls;
+                int child = transitions[index];
+                int fallback = transitions[fail[node] * alphabetSize + cls];
+                if (child == -1) {
+                    transitions[index] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        int[][] outputLengths = new int[nodeCount][];
+        long[][] outputMasks = new long[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            Map<Integer, Long> nodeOutputs = outputs.get(node);
+            if (nodeOutputs.isEmpty()) {
+                outputLengths[node] = NO_LENGTHS;
+                outputMasks[node] = NO_MASKS;
+            } else {
+                outputLengths[node] = nodeOutputs.keySet().stream().mapToInt(Integer::intValue).toArray();
+                outputMasks[node] = nodeOutputs.values().stream().mapToLong(Long::longValue).toArray();
+            }
+        }
+
+        return new KeywordMatcher(boundary, alphabetSize, asciiClasses, extraChars,
+                Arrays.copyOf(transitions, nodeCount * alphabetSize), outputLengths, outputMasks);
+    }
+
+    /**
+     * Scan the text once and return the mask of all matched groups.
+     */
+    public long match(CharSequence text) {
+        return match(text, 0L);
+    }
+
+    /**
+     * Scan the text and return the mask of matched groups, stopping early as
+     * soon as any group in stopMask matches (e.g. the highest-priority rule).
+     */
+    public long match(CharSequence text, long stopMask) {
+        int extraBase = alphabetSize - extraChars.length;
+        int length = text.length();
+        int state = 0;
+        long found = 0L;
+
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            state = transitions[state * alphabetSize + classOf(c, asciiClasses, extraChars, extraBase)];
+
+            int[] lengths = outputLengths[state];
+            for (int k = 0; k < lengths.length; k++) {
+                long mask = outputMasks[state][k];
+                if ((found | mask) == found) {
+                    continue;  // nothing new to learn from this keyword
+                }
+                if (boundaryMatches(text, i - lengths[k] + 1, i, length)) {
+                    found |= mask;
+                    if ((found & stopMask) != 0L) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Whether any keyword of any group occurs in the text.
+     */
+    public boolean matchesAny(CharSequence text) {
+        return match(text, -1L) != 0L;
+    }
+
+    private boolean boundaryMatches(CharSequence text, int start, int end, int length) {
+        return switch (boundary) {
+            case NONE -> true;
+            case WORD_START -> start == 0 || !isWordChar(text.charAt(start - 1));
+            case WORD -> (start == 0 || !isWordChar(text.charAt(start - 1)))
+                    && (end == length - 1 || !isWordChar(text.charAt(end + 1)));
+        };
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static int classOf(char c, int[] asciiClasses, char[] extraChars, int extraBase) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(extraChars, c);
+        return index >= 0 ? extraBase + index : 0;
+    }
+}
@@ -2,7 +2,6 @@ package com.client.defectticket.lambda.rules;
 
 import com.client.defectticket.domain.model.Classification;
 import com.client.defectticket.domain.model.DefectTicket;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,13 +12,36 @@ import java.util.Optional;
 /**
  * Service for evaluating deterministic classification rules.
  * Rules are evaluated in priority order and can override LLM results.
+ *
+ * Keyword sets of all rules are compiled once at startup into a single
+ * Aho-Corasick automaton, so a ticket is scanned once regardless of how
+ * many rules or keywords exist.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RuleEvaluationService {
 
     private final List<ClassificationRule> rules;
+    private final List<ClassificationRule> keywordRules;
+    private final List<ClassificationRule> otherRules;
+    private final KeywordMatcher keywordMatcher;
+
+    public RuleEvaluationService(List<ClassificationRule> rules) {
+        this.rules = rules;
+        this.keywordRules = rules.stream()
+                .filter(rule -> !rule.keywords().isEmpty())
+                .sorted(Comparator.comparingInt(ClassificationRule::priority))
+                .toList();
+        this.otherRules = rules.stream()
+                .filter(rule -> rule.keywords().isEmpty())
+                .sorted(Comparator.comparingInt(ClassificationRule::priority))
+                .toList();
+        this.keywordMatcher = KeywordMatcher.compile(
+                keywordRules.stream().map(ClassificationRule::keywords).toList(),
+                KeywordMatcher.Boundary.WORD_START);
+        log.info("Compiled {} keyword rules into one matcher, {} rules evaluated individually",
+                keywordRules.size(), otherRules.size());
+    }
 
     /**
      * Evaluate all rules for a ticket and return the highest priority match.
@@ -30,16 +52,31 @@ public class RuleEvaluationService {
     public Optional<Classification> evaluateRules(DefectTicket ticket) {
         log.debug("Evaluating {} rules for ticket: {}", rules.size(), ticket.getTicketId());
 
-        return rules.stream()
-                .filter(rule -> {
-                    boolean applies = rule.applies(ticket);
-                    if (applies) {
-                        log.info("Rule {} triggered for ticket {}", 
-                                rule.ruleName(), ticket.getTicketId());
-                    }
-                    return applies;
-                })
-                .min(Comparator.comparingInt(ClassificationRule::priority))
+        // Single pass over the ticket text; stops as soon as the top-priority keyword rule matches
+        ClassificationRule matched = null;
+        if (!keywordRules.isEmpty()) {
+            long mask = keywordMatcher.match(TicketText.of(ticket), 1L);
+            if (mask != 0L) {
+                matched = keywordRules.get(Long.numberOfTrailingZeros(mask));
+            }
+        }
+
+        // Non-keyword rules only need evaluating if they could outrank the keyword match
+        for (ClassificationRule rule : otherRules) {
+            if (matched != null && rule.priority() >= matched.priority()) {
+                break;
+            }
+            if (rule.applies(ticket)) {
+                matched = rule;
+                break;
+            }
+        }
+
+        if (matched != null) {
+            log.info("Rule {} triggered for ticket {}", matched.ruleName(), ticket.getTicketId());
+        }
+
+        return Optional.ofNullable(matched)
                 .map(rule -> {
                     Classification result = rule.evaluate(ticket);
                     log.info("Applying rule {} classification: category={}, severity={}", 
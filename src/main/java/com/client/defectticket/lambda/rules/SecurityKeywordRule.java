@@ -5,6 +5,7 @@ import com.client.defectticket.domain.model.DefectTicket;
 import com.client.defectticket.domain.model.enums.Severity;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -29,10 +30,17 @@ public class SecurityKeywordRule implements ClassificationRule {
             "sensitive data"
     );
 
+    private static final KeywordMatcher MATCHER =
+            KeywordMatcher.compile(List.of(SECURITY_KEYWORDS), KeywordMatcher.Boundary.WORD_START);
+
     @Override
     public boolean applies(DefectTicket ticket) {
-        String text = (ticket.getTitle() + " " + ticket.getDescription()).toLowerCase();
-        return SECURITY_KEYWORDS.stream().anyMatch(text::contains);
+        return MATCHER.matchesAny(TicketText.of(ticket));
+    }
+
+    @Override
+    public Set<String> keywords() {
+        return SECURITY_KEYWORDS;
     }
 
     @Override
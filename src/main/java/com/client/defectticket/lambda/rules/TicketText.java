@@ -0,0 +1,54 @@
+package com.client.defectticket.lambda.rules;
+
+import com.client.defectticket.domain.model.DefectTicket;
+
+/**
+ * Zero-copy view of a ticket's title and description joined by a space.
+ * Lets keyword matchers scan "title + ' ' + description" without
+ * concatenating or lowercasing the (possibly very large) description.
+ */
+public final class TicketText implements CharSequence {
+
+    private final String title;
+    private final String description;
+
+    private TicketText(String title, String description) {
+        this.title = title != null ? title : "";
+        this.description = description != null ? description : "";
+    }
+
+    public static TicketText of(DefectTicket ticket) {
+        return new TicketText(ticket.getTitle(), ticket.getDescription());
+    }
+
+    public static TicketText of(String title, String description) {
+        return new TicketText(title, description);
+    }
+
+    @Override
+    public int length() {
+        return title.length() + 1 + description.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        int titleLength = title.length();
+        if (index < titleLength) {
+            return title.charAt(index);
+        }
+        if (index == titleLength) {
+            return ' ';
+        }
+        return description.charAt(index - titleLength - 1);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return title + " " + description;
+    }
+}
@@ -1,23 +1,20 @@
 package com.client.defectticket.messaging.sqs;
 
 import com.client.defectticket.domain.model.DefectTicket;
-import com.client.defectticket.domain.model.enums.TicketStatus;
 import com.client.defectticket.domain.repository.DefectTicketRepository;
-import com.client.defectticket.lambda.handler.dto.BatchIngestionRequest;
+import com.client.defectticket.domain.service.BatchChecksum;
+import com.client.defectticket.lambda.handler.dto.BatchReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.sfn.SfnClient;
+import software.amazon.awssdk.services.sfn.model.ExecutionAlreadyExistsException;
 import software.amazon.awssdk.services.sfn.model.StartExecutionRequest;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
 import software.amazon.awssdk.services.sqs.model.Message;
-import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 
-import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,128 +22,131 @@ import java.util.UUID;
 
 /**
  * Handles SQS messages for batch ingestion.
- * Provides buffering and resilience before Step Functions execution.
- * 
+ * Provides buffering and resilience before Step Functions execution;
+ * messages are received by {@link IngestionQueueConsumer}.
+ *
  * Key benefits:
  * - Load spike buffering
  * - Automatic retry with DLQ
  * - Decoupling from REST API
+ *
+ * Messages are claim checks (BatchReference): the tickets were stored by
+ * the producer, so the handler only verifies that the referenced tickets
+ * are visible and starts the workflow. A coalesced message (IngestionCoalescer)
+ * starts one workflow over all of its batches.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class BatchIngestionMessageHandler {
 
-    private final SqsClient sqsClient;
+    private static final int VERIFY_PAGE_SIZE = 500;
+    private static final int MAX_EXECUTION_NAME_LENGTH = 80;
+
     private final SfnClient sfnClient;
     private final DefectTicketRepository ticketRepository;
     private final ObjectMapper objectMapper;
 
-    @Value("${aws.sqs.ingestion-queue-url}")
-    private String queueUrl;
-
     @Value("${aws.stepfunctions.state-machine-arn}")
     private String stateMachineArn;
 
-    @Value("${aws.sqs.polling-enabled:false}")
-    private boolean pollingEnabled;
-
     @Value("${aws.stepfunctions.skip-execution:false}")
     private boolean skipStepFunctionsExecution;
 
     /**
-     * Poll SQS queue and start Step Functions for each batch.
-     * Scheduled to run every 10 seconds when polling is enabled.
-     * Stores tickets in DynamoDB first (Claim Check Pattern), then starts Step Functions.
+     * Process one ingestion message.
+     * Called concurrently by {@link IngestionQueueConsumer}, which deletes the message on success;
+     * an exception leaves it for redelivery.
      */
-    @Scheduled(fixedDelay = 10000, initialDelay = 5000)
-    public void pollAndProcess() {
-        if (!pollingEnabled) {
+    public void handle(Message message) throws Exception {
+        JsonNode body = objectMapper.readTree(message.body());
+        if (!body.has("ticketCount")) {
+            // Full BatchIngestionRequest queued before the claim-check format; its tickets were stored by the producer
+            log.warn("Legacy ingestion message {} for batch: {}; starting workflow without verification",
+                    message.messageId(), body.path("batchId").asText());
+            String batchId = body.path("batchId").asText();
+            startWorkflow(batchId, List.of(batchId), body.path("sourceSystem").asText(null),
+                    batchId + "-" + UUID.randomUUID());
             return;
         }
-        
-        log.debug("Polling SQS queue: {}", queueUrl);
-
-        ReceiveMessageRequest receiveRequest = ReceiveMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .maxNumberOfMessages(10)
-                .waitTimeSeconds(20)  // Long polling for efficiency
-                .build();
-
-        List<Message> messages = sqsClient.receiveMessage(receiveRequest).messages();
-        log.info("Received {} messages from SQS", messages.size());
 
-        for (Message message : messages) {
-            try {
-                processMessage(message);
-                deleteMessage(message);
-            } catch (Exception e) {
-                log.error("Failed to process SQS message: {}", message.messageId(), e);
-                // Message will be retried or moved to DLQ after max attempts
-            }
-        }
+        BatchReference reference = objectMapper.treeToValue(body, BatchReference.class);
+        List<BatchReference> parts = reference.getBatches() != null && !reference.getBatches().isEmpty()
+                ? reference.getBatches() : List.of(reference);
+        log.info("Processing batch ingestion for batchId: {}, tickets: {}, batches: {}",
+                reference.getBatchId(), reference.getTicketCount(), parts.size());
+        parts.forEach(this::verify);
+        List<String> batchIds = parts.stream().map(BatchReference::getBatchId).distinct().toList();
+        startWorkflow(reference.getBatchId(), batchIds, reference.getSourceSystem(),
+                reference.getBatchId() + "-" + reference.getChecksum());
     }
 
-    private void processMessage(Message message) throws Exception {
-        BatchIngestionRequest request = objectMapper.readValue(
-            message.body(), BatchIngestionRequest.class);
-
-        log.info("Processing batch ingestion for batchId: {}, tickets: {}", 
-                request.getBatchId(), request.getTickets().size());
+    /**
+     * Check the stored batch against the reference.
+     *
+     * @throws IllegalStateException if fewer tickets are visible than referenced (the batch-index
+     *         GSI is eventually consistent; the message is redelivered), or the same number with a
+     *         different checksum
+     */
+    private void verify(BatchReference reference) {
+        BatchChecksum stored = new BatchChecksum();
+        String cursor = null;
+        do {
+            DefectTicketRepository.TicketPage page =
+                    ticketRepository.findByBatchIdPage(reference.getBatchId(), cursor, VERIFY_PAGE_SIZE);
+            for (DefectTicket ticket : page.tickets()) {
+                stored.add(ticket.getTicketId());
+            }
+            cursor = page.lastEvaluatedTicketId();
+        } while (cursor != null);
 
-        // Store tickets in DynamoDB (Claim Check Pattern)
-        int storedCount = 0;
-        for (BatchIngestionRequest.TicketInput ticketInput : request.getTickets()) {
-            DefectTicket ticket = new DefectTicket();
-            ticket.setTicketId(UUID.randomUUID().toString());
-            ticket.setBatchId(request.getBatchId());
-            ticket.setSourceSystem(request.getSourceSystem());
-            ticket.setSourceReference(ticketInput.getSourceReference());
-            ticket.setTitle(ticketInput.getTitle());
-            ticket.setDescription(ticketInput.getDescription());
-            ticket.setStatus(TicketStatus.NEW);
-            ticket.setCreatedAt(Instant.now());
-            ticket.setUpdatedAt(Instant.now());
-            
-            ticketRepository.save(ticket);
-            storedCount++;
-            log.debug("Stored ticket: {} from {}", ticket.getTicketId(), ticketInput.getSourceReference());
+        if (stored.count() < reference.getTicketCount()) {
+            throw new IllegalStateException("Batch " + reference.getBatchId() + ": " + stored.count() + " of "
+                    + reference.getTicketCount() + " tickets visible; retrying");
+        }
+        if (stored.count() > reference.getTicketCount()) {
+            // Batch ID re-used by an earlier submission; the workflow processes the whole batch
+            log.warn("Batch {} has {} stored tickets, message references {}",
+                    reference.getBatchId(), stored.count(), reference.getTicketCount());
+        } else if (!stored.value().equals(reference.getChecksum())) {
+            throw new IllegalStateException("Batch " + reference.getBatchId() + ": checksum " + stored.value()
+                    + " does not match " + reference.getChecksum());
         }
-        
-        log.info("Stored {} tickets in DynamoDB for batch: {}", storedCount, request.getBatchId());
+    }
 
+    /**
+     * Start one execution over the given batches.
+     *
+     * @param executionName derived from the message, so a redelivered message does not start a second execution
+     */
+    private void startWorkflow(String batchId, List<String> batchIds, String sourceSystem, String executionName)
+            throws Exception {
         // Start Step Functions workflow (skip in local mode if not configured)
-        if (!skipStepFunctionsExecution) {
-            // Claim Check Pattern: Only pass batchId to Step Functions
-            // Full ticket data is now in DynamoDB
-            Map<String, String> input = new HashMap<>();
-            input.put("batchId", request.getBatchId());
-            input.put("sourceSystem", request.getSourceSystem());
-            
-            String executionInput = objectMapper.writeValueAsString(input);
+        if (skipStepFunctionsExecution) {
+            log.warn("Skipping Step Functions execution (local testing mode) for batch: {}", batchId);
+            return;
+        }
 
-            StartExecutionRequest executionRequest = StartExecutionRequest.builder()
-                    .stateMachineArn(stateMachineArn)
-                    .name(request.getBatchId() + "-" + UUID.randomUUID())
-                    .input(executionInput)
-                    .build();
+        // Claim Check Pattern: Only pass batch IDs to Step Functions
+        // Full ticket data is in DynamoDB
+        Map<String, Object> input = new HashMap<>();
+        input.put("batchId", batchId);
+        input.put("batchIds", batchIds);
+        input.put("sourceSystem", sourceSystem);
+
+        StartExecutionRequest executionRequest = StartExecutionRequest.builder()
+                .stateMachineArn(stateMachineArn)
+                .name(executionName.length() > MAX_EXECUTION_NAME_LENGTH
+                        ? executionName.substring(executionName.length() - MAX_EXECUTION_NAME_LENGTH)
+                        : executionName)
+                .input(objectMapper.writeValueAsString(input))
+                .build();
 
+        try {
             var response = sfnClient.startExecution(executionRequest);
-            
-            log.info("Started Step Functions execution {} for batch: {}",
-                    response.executionArn(), request.getBatchId());
-        } else {
-            log.warn("Skipping Step Functions execution (local testing mode) for batch: {}", request.getBatchId());
+            log.info("Started Step Functions execution {} for batch: {}", response.executionArn(), batchId);
+        } catch (ExecutionAlreadyExistsException e) {
+            log.info("Step Functions execution {} already exists for batch: {}", executionRequest.name(), batchId);
         }
     }
-
-    private void deleteMessage(Message message) {
-        DeleteMessageRequest deleteRequest = DeleteMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .receiptHandle(message.receiptHandle())
-                .build();
-        
-        sqsClient.deleteMessage(deleteRequest);
-        log.debug("Deleted message from SQS: {}", message.messageId());
-    }
 }
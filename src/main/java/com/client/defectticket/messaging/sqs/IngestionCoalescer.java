@@ -0,0 +1,258 @@
+package com.client.defectticket.messaging.sqs;
+
+import com.client.defectticket.domain.service.BatchChecksum;
+import com.client.defectticket.lambda.handler.dto.BatchReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces small ingestion requests into shared workflow executions.
+ *
+ * Many sources post 1-3 tickets per request; one SQS message and one Step
+ * Functions execution each makes per-execution overhead dominate. Small
+ * batches (at most max-request-tickets) are buffered per sourceSystem for
+ * up to max-delay-ms or until max-tickets are buffered, then sent as one
+ * combined BatchReference; due buffers of all sources go out in a single
+ * SendMessageBatch (10 messages per call). The consumer verifies every part
+ * and starts one execution over all of them.
+ *
+ * Tickets keep their own batchId, so every request still owns its tickets;
+ * submit() completes once the combined message is queued. If the combined
+ * message fails, every request in it fails and the caller queues its own
+ * reference instead; a request still buffered can be withdrawn for the same
+ * purpose.
+ */
+@Slf4j
+@Component
+public class IngestionCoalescer {
+
+    private static final int MAX_BATCH_ENTRIES = 10;  // SQS limit per SendMessageBatch
+
+    private final SqsClient sqsClient;
+    private final ObjectMapper objectMapper;
+    private final String queueUrl;
+    private final boolean enabled;
+    private final int maxRequestTickets;
+    private final int maxTickets;
+    private final long maxDelayMillis;
+
+    private final Map<String, Buffer> buffers = new HashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ingestion-coalescer").daemon().factory());
+
+    public IngestionCoalescer(
+            SqsClient sqsClient,
+            ObjectMapper objectMapper,
+            @Value("${aws.sqs.ingestion-queue-url}") String queueUrl,
+            @Value("${batch.ingestion.coalescing.enabled:true}") boolean enabled,
+            @Value("${batch.ingestion.coalescing.max-request-tickets:10}") int maxRequestTickets,
+            @Value("${batch.ingestion.coalescing.max-tickets:100}") int maxTickets,
+            @Value("${batch.ingestion.coalescing.max-delay-ms:200}") long maxDelayMillis) {
+        this.sqsClient = sqsClient;
+        this.objectMapper = objectMapper;
+        this.queueUrl = queueUrl;
+        this.enabled = enabled;
+        this.maxRequestTickets = maxRequestTickets;
+        this.maxTickets = Math.max(1, maxTickets);
+        this.maxDelayMillis = maxDelayMillis;
+        if (enabled) {
+            long tick = Math.max(5, maxDelayMillis / 4);
+            flusher.scheduleWithFixedDelay(this::flushDue, tick, tick, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Whether a batch of this size is coalesced rather than queued on its own.
+     */
+    public boolean accepts(int ticketCount) {
+        return enabled && ticketCount > 0 && ticketCount <= maxRequestTickets;
+    }
+
+    /**
+     * Buffer a stored batch until its source's combined message is sent.
+     * Waiting for the result costs the caller at most max-delay-ms plus one SQS call.
+     */
+    public CompletableFuture<CoalescedBatch> submit(BatchReference reference) {
+        CompletableFuture<CoalescedBatch> result = new CompletableFuture<>();
+        boolean full;
+        synchronized (buffers) {
+            Buffer buffer = buffers.computeIfAbsent(reference.getSourceSystem() != null
+                    ? reference.getSourceSystem() : "UNKNOWN", source -> new Buffer(reference.getSourceSystem()));
+            buffer.parts.add(reference);
+            buffer.waiters.add(result);
+            buffer.tickets += reference.getTicketCount();
+            full = buffer.tickets >= maxTickets;
+        }
+        if (full) {
+            flusher.execute(this::flushDue);
+        }
+        return result;
+    }
+
+    /**
+     * Take a request out of its buffer if the buffer has not been sent yet.
+     *
+     * @return false if the request's buffer is already being sent; its future completes with that send
+     */
+    public boolean withdraw(BatchReference reference, CompletableFuture<CoalescedBatch> waiter) {
+        synchronized (buffers) {
+            String source = reference.getSourceSystem() != null ? reference.getSourceSystem() : "UNKNOWN";
+            Buffer buffer = buffers.get(source);
+            if (buffer == null) {
+                return false;
+            }
+            int index = buffer.waiters.indexOf(waiter);
+            if (index < 0) {
+                return false;
+            }
+            buffer.waiters.remove(index);
+            buffer.parts.remove(index);
+            buffer.tickets -= reference.getTicketCount();
+            if (buffer.parts.isEmpty()) {
+                buffers.remove(source);
+            }
+            return true;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush(true);
+    }
+
+    /**
+     * Send every buffer that is full or older than max-delay-ms.
+     */
+    void flushDue() {
+        flush(false);
+    }
+
+    void flushAll() {
+        flush(true);
+    }
+
+    private void flush(boolean all) {
+        List<Buffer> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (buffers) {
+            Iterator<Buffer> it = buffers.values().iterator();
+            while (it.hasNext()) {
+                Buffer buffer = it.next();
+                if (all || buffer.tickets >= maxTickets || now - buffer.openedAt >= maxDelayMillis) {
+                    due.add(buffer);
+                    it.remove();
+                }
+            }
+        }
+        for (int from = 0; from < due.size(); from += MAX_BATCH_ENTRIES) {
+            send(due.subList(from, Math.min(due.size(), from + MAX_BATCH_ENTRIES)));
+        }
+    }
+
+    private void send(List<Buffer> buffers) {
+        Map<String, Buffer> byEntryId = new LinkedHashMap<>();
+        Map<String, BatchReference> combined = new HashMap<>();
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(buffers.size());
+        for (Buffer buffer : buffers) {
+            String entryId = Integer.toString(entries.size());
+            BatchReference reference = buffer.combine();
+            try {
+                entries.add(SendMessageBatchRequestEntry.builder()
+                        .id(entryId)
+                        .messageBody(objectMapper.writeValueAsString(reference))
+                        .build());
+                byEntryId.put(entryId, buffer);
+                combined.put(entryId, reference);
+            } catch (JsonProcessingException e) {
+                buffer.fail(e);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        SendMessageBatchResponse response;
+        try {
+            response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(queueUrl)
+                    .entries(entries)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("SendMessageBatch failed for {} coalesced batches", entries.size(), e);
+            byEntryId.values().forEach(buffer -> buffer.fail(e));
+            return;
+        }
+        for (SendMessageBatchResultEntry sent : response.successful()) {
+            BatchReference reference = combined.get(sent.id());
+            Buffer buffer = byEntryId.get(sent.id());
+            log.info("Sent SQS message {} for coalesced batch: {} ({} requests, {} tickets from {})",
+                    sent.messageId(), reference.getBatchId(), buffer.parts.size(), reference.getTicketCount(),
+                    reference.getSourceSystem());
+            CoalescedBatch batch = new CoalescedBatch(reference.getBatchId(), sent.messageId(), buffer.parts.size(),
+                    reference.getTicketCount());
+            buffer.waiters.forEach(waiter -> waiter.complete(batch));
+        }
+        for (BatchResultErrorEntry failed : response.failed()) {
+            byEntryId.get(failed.id()).fail(new IllegalStateException(
+                    "Failed to queue coalesced batch: " + failed.code() + " " + failed.message()));
+        }
+    }
+
+    /**
+     * The combined message a request was sent in.
+     *
+     * @param batchId the combined batch (workflow execution) ID
+     * @param requests batches combined in the message
+     * @param tickets tickets over all combined batches
+     */
+    public record CoalescedBatch(String batchId, String sqsMessageId, int requests, int tickets) {}
+
+    private static final class Buffer {
+        final String sourceSystem;
+        final long openedAt = System.currentTimeMillis();
+        final List<BatchReference> parts = new ArrayList<>();
+        final List<CompletableFuture<CoalescedBatch>> waiters = new ArrayList<>();
+        int tickets;
+
+        Buffer(String sourceSystem) {
+            this.sourceSystem = sourceSystem;
+        }
+
+        BatchReference combine() {
+            return BatchReference.builder()
+                    .batchId("coalesced-" + UUID.randomUUID())
+                    .sourceSystem(sourceSystem)
+                    .ticketCount(tickets)
+                    .checksum(BatchChecksum.combine(parts.stream().map(BatchReference::getChecksum).toList()))
+                    .batches(List.copyOf(parts))
+                    .build();
+        }
+
+        void fail(Throwable cause) {
+            waiters.forEach(waiter -> waiter.completeExceptionally(cause));
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.client.defectticket.messaging.sqs;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent consumer for the ingestion queue.
+ *
+ * Throughput comes from:
+ * - N long-polling threads, scaled between min and max pollers from the
+ *   queue's ApproximateNumberOfMessages
+ * - every received message is processed on its own virtual thread, bounded
+ *   by max-in-flight; a poller only asks for as many messages as it has
+ *   permits for
+ * - successful messages are acknowledged with DeleteMessageBatch (10 per call)
+ * - messages still in flight after heartbeat-interval get their visibility
+ *   timeout extended, so long batches are not redelivered mid-processing;
+ *   after max-processing-seconds the heartbeat stops and SQS redelivers
+ *
+ * Failed messages are left alone and become visible again after the
+ * visibility timeout (DLQ after the queue's maxReceiveCount).
+ */
+@Slf4j
+@Component
+public class IngestionQueueConsumer {
+
+    private static final int MAX_BATCH_ENTRIES = 10;  // SQS limit for receive and batch calls
+    private static final int LONG_POLL_SECONDS = 20;
+
+    private final SqsClient sqsClient;
+    private final BatchIngestionMessageHandler messageHandler;
+    private final String queueUrl;
+    private final boolean pollingEnabled;
+    private final int minPollers;
+    private final int maxPollers;
+    private final int backlogPerPoller;
+    private final int visibilityTimeoutSeconds;
+    private final long heartbeatIntervalMillis;
+    private final long maxProcessingMillis;
+    private final long ackFlushIntervalMillis;
+
+    private final Semaphore inFlightPermits;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<Message> pendingAcks = new LinkedBlockingQueue<>();
+    private final Set<Integer> activePollers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger desiredPollers = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final ExecutorService pollers = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("sqs-poller-", 0).daemon().factory());
+    private final ExecutorService processors = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService housekeeping = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("sqs-housekeeping").daemon().factory());
+
+    private volatile boolean running;
+
+    public IngestionQueueConsumer(
+            SqsClient sqsClient,
+            BatchIngestionMessageHandler messageHandler,
+            @Value("${aws.sqs.ingestion-queue-url}") String queueUrl,
+            @Value("${aws.sqs.polling-enabled:false}") boolean pollingEnabled,
+            @Value("${aws.sqs.consumer.min-pollers:1}") int minPollers,
+            @Value("${aws.sqs.consumer.max-pollers:8}") int maxPollers,
+            @Value("${aws.sqs.consumer.backlog-per-poller:100}") int backlogPerPoller,
+            @Value("${aws.sqs.consumer.max-in-flight:100}") int maxInFlight,
+            @Value("${aws.sqs.consumer.visibility-timeout-seconds:300}") int visibilityTimeoutSeconds,
+            @Value("${aws.sqs.consumer.heartbeat-interval-seconds:60}") long heartbeatIntervalSeconds,
+            @Value("${aws.sqs.consumer.max-processing-seconds:3600}") long maxProcessingSeconds,
+            @Value("${aws.sqs.consumer.ack-flush-interval-ms:1000}") long ackFlushIntervalMillis) {
+        this.sqsClient = sqsClient;
+        this.messageHandler = messageHandler;
+        this.queueUrl = queueUrl;
+        this.pollingEnabled = pollingEnabled;
+        this.minPollers = Math.max(1, minPollers);
+        this.maxPollers = Math.max(this.minPollers, maxPollers);
+        this.backlogPerPoller = Math.max(1, backlogPerPoller);
+        this.inFlightPermits = new Semaphore(Math.max(1, maxInFlight));
+        this.visibilityTimeoutSeconds = visibilityTimeoutSeconds;
+        this.heartbeatIntervalMillis = TimeUnit.SECONDS.toMillis(heartbeatIntervalSeconds);
+        this.maxProcessingMillis = TimeUnit.SECONDS.toMillis(maxProcessingSeconds);
+        this.ackFlushIntervalMillis = ackFlushIntervalMillis;
+    }
+
+    /**
+     * Start the minimum number of pollers and the heartbeat, acknowledgement
+     * and scaling tasks once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!pollingEnabled || running) {
+            return;
+        }
+        running = true;
+        scaleTo(minPollers);
+        housekeeping.scheduleWithFixedDelay(safely(this::flushAcknowledgements),
+                ackFlushIntervalMillis, ackFlushIntervalMillis, TimeUnit.MILLISECONDS);
+        housekeeping.scheduleWithFixedDelay(safely(this::sendHeartbeats),
+                heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        housekeeping.scheduleWithFixedDelay(safely(this::scale),
+                LONG_POLL_SECONDS, LONG_POLL_SECONDS, TimeUnit.SECONDS);
+        log.info("SQS consumer started on {} ({}-{} pollers, up to {} messages in flight)",
+                queueUrl, minPollers, maxPollers, inFlightPermits.availablePermits());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        pollers.shutdown();
+        try {
+            // Pollers finish their current long poll, then in-flight messages finish processing
+            pollers.awaitTermination(LONG_POLL_SECONDS + 5, TimeUnit.SECONDS);
+            processors.shutdown();
+            processors.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        housekeeping.shutdown();
+        flushAcknowledgements();
+        log.info("SQS consumer stopped: {} messages processed, {} failed", processed.sum(), failed.sum());
+    }
+
+    /**
+     * Resize the poller pool from the queue's approximate backlog.
+     */
+    void scale() {
+        String backlog = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                        .queueUrl(queueUrl)
+                        .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                        .build())
+                .attributes()
+                .get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
+        int target = pollersFor(backlog != null ? Long.parseLong(backlog) : 0, backlogPerPoller, minPollers, maxPollers);
+        if (target != desiredPollers.get()) {
+            log.info("Scaling SQS pollers {} -> {} (backlog {})", desiredPollers.get(), target, backlog);
+        }
+        scaleTo(target);
+    }
+
+    static int pollersFor(long backlog, int backlogPerPoller, int minPollers, int maxPollers) {
+        long needed = (backlog + backlogPerPoller - 1) / backlogPerPoller;
+        return (int) Math.max(minPollers, Math.min(maxPollers, needed));
+    }
+
+    private void scaleTo(int target) {
+        desiredPollers.set(target);
+        for (int index = 0; index < target; index++) {
+            if (running && activePollers.add(index)) {
+                int pollerIndex = index;
+                pollers.submit(() -> pollLoop(pollerIndex));
+            }
+        }
+    }
+
+    private void pollLoop(int index) {
+        while (running) {
+            if (index >= desiredPollers.get()) {
+                activePollers.remove(index);
+                // Re-check: a scale-up between the test and the remove skipped this index
+                if (index >= desiredPollers.get() || !activePollers.add(index)) {
+                    return;
+                }
+            }
+            try {
+                pollOnce();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("SQS poller {} failed to receive messages", index, e);
+                sleepQuietly(1000);
+            }
+        }
+        activePollers.remove(index);
+    }
+
+    /**
+     * One long poll for as many messages as there are free in-flight permits
+     * (up to 10); each message is handed to its own virtual thread.
+     */
+    void pollOnce() throws InterruptedException {
+        inFlightPermits.acquire();
+        int permits = 1;
+        while (permits < MAX_BATCH_ENTRIES && inFlightPermits.tryAcquire()) {
+            permits++;
+        }
+
+        List<Message> messages;
+        try {
+            messages = sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                    .queueUrl(queueUrl)
+                    .maxNumberOfMessages(permits)
+                    .waitTimeSeconds(LONG_POLL_SECONDS)
+                    .visibilityTimeout(visibilityTimeoutSeconds)
+                    .build()).messages();
+        } catch (RuntimeException e) {
+            inFlightPermits.release(permits);
+            throw e;
+        }
+        inFlightPermits.release(permits - messages.size());
+        if (!messages.isEmpty()) {
+            log.debug("Received {} messages from SQS", messages.size());
+        }
+
+        for (Message message : messages) {
+            inFlight.put(message.messageId(), new InFlight(message));
+            processors.submit(() -> process(message));
+        }
+    }
+
+    private void process(Message message) {
+        try {
+            messageHandler.handle(message);
+            pendingAcks.add(message);
+            processed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Failed to process SQS message: {}", message.messageId(), e);
+            // Message will be retried or moved to DLQ after max attempts
+        } finally {
+            inFlight.remove(message.messageId());
+            inFlightPermits.release();
+        }
+    }
+
+    /**
+     * Delete processed messages, 10 per DeleteMessageBatch call.
+     */
+    void flushAcknowledgements() {
+        List<Message> batch = new ArrayList<>(MAX_BATCH_ENTRIES);
+        while (pendingAcks.drainTo(batch, MAX_BATCH_ENTRIES) > 0) {
+            List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                // Ids only need to be unique per request; the same message can be received twice
+                entries.add(DeleteMessageBatchRequestEntry.builder()
+                        .id(Integer.toString(i))
+                        .receiptHandle(batch.get(i).receiptHandle())
+                        .build());
+            }
+            try {
+                var response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                        .queueUrl(queueUrl)
+                        .entries(entries)
+                        .build());
+                for (BatchResultErrorEntry error : response.failed()) {
+                    // Redelivered later; ingestion is idempotent on sourceReference
+                    log.warn("Failed to delete SQS message {}: {} {}",
+                            batch.get(Integer.parseInt(error.id())).messageId(), error.code(), error.message());
+                }
+                log.debug("Deleted {} messages from SQS", batch.size() - response.failed().size());
+            } catch (RuntimeException e) {
+                log.error("DeleteMessageBatch failed for {} messages", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Extend the visibility timeout of messages in flight for longer than
+     * the heartbeat interval.
+     */
+    void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        List<InFlight> due = new ArrayList<>();
+        for (InFlight message : inFlight.values()) {
+            if (now - message.receivedAt >= maxProcessingMillis) {
+                continue;  // Give up; SQS redelivers once the current timeout expires
+            }
+            if (now - message.extendedAt >= heartbeatIntervalMillis) {
+                due.add(message);
+            }
+        }
+
+        for (int start = 0; start < due.size(); start += MAX_BATCH_ENTRIES) {
+            List<InFlight> batch = due.subList(start, Math.min(due.size(), start + MAX_BATCH_ENTRIES));
+            List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                        .id(Integer.toString(i))
+                        .receiptHandle(batch.get(i).message.receiptHandle())
+                        .visibilityTimeout(visibilityTimeoutSeconds)
+                        .build());
+            }
+            try {
+                var response = sqsClient.changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest.builder()
+                        .queueUrl(queueUrl)
+                        .entries(entries)
+                        .build());
+                Set<String> failedIds = new HashSet<>();
+                response.failed().forEach(error -> failedIds.add(error.id()));
+                for (int i = 0; i < batch.size(); i++) {
+                    if (failedIds.contains(Integer.toString(i))) {
+                        log.warn("Failed to extend visibility of SQS message {}", batch.get(i).message.messageId());
+                    } else {
+                        batch.get(i).extendedAt = now;
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("ChangeMessageVisibilityBatch failed for {} messages", batch.size(), e);
+            }
+        }
+        if (!due.isEmpty()) {
+            log.debug("Extended visibility of {} in-flight SQS messages", due.size());
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    int desiredPollerCount() {
+        return desiredPollers.get();
+    }
+
+    private Runnable safely(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("SQS consumer housekeeping task failed", e);
+            }
+        };
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class InFlight {
+        final Message message;
+        final long receivedAt = System.currentTimeMillis();
+        volatile long extendedAt = receivedAt;
+
+        InFlight(Message message) {
+            this.message = message;
+        }
+    }
+}
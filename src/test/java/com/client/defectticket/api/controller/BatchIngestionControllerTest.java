@@ -0,0 +1,165 @@
+package com.client.defectticket.api.controller;
+
+import com.client.defectticket.domain.model.DedupKey;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.repository.DedupKeyRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.service.IngestionAdmissionService;
+import com.client.defectticket.domain.service.StreamingIngestionService;
+import com.client.defectticket.domain.service.TicketDeduplicationService;
+import com.client.defectticket.lambda.handler.dto.BatchIngestionRequest;
+import com.client.defectticket.lambda.handler.dto.BatchReference;
+import com.client.defectticket.messaging.sqs.IngestionCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for BatchIngestionController.
+ * Tests that a request failing after its references were claimed can be retried, and that a
+ * failed coalesced message falls back to the request's own message.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchIngestionControllerTest {
+
+    private static final String QUEUE_URL = "https://sqs.test/queue";
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    @Mock
+    private DedupKeyRepository dedupKeyRepository;
+
+    @Mock
+    private SqsClient sqsClient;
+
+    @Mock
+    private StreamingIngestionService streamingIngestionService;
+
+    @Mock
+    private IngestionAdmissionService admissionService;
+
+    @Mock
+    private IngestionCoalescer coalescer;
+
+    private final Map<String, String> claims = new HashMap<>();
+    private BatchIngestionController controller;
+
+    @BeforeEach
+    void setUp() {
+        TicketDeduplicationService deduplicationService = new TicketDeduplicationService(dedupKeyRepository,
+                ticketRepository, true, TicketDeduplicationService.Policy.SKIP, 100, 0.01, 900);
+        controller = new BatchIngestionController(ticketRepository, sqsClient, new ObjectMapper(),
+                streamingIngestionService, deduplicationService, admissionService, coalescer);
+        ReflectionTestUtils.setField(controller, "queueUrl", QUEUE_URL);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldQueueRetryOfRequestWhoseSqsSendFailed() throws Exception {
+        // Given: the first send fails, the retry's succeeds
+        stubDedupKeyTable();
+        when(sqsClient.sendMessage(any(SendMessageRequest.class)))
+                .thenThrow(SdkClientException.create("SQS unreachable"))
+                .thenReturn(SendMessageResponse.builder().messageId("msg-1").build());
+        BatchIngestionRequest request = request("PROJ-1", "PROJ-2");
+
+        // When
+        assertThatThrownBy(() -> controller.ingestBatch(request)).isInstanceOf(SdkClientException.class);
+        ResponseEntity<Map<String, Object>> retry = controller.ingestBatch(request);
+
+        // Then: the first attempt's tickets are deleted and the retry stores and queues both references
+        ArgumentCaptor<List<DefectTicket>> stored = ArgumentCaptor.forClass(List.class);
+        verify(ticketRepository, times(2)).saveAll(stored.capture());
+        List<String> firstAttempt = stored.getAllValues().get(0).stream().map(DefectTicket::getTicketId).toList();
+        verify(ticketRepository).deleteAll(firstAttempt);
+
+        assertThat(retry.getBody())
+                .containsEntry("ticketsIngested", 2)
+                .containsEntry("ticketsDeduped", 0)
+                .containsEntry("sqsMessageId", "msg-1")
+                .containsEntry("status", "QUEUED");
+        assertThat(claims.values()).containsExactlyInAnyOrderElementsOf(
+                (List<String>) retry.getBody().get("ticketIds"));
+    }
+
+    @Test
+    void shouldSendOwnMessageWhenCoalescedMessageFails() throws Exception {
+        // Given
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(true);
+        when(coalescer.accepts(1)).thenReturn(true);
+        when(coalescer.submit(any(BatchReference.class))).thenReturn(
+                CompletableFuture.failedFuture(new IllegalStateException("Failed to queue coalesced batch")));
+        when(sqsClient.sendMessage(any(SendMessageRequest.class)))
+                .thenReturn(SendMessageResponse.builder().messageId("msg-own").build());
+
+        // When
+        ResponseEntity<Map<String, Object>> response = controller.ingestBatch(request("PROJ-1"));
+
+        // Then
+        assertThat(response.getBody())
+                .containsEntry("sqsMessageId", "msg-own")
+                .containsEntry("status", "QUEUED")
+                .doesNotContainKey("coalescedBatchId");
+        verify(ticketRepository, never()).deleteAll(any());
+    }
+
+    /**
+     * Back the dedup key mock with a map, so claims and releases behave like the table.
+     */
+    private void stubDedupKeyTable() {
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenAnswer(invocation -> {
+            DedupKey key = invocation.getArgument(0);
+            return claims.putIfAbsent(key.getDedupKey(), key.getTicketId()) == null;
+        });
+        when(dedupKeyRepository.deleteIf(anyString(), anyString())).thenAnswer(invocation ->
+                claims.remove(invocation.<String>getArgument(0), invocation.<String>getArgument(1)));
+        when(dedupKeyRepository.findById(anyString())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            return Optional.ofNullable(claims.get(key))
+                    .map(ticketId -> DedupKey.builder().dedupKey(key).ticketId(ticketId).build());
+        });
+    }
+
+    private static BatchIngestionRequest request(String... sourceReferences) {
+        List<BatchIngestionRequest.TicketInput> tickets = new ArrayList<>();
+        for (String sourceReference : sourceReferences) {
+            tickets.add(BatchIngestionRequest.TicketInput.builder()
+                    .sourceReference(sourceReference)
+                    .title("Ticket " + sourceReference)
+                    .description("Fails on submit")
+                    .build());
+        }
+        BatchIngestionRequest request = new BatchIngestionRequest();
+        request.setBatchId("batch-001");
+        request.setSourceSystem("JIRA");
+        request.setTickets(tickets);
+        return request;
+    }
+}
@@ -1,7 +1,10 @@
 package com.client.defectticket.api.exception;
 
+import com.client.defectticket.domain.service.IngestionRejectedException;
+import com.fasterxml.jackson.core.JsonParseException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -69,6 +72,20 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getValidationErrors()).containsEntry("reviewerEmail", "must be a valid email");
     }
 
+    @Test
+    void shouldReturn400ForMalformedBody() {
+        // Given
+        JsonParseException exception = new JsonParseException(null, "Expected a ticket object");
+
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleJsonProcessingException(exception);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getMessage()).isEqualTo("Malformed request body: Expected a ticket object");
+    }
+
     @Test
     void shouldReturn502ForWorkflowException() {
         // Given
@@ -129,4 +146,21 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getValidationErrors()).isNull();
     }
+
+    @Test
+    void shouldReturn429WithRetryAfterForRejectedIngestion() {
+        // Given
+        IngestionRejectedException exception =
+                new IngestionRejectedException("Ingestion queue holds 12000 batches (limit 10000)", 45);
+
+        // When
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleIngestionRejectedException(exception);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("45");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getStatus()).isEqualTo(429);
+        assertThat(response.getBody().getMessage()).contains("12000 batches");
+    }
 }
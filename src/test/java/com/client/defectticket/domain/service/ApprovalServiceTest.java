@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.services.sfn.SfnClient;
 import software.amazon.awssdk.services.sfn.model.SendTaskSuccessRequest;
@@ -38,13 +39,16 @@ class ApprovalServiceTest {
     @Mock
     private SfnClient sfnClient;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ApprovalService approvalService;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
-        approvalService = new ApprovalService(approvalRepository, sfnClient, objectMapper);
+        approvalService = new ApprovalService(approvalRepository, sfnClient, objectMapper, eventPublisher);
         ReflectionTestUtils.setField(approvalService, "trackDivergence", true);
     }
 
@@ -88,6 +92,43 @@ class ApprovalServiceTest {
         assertThat(savedApproval.getValue().getReviewedAt()).isNotNull();
 
         verify(sfnClient).sendTaskSuccess(any(SendTaskSuccessRequest.class));
+
+        ArgumentCaptor<ApprovalDecidedEvent> event = ArgumentCaptor.forClass(ApprovalDecidedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().approved()).isTrue();
+        assertThat(event.getValue().aiRecommendation().getCategory()).isEqualTo("Bug");
+    }
+
+    @Test
+    void shouldNotResumeWorkflowForApprovalWithoutTaskToken() throws Exception {
+        // Given - created by bulk classification, outside any workflow
+        ApprovalRequest approval = ApprovalRequest.builder()
+                .approvalId("approval-bulk")
+                .ticketId("ticket-123")
+                .gate(ApprovalGate.CLASSIFICATION_REVIEW)
+                .status(ApprovalStatus.PENDING)
+                .aiRecommendation(objectMapper.writeValueAsString(Classification.builder()
+                        .category("Bug")
+                        .severity(Severity.MEDIUM)
+                        .requiresHumanApproval(true)
+                        .build()))
+                .createdAt(Instant.now())
+                .build();
+
+        ApprovalDecisionDto decision = new ApprovalDecisionDto();
+        decision.setApprovalId("approval-bulk");
+        decision.setApproved(false);
+        decision.setReviewerEmail("reviewer@example.com");
+
+        when(approvalRepository.findById("approval-bulk")).thenReturn(Optional.of(approval));
+
+        // When
+        approvalService.processDecision(decision);
+
+        // Then
+        verify(approvalRepository).save(approval);
+        assertThat(approval.getStatus()).isEqualTo(ApprovalStatus.REJECTED);
+        verifyNoInteractions(sfnClient);
     }
 
     @Test
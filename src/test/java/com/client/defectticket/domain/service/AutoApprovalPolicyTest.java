@@ -0,0 +1,184 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.AgreementCounter;
+import com.client.defectticket.domain.model.ApprovalRequest;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.enums.ApprovalStatus;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.repository.AgreementCounterRepository;
+import com.client.defectticket.domain.repository.ApprovalRequestRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for AutoApprovalPolicy.
+ * Tests the Wilson bound, segment eligibility, audit sampling, rule-forced reviews
+ * and the agreement counter table.
+ */
+@ExtendWith(MockitoExtension.class)
+class AutoApprovalPolicyTest {
+
+    @Mock
+    private ApprovalRequestRepository approvalRepository;
+
+    @Mock
+    private AgreementCounterRepository counterRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldComputeWilsonLowerBound() {
+        assertThat(AutoApprovalPolicy.wilsonLowerBound(0, 0, 1.96)).isZero();
+        assertThat(AutoApprovalPolicy.wilsonLowerBound(10, 10, 1.96)).isCloseTo(0.722, within(0.001));
+        assertThat(AutoApprovalPolicy.wilsonLowerBound(990, 1000, 1.96)).isCloseTo(0.982, within(0.001));
+    }
+
+    @Test
+    void shouldAutoApproveWhenCategoryAndSeverityQualify() {
+        // Given
+        AutoApprovalPolicy policy = policy(0.0);
+        givenCounters("Bug", Severity.MEDIUM, 1000, 995);
+        Classification classification = lowConfidence("Bug", Severity.MEDIUM, "LLM");
+
+        // When
+        policy.apply(classification);
+
+        // Then
+        assertThat(classification.isRequiresHumanApproval()).isFalse();
+        assertThat(classification.getApprovalPolicy()).isEqualTo(AutoApprovalPolicy.AUTO_APPROVED);
+        assertThat(policy.snapshot().getAutoApproved()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepReviewWhenSegmentHasTooFewDecisions() {
+        // Given: 100% agreement, but only 50 decisions
+        AutoApprovalPolicy policy = policy(0.0);
+        givenCounters("Bug", Severity.MEDIUM, 50, 50);
+        Classification classification = lowConfidence("Bug", Severity.MEDIUM, "LLM");
+
+        // When
+        policy.apply(classification);
+
+        // Then
+        assertThat(classification.isRequiresHumanApproval()).isTrue();
+        assertThat(classification.getApprovalPolicy()).isNull();
+    }
+
+    @Test
+    void shouldSendAuditSampleToReview() {
+        // Given
+        AutoApprovalPolicy policy = policy(1.0);
+        givenCounters("Bug", Severity.MEDIUM, 1000, 995);
+        Classification classification = lowConfidence("Bug", Severity.MEDIUM, "LLM");
+
+        // When
+        policy.apply(classification);
+
+        // Then
+        assertThat(classification.isRequiresHumanApproval()).isTrue();
+        assertThat(classification.getApprovalPolicy()).isEqualTo(AutoApprovalPolicy.AUDIT_SAMPLE);
+    }
+
+    @Test
+    void shouldNeverAutoApproveRuleForcedReview() {
+        // Given
+        AutoApprovalPolicy policy = policy(0.0);
+        Classification classification = lowConfidence("Bug", Severity.MEDIUM, "HYBRID");
+
+        // When
+        policy.apply(classification);
+
+        // Then
+        assertThat(classification.isRequiresHumanApproval()).isTrue();
+    }
+
+    @Test
+    void shouldIncrementCountersOfBothSegmentsWhenDecisionIsSaved() {
+        // Given
+        AutoApprovalPolicy policy = policy(0.0);
+
+        // When
+        policy.onApprovalDecided(new ApprovalDecidedEvent("a-1", "t-1", false, true,
+                lowConfidence("Bug", Severity.LOW, "LLM")));
+
+        // Then
+        verify(counterRepository).increment("category:Bug", false);
+        verify(counterRepository).increment("severity:LOW", false);
+    }
+
+    @Test
+    void shouldReadCountersOncePerRefreshInterval() {
+        // Given
+        AutoApprovalPolicy policy = policy(0.0);
+        givenCounters("Bug", Severity.MEDIUM, 1000, 995);
+
+        // When
+        policy.apply(lowConfidence("Bug", Severity.MEDIUM, "LLM"));
+        policy.apply(lowConfidence("Bug", Severity.MEDIUM, "LLM"));
+
+        // Then
+        verify(counterRepository, times(1)).findAll();
+        assertThat(policy.snapshot().getAutoApproved()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecountCountersFromApprovalTable() throws Exception {
+        // Given
+        AutoApprovalPolicy policy = policy(0.0);
+        String recommendation = objectMapper.writeValueAsString(lowConfidence("Bug", Severity.LOW, "LLM"));
+        when(approvalRepository.findByStatus(ApprovalStatus.APPROVED)).thenReturn(List.of(
+                ApprovalRequest.builder().approvalId("a-1").aiRecommendation(recommendation).build(),
+                ApprovalRequest.builder().approvalId("a-2").aiRecommendation(recommendation).build()));
+        when(approvalRepository.findByStatus(ApprovalStatus.REJECTED)).thenReturn(List.of(
+                ApprovalRequest.builder().approvalId("a-3").aiRecommendation(recommendation)
+                        .aiVsHumanDivergence(true).build()));
+
+        // When
+        int segments = policy.recount();
+
+        // Then
+        assertThat(segments).isEqualTo(2);
+        ArgumentCaptor<AgreementCounter> saved = ArgumentCaptor.forClass(AgreementCounter.class);
+        verify(counterRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues())
+                .anySatisfy(counter -> {
+                    assertThat(counter.getSegment()).isEqualTo("category:Bug");
+                    assertThat(counter.getDecisions()).isEqualTo(3);
+                    assertThat(counter.getAgreed()).isEqualTo(2);
+                });
+    }
+
+    private AutoApprovalPolicy policy(double randomDraw) {
+        return new AutoApprovalPolicy(approvalRepository, counterRepository, objectMapper, true, 0.95, 200, 1.96,
+                0.05, 60_000, () -> randomDraw);
+    }
+
+    private void givenCounters(String category, Severity severity, long decisions, long agreed) {
+        when(counterRepository.findAll()).thenReturn(List.of(
+                AgreementCounter.builder().segment("category:" + category).decisions(decisions).agreed(agreed).build(),
+                AgreementCounter.builder().segment("severity:" + severity.name())
+                        .decisions(decisions).agreed(agreed).build()));
+    }
+
+    private Classification lowConfidence(String category, Severity severity, String source) {
+        return Classification.builder()
+                .category(category)
+                .severity(severity)
+                .confidenceScore(0.7)
+                .classificationSource(source)
+                .requiresHumanApproval(true)
+                .build();
+    }
+}
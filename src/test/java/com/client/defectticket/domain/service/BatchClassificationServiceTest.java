@@ -0,0 +1,144 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.BatchClassificationDto;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ApprovalCreationRequest;
+import com.client.defectticket.lambda.handler.dto.ApprovalCreationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for BatchClassificationService.
+ * Tests bounded concurrency, failure isolation and async jobs.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchClassificationServiceTest {
+
+    @Mock
+    private ClassificationHandler classificationHandler;
+
+    @Mock
+    private ApprovalRequestHandler approvalRequestHandler;
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    private BatchClassificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchClassificationService(classificationHandler, approvalRequestHandler, ticketRepository, 2, 4, 60);
+    }
+
+    @Test
+    void shouldClassifyConcurrentlyWithinLlmPermits() {
+        // Given
+        givenBatch(10);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(classificationHandler.classify(any(DefectTicket.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return classification(false);
+        });
+
+        // When
+        BatchClassificationDto result = service.classifyBatch("batch-001");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getClassified()).isEqualTo(10);
+        assertThat(result.getFailed()).isZero();
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldIsolateFailedTicketsAndCreateApprovals() {
+        // Given
+        givenBatch(3);
+        when(classificationHandler.classify(any(DefectTicket.class))).thenAnswer(invocation -> {
+            DefectTicket ticket = invocation.getArgument(0);
+            if (ticket.getTicketId().equals("ticket-1")) {
+                throw new IllegalStateException("Bedrock unavailable");
+            }
+            return classification(true);
+        });
+        when(approvalRequestHandler.handle(any(ApprovalCreationRequest.class)))
+                .thenReturn(ApprovalCreationResponse.builder().created(true).build());
+
+        // When
+        BatchClassificationDto result = service.classifyBatch("batch-001");
+
+        // Then
+        assertThat(result.getClassified()).isEqualTo(2);
+        assertThat(result.getApprovalsCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getFailures()).containsEntry("ticket-1", "Bedrock unavailable");
+    }
+
+    @Test
+    void shouldReportAsyncJobProgressUntilCompleted() throws InterruptedException {
+        // Given
+        givenBatch(5);
+        when(classificationHandler.classify(any(DefectTicket.class))).thenReturn(classification(false));
+
+        // When
+        BatchClassificationDto submitted = service.submitBatch("batch-001");
+
+        // Then
+        assertThat(submitted.getJobId()).isNotBlank();
+        assertThat(submitted.getTotalTickets()).isEqualTo(5);
+        BatchClassificationDto job = service.getJob(submitted.getJobId()).orElseThrow();
+        for (int i = 0; i < 100 && job.getStatus().equals("RUNNING"); i++) {
+            Thread.sleep(50);
+            job = service.getJob(submitted.getJobId()).orElseThrow();
+        }
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getClassified()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+        when(ticketRepository.findByBatchId("missing")).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.classifyBatch("missing"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void givenBatch(int size) {
+        List<DefectTicket> tickets = IntStream.range(0, size)
+                .mapToObj(i -> DefectTicket.builder().ticketId("ticket-" + i).batchId("batch-001").build())
+                .toList();
+        when(ticketRepository.findByBatchId("batch-001")).thenReturn(tickets);
+        when(classificationHandler.load(anyString())).thenAnswer(invocation ->
+                DefectTicket.builder().ticketId(invocation.getArgument(0)).batchId("batch-001").build());
+    }
+
+    private Classification classification(boolean requiresApproval) {
+        return Classification.builder()
+                .category("Bug")
+                .severity(Severity.MEDIUM)
+                .confidenceScore(requiresApproval ? 0.6 : 0.9)
+                .requiresHumanApproval(requiresApproval)
+                .build();
+    }
+}
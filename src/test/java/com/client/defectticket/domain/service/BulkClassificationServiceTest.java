@@ -0,0 +1,247 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.BulkClassificationJobDto;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.WorkflowState;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.repository.WorkflowStateRepository;
+import com.client.defectticket.lambda.classifier.BatchInferenceClient;
+import com.client.defectticket.lambda.classifier.BatchInferenceStatus;
+import com.client.defectticket.lambda.classifier.LenientOutputParser;
+import com.client.defectticket.lambda.classifier.PromptBuilder;
+import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.pipeline.ClassificationContext;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for BulkClassificationService.
+ * Tests JSONL submission, result application, on-demand fallback and recovery after a restart,
+ * including jobs interrupted while applying results.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkClassificationServiceTest {
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    @Mock
+    private WorkflowStateRepository workflowStateRepository;
+
+    @Mock
+    private ClassificationHandler classificationHandler;
+
+    @Mock
+    private ClassificationPipeline classificationPipeline;
+
+    @Mock
+    private ApprovalRequestHandler approvalRequestHandler;
+
+    @Mock
+    private BatchInferenceClient inferenceClient;
+
+    @TempDir
+    Path workDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, WorkflowState> states = new HashMap<>();
+    private final Map<String, DefectTicket> tickets = new HashMap<>();
+    private BulkClassificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BulkClassificationService(ticketRepository, workflowStateRepository, classificationHandler,
+                classificationPipeline, approvalRequestHandler, new RuleEvaluationService(List.of()),
+                new PromptBuilder(4000, 4.0), new LenientOutputParser(), inferenceClient, objectMapper,
+                workDir.toString(), 1024, 0.85, "test-model", Runnable::run);
+    }
+
+    @Test
+    void shouldSubmitOnlyTicketsNotFinalizedLocally() throws Exception {
+        // Given
+        givenPendingBatch();
+        when(inferenceClient.submit(anyString(), any(Path.class))).thenReturn("inference-1");
+
+        // When
+        BulkClassificationJobDto job = service.start("batch-001");
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo("RUNNING");
+        WorkflowState state = states.get(job.getJobId());
+        assertThat(state.getCurrentStep()).isEqualTo(BulkClassificationService.STEP_BATCH_INFERENCE);
+        assertThat(state.getCheckpointData()).containsEntry("classifiedLocally", "1").containsEntry("submitted", "2");
+        ArgumentCaptor<Path> input = ArgumentCaptor.forClass(Path.class);
+        verify(inferenceClient).submit(eq("bulk-batch-001"), input.capture());
+        List<String> lines = Files.readAllLines(input.getValue());
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0)).at("/modelInput/system").asText())
+                .isEqualTo(new PromptBuilder(4000, 4.0).systemPrefix());
+    }
+
+    @Test
+    void shouldApplyBatchResultsAndFallBackToOnDemandForFailedRecords() throws Exception {
+        // Given
+        givenPendingBatch();
+        when(inferenceClient.submit(anyString(), any(Path.class))).thenReturn("inference-1");
+        BulkClassificationJobDto job = service.start("batch-001");
+
+        Path output = workDir.resolve("output.jsonl");
+        Files.writeString(output, """
+                {"recordId":"ticket-ok","modelOutput":{"content":[{"type":"text","text":"{\\"severity\\":\\"high\\",\\"confidenceScore\\":0.93,\\"priority\\":2,\\"category\\":\\"Bug\\"}"}],"usage":{"input_tokens":700,"output_tokens":60}}}
+                {"recordId":"ticket-error","error":{"errorCode":"ModelTimeout","errorMessage":"timed out"}}
+                """);
+        when(workflowStateRepository.findById(job.getJobId())).thenAnswer(invocation ->
+                Optional.ofNullable(states.get(job.getJobId())));
+        when(inferenceClient.status("inference-1")).thenReturn(BatchInferenceStatus.COMPLETED);
+        when(inferenceClient.outputFile("inference-1")).thenReturn(output);
+        when(classificationHandler.load(anyString())).thenAnswer(invocation -> tickets.get(invocation.<String>getArgument(0)));
+        Classification onDemand = classification(Severity.MEDIUM, "LLM");
+        when(classificationHandler.classify(tickets.get("ticket-error"))).thenReturn(onDemand);
+
+        // When
+        service.pollJobs();
+
+        // Then
+        ArgumentCaptor<Classification> applied = ArgumentCaptor.forClass(Classification.class);
+        verify(classificationHandler).persist(eq(tickets.get("ticket-ok")), applied.capture(), eq(0));
+        assertThat(applied.getValue().getSeverity()).isEqualTo(Severity.HIGH);
+        assertThat(applied.getValue().getDecisionStage()).isEqualTo("LLM_BATCH");
+        assertThat(applied.getValue().getLlmUsage().getInputTokens()).isEqualTo(700);
+        verify(classificationHandler).persist(tickets.get("ticket-error"), onDemand, 0);
+
+        BulkClassificationJobDto completed = service.getJob(job.getJobId()).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo("COMPLETED");
+        assertThat(completed.getClassifiedFromBatch()).isEqualTo(1);
+        assertThat(completed.getFallbackOnDemand()).isEqualTo(1);
+        assertThat(completed.getFailed()).isZero();
+    }
+
+    @Test
+    void shouldPollJobsStillWaitingOnBatchInferenceAfterRestart() {
+        // Given: a job submitted before the restart
+        WorkflowState running = WorkflowState.builder()
+                .executionId("job-1")
+                .batchId("batch-001")
+                .currentStep(BulkClassificationService.STEP_BATCH_INFERENCE)
+                .status("RUNNING")
+                .checkpointData(new HashMap<>(Map.of("inferenceJobId", "inference-1", "totalTickets", "2")))
+                .build();
+        when(workflowStateRepository.findRunningByCurrentStep(BulkClassificationService.STEP_PREPARE_INPUT))
+                .thenReturn(List.of());
+        when(workflowStateRepository.findRunningByCurrentStep(BulkClassificationService.STEP_BATCH_INFERENCE))
+                .thenReturn(List.of(running));
+        when(workflowStateRepository.findById("job-1")).thenReturn(Optional.of(running));
+        when(inferenceClient.status("inference-1")).thenReturn(BatchInferenceStatus.IN_PROGRESS);
+
+        // When
+        service.recoverJobs();
+        service.pollJobs();
+
+        // Then
+        verify(inferenceClient).status("inference-1");
+    }
+
+    @Test
+    void shouldReapplyResultsOfJobInterruptedWhileApplyingWithoutInputFile() throws Exception {
+        // Given: a job interrupted after one result was applied; the local input file is gone
+        WorkflowState applying = WorkflowState.builder()
+                .executionId("job-1")
+                .batchId("batch-001")
+                .currentStep(BulkClassificationService.STEP_APPLY_RESULTS)
+                .status("RUNNING")
+                .checkpointData(new HashMap<>(Map.of("inferenceJobId", "inference-1", "totalTickets", "2")))
+                .build();
+        DefectTicket applied = DefectTicket.builder().ticketId("ticket-applied").batchId("batch-001")
+                .title("Title").description("Description").status(TicketStatus.CLASSIFIED).build();
+        DefectTicket pending = DefectTicket.builder().ticketId("ticket-ok").batchId("batch-001")
+                .title("Title").description("Description").status(TicketStatus.NEW).build();
+        Path output = workDir.resolve("output.jsonl");
+        Files.writeString(output, """
+                {"recordId":"ticket-applied","modelOutput":{"content":[{"type":"text","text":"{\"severity\":\"low\",\"confidenceScore\":0.9}"}]}}
+                {"recordId":"ticket-ok","modelOutput":{"content":[{"type":"text","text":"{\"severity\":\"high\",\"confidenceScore\":0.93}"}]}}
+                """);
+        when(workflowStateRepository.findRunningByCurrentStep(BulkClassificationService.STEP_PREPARE_INPUT))
+                .thenReturn(List.of());
+        when(workflowStateRepository.findRunningByCurrentStep(BulkClassificationService.STEP_BATCH_INFERENCE))
+                .thenReturn(List.of());
+        when(workflowStateRepository.findRunningByCurrentStep(BulkClassificationService.STEP_APPLY_RESULTS))
+                .thenReturn(List.of(applying));
+        when(workflowStateRepository.findById("job-1")).thenReturn(Optional.of(applying));
+        when(inferenceClient.status("inference-1")).thenReturn(BatchInferenceStatus.COMPLETED);
+        when(inferenceClient.outputFile("inference-1")).thenReturn(output);
+        when(ticketRepository.findByBatchId("batch-001")).thenReturn(List.of(applied, pending));
+        when(classificationHandler.load("ticket-ok")).thenReturn(pending);
+
+        // When
+        service.recoverJobs();
+        service.pollJobs();
+
+        // Then: only the ticket still NEW is written
+        verify(classificationHandler).persist(eq(pending), any(Classification.class), eq(0));
+        verify(classificationHandler, never()).persist(eq(applied), any(Classification.class), anyInt());
+        assertThat(applying.getStatus()).isEqualTo("COMPLETED");
+        assertThat(applying.getCurrentStep()).isEqualTo(BulkClassificationService.STEP_DONE);
+    }
+
+    private void givenPendingBatch() {
+        when(workflowStateRepository.save(any(WorkflowState.class))).thenAnswer(invocation -> {
+            WorkflowState state = invocation.getArgument(0);
+            states.put(state.getExecutionId(), state);
+            return state;
+        });
+        for (String ticketId : List.of("ticket-local", "ticket-ok", "ticket-error")) {
+            tickets.put(ticketId, DefectTicket.builder()
+                    .ticketId(ticketId).batchId("batch-001").title("Title " + ticketId).description("Description")
+                    .sourceSystem("JIRA").status(TicketStatus.NEW).build());
+        }
+        when(ticketRepository.findByBatchId("batch-001")).thenReturn(List.copyOf(tickets.values()));
+        doAnswer(invocation -> {
+            invocation.<DefectTicket>getArgument(0).setStatus(TicketStatus.CLASSIFIED);
+            return null;
+        }).when(classificationHandler).persist(any(DefectTicket.class), any(Classification.class), anyInt());
+        when(ticketRepository.findByBatchIdPage("batch-001", null, 1)).thenReturn(
+                new DefectTicketRepository.TicketPage(List.of(tickets.get("ticket-local")), "ticket-local"));
+        when(classificationPipeline.classifyLocally(any(DefectTicket.class), any(ClassificationContext.class)))
+                .thenAnswer(invocation -> invocation.<DefectTicket>getArgument(0).getTicketId().equals("ticket-local")
+                        ? Optional.of(classification(Severity.CRITICAL, "RULES"))
+                        : Optional.empty());
+    }
+
+    private Classification classification(Severity severity, String stage) {
+        return Classification.builder()
+                .category("Bug")
+                .severity(severity)
+                .confidenceScore(0.95)
+                .decisionStage(stage)
+                .build();
+    }
+}
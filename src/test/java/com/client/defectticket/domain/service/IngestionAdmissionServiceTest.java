@@ -0,0 +1,130 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.config.aws.DynamoDbWriteThrottleMonitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for IngestionAdmissionService.
+ * Tests queue-depth and write-throttle admission and per-source quotas with debt.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestionAdmissionServiceTest {
+
+    @Mock
+    private SqsClient sqsClient;
+
+    @Mock
+    private DynamoDbWriteThrottleMonitor throttleMonitor;
+
+    private final AtomicLong nanos = new AtomicLong(1);
+
+    @Test
+    void shouldRejectWithDrainEstimateWhenQueueIsTooDeep() {
+        // Given: depth falls from 1300 to 1200 in 10 s (10 batches/s drained), limit 1000
+        IngestionAdmissionService service = service("");
+        when(throttleMonitor.sampleAndReset()).thenReturn(new DynamoDbWriteThrottleMonitor.WriteSample(0, 0));
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(depth("1300"), depth("1200"));
+        service.sample();
+        advanceSeconds(10);
+        service.sample();
+
+        // When / Then: 200 excess batches at 10/s
+        assertThatThrownBy(() -> service.admit("JIRA", 10))
+                .isInstanceOfSatisfying(IngestionRejectedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(20))
+                .hasMessageContaining("1200 batches");
+        assertThat(service.snapshot().getRejected()).containsEntry("QUEUE_DEPTH", 1L);
+    }
+
+    @Test
+    void shouldRejectWhileDynamoDbWritesAreThrottled() {
+        // Given
+        IngestionAdmissionService service = service("");
+        when(throttleMonitor.sampleAndReset()).thenReturn(new DynamoDbWriteThrottleMonitor.WriteSample(100, 30));
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenReturn(depth("0"));
+        service.sample();
+
+        // When / Then
+        assertThatThrownBy(() -> service.admit("JIRA", 10))
+                .isInstanceOfSatisfying(IngestionRejectedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(30))
+                .hasMessageContaining("30% of recent DynamoDB writes");
+    }
+
+    @Test
+    void shouldIgnoreThrottleRateFromTooFewWrites() {
+        // Given
+        IngestionAdmissionService service = service("");
+        when(throttleMonitor.sampleAndReset()).thenReturn(new DynamoDbWriteThrottleMonitor.WriteSample(3, 3));
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class))).thenReturn(depth("0"));
+        service.sample();
+
+        // When / Then
+        assertThatCode(() -> service.admit("JIRA", 10)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldAdmitBatchLargerThanQuotaAndRejectUntilDebtIsRepaid() {
+        // Given: 10 tickets/s, bucket of 100
+        IngestionAdmissionService service = service("JIRA:10");
+
+        // When: a 400 ticket batch overdraws the bucket to -300
+        service.admit("JIRA", 400);
+
+        // Then
+        assertThatThrownBy(() -> service.admit("jira", 1))
+                .isInstanceOfSatisfying(IngestionRejectedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(31));
+        assertThatCode(() -> service.admit("SERVICENOW", 1000)).doesNotThrowAnyException();  // No quota
+
+        advanceSeconds(31);
+        assertThatCode(() -> service.admit("JIRA", 50)).doesNotThrowAnyException();
+        assertThat(service.snapshot().getSourceBalances().get("JIRA")).isEqualTo(-40.0);
+    }
+
+    @Test
+    void shouldChargeStreamedTicketsAfterAdmission() {
+        // Given
+        IngestionAdmissionService service = service("JIRA:10");
+        service.admit("JIRA", 0);
+
+        // When
+        service.charge("JIRA", 150);
+
+        // Then
+        assertThatThrownBy(() -> service.admit("JIRA", 0)).isInstanceOf(IngestionRejectedException.class);
+    }
+
+    private IngestionAdmissionService service(String sourceQuotas) {
+        return new IngestionAdmissionService(sqsClient, throttleMonitor, "https://sqs.test/queue", true,
+                1000, 0.1, 20, 30, 600, 0, sourceQuotas, 10, nanos::get);
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private static GetQueueAttributesResponse depth(String messages) {
+        return GetQueueAttributesResponse.builder()
+                .attributes(Map.of(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES, messages))
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ClassificationResponse;
+import com.client.defectticket.lambda.pipeline.ClassificationContext;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for ProgressiveClassificationService.
+ * Tests provisional results, background refinement, version conflicts and recovery of
+ * refinements left pending.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProgressiveClassificationServiceTest {
+
+    @Mock
+    private ClassificationHandler classificationHandler;
+
+    @Mock
+    private ClassificationPipeline classificationPipeline;
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    private ProgressiveClassificationService service;
+    private DefectTicket ticket;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProgressiveClassificationService(classificationHandler, classificationPipeline,
+                ticketRepository, 1000, true, 10);
+        ticket = DefectTicket.builder().ticketId("ticket-1").status(TicketStatus.NEW).build();
+        when(classificationHandler.load("ticket-1")).thenReturn(ticket);
+    }
+
+    @Test
+    void shouldReturnProvisionalResultAndRefineInBackground() {
+        // Given
+        Classification provisional = classification(Severity.LOW, "HEURISTIC");
+        Classification refined = classification(Severity.HIGH, "LLM");
+        when(classificationPipeline.classifyLocally(eq(ticket), any(ClassificationContext.class)))
+                .thenReturn(Optional.empty());
+        when(classificationPipeline.provisional(any(ClassificationContext.class))).thenReturn(Optional.of(provisional));
+        when(classificationHandler.persistProvisional(ticket, provisional)).thenAnswer(invocation -> {
+            ticket.setClassification(provisional);
+            ticket.setStatus(TicketStatus.CLASSIFIED_PROVISIONAL);
+            return true;
+        });
+        when(classificationPipeline.refine(eq(ticket), any(ClassificationContext.class))).thenReturn(refined);
+
+        // When
+        ClassificationResponse response = service.classify("ticket-1");
+
+        // Then
+        assertThat(response.isProvisional()).isTrue();
+        assertThat(response.getClassification().getSeverity()).isEqualTo(Severity.LOW);
+        verify(classificationHandler, timeout(1000)).persistRefined(ticket, refined);
+        ArgumentCaptor<ClassificationContext> context = ArgumentCaptor.forClass(ClassificationContext.class);
+        verify(classificationPipeline).refine(eq(ticket), context.capture());
+        assertThat(context.getValue().getRoutingListener())
+                .isNotSameAs(new ClassificationContext().getRoutingListener());  // Early decisions go to subscribers
+    }
+
+    @Test
+    void shouldPersistDirectlyWhenLocalStageFinalizes() {
+        // Given
+        Classification local = classification(Severity.CRITICAL, "RULES");
+        when(classificationPipeline.classifyLocally(eq(ticket), any(ClassificationContext.class)))
+                .thenReturn(Optional.of(local));
+
+        // When
+        ClassificationResponse response = service.classify("ticket-1");
+
+        // Then
+        assertThat(response.isProvisional()).isFalse();
+        verify(classificationHandler).persist(ticket, local, 0);
+        verify(classificationPipeline, never()).refine(any(), any());
+    }
+
+    @Test
+    void shouldRejectWhenTicketChangedBeforeProvisionalWrite() {
+        // Given
+        Classification provisional = classification(Severity.LOW, "HEURISTIC");
+        when(classificationPipeline.classifyLocally(eq(ticket), any(ClassificationContext.class)))
+                .thenReturn(Optional.empty());
+        when(classificationPipeline.provisional(any(ClassificationContext.class))).thenReturn(Optional.of(provisional));
+        when(classificationHandler.persistProvisional(ticket, provisional)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> service.classify("ticket-1"))
+                .isInstanceOf(ConcurrentModificationException.class);
+        verify(classificationPipeline, never()).refine(any(), any());
+    }
+
+    @Test
+    void shouldRefineTicketsLeftProvisionalAfterRestart() {
+        // Given: provisional for an hour, its refinement lost; another one still within the window
+        Classification refined = classification(Severity.HIGH, "LLM");
+        ticket.setStatus(TicketStatus.CLASSIFIED_PROVISIONAL);
+        ticket.setClassification(classification(Severity.LOW, "HEURISTIC"));
+        ticket.setUpdatedAt(Instant.now().minus(Duration.ofHours(1)));
+        DefectTicket recent = DefectTicket.builder().ticketId("ticket-2")
+                .status(TicketStatus.CLASSIFIED_PROVISIONAL).updatedAt(Instant.now()).build();
+        when(ticketRepository.findByStatus(TicketStatus.CLASSIFIED_PROVISIONAL)).thenReturn(List.of(ticket, recent));
+        when(classificationPipeline.classify(eq(ticket), any(ClassificationContext.class))).thenReturn(refined);
+        when(classificationHandler.persistRefined(ticket, refined)).thenAnswer(invocation -> {
+            ticket.setClassification(refined);
+            ticket.setStatus(TicketStatus.CLASSIFIED);
+            return true;
+        });
+
+        // When
+        service.recoverStaleProvisional();
+
+        // Then
+        verify(classificationHandler, timeout(1000)).persistRefined(ticket, refined);
+        assertThat(service.get("ticket-1").isProvisional()).isFalse();
+        verify(classificationPipeline, never()).classify(eq(recent), any());
+    }
+
+    private Classification classification(Severity severity, String stage) {
+        return Classification.builder()
+                .category("Bug")
+                .severity(severity)
+                .confidenceScore(0.7)
+                .decisionStage(stage)
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.ReclassificationJobDto;
+import com.client.defectticket.api.dto.ReclassificationRequestDto;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.WorkflowState;
+import com.client.defectticket.domain.model.enums.ApprovalGate;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository.TicketPage;
+import com.client.defectticket.domain.repository.WorkflowStateRepository;
+import com.client.defectticket.lambda.handler.ApprovalRequestHandler;
+import com.client.defectticket.lambda.handler.ClassificationHandler;
+import com.client.defectticket.lambda.handler.dto.ApprovalCreationRequest;
+import com.client.defectticket.lambda.pipeline.ClassificationContext;
+import com.client.defectticket.lambda.pipeline.ClassificationPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for ReclassificationService.
+ * Tests unchanged-result skipping, version conflicts, reviewed tickets, approval requests for
+ * changed results and resume from the checkpoint cursor.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReclassificationServiceTest {
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    @Mock
+    private WorkflowStateRepository workflowStateRepository;
+
+    @Mock
+    private ClassificationPipeline classificationPipeline;
+
+    @Mock
+    private ClassificationHandler classificationHandler;
+
+    @Mock
+    private ApprovalRequestHandler approvalRequestHandler;
+
+    @Mock
+    private UsageAccountingService usageAccounting;
+
+    private final Map<String, WorkflowState> states = new HashMap<>();
+    private ReclassificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReclassificationService(ticketRepository, workflowStateRepository, classificationPipeline,
+                classificationHandler, approvalRequestHandler, usageAccounting, 1, 2, 1000.0, "CACHE");
+
+        when(workflowStateRepository.save(any(WorkflowState.class))).thenAnswer(invocation -> {
+            WorkflowState state = invocation.getArgument(0);
+            states.put(state.getExecutionId(), state);
+            return state;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldSkipUnchangedAndCountConflicts() throws Exception {
+        // Given
+        DefectTicket unchanged = ticket("ticket-1", Severity.HIGH);
+        DefectTicket changed = ticket("ticket-2", Severity.LOW);
+        DefectTicket conflicting = ticket("ticket-3", Severity.LOW);
+        when(ticketRepository.scanSegment(0, 1, null, 2, TicketStatus.CLASSIFIED))
+                .thenReturn(new TicketPage(List.of(unchanged, changed), "ticket-2"));
+        when(ticketRepository.scanSegment(0, 1, "ticket-2", 2, TicketStatus.CLASSIFIED))
+                .thenReturn(new TicketPage(List.of(conflicting), null));
+        Classification fresh = classification(Severity.HIGH);
+        when(classificationPipeline.classify(any(DefectTicket.class), any(ClassificationContext.class))).thenReturn(fresh);
+        when(classificationHandler.persistReclassification(eq(changed), eq(fresh), anyString())).thenReturn(true);
+        when(classificationHandler.persistReclassification(eq(conflicting), eq(fresh), anyString())).thenReturn(false);
+
+        ReclassificationRequestDto request = new ReclassificationRequestDto();
+        request.setStatus(TicketStatus.CLASSIFIED);
+
+        // When
+        ReclassificationJobDto job = awaitFinished(service.start(request).getJobId());
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getMatched()).isEqualTo(3);
+        assertThat(job.getUnchanged()).isEqualTo(1);
+        assertThat(job.getReclassified()).isEqualTo(1);
+        assertThat(job.getConflicts()).isEqualTo(1);
+        verify(classificationHandler, never()).persistReclassification(eq(unchanged), any(), anyString());
+        ArgumentCaptor<ClassificationContext> context = ArgumentCaptor.forClass(ClassificationContext.class);
+        verify(classificationPipeline).classify(eq(unchanged), context.capture());
+        assertThat(context.getValue().getSkippedStages()).containsExactly("CACHE");
+    }
+
+    @Test
+    void shouldLeaveReviewedTicketsAloneUnlessIncluded() throws Exception {
+        // Given
+        DefectTicket approved = ticket("ticket-1", Severity.LOW);
+        approved.setStatus(TicketStatus.CLASSIFICATION_APPROVED);
+        DefectTicket rejected = ticket("ticket-2", Severity.LOW);
+        rejected.setStatus(TicketStatus.CLASSIFICATION_REJECTED);
+        when(ticketRepository.scanSegment(0, 1, null, 2, null))
+                .thenReturn(new TicketPage(List.of(approved, rejected), null));
+
+        // When
+        ReclassificationJobDto job = awaitFinished(service.start(new ReclassificationRequestDto()).getJobId());
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getScanned()).isEqualTo(2);
+        assertThat(job.getMatched()).isZero();
+        verifyNoInteractions(classificationPipeline, classificationHandler);
+    }
+
+    @Test
+    void shouldRequestApprovalForChangedResultThatNeedsReview() throws Exception {
+        // Given: opted in, so the approved ticket is reclassified; the new result needs review
+        DefectTicket approved = ticket("ticket-1", Severity.LOW);
+        approved.setStatus(TicketStatus.CLASSIFICATION_APPROVED);
+        when(ticketRepository.scanSegment(0, 1, null, 2, null))
+                .thenReturn(new TicketPage(List.of(approved), null));
+        Classification fresh = classification(Severity.HIGH);
+        fresh.setRequiresHumanApproval(true);
+        when(classificationPipeline.classify(any(DefectTicket.class), any(ClassificationContext.class))).thenReturn(fresh);
+        when(classificationHandler.persistReclassification(eq(approved), eq(fresh), anyString())).thenReturn(true);
+
+        ReclassificationRequestDto request = new ReclassificationRequestDto();
+        request.setIncludeReviewed(true);
+
+        // When
+        ReclassificationJobDto job = awaitFinished(service.start(request).getJobId());
+
+        // Then
+        assertThat(job.getReclassified()).isEqualTo(1);
+        assertThat(job.getApprovalsCreated()).isEqualTo(1);
+        ArgumentCaptor<ApprovalCreationRequest> approval = ArgumentCaptor.forClass(ApprovalCreationRequest.class);
+        verify(approvalRequestHandler).handle(approval.capture());
+        assertThat(approval.getValue().getTicketId()).isEqualTo("ticket-1");
+        assertThat(approval.getValue().getGate()).isEqualTo(ApprovalGate.CLASSIFICATION_REVIEW);
+        assertThat(approval.getValue().getTaskToken()).isNull();
+    }
+
+    @Test
+    void shouldResumeFromCheckpointCursor() throws Exception {
+        // Given: first page processed, second page fails
+        DefectTicket first = ticket("ticket-1", Severity.LOW);
+        DefectTicket second = ticket("ticket-2", Severity.LOW);
+        when(ticketRepository.scanSegment(0, 1, null, 2, null))
+                .thenReturn(new TicketPage(List.of(first), "ticket-1"));
+        when(ticketRepository.scanSegment(0, 1, "ticket-1", 2, null))
+                .thenThrow(new RuntimeException("Throttled"))
+                .thenReturn(new TicketPage(List.of(second), null));
+        Classification fresh = classification(Severity.HIGH);
+        when(classificationPipeline.classify(any(DefectTicket.class), any(ClassificationContext.class))).thenReturn(fresh);
+        when(classificationHandler.persistReclassification(any(DefectTicket.class), eq(fresh), anyString()))
+                .thenReturn(true);
+
+        ReclassificationJobDto failed = awaitFinished(service.start(new ReclassificationRequestDto()).getJobId());
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getReclassified()).isEqualTo(1);
+        when(workflowStateRepository.findById(failed.getJobId()))
+                .thenAnswer(invocation -> Optional.ofNullable(states.get(failed.getJobId())));
+
+        // When
+        service.resume(failed.getJobId());
+        ReclassificationJobDto resumed = awaitFinished(failed.getJobId());
+
+        // Then
+        assertThat(resumed.getStatus()).isEqualTo("COMPLETED");
+        assertThat(resumed.getReclassified()).isEqualTo(2);
+        assertThat(resumed.getSegmentsCompleted()).isEqualTo(1);
+        verify(ticketRepository).scanSegment(eq(0), eq(1), isNull(), eq(2), isNull());
+        verify(classificationHandler).persistReclassification(eq(first), eq(fresh), anyString());
+    }
+
+    private ReclassificationJobDto awaitFinished(String jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            ReclassificationJobDto job = service.getJob(jobId).orElseThrow();
+            if (!"RUNNING".equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job did not finish: " + jobId);
+    }
+
+    private DefectTicket ticket(String ticketId, Severity severity) {
+        return DefectTicket.builder()
+                .ticketId(ticketId)
+                .status(TicketStatus.CLASSIFIED)
+                .classification(classification(severity))
+                .createdAt(Instant.parse("2026-01-15T10:00:00Z"))
+                .build();
+    }
+
+    private Classification classification(Severity severity) {
+        return Classification.builder()
+                .category("Bug")
+                .severity(severity)
+                .priority(2)
+                .confidenceScore(0.9)
+                .decisionStage("LLM")
+                .build();
+    }
+}
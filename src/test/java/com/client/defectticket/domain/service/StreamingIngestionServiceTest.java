@@ -0,0 +1,230 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Unit test for StreamingIngestionService.
+ * Tests incremental parsing, write batching, header handling, uploads cut off
+ * partway, and the NDJSON, CSV and gzip formats with per-line errors.
+ */
+@ExtendWith(MockitoExtension.class)
+class StreamingIngestionServiceTest {
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    private final List<List<DefectTicket>> writes = new ArrayList<>();
+    private StreamingIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        TicketDeduplicationService noDedup = new TicketDeduplicationService(null, ticketRepository, false,
+                TicketDeduplicationService.Policy.SKIP, 100, 0.01, 900);
+        service = new StreamingIngestionService(ticketRepository, noDedup, new ObjectMapper(), 2, 90);
+    }
+
+    @Test
+    void shouldStoreTicketsInWriteBatchesWhileReading() throws Exception {
+        // Given
+        recordWrites();
+        String body = """
+                {"batchId":"batch-001","sourceSystem":"JIRA","ignored":{"nested":[1,2]},"tickets":[
+                  {"sourceReference":"PROJ-1","title":"Login fails","description":"500 on submit"},
+                  {"sourceReference":"PROJ-2","title":"Typo","description":"Footer"},
+                  {"sourceReference":"PROJ-3","title":"Slow search","description":"10s"}
+                ]}
+                """;
+
+        // When
+        StreamingIngestionService.IngestionResult result = service.ingest(stream(body),
+                StreamingIngestionService.Format.JSON, null, null, new IngestionLedger());
+
+        // Then
+        assertThat(result.batchId()).isEqualTo("batch-001");
+        assertThat(result.ticketCount()).isEqualTo(3);
+        assertThat(writes).extracting(List::size).containsExactly(2, 1);
+        DefectTicket first = writes.get(0).get(0);
+        assertThat(first.getBatchId()).isEqualTo("batch-001");
+        assertThat(first.getSourceSystem()).isEqualTo("JIRA");
+        assertThat(first.getSourceReference()).isEqualTo("PROJ-1");
+        assertThat(first.getStatus()).isEqualTo(TicketStatus.NEW);
+        assertThat(first.getTtl()).isNotNull();
+        BatchChecksum stored = new BatchChecksum();
+        writes.forEach(batch -> batch.forEach(ticket -> stored.add(ticket.getTicketId())));
+        assertThat(result.checksum()).isEqualTo(stored.value());
+    }
+
+    @Test
+    void shouldPreferParametersAndAcceptBareArray() throws Exception {
+        // Given
+        recordWrites();
+        String body = """
+                [{"sourceReference":"PROJ-1","title":"Login fails","description":"500 on submit"}]
+                """;
+
+        // When
+        StreamingIngestionService.IngestionResult result = service.ingest(stream(body),
+                StreamingIngestionService.Format.JSON, "batch-param", "SNOW", new IngestionLedger());
+
+        // Then
+        assertThat(result.batchId()).isEqualTo("batch-param");
+        assertThat(writes.get(0).get(0).getSourceSystem()).isEqualTo("SNOW");
+    }
+
+    @Test
+    void shouldRejectBatchIdAfterTickets() {
+        // Given
+        String body = """
+                {"tickets":[],"batchId":"batch-late"}
+                """;
+
+        // When / Then
+        assertThatThrownBy(() -> service.ingest(stream(body),
+                StreamingIngestionService.Format.JSON, null, null, new IngestionLedger()))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("must precede");
+    }
+
+    @Test
+    void shouldReportTicketThatDoesNotBindAndStoreTheRest() throws Exception {
+        // Given
+        recordWrites();
+        String body = """
+                [{"sourceReference":"PROJ-1","title":"Login fails"},
+                 {"sourceReference":"PROJ-2","title":{"text":"nested"}},
+                 {"sourceReference":"PROJ-3","title":"Slow search"}]
+                """;
+
+        // When
+        StreamingIngestionService.IngestionResult result = service.ingest(stream(body),
+                StreamingIngestionService.Format.JSON, "batch-001", "JIRA", new IngestionLedger());
+
+        // Then
+        assertThat(result.ticketCount()).isEqualTo(2);
+        assertThat(result.failure()).isNull();
+        assertThat(result.errors()).extracting(StreamingIngestionService.IngestionError::line).containsExactly(2L);
+        assertThat(writes).flatExtracting(batch -> batch).extracting(DefectTicket::getSourceReference)
+                .containsExactly("PROJ-1", "PROJ-3");
+    }
+
+    @Test
+    void shouldKeepStoredTicketsWhenJsonBreaksPartway() throws Exception {
+        // Given
+        recordWrites();
+        String body = """
+                [{"sourceReference":"PROJ-1","title":"Login fails"},
+                 {"sourceReference":"PROJ-2","title":"Typo"},
+                 {"sourceReference":"PROJ-3","title":"Slow search"},
+                 {"sourceReference":"PROJ-4","title":
+                """;
+
+        // When
+        StreamingIngestionService.IngestionResult result = service.ingest(stream(body),
+                StreamingIngestionService.Format.JSON, "batch-001", "JIRA", new IngestionLedger());
+
+        // Then
+        assertThat(result.batchId()).isEqualTo("batch-001");
+        assertThat(result.ticketCount()).isEqualTo(3);
+        assertThat(result.failure()).isNotBlank();
+        assertThat(writes).extracting(List::size).containsExactly(2, 1);
+        BatchChecksum stored = new BatchChecksum();
+        writes.forEach(batch -> batch.forEach(ticket -> stored.add(ticket.getTicketId())));
+        assertThat(result.checksum()).isEqualTo(stored.value());
+    }
+
+    @Test
+    void shouldReportInvalidNdjsonLinesAndStoreTheRest() throws Exception {
+        // Given
+        recordWrites();
+        String body = """
+                {"sourceReference":"PROJ-1","title":"Login fails","description":"500 on submit"}
+
+                {"sourceReference":"PROJ-2","title":
+                {"sourceReference":"PROJ-3","description":"no title"}
+                {"sourceReference":"PROJ-4","title":"Slow search","description":"10s"}
+                """;
+
+        // When
+        StreamingIngestionService.IngestionResult result = service.ingest(stream(body),
+                StreamingIngestionService.Format.NDJSON, "batch-001", "JIRA", new IngestionLedger());
+
+        // Then
+        assertThat(result.ticketCount()).isEqualTo(2);
+        assertThat(result.failedCount()).isEqualTo(2);
+        assertThat(result.errors()).extracting(StreamingIngestionService.IngestionError::line).containsExactly(3L, 4L);
+        assertThat(result.errors().get(1).message()).isEqualTo("title is required");
+        assertThat(writes).flatExtracting(batch -> batch).extracting(DefectTicket::getSourceReference)
+                .containsExactly("PROJ-1", "PROJ-4");
+    }
+
+    @Test
+    void shouldReadGzippedCsvWithQuotedFields() throws Exception {
+        // Given
+        recordWrites();
+        String csv = "title,sourceReference,description\r\n"
+                + "\"Login, fails\",PROJ-1,\"Stack trace:\nline \"\"one\"\"\"\r\n"
+                + "Typo,PROJ-2\r\n"
+                + "Slow search,PROJ-3,10s\r\n";
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(csv.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // When
+        StreamingIngestionService.IngestionResult result = service.ingest(
+                StreamingIngestionService.decode(new ByteArrayInputStream(compressed.toByteArray()), "gzip"),
+                StreamingIngestionService.Format.CSV, "batch-001", "JIRA", new IngestionLedger());
+
+        // Then
+        assertThat(result.ticketCount()).isEqualTo(2);
+        assertThat(result.errors()).containsExactly(
+                new StreamingIngestionService.IngestionError(4, "Expected 3 fields but found 2"));
+        DefectTicket first = writes.get(0).get(0);
+        assertThat(first.getTitle()).isEqualTo("Login, fails");
+        assertThat(first.getSourceReference()).isEqualTo("PROJ-1");
+        assertThat(first.getDescription()).isEqualTo("Stack trace:\nline \"one\"");
+    }
+
+    @Test
+    void shouldRejectCsvWithoutTitleColumn() {
+        // Given
+        String body = "sourceReference,description\nPROJ-1,Footer\n";
+
+        // When / Then
+        assertThatThrownBy(() -> service.ingest(stream(body),
+                StreamingIngestionService.Format.CSV, null, null, new IngestionLedger()))
+                .isInstanceOf(MalformedIngestionException.class)
+                .hasMessageContaining("title column");
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> writes.add(List.copyOf(invocation.<List<DefectTicket>>getArgument(0))))
+                .when(ticketRepository).saveAll(anyList());
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
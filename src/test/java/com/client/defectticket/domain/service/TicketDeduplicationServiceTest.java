@@ -0,0 +1,212 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.domain.model.DedupKey;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.TicketStatus;
+import com.client.defectticket.domain.repository.DedupKeyRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for TicketDeduplicationService.
+ * Tests the conditional claim, the Bloom filter short-cut, the three duplicate policies
+ * and claims whose ticket is not stored yet.
+ */
+@ExtendWith(MockitoExtension.class)
+class TicketDeduplicationServiceTest {
+
+    @Mock
+    private DedupKeyRepository dedupKeyRepository;
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    @Test
+    void shouldClaimNewReferenceWithoutLookup() {
+        // Given
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.SKIP);
+        DefectTicket candidate = ticket("ticket-new", "Login fails");
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(true);
+
+        // When
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(candidate);
+
+        // Then
+        assertThat(outcome.duplicate()).isFalse();
+        assertThat(outcome.ticketToStore()).isSameAs(candidate);
+        verify(dedupKeyRepository, never()).findById(any());
+        ArgumentCaptor<DedupKey> key = ArgumentCaptor.forClass(DedupKey.class);
+        verify(dedupKeyRepository).putIfAbsent(key.capture());
+        assertThat(key.getValue().getDedupKey()).isEqualTo("JIRA#PROJ-1");
+        assertThat(key.getValue().getTicketId()).isEqualTo("ticket-new");
+    }
+
+    @Test
+    void shouldSkipReferenceClaimedByAnotherInstance() {
+        // Given
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.SKIP);
+        stubExisting();
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(false);
+
+        // When
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(ticket("ticket-new", "Login fails"));
+
+        // Then
+        assertThat(outcome.duplicate()).isTrue();
+        assertThat(outcome.ticketToStore()).isNull();
+    }
+
+    @Test
+    void shouldReadInsteadOfWritingForReferenceSeenBefore() {
+        // Given: first ingestion claims the reference
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.LINK);
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(true);
+        service.deduplicate(ticket("ticket-existing", "Login fails"));
+        stubExisting();
+
+        // When: re-submitted
+        DefectTicket resubmitted = ticket("ticket-new", "Login fails");
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(resubmitted);
+
+        // Then
+        assertThat(outcome.duplicate()).isTrue();
+        assertThat(outcome.ticketToStore()).isSameAs(resubmitted);
+        assertThat(resubmitted.getLinkedTicketId()).isEqualTo("ticket-existing");
+        verify(dedupKeyRepository).putIfAbsent(any(DedupKey.class));  // Only the first claim
+    }
+
+    @Test
+    void shouldUpdateDescriptionOfExistingTicket() {
+        // Given
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.UPDATE_DESCRIPTION);
+        DefectTicket existing = stubExisting();
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(false);
+
+        // When
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(ticket("ticket-new", "Fails on Safari only"));
+
+        // Then
+        assertThat(outcome.ticketToStore()).isNull();
+        assertThat(existing.getDescription()).isEqualTo("Fails on Safari only");
+        assertThat(existing.getAuditTrail()).hasSize(1);
+        verify(ticketRepository).save(existing);
+    }
+
+    @Test
+    void shouldSkipReferenceRepeatedWithinOneBatch() {
+        // Given: the first ticket's claim succeeded, but the batch is stored only after deduplication
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.SKIP);
+        DefectTicket first = ticket("ticket-first", "Login fails");
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(true);
+        stubPendingKey("ticket-first", Instant.now());
+
+        // When
+        TicketDeduplicationService.Outcome firstOutcome = service.deduplicate(first);
+        TicketDeduplicationService.Outcome secondOutcome = service.deduplicate(ticket("ticket-second", "Login fails"));
+
+        // Then
+        assertThat(firstOutcome.ticketToStore()).isSameAs(first);
+        assertThat(secondOutcome.duplicate()).isTrue();
+        assertThat(secondOutcome.ticketToStore()).isNull();
+        verify(dedupKeyRepository, never()).replaceIf(any(), any());
+    }
+
+    @Test
+    void shouldTreatOverlappingClaimAsDuplicate() {
+        // Given: a retry overlaps the first request, whose tickets are not stored yet
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.LINK);
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(false);
+        stubPendingKey("ticket-in-flight", Instant.now());
+        DefectTicket candidate = ticket("ticket-new", "Login fails");
+
+        // When
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(candidate);
+
+        // Then
+        assertThat(outcome.duplicate()).isTrue();
+        assertThat(candidate.getLinkedTicketId()).isEqualTo("ticket-in-flight");
+        verify(dedupKeyRepository, never()).replaceIf(any(), any());
+    }
+
+    @Test
+    void shouldRepointStaleKeyWhoseTicketIsMissing() {
+        // Given
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.SKIP);
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(false);
+        stubPendingKey("ticket-lost", Instant.now().minus(Duration.ofHours(1)));
+        when(dedupKeyRepository.replaceIf(any(DedupKey.class), eq("ticket-lost"))).thenReturn(true);
+        DefectTicket candidate = ticket("ticket-new", "Login fails");
+
+        // When
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(candidate);
+
+        // Then
+        assertThat(outcome.duplicate()).isFalse();
+        assertThat(outcome.ticketToStore()).isSameAs(candidate);
+        ArgumentCaptor<DedupKey> key = ArgumentCaptor.forClass(DedupKey.class);
+        verify(dedupKeyRepository).replaceIf(key.capture(), eq("ticket-lost"));
+        assertThat(key.getValue().getTicketId()).isEqualTo("ticket-new");
+    }
+
+    @Test
+    void shouldSkipWhenStaleKeyIsRepointedConcurrently() {
+        // Given
+        TicketDeduplicationService service = service(TicketDeduplicationService.Policy.SKIP);
+        when(dedupKeyRepository.putIfAbsent(any(DedupKey.class))).thenReturn(false);
+        stubPendingKey("ticket-lost", Instant.now().minus(Duration.ofHours(1)));
+        when(dedupKeyRepository.replaceIf(any(DedupKey.class), eq("ticket-lost"))).thenReturn(false);
+
+        // When
+        TicketDeduplicationService.Outcome outcome = service.deduplicate(ticket("ticket-new", "Login fails"));
+
+        // Then
+        assertThat(outcome.duplicate()).isTrue();
+        assertThat(outcome.ticketToStore()).isNull();
+    }
+
+    private TicketDeduplicationService service(TicketDeduplicationService.Policy policy) {
+        return new TicketDeduplicationService(dedupKeyRepository, ticketRepository, true, policy, 1000, 0.01, 900);
+    }
+
+    private DefectTicket stubExisting() {
+        DefectTicket existing = ticket("ticket-existing", "Login fails");
+        existing.setAuditTrail(null);
+        when(dedupKeyRepository.findById("JIRA#PROJ-1")).thenReturn(Optional.of(
+                DedupKey.builder().dedupKey("JIRA#PROJ-1").ticketId("ticket-existing").build()));
+        when(ticketRepository.findById("ticket-existing")).thenReturn(Optional.of(existing));
+        return existing;
+    }
+
+    private void stubPendingKey(String ticketId, Instant createdAt) {
+        when(dedupKeyRepository.findById("JIRA#PROJ-1")).thenReturn(Optional.of(
+                DedupKey.builder().dedupKey("JIRA#PROJ-1").ticketId(ticketId).createdAt(createdAt).build()));
+        when(ticketRepository.findById(ticketId)).thenReturn(Optional.empty());
+    }
+
+    private DefectTicket ticket(String ticketId, String description) {
+        return DefectTicket.builder()
+                .ticketId(ticketId)
+                .batchId("batch-001")
+                .sourceSystem("JIRA")
+                .sourceReference("PROJ-1")
+                .title("Login fails")
+                .description(description)
+                .status(TicketStatus.NEW)
+                .build();
+    }
+}
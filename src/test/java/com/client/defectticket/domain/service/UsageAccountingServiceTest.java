@@ -0,0 +1,144 @@
+package com.client.defectticket.domain.service;
+
+import com.client.defectticket.api.dto.UsageTotalsDto;
+import com.client.defectticket.domain.model.BatchSummary;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.LlmUsage;
+import com.client.defectticket.domain.repository.BatchSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for UsageAccountingService.
+ * Tests per-batch flushing and per-source aggregation.
+ */
+@ExtendWith(MockitoExtension.class)
+class UsageAccountingServiceTest {
+
+    @Mock
+    private BatchSummaryRepository summaryRepository;
+
+    private UsageAccountingService usageAccounting;
+
+    @BeforeEach
+    void setUp() {
+        usageAccounting = new UsageAccountingService(summaryRepository, 0.003, 0.015, 0.0003, 0.00375);
+    }
+
+    @Test
+    void shouldFlushBatchDeltaOnceAndResetCounters() {
+        // Given
+        usageAccounting.record(ticket("batch-001", "JIRA"), llmClassification(1000, 200, 1500), 1);
+        usageAccounting.record(ticket("batch-001", "JIRA"), ruleClassification(), 0);
+
+        // When
+        usageAccounting.flush();
+        usageAccounting.flush();
+
+        // Then
+        ArgumentCaptor<BatchSummary> captor = ArgumentCaptor.forClass(BatchSummary.class);
+        verify(summaryRepository, times(1)).addUsage(captor.capture());
+        BatchSummary delta = captor.getValue();
+        assertThat(delta.getBatchId()).isEqualTo("batch-001");
+        assertThat(delta.getClassifiedCount()).isEqualTo(2);
+        assertThat(delta.getLlmCalls()).isEqualTo(1);
+        assertThat(delta.getInputTokens()).isEqualTo(1000);
+        assertThat(delta.getOutputTokens()).isEqualTo(200);
+        assertThat(delta.getRetries()).isEqualTo(1);
+        assertThat(delta.getEstimatedCostUsd()).isCloseTo(0.006, within(1e-9));
+    }
+
+    @Test
+    void shouldRequeueDeltaWhenFlushFails() {
+        // Given
+        usageAccounting.record(ticket("batch-001", "JIRA"), llmClassification(500, 100, 800), 0);
+        doThrow(new RuntimeException("DynamoDB unavailable")).doNothing()
+                .when(summaryRepository).addUsage(any(BatchSummary.class));
+
+        // When
+        usageAccounting.flush();
+        usageAccounting.flush();
+
+        // Then
+        ArgumentCaptor<BatchSummary> captor = ArgumentCaptor.forClass(BatchSummary.class);
+        verify(summaryRepository, times(2)).addUsage(captor.capture());
+        assertThat(captor.getAllValues().get(1).getInputTokens()).isEqualTo(500);
+    }
+
+    @Test
+    void shouldCombinePersistedAndPendingBatchUsage() {
+        // Given
+        when(summaryRepository.findById("batch-001")).thenReturn(Optional.of(BatchSummary.builder()
+                .batchId("batch-001")
+                .sourceSystem("JIRA")
+                .classifiedCount(10L)
+                .llmCalls(4L)
+                .inputTokens(4000L)
+                .outputTokens(800L)
+                .totalLlmLatencyMillis(4000L)
+                .retries(0L)
+                .build()));
+        usageAccounting.record(ticket("batch-001", "JIRA"), llmClassification(1000, 200, 2000), 0);
+
+        // When
+        UsageTotalsDto usage = usageAccounting.getBatchUsage("batch-001").orElseThrow();
+
+        // Then
+        assertThat(usage.getClassifiedCount()).isEqualTo(11);
+        assertThat(usage.getLlmCalls()).isEqualTo(5);
+        assertThat(usage.getInputTokens()).isEqualTo(5000);
+        assertThat(usage.getAverageLlmLatencyMillis()).isEqualTo(1200.0);
+    }
+
+    @Test
+    void shouldAggregatePerSourceSortedByCost() {
+        // Given
+        usageAccounting.record(ticket("batch-001", "JIRA"), llmClassification(1000, 100, 500), 0);
+        usageAccounting.record(ticket("batch-002", "SERVICENOW"), llmClassification(5000, 500, 900), 0);
+
+        // When
+        List<UsageTotalsDto> usage = usageAccounting.getSourceUsage();
+
+        // Then
+        assertThat(usage).extracting(UsageTotalsDto::getKey).containsExactly("SERVICENOW", "JIRA");
+    }
+
+    private DefectTicket ticket(String batchId, String sourceSystem) {
+        return DefectTicket.builder()
+                .ticketId("test-123")
+                .batchId(batchId)
+                .sourceSystem(sourceSystem)
+                .build();
+    }
+
+    private Classification llmClassification(int inputTokens, int outputTokens, long latencyMillis) {
+        return Classification.builder()
+                .classificationSource("LLM")
+                .llmUsage(LlmUsage.builder()
+                        .modelId("test-model")
+                        .inputTokens(inputTokens)
+                        .outputTokens(outputTokens)
+                        .latencyMillis(latencyMillis)
+                        .build())
+                .build();
+    }
+
+    private Classification ruleClassification() {
+        return Classification.builder()
+                .classificationSource("RULES")
+                .build();
+    }
+}
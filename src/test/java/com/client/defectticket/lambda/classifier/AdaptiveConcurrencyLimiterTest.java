@@ -0,0 +1,98 @@
+package com.client.defectticket.lambda.classifier;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for AdaptiveConcurrencyLimiter.
+ * Tests additive increase, multiplicative decrease and queue timeout.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void shouldIncreaseLimitAfterHealthyWindow() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, 20000, 1000);
+
+        // When
+        limiter.execute(() -> "ok");
+        limiter.execute(() -> "ok");
+
+        // Then
+        assertThat(limiter.snapshot().getLimit()).isEqualTo(3);
+        assertThat(limiter.snapshot().getTotalCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotExceedMaxConcurrency() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 0.5, 20000, 1000);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.execute(() -> "ok");
+        }
+
+        // Then
+        assertThat(limiter.snapshot().getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDecreaseLimitOnThrottling() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, 0.5, 20000, 1000);
+
+        // When
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw ThrottlingException.builder().message("Too many requests").build();
+        })).isInstanceOf(ThrottlingException.class);
+
+        // Then
+        LimiterSnapshot snapshot = limiter.snapshot();
+        assertThat(snapshot.getLimit()).isEqualTo(4);
+        assertThat(snapshot.getThrottledCalls()).isEqualTo(1);
+        assertThat(snapshot.getThrottleRate()).isGreaterThan(0.0);
+        assertThat(snapshot.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldRejectWhenNoPermitWithinTimeout() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, 20000, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> holder = executor.submit(() -> limiter.execute(() -> {
+                holding.countDown();
+                awaitQuietly(release);
+                return "done";
+            }));
+            holding.await();
+
+            // When/Then
+            assertThatThrownBy(() -> limiter.execute(() -> "second"))
+                    .isInstanceOf(LlmConcurrencyLimitException.class);
+            assertThat(limiter.snapshot().getRejectedCalls()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(holder.get()).isEqualTo("done");
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.LlmUsage;
+import com.client.defectticket.domain.model.enums.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for CascadePolicy.
+ * Tests escalation rules and per-tier statistics.
+ */
+class CascadePolicyTest {
+
+    private final CascadePolicy policy = new CascadePolicy(true, 0.85, "Security:0.95, Performance:0.9", Severity.HIGH);
+
+    @Test
+    void shouldAcceptConfidentLowSeverityResult() {
+        assertThat(policy.shouldEscalate(result("UI", Severity.LOW, 0.9))).isFalse();
+    }
+
+    @Test
+    void shouldEscalateBelowDefaultThreshold() {
+        assertThat(policy.shouldEscalate(result("UI", Severity.LOW, 0.8))).isTrue();
+    }
+
+    @Test
+    void shouldApplyCategoryThresholdCaseInsensitively() {
+        assertThat(policy.thresholdFor("security")).isEqualTo(0.95);
+        assertThat(policy.thresholdFor("Unknown")).isEqualTo(0.85);
+        assertThat(policy.shouldEscalate(result("SECURITY", Severity.MEDIUM, 0.93))).isTrue();
+        assertThat(policy.shouldEscalate(result("Security", Severity.MEDIUM, 0.96))).isFalse();
+    }
+
+    @Test
+    void shouldAlwaysEscalateHighImpactSeverities() {
+        assertThat(policy.shouldEscalate(result("UI", Severity.HIGH, 0.99))).isTrue();
+        assertThat(policy.shouldEscalate(result("UI", Severity.CRITICAL, 0.99))).isTrue();
+    }
+
+    @Test
+    void shouldEscalateIncompleteResult() {
+        assertThat(policy.shouldEscalate(result("UI", null, 0.99))).isTrue();
+    }
+
+    @Test
+    void shouldRejectMalformedCategoryThresholds() {
+        assertThatThrownBy(() -> new CascadePolicy(true, 0.85, "Security=0.95", Severity.HIGH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReportDecidedRateLatencyAndTokensPerTier() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            policy.recordDecision(ModelTier.SMALL, 300, usage(100, 20));
+        }
+        policy.recordDecision(ModelTier.LARGE, 4000, usage(300, 60));
+
+        // When
+        List<TierStats> stats = policy.stats();
+
+        // Then
+        TierStats small = stats.get(0);
+        TierStats large = stats.get(1);
+        assertThat(small.getTier()).isEqualTo(ModelTier.SMALL);
+        assertThat(small.getDecided()).isEqualTo(3);
+        assertThat(small.getDecidedRate()).isEqualTo(0.75);
+        assertThat(small.getP95LatencyMillis()).isEqualTo(500);
+        assertThat(small.getInputTokens()).isEqualTo(300);
+        assertThat(large.getDecidedRate()).isEqualTo(0.25);
+        assertThat(large.getP95LatencyMillis()).isEqualTo(5000);
+        assertThat(large.getOutputTokens()).isEqualTo(60);
+    }
+
+    private Classification result(String category, Severity severity, double confidence) {
+        return Classification.builder()
+                .category(category)
+                .severity(severity)
+                .confidenceScore(confidence)
+                .build();
+    }
+
+    private LlmUsage usage(int inputTokens, int outputTokens) {
+        return LlmUsage.builder()
+                .inputTokens(inputTokens)
+                .outputTokens(outputTokens)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.client.defectticket.lambda.classifier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for IncrementalJsonParser.
+ * Tests field availability across chunk boundaries and completion detection.
+ */
+class IncrementalJsonParserTest {
+
+    @Test
+    void shouldExposeFieldOnlyOnceItsValueIsTerminated() {
+        // Given
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+
+        // When
+        parser.feed("{\"confidenceScore\": 0.9");
+
+        // Then - "0.9" may still continue ("0.95")
+        assertThat(parser.hasFields("confidenceScore")).isFalse();
+
+        // When
+        parser.feed("5, \"sev");
+
+        // Then
+        assertThat(parser.hasFields("confidenceScore")).isTrue();
+        assertThat(parser.field("confidenceScore")).hasValueSatisfying(node ->
+                assertThat(node.asDouble()).isEqualTo(0.95));
+        assertThat(parser.isComplete()).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreStructuralCharactersInsideStrings() {
+        // Given
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+
+        // When
+        parser.feed("{\"reasoning\": \"braces } and commas, and \\\"quotes\\\"\", \"severity\": \"LOW\"");
+
+        // Then
+        assertThat(parser.isComplete()).isFalse();
+        assertThat(parser.field("reasoning")).hasValueSatisfying(node ->
+                assertThat(node.asText()).isEqualTo("braces } and commas, and \"quotes\""));
+    }
+
+    @Test
+    void shouldCompleteAtClosingBraceAndIgnoreSurroundingText() {
+        // Given
+        IncrementalJsonParser parser = new IncrementalJsonParser();
+
+        // When
+        parser.feed("Here is the result:\n```json\n{\"tags\": [\"a\", \"b\"], \"meta\": {\"x\": 1}}");
+        parser.feed("\n``` trailing");
+
+        // Then
+        assertThat(parser.isComplete()).isTrue();
+        assertThat(parser.hasFields("tags", "meta")).isTrue();
+        assertThat(parser.json()).isEqualTo("{\"tags\": [\"a\", \"b\"], \"meta\": {\"x\": 1}}");
+    }
+}
@@ -0,0 +1,143 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.repository.LearnedModelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for LearnedClassifier.
+ * Tests classification from a snapshot, confidence, and loading published snapshots.
+ */
+@ExtendWith(MockitoExtension.class)
+class LearnedClassifierTest {
+
+    @Mock
+    private LearnedModelRepository modelRepository;
+
+    private LearnedClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new LearnedClassifier(modelRepository, 12, 4, 0.85, 60_000);
+    }
+
+    @Test
+    void shouldHaveNoOpinionBeforeMinimumExamples() {
+        // Given
+        LearnedClassifier.Trainers trainers = classifier.newTrainers();
+        trainers.add(ticket("t1", "Login page crashes", "NullPointerException on submit"), label("Bug", Severity.HIGH));
+        classifier.install(1, trainers);
+
+        // When / Then
+        assertThat(classifier.classify(ticket("t2", "Login page crashes", "again"))).isEmpty();
+        assertThat(classifier.info().isReady()).isFalse();
+    }
+
+    @Test
+    void shouldClassifyFromLearnedVocabulary() {
+        // Given
+        classifier.install(10, securityAndUiTrainers());
+
+        // When
+        Classification security = classifier.classify(
+                ticket("n1", "Reset token leaked", "Token visible in referrer")).orElseThrow();
+        Classification ui = classifier.classify(
+                ticket("n2", "Settings button misaligned", "Overlaps the footer")).orElseThrow();
+
+        // Then
+        assertThat(security.getCategory()).isEqualTo("Security");
+        assertThat(security.getSeverity()).isEqualTo(Severity.CRITICAL);
+        assertThat(security.getPriority()).isEqualTo(1);
+        assertThat(security.getClassificationSource()).isEqualTo(LearnedClassifier.SOURCE);
+        assertThat(security.getConfidenceScore()).isGreaterThan(0.9);
+        assertThat(ui.getCategory()).isEqualTo("UI");
+        assertThat(ui.getSeverity()).isEqualTo(Severity.LOW);
+        assertThat(classifier.info().getVersion()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldLoadPublishedSnapshotOncePerRefreshInterval() throws Exception {
+        // Given: a snapshot published by the trainer in another process
+        byte[] published = securityAndUiTrainers().encode();
+        when(modelRepository.latestVersion()).thenReturn(3L);
+        when(modelRepository.load(3L)).thenReturn(Optional.of(published));
+
+        // When
+        Optional<Classification> first = classifier.classify(ticket("n1", "Reset token leaked", "Token visible"));
+        Optional<Classification> second = classifier.classify(ticket("n2", "Settings button misaligned", "Footer"));
+
+        // Then
+        assertThat(first).map(Classification::getCategory).contains("Security");
+        assertThat(second).map(Classification::getCategory).contains("UI");
+        assertThat(classifier.info().getVersion()).isEqualTo(3);
+        assertThat(classifier.info().getTrainingExamples()).isEqualTo(10);
+        verify(modelRepository, times(1)).latestVersion();
+    }
+
+    @Test
+    void shouldKeepSnapshotWhenRefreshFails() {
+        // Given
+        classifier.install(2, securityAndUiTrainers());
+        when(modelRepository.latestVersion()).thenThrow(new RuntimeException("DynamoDB down"));
+
+        // When
+        classifier.refresh();
+
+        // Then
+        assertThat(classifier.info().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldIgnoreOlderSnapshot() {
+        // Given
+        classifier.install(5, securityAndUiTrainers());
+
+        // When
+        classifier.install(4, classifier.newTrainers());
+
+        // Then
+        assertThat(classifier.info().getVersion()).isEqualTo(5);
+        assertThat(classifier.info().getTrainingExamples()).isEqualTo(10);
+    }
+
+    private LearnedClassifier.Trainers securityAndUiTrainers() {
+        LearnedClassifier.Trainers trainers = classifier.newTrainers();
+        for (int i = 0; i < 5; i++) {
+            trainers.add(ticket("s" + i, "Password reset token leaked", "Reset token visible in referrer header"),
+                    label("Security", Severity.CRITICAL));
+            trainers.add(ticket("u" + i, "Button misaligned on settings page", "Save button overlaps footer"),
+                    label("UI", Severity.LOW));
+        }
+        return trainers;
+    }
+
+    private Classification label(String category, Severity severity) {
+        return Classification.builder()
+                .category(category)
+                .severity(severity)
+                .confidenceScore(0.8)
+                .classificationSource("LLM")
+                .build();
+    }
+
+    private DefectTicket ticket(String ticketId, String title, String description) {
+        return DefectTicket.builder()
+                .ticketId(ticketId)
+                .title(title)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.ApprovalRequest;
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.ApprovalStatus;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.domain.repository.ApprovalRequestRepository;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.repository.LearnedModelRepository;
+import com.client.defectticket.domain.service.ApprovalDecidedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for LearnedModelTrainer.
+ * Tests batched learning of approved decisions, snapshot publishing and startup.
+ */
+@ExtendWith(MockitoExtension.class)
+class LearnedModelTrainerTest {
+
+    @Mock
+    private LearnedModelRepository modelRepository;
+
+    @Mock
+    private ApprovalRequestRepository approvalRepository;
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private LearnedClassifier classifier;
+    private LearnedModelTrainer trainer;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new LearnedClassifier(modelRepository, 12, 4, 0.85, 60_000);
+        trainer = new LearnedModelTrainer(classifier, modelRepository, approvalRepository, ticketRepository,
+                objectMapper);
+    }
+
+    @Test
+    void shouldLearnApprovedDecisionsInOneBatchOutsideTheRequest() {
+        // Given
+        DefectTicket export = ticket("t1", "Export times out", "CSV export exceeds 30s");
+        DefectTicket crash = ticket("t2", "Crash on start", "App exits on launch");
+        when(ticketRepository.findAllById(List.of("t1", "t2"))).thenReturn(List.of(export, crash));
+        when(modelRepository.publish(eq(1L), any(byte[].class))).thenReturn(true);
+
+        // When
+        trainer.onApprovalDecided(new ApprovalDecidedEvent("a1", "t1", true, false, label("Performance", Severity.MEDIUM)));
+        trainer.onApprovalDecided(new ApprovalDecidedEvent("a2", "t2", true, false, label("Bug", Severity.HIGH)));
+        trainer.onApprovalDecided(new ApprovalDecidedEvent("a3", "t1", false, true, label("Bug", Severity.HIGH)));
+        verifyNoInteractions(ticketRepository, modelRepository);
+        trainer.publishPending();
+
+        // Then
+        LearnedModelInfo info = classifier.info();
+        assertThat(info.getVersion()).isEqualTo(1);
+        assertThat(info.getTrainingExamples()).isEqualTo(2);
+        assertThat(info.getCategories()).containsExactlyInAnyOrder("Performance", "Bug");
+    }
+
+    @Test
+    void shouldNotPublishWithoutNewDecisions() {
+        // When
+        trainer.publishPending();
+
+        // Then
+        verifyNoInteractions(ticketRepository, modelRepository);
+    }
+
+    @Test
+    void shouldContinueFromPublishedSnapshotAtStartup() throws Exception {
+        // Given: v4 published before the restart
+        LearnedClassifier.Trainers published = classifier.newTrainers();
+        published.add(ticket("t0", "Slow dashboard", "Query takes 12s"), label("Performance", Severity.MEDIUM));
+        when(modelRepository.latestVersion()).thenReturn(4L);
+        when(modelRepository.load(4L)).thenReturn(Optional.of(published.encode()));
+        when(ticketRepository.findAllById(List.of("t1"))).thenReturn(List.of(ticket("t1", "Crash", "On start")));
+        when(modelRepository.publish(eq(5L), any(byte[].class))).thenReturn(true);
+
+        // When
+        trainer.start();
+        trainer.onApprovalDecided(new ApprovalDecidedEvent("a1", "t1", true, false, label("Bug", Severity.HIGH)));
+        trainer.publishPending();
+
+        // Then
+        verifyNoInteractions(approvalRepository);
+        assertThat(classifier.info().getVersion()).isEqualTo(5);
+        assertThat(classifier.info().getTrainingExamples()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRetrainFromApprovalTableWhenNothingWasPublished() throws Exception {
+        // Given
+        List<ApprovalRequest> approvals = new ArrayList<>();
+        List<DefectTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            approvals.add(ApprovalRequest.builder()
+                    .approvalId("a" + i)
+                    .ticketId("t" + i)
+                    .status(ApprovalStatus.APPROVED)
+                    .aiRecommendation(objectMapper.writeValueAsString(label("Performance", Severity.MEDIUM)))
+                    .build());
+            tickets.add(ticket("t" + i, "Slow dashboard", "Query takes 12s"));
+        }
+        when(modelRepository.latestVersion()).thenReturn(0L);
+        when(approvalRepository.findByStatus(ApprovalStatus.APPROVED)).thenReturn(approvals);
+        when(ticketRepository.findAllById(List.of("t0", "t1", "t2", "t3"))).thenReturn(tickets);
+        when(modelRepository.publish(eq(1L), any(byte[].class))).thenReturn(true);
+
+        // When
+        trainer.start();
+
+        // Then
+        LearnedModelInfo info = classifier.info();
+        assertThat(info.getVersion()).isEqualTo(1);
+        assertThat(info.getTrainingExamples()).isEqualTo(4);
+        assertThat(info.isReady()).isTrue();
+        verify(ticketRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldPublishAgainAfterFailedPublish() {
+        // Given
+        when(ticketRepository.findAllById(List.of("t1"))).thenReturn(List.of(ticket("t1", "Crash", "On start")));
+        when(modelRepository.publish(eq(1L), any(byte[].class)))
+                .thenThrow(new RuntimeException("DynamoDB down"))
+                .thenReturn(true);
+        trainer.onApprovalDecided(new ApprovalDecidedEvent("a1", "t1", true, false, label("Bug", Severity.HIGH)));
+
+        // When
+        trainer.publishPending();
+        trainer.publishPending();
+
+        // Then
+        assertThat(classifier.info().getVersion()).isEqualTo(1);
+        assertThat(classifier.info().getTrainingExamples()).isEqualTo(1);
+    }
+
+    private Classification label(String category, Severity severity) {
+        return Classification.builder()
+                .category(category)
+                .severity(severity)
+                .confidenceScore(0.8)
+                .classificationSource("LLM")
+                .build();
+    }
+
+    private DefectTicket ticket(String ticketId, String title, String description) {
+        return DefectTicket.builder()
+                .ticketId(ticketId)
+                .title(title)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.client.defectticket.lambda.classifier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for LenientOutputParser.
+ * Tests repair of common output deviations, normalization and repair counters.
+ */
+class LenientOutputParserTest {
+
+    private final LenientOutputParser parser = new LenientOutputParser();
+
+    @Test
+    void shouldParseWellFormedOutputWithoutRepair() {
+        // When
+        SpringAiClassificationService.ClassificationOutput output = parser.parse("""
+                {"severity": "HIGH", "confidenceScore": 0.9, "priority": 2,
+                 "category": "Bug", "subcategory": "API", "reasoning": "Endpoint fails"}
+                """);
+
+        // Then
+        assertThat(output.severity()).isEqualTo("HIGH");
+        assertThat(output.confidenceScore()).isEqualTo(0.9);
+        assertThat(parser.snapshot().getCleanParses()).isEqualTo(1);
+        assertThat(parser.snapshot().getRepairedParses()).isZero();
+    }
+
+    @Test
+    void shouldRepairFencesTrailingCommaAndSynonyms() {
+        // Given
+        String content = """
+                Here is the classification:
+                ```json
+                {'Severity': 'blocker', confidence_score: 85, priority: "P1", category: 'Security',}
+                ```
+                """;
+
+        // When
+        SpringAiClassificationService.ClassificationOutput output = parser.parse(content);
+
+        // Then
+        assertThat(output.severity()).isEqualTo("CRITICAL");
+        assertThat(output.confidenceScore()).isEqualTo(0.85);
+        assertThat(output.priority()).isEqualTo(1);
+        assertThat(output.category()).isEqualTo("Security");
+        OutputRepairSnapshot snapshot = parser.snapshot();
+        assertThat(snapshot.getRepairedParses()).isEqualTo(1);
+        assertThat(snapshot.getRepairs())
+                .containsEntry(LenientOutputParser.Repair.SURROUNDING_TEXT, 1L)
+                .containsEntry(LenientOutputParser.Repair.SYNTAX, 1L)
+                .containsEntry(LenientOutputParser.Repair.FIELD_NAME, 1L)
+                .containsEntry(LenientOutputParser.Repair.SEVERITY, 1L)
+                .containsEntry(LenientOutputParser.Repair.CONFIDENCE, 1L)
+                .containsEntry(LenientOutputParser.Repair.PRIORITY, 1L);
+    }
+
+    @Test
+    void shouldClampOutOfRangeValues() {
+        // When
+        SpringAiClassificationService.ClassificationOutput output = parser.parse(
+                "{\"severity\": \"Low\", \"confidenceScore\": 1.7e3, \"priority\": 9}");
+
+        // Then
+        assertThat(output.severity()).isEqualTo("LOW");
+        assertThat(output.confidenceScore()).isEqualTo(1.0);
+        assertThat(output.priority()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldClampSlightlyOutOfRangeConfidence() {
+        // When
+        SpringAiClassificationService.ClassificationOutput output = parser.parse(
+                "{\"severity\": \"Low\", \"confidenceScore\": 1.2}");
+
+        // Then
+        assertThat(output.confidenceScore()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFailWhenSeverityCannotBeMapped() {
+        assertThatThrownBy(() -> parser.parse("{\"severity\": \"spicy\", \"confidenceScore\": 0.8}"))
+                .isInstanceOf(LlmOutputParseException.class);
+
+        assertThat(parser.snapshot().getFailedParses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailWithoutJsonObject() {
+        assertThatThrownBy(() -> parser.parse("I cannot classify this ticket."))
+                .isInstanceOf(LlmOutputParseException.class)
+                .hasMessageContaining("no JSON object");
+    }
+}
@@ -0,0 +1,103 @@
+package com.client.defectticket.lambda.classifier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for LlmCircuitBreaker.
+ * Tests closed -> open -> half-open -> closed transitions.
+ */
+class LlmCircuitBreakerTest {
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        // Given
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(10, 5, 0.5, 60000, 2);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquirePermission();
+            breaker.onFailure();
+        }
+
+        // Then
+        assertThat(breaker.snapshot().getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateExceedsThreshold() {
+        // Given
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(10, 4, 0.5, 60000, 2);
+
+        // When
+        recordOutcomes(breaker, true, false, true, true);
+
+        // Then
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.snapshot().getRejectedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulHalfOpenTrials() {
+        // Given
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(10, 2, 0.5, 0, 2);
+        recordOutcomes(breaker, true, true);
+        assertThat(breaker.isOpen()).isTrue();
+
+        // When - open duration elapsed, trial calls succeed
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.snapshot().getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();  // trial permits exhausted
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        // Then
+        assertThat(breaker.snapshot().getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(breaker.snapshot().getBufferedCalls()).isZero();
+    }
+
+    @Test
+    void shouldReopenWhenHalfOpenTrialFails() {
+        // Given
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(10, 2, 0.5, 0, 2);
+        recordOutcomes(breaker, true, true);
+
+        // When
+        breaker.tryAcquirePermission();
+        breaker.onFailure();
+
+        // Then
+        assertThat(breaker.isOpen()).isTrue();
+    }
+
+    @Test
+    void shouldReturnHalfOpenPermitOnRelease() {
+        // Given
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(10, 2, 0.5, 0, 1);
+        recordOutcomes(breaker, true, true);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        // When - the trial call ended without a Bedrock outcome
+        breaker.release();
+
+        // Then
+        assertThat(breaker.snapshot().getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    private void recordOutcomes(LlmCircuitBreaker breaker, boolean... failures) {
+        for (boolean failure : failures) {
+            breaker.tryAcquirePermission();
+            if (failure) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+}
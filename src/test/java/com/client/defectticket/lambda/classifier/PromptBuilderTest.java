@@ -0,0 +1,115 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.client.defectticket.domain.model.DefectTicket;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for PromptBuilder.
+ * Tests token budgeting, description trimming and the static system prefix.
+ */
+class PromptBuilderTest {
+
+    private final PromptBuilder promptBuilder = new PromptBuilder(2000, 4.0);
+
+    @Test
+    void shouldSendShortDescriptionUnchanged() {
+        // Given
+        DefectTicket ticket = createTicket("Login fails", "Users cannot log in after the last deploy");
+
+        // When
+        ClassificationPrompt prompt = promptBuilder.build(ticket);
+
+        // Then
+        assertThat(prompt.isDescriptionTrimmed()).isFalse();
+        assertThat(prompt.getText()).contains("Users cannot log in after the last deploy");
+        assertThat(prompt.getText()).contains("- Source System: JIRA");
+        assertThat(prompt.getInputTokenEstimate()).isEqualTo(promptBuilder.estimateTokens(prompt.getText()));
+    }
+
+    @Test
+    void shouldKeepSystemPrefixIdenticalAcrossTickets() {
+        // Given
+        DefectTicket first = createTicket("Login fails", "Users cannot log in after the last deploy");
+        DefectTicket second = createTicket("Slow search", "Search takes 30 seconds");
+
+        // When
+        ClassificationPrompt firstPrompt = promptBuilder.build(first);
+        ClassificationPrompt secondPrompt = promptBuilder.build(second);
+
+        // Then
+        assertThat(firstPrompt.getSystemText()).isEqualTo(secondPrompt.getSystemText());
+        assertThat(firstPrompt.getSystemText())
+                .doesNotContain("Login fails")
+                .doesNotContain("JIRA");
+        assertThat(firstPrompt.getUserText()).contains("- Title: Login fails");
+    }
+
+    @Test
+    void shouldTrimLargeLogToBudgetAndKeepErrorLines() {
+        // Given
+        StringBuilder log = new StringBuilder("Steps to reproduce: submit order\n");
+        for (int i = 0; i < 2000; i++) {
+            log.append("INFO processed request ").append(i).append('\n');
+            if (i == 1000) {
+                log.append("ERROR NullPointerException in OrderService.total\n");
+            }
+        }
+        log.append("Last line of the dump");
+        DefectTicket ticket = createTicket("Order total wrong", log.toString());
+
+        // When
+        ClassificationPrompt prompt = promptBuilder.build(ticket);
+
+        // Then
+        assertThat(prompt.isDescriptionTrimmed()).isTrue();
+        assertThat(prompt.getInputTokenEstimate()).isLessThanOrEqualTo(2000);
+        assertThat(prompt.getText())
+                .contains("Steps to reproduce: submit order")
+                .contains("ERROR NullPointerException in OrderService.total")
+                .contains("Last line of the dump")
+                .contains("lines omitted");
+    }
+
+    @Test
+    void shouldCollapseRepeatedStackFrames() {
+        // Given
+        String frames = """
+                java.lang.IllegalStateException: boom
+                \tat com.client.Service.run(Service.java:10)
+                \tat com.client.Worker.loop(Worker.java:20)
+                """;
+        String description = frames.repeat(50);
+
+        // When
+        String trimmed = promptBuilder.trimDescription(description, 500);
+
+        // Then
+        assertThat(trimmed).hasSizeLessThanOrEqualTo(500);
+        assertThat(trimmed).contains("at com.client.Service.run(Service.java:10)");
+        assertThat(trimmed).contains("repeated stack frames omitted");
+    }
+
+    @Test
+    void shouldCutSingleHugeLineByCharacters() {
+        // Given
+        String payload = "x".repeat(10_000);
+
+        // When
+        String trimmed = promptBuilder.trimDescription(payload, 1000);
+
+        // Then
+        assertThat(trimmed).hasSizeLessThanOrEqualTo(1000);
+        assertThat(trimmed).contains("[truncated]");
+    }
+
+    private DefectTicket createTicket(String title, String description) {
+        return DefectTicket.builder()
+                .ticketId("test-123")
+                .sourceSystem("JIRA")
+                .title(title)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.client.defectticket.lambda.classifier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import software.amazon.awssdk.services.bedrockruntime.model.InternalServerException;
+import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for SimulatedBedrockChatModel.
+ * Tests deterministic responses, quota throttling, error injection, replay and prompt caching.
+ */
+class SimulatedBedrockChatModelTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReturnDeterministicParseableResponsePerPrompt() {
+        // Given
+        SimulatedBedrockChatModel model = simulator(SimulatorMode.SYNTHETIC, 1_000_000, 0.0);
+
+        // When
+        ChatResponse first = model.call(new Prompt("Classify: checkout returns 500"));
+        ChatResponse second = model.call(new Prompt("Classify: checkout returns 500"));
+
+        // Then
+        String content = first.getResult().getOutput().getContent();
+        assertThat(content).isEqualTo(second.getResult().getOutput().getContent());
+        SpringAiClassificationService.ClassificationOutput output =
+                SpringAiClassificationService.OUTPUT_CONVERTER.convert(content);
+        assertThat(output.confidenceScore()).isBetween(0.6, 0.99);
+        assertThat(first.getMetadata().getUsage().getPromptTokens()).isPositive();
+    }
+
+    @Test
+    void shouldThrottleWhenTokenQuotaIsExhausted() {
+        // Given - quota covers the first prompt only
+        SimulatedBedrockChatModel model = simulator(SimulatorMode.SYNTHETIC, 100, 0.0);
+        model.call(new Prompt("x".repeat(200)));
+
+        // When / Then
+        assertThatThrownBy(() -> model.call(new Prompt("x".repeat(200))))
+                .isInstanceOf(ThrottlingException.class);
+    }
+
+    @Test
+    void shouldInjectErrors() {
+        SimulatedBedrockChatModel model = simulator(SimulatorMode.SYNTHETIC, 1_000_000, 1.0);
+
+        assertThatThrownBy(() -> model.call(new Prompt("anything")))
+                .isInstanceOf(InternalServerException.class);
+    }
+
+    @Test
+    void shouldReplayRecordedResponseByPromptHash() throws Exception {
+        // Given
+        String prompt = "Classify: login page crashes";
+        RecordedResponse recorded = new RecordedResponse(SimulatedBedrockChatModel.sha256(prompt), "recorded-model",
+                "{\"severity\":\"HIGH\",\"confidenceScore\":0.91}", 420, 37, 1);
+        Files.writeString(tempDir.resolve("recording.ndjson"), objectMapper.writeValueAsString(recorded) + "\n");
+        SimulatedBedrockChatModel model = simulator(SimulatorMode.REPLAY, 1_000_000, 0.0);
+
+        // When
+        ChatResponse response = model.call(new Prompt(prompt));
+
+        // Then
+        assertThat(response.getResult().getOutput().getContent()).isEqualTo(recorded.content());
+        assertThat(response.getMetadata().getUsage().getPromptTokens()).isEqualTo(420L);
+        assertThat(response.getMetadata().getUsage().getGenerationTokens()).isEqualTo(37L);
+    }
+
+    @Test
+    void shouldStreamContentInChunksWithUsageLast() {
+        // Given
+        SimulatedBedrockChatModel model = simulator(SimulatorMode.SYNTHETIC, 1_000_000, 0.0);
+
+        // When
+        List<ChatResponse> chunks = model.stream(new Prompt("Classify: slow dashboard")).collectList().block();
+
+        // Then
+        String streamed = chunks.stream()
+                .map(chunk -> chunk.getResult().getOutput().getContent())
+                .reduce("", String::concat);
+        assertThat(streamed).isEqualTo(model.call(new Prompt("Classify: slow dashboard"))
+                .getResult().getOutput().getContent());
+        assertThat(chunks.get(chunks.size() - 1).getMetadata().getUsage().getGenerationTokens()).isPositive();
+    }
+
+    @Test
+    void shouldWriteThenReadCachedSystemPrefix() {
+        // Given
+        SimulatedBedrockChatModel model = simulator(SimulatorMode.SYNTHETIC, 1_000_000, 0.0);
+        String prefix = "You are a defect classifier. ".repeat(40);
+
+        // When
+        ChatResponse first = model.call(new Prompt(List.of(new SystemMessage(prefix), new UserMessage("Title: A"))));
+        ChatResponse second = model.call(new Prompt(List.of(new SystemMessage(prefix), new UserMessage("Title: B"))));
+
+        // Then
+        assertThat((Long) first.getMetadata().get(SpringAiClassificationService.CACHE_WRITE_TOKENS)).isPositive();
+        assertThat((Long) first.getMetadata().get(SpringAiClassificationService.CACHE_READ_TOKENS)).isZero();
+        assertThat((Long) second.getMetadata().get(SpringAiClassificationService.CACHE_READ_TOKENS)).isPositive();
+        assertThat((Long) second.getMetadata().get(SpringAiClassificationService.CACHE_WRITE_TOKENS)).isZero();
+        assertThat(second.getMetadata().getUsage().getPromptTokens())
+                .isLessThan((Long) second.getMetadata().get(SpringAiClassificationService.CACHE_READ_TOKENS));
+        assertThat(model.distinctSystemPrefixes()).isEqualTo(1);
+    }
+
+    private SimulatedBedrockChatModel simulator(SimulatorMode mode, long tokensPerMinute, double errorRate) {
+        return new SimulatedBedrockChatModel(objectMapper, Optional.empty(), mode,
+                tempDir.resolve("recording.ndjson").toString(), 1, 0.5, 0.0, 1.0, 5, tokensPerMinute, errorRate,
+                true, "simulated");
+    }
+}
@@ -0,0 +1,120 @@
+package com.client.defectticket.lambda.handler;
+
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.lambda.handler.dto.BatchChunkPlan;
+import com.client.defectticket.lambda.handler.dto.TicketChunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for LoadBatchTicketsHandler.
+ * Tests chunk planning with page cursors, across the batches of a coalesced execution,
+ * and loading a chunk up to its end ticket.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoadBatchTicketsHandlerTest {
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    private LoadBatchTicketsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new LoadBatchTicketsHandler(ticketRepository, 2);
+    }
+
+    @Test
+    void shouldPlanChunksFromPageCursors() {
+        // Given
+        when(ticketRepository.findByBatchIdPage("batch-001", null, 2)).thenReturn(page("t-2", "t-1", "t-2"));
+        when(ticketRepository.findByBatchIdPage("batch-001", "t-2", 2)).thenReturn(page("t-4", "t-3", "t-4"));
+        when(ticketRepository.findByBatchIdPage("batch-001", "t-4", 2)).thenReturn(page(null, "t-5"));
+
+        // When
+        BatchChunkPlan plan = handler.handle(Map.of("batchId", "batch-001"));
+
+        // Then
+        assertThat(plan.getTicketCount()).isEqualTo(5);
+        assertThat(plan.getChunks()).extracting(TicketChunk::getStartAfterTicketId)
+                .containsExactly(null, "t-2", "t-4");
+        assertThat(plan.getChunks()).extracting(TicketChunk::getEndTicketId)
+                .containsExactly("t-2", "t-4", "t-5");
+        assertThat(plan.getChunks()).extracting(TicketChunk::getSize)
+                .containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void shouldPlanEveryBatchOfCoalescedExecution() {
+        // Given
+        when(ticketRepository.findByBatchIdPage("batch-001", null, 2)).thenReturn(page(null, "t-1"));
+        when(ticketRepository.findByBatchIdPage("batch-002", null, 2)).thenReturn(page(null, "t-2", "t-3"));
+
+        // When
+        BatchChunkPlan plan = handler.handle(Map.of(
+                "batchId", "coalesced-001",
+                "batchIds", List.of("batch-001", "batch-002")));
+
+        // Then
+        assertThat(plan.getBatchId()).isEqualTo("coalesced-001");
+        assertThat(plan.getTicketCount()).isEqualTo(3);
+        assertThat(plan.getChunks()).extracting(TicketChunk::getBatchId)
+                .containsExactly("batch-001", "batch-002");
+        assertThat(plan.getChunks()).extracting(TicketChunk::getEndTicketId)
+                .containsExactly("t-1", "t-3");
+    }
+
+    @Test
+    void shouldStopAtEndTicketWhenTicketsWereAddedAfterPlanning() {
+        // Given: t-2a was added between t-2 and t-3 after the plan was made
+        TicketChunk chunk = chunk("t-2", "t-4");
+        when(ticketRepository.findByBatchIdPage("batch-001", "t-2", 2)).thenReturn(page("t-3", "t-2a", "t-3"));
+        when(ticketRepository.findByBatchIdPage("batch-001", "t-3", 2)).thenReturn(page("t-5", "t-4", "t-5"));
+
+        // When
+        List<String> ticketIds = handler.loadChunk(chunk);
+
+        // Then
+        assertThat(ticketIds).containsExactly("t-2a", "t-3", "t-4");
+    }
+
+    @Test
+    void shouldLoadFirstChunkWithoutCursor() {
+        // Given
+        TicketChunk chunk = chunk(null, "t-2");
+        when(ticketRepository.findByBatchIdPage("batch-001", null, 2)).thenReturn(page("t-2", "t-1", "t-2"));
+
+        // When
+        List<String> ticketIds = handler.loadChunk(chunk);
+
+        // Then
+        assertThat(ticketIds).containsExactly("t-1", "t-2");
+    }
+
+    private static TicketChunk chunk(String startAfterTicketId, String endTicketId) {
+        return TicketChunk.builder()
+                .batchId("batch-001")
+                .startAfterTicketId(startAfterTicketId)
+                .endTicketId(endTicketId)
+                .size(2)
+                .build();
+    }
+
+    private static DefectTicketRepository.TicketPage page(String lastEvaluatedTicketId, String... ticketIds) {
+        List<DefectTicket> tickets = Arrays.stream(ticketIds)
+                .map(id -> DefectTicket.builder().ticketId(id).batchId("batch-001").build())
+                .toList();
+        return new DefectTicketRepository.TicketPage(tickets, lastEvaluatedTicketId);
+    }
+}
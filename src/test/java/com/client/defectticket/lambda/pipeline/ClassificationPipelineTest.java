@@ -0,0 +1,173 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.model.enums.Severity;
+import com.client.defectticket.lambda.rules.RuleEvaluationService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit test for ClassificationPipeline.
+ * Tests stage ordering, early exit and per-stage hit rates.
+ */
+class ClassificationPipelineTest {
+
+    private final RuleEvaluationService ruleEvaluator = new RuleEvaluationService(List.of());
+
+    @Test
+    void shouldFinalizeAtFirstConfidentStageAndSkipLaterStages() {
+        // Given
+        FixedStage cheap = new FixedStage("CHEAP", 10, 0.9, classification(Severity.LOW, 0.95, "HEURISTIC"));
+        FixedStage llm = new FixedStage("LLM", 100, 0.0, classification(Severity.HIGH, 0.80, "LLM"));
+        ClassificationPipeline pipeline = new ClassificationPipeline(List.of(llm, cheap), ruleEvaluator);
+
+        // When
+        Classification result = pipeline.classify(ticket());
+
+        // Then
+        assertThat(result.getDecisionStage()).isEqualTo("CHEAP");
+        assertThat(result.getSeverity()).isEqualTo(Severity.LOW);
+        assertThat(llm.calls.get()).isZero();
+    }
+
+    @Test
+    void shouldFallThroughToLlmWhenEarlierStagesAreNotConfident() {
+        // Given
+        FixedStage cheap = new FixedStage("CHEAP", 10, 0.9, classification(Severity.LOW, 0.70, "HEURISTIC"));
+        FixedStage cache = new FixedStage("CACHE", 20, 0.0, null);
+        FixedStage llm = new FixedStage("LLM", 100, 0.0, classification(Severity.HIGH, 0.80, "LLM"));
+        ClassificationPipeline pipeline = new ClassificationPipeline(List.of(cheap, cache, llm), ruleEvaluator);
+
+        // When
+        Classification result = pipeline.classify(ticket());
+
+        // Then
+        assertThat(result.getDecisionStage()).isEqualTo("LLM");
+        assertThat(pipeline.stats())
+                .extracting(StageStats::getStage, StageStats::getAttempts, StageStats::getFinalized)
+                .containsExactly(
+                        tuple("CHEAP", 1L, 0L),
+                        tuple("CACHE", 1L, 0L),
+                        tuple("LLM", 1L, 1L));
+    }
+
+    @Test
+    void shouldCombineNonFinalRuleResultWithLlmResult() {
+        // Given
+        Classification rule = classification(Severity.HIGH, 0.95, "RULES");
+        rule.setRequiresHumanApproval(true);
+        FixedStage rules = new FixedStage("RULES", 10, 1.0, rule) {
+            @Override
+            public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+                context.setRuleResult(rule);
+                return super.classify(ticket, context);
+            }
+        };
+        FixedStage llm = new FixedStage("LLM", 100, 0.0, classification(Severity.HIGH, 0.90, "LLM"));
+        ClassificationPipeline pipeline = new ClassificationPipeline(List.of(rules, llm), ruleEvaluator);
+
+        // When
+        Classification result = pipeline.classify(ticket());
+
+        // Then
+        assertThat(result.getClassificationSource()).isEqualTo("HYBRID");
+        assertThat(result.isRequiresHumanApproval()).isTrue();
+        assertThat(result.getDecisionStage()).isEqualTo("LLM");
+    }
+
+    @Test
+    void shouldGiveProvisionalResultFromLocalStagesAndRefineWithRemoteStages() {
+        // Given
+        FixedStage heuristic = new FixedStage("HEURISTIC", 30, 1.0, classification(Severity.LOW, 0.60, "HEURISTIC"));
+        FixedStage llm = new FixedStage("LLM", 100, 0.0, classification(Severity.HIGH, 0.90, "LLM"), true);
+        ClassificationPipeline pipeline = new ClassificationPipeline(List.of(heuristic, llm), ruleEvaluator);
+        ClassificationContext context = new ClassificationContext();
+
+        // When
+        Optional<Classification> local = pipeline.classifyLocally(ticket(), context);
+        Optional<Classification> provisional = pipeline.provisional(context);
+
+        // Then
+        assertThat(local).isEmpty();
+        assertThat(llm.calls.get()).isZero();
+        assertThat(provisional).get()
+                .extracting(Classification::getSeverity, Classification::getDecisionStage)
+                .containsExactly(Severity.LOW, "HEURISTIC");
+
+        Classification refined = pipeline.refine(ticket(), context);
+        assertThat(refined.getDecisionStage()).isEqualTo("LLM");
+        assertThat(heuristic.calls.get()).isEqualTo(1);
+    }
+
+    private Classification classification(Severity severity, double confidence, String source) {
+        return Classification.builder()
+                .category("Bug")
+                .severity(severity)
+                .priority(3)
+                .confidenceScore(confidence)
+                .classificationSource(source)
+                .build();
+    }
+
+    private DefectTicket ticket() {
+        return DefectTicket.builder()
+                .ticketId("test-123")
+                .title("Title")
+                .description("Description")
+                .build();
+    }
+
+    private static class FixedStage implements ClassificationStage {
+        private final String name;
+        private final int order;
+        private final double finalizeConfidence;
+        private final Classification result;
+        private final boolean remote;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FixedStage(String name, int order, double finalizeConfidence, Classification result) {
+            this(name, order, finalizeConfidence, result, false);
+        }
+
+        FixedStage(String name, int order, double finalizeConfidence, Classification result, boolean remote) {
+            this.name = name;
+            this.order = order;
+            this.finalizeConfidence = finalizeConfidence;
+            this.result = result;
+            this.remote = remote;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int order() {
+            return order;
+        }
+
+        @Override
+        public boolean remote() {
+            return remote;
+        }
+
+        @Override
+        public double finalizeConfidence() {
+            return finalizeConfidence;
+        }
+
+        @Override
+        public Optional<Classification> classify(DefectTicket ticket, ClassificationContext context) {
+            calls.incrementAndGet();
+            return Optional.ofNullable(result).map(c -> c.toBuilder().build());
+        }
+    }
+}
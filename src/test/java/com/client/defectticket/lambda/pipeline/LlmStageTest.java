@@ -0,0 +1,87 @@
+package com.client.defectticket.lambda.pipeline;
+
+import com.client.defectticket.domain.model.Classification;
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.lambda.classifier.CircuitState;
+import com.client.defectticket.lambda.classifier.DegradedClassificationService;
+import com.client.defectticket.lambda.classifier.LlmCircuitBreaker;
+import com.client.defectticket.lambda.classifier.LlmConcurrencyLimitException;
+import com.client.defectticket.lambda.classifier.LlmOutputParseException;
+import com.client.defectticket.lambda.classifier.LlmServiceException;
+import com.client.defectticket.lambda.classifier.SpringAiClassificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for LlmStage.
+ * Tests which LLM failures count against the circuit breaker.
+ */
+@ExtendWith(MockitoExtension.class)
+class LlmStageTest {
+
+    @Mock
+    private SpringAiClassificationService aiClassifier;
+
+    @Mock
+    private DegradedClassificationService degradedClassifier;
+
+    private LlmCircuitBreaker circuitBreaker;
+    private LlmStage stage;
+    private DefectTicket ticket;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new LlmCircuitBreaker(4, 2, 0.5, 60000, 1);
+        stage = new LlmStage(circuitBreaker, degradedClassifier);
+        ReflectionTestUtils.setField(stage, "aiClassifier", aiClassifier);
+        ticket = DefectTicket.builder().ticketId("ticket-1").build();
+    }
+
+    @Test
+    void shouldNotCountUnparseableOutputOrLocalLimitAsBreakerFailure() {
+        // Given
+        when(aiClassifier.classify(eq(ticket), any()))
+                .thenThrow(new LlmOutputParseException("Unparseable LLM output", new IllegalArgumentException()))
+                .thenThrow(new LlmOutputParseException("Unparseable LLM output", new IllegalArgumentException()))
+                .thenThrow(new LlmConcurrencyLimitException("Local LLM concurrency limit reached"));
+
+        // When/Then
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> stage.classify(ticket, new ClassificationContext()))
+                    .isInstanceOfAny(LlmOutputParseException.class, LlmConcurrencyLimitException.class);
+        }
+        assertThat(circuitBreaker.snapshot().getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(circuitBreaker.snapshot().getBufferedCalls()).isZero();
+        verifyNoInteractions(degradedClassifier);
+    }
+
+    @Test
+    void shouldDegradeWhenServiceFailuresOpenTheCircuit() {
+        // Given
+        Classification degraded = Classification.builder()
+                .classificationSource(DegradedClassificationService.SOURCE)
+                .build();
+        when(aiClassifier.classify(eq(ticket), any())).thenThrow(new LlmServiceException("Failed to classify ticket"));
+        when(degradedClassifier.classify(ticket)).thenReturn(degraded);
+
+        // When
+        assertThatThrownBy(() -> stage.classify(ticket, new ClassificationContext()))
+                .isInstanceOf(LlmServiceException.class);
+        Classification result = stage.classify(ticket, new ClassificationContext()).orElseThrow();
+
+        // Then
+        assertThat(result).isSameAs(degraded);
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+}
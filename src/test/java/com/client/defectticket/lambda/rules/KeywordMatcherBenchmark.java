@@ -0,0 +1,116 @@
+package com.client.defectticket.lambda.rules;
+
+import com.client.defectticket.domain.model.DefectTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for KeywordMatcher.
+ * Compares rule matching before and after the compiled automaton, on the
+ * keywords of the real rules (CriticalKeywordRule, SecurityKeywordRule):
+ * - previousRuleEvaluation: the former RuleEvaluationService logic; every rule
+ *   lowercases title + description and runs String.contains per keyword
+ * - automaton: the current dispatch (word-start boundaries, stop at the
+ *   top-priority match)
+ * - automatonSubstring: the automaton with plain substring matching, i.e. the
+ *   same semantics as the previous logic
+ *
+ * Not part of the unit test run; start with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.client.defectticket.lambda.rules.KeywordMatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordMatcherBenchmark {
+
+    private static final List<ClassificationRule> RULES = List.of(new CriticalKeywordRule(), new SecurityKeywordRule());
+
+    private static final String LOG_LINE =
+            "2024-05-01T10:15:30.123Z INFO  [worker-7] c.c.o.OrderService - processed order id=48213 in 42ms\n";
+
+    @Param({"SHORT", "LOG_50KB"})
+    private String payload;
+
+    private DefectTicket ticket;
+    private List<ClassificationRule> keywordRules;
+    private KeywordMatcher matcher;
+    private KeywordMatcher substringMatcher;
+
+    @Setup
+    public void setUp() {
+        String description;
+        if ("SHORT".equals(payload)) {
+            description = "After applying a coupon the total is not updated until the page is refreshed.";
+        } else {
+            StringBuilder log = new StringBuilder(51_200);
+            while (log.length() < 50_000) {
+                log.append(LOG_LINE);
+            }
+            description = log.append("ERROR payment failed for order 48214").toString();
+        }
+        ticket = DefectTicket.builder().title("Checkout page shows wrong total").description(description).build();
+
+        // Same grouping as RuleEvaluationService: one group per keyword rule, in priority order
+        keywordRules = RULES.stream().sorted(Comparator.comparingInt(ClassificationRule::priority)).toList();
+        List<Set<String>> groups = keywordRules.stream().map(ClassificationRule::keywords).toList();
+        matcher = KeywordMatcher.compile(groups, KeywordMatcher.Boundary.WORD_START);
+        substringMatcher = KeywordMatcher.compile(groups, KeywordMatcher.Boundary.NONE);
+
+        if (previousRuleEvaluation() != automaton() || automaton() != automatonSubstring()) {
+            throw new IllegalStateException("Implementations disagree on payload " + payload);
+        }
+    }
+
+    @Benchmark
+    public ClassificationRule previousRuleEvaluation() {
+        return RULES.stream()
+                .filter(rule -> {
+                    String text = (ticket.getTitle() + " " + ticket.getDescription()).toLowerCase();
+                    return rule.keywords().stream().anyMatch(text::contains);
+                })
+                .min(Comparator.comparingInt(ClassificationRule::priority))
+                .orElse(null);
+    }
+
+    @Benchmark
+    public ClassificationRule automaton() {
+        return dispatch(matcher.match(TicketText.of(ticket), 1L));
+    }
+
+    @Benchmark
+    public ClassificationRule automatonSubstring() {
+        return dispatch(substringMatcher.match(TicketText.of(ticket), 1L));
+    }
+
+    private ClassificationRule dispatch(long mask) {
+        return mask == 0L ? null : keywordRules.get(Long.numberOfTrailingZeros(mask));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeywordMatcherBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.client.defectticket.lambda.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for KeywordMatcher.
+ * Tests multi-group matching, word boundaries and early exit.
+ */
+class KeywordMatcherTest {
+
+    @Test
+    void shouldReportEveryMatchedGroupInOnePass() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.compile(
+                List.of(Set.of("data loss"), Set.of("injection"), Set.of("cosmetic")),
+                KeywordMatcher.Boundary.NONE);
+
+        // When
+        long mask = matcher.match(TicketText.of("SQL Injection", "may cause DATA LOSS"));
+
+        // Then
+        assertThat(mask).isEqualTo(0b011L);
+    }
+
+    @Test
+    void shouldRequireWordStartWhenConfigured() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(Set.of("ui")), KeywordMatcher.Boundary.WORD_START);
+
+        // When/Then
+        assertThat(matcher.matchesAny("Build fails")).isFalse();
+        assertThat(matcher.matchesAny("UI glitch")).isTrue();
+        assertThat(matcher.matchesAny("broken UIs")).isTrue();
+    }
+
+    @Test
+    void shouldRequireWholeWordWhenConfigured() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(Set.of("down")), KeywordMatcher.Boundary.WORD);
+
+        // When/Then
+        assertThat(matcher.matchesAny("dropdown broken")).isFalse();
+        assertThat(matcher.matchesAny("downtime")).isFalse();
+        assertThat(matcher.matchesAny("system down.")).isTrue();
+    }
+
+    @Test
+    void shouldMatchOverlappingKeywords() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.compile(
+                List.of(Set.of("she"), Set.of("he"), Set.of("hers")),
+                KeywordMatcher.Boundary.NONE);
+
+        // When/Then
+        assertThat(matcher.match("ushers")).isEqualTo(0b111L);
+    }
+
+    @Test
+    void shouldStopAtFirstMatchInStopMask() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.compile(
+                List.of(Set.of("critical"), Set.of("minor")),
+                KeywordMatcher.Boundary.WORD_START);
+
+        // When
+        long mask = matcher.match("critical failure, previously minor", 1L);
+
+        // Then - scan stopped before reaching "minor"
+        assertThat(mask).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldReturnNoMatchForEmptyGroups() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.compile(List.of(), KeywordMatcher.Boundary.WORD_START);
+
+        // When/Then
+        assertThat(matcher.match("anything")).isZero();
+    }
+}
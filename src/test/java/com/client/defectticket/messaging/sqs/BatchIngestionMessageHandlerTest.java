@@ -0,0 +1,171 @@
+package com.client.defectticket.messaging.sqs;
+
+import com.client.defectticket.domain.model.DefectTicket;
+import com.client.defectticket.domain.repository.DefectTicketRepository;
+import com.client.defectticket.domain.service.BatchChecksum;
+import com.client.defectticket.lambda.handler.dto.BatchReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.sfn.SfnClient;
+import software.amazon.awssdk.services.sfn.model.StartExecutionRequest;
+import software.amazon.awssdk.services.sfn.model.StartExecutionResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for BatchIngestionMessageHandler.
+ * Tests claim-check verification against the stored batch before the workflow starts,
+ * including every part of a coalesced message.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchIngestionMessageHandlerTest {
+
+    @Mock
+    private SfnClient sfnClient;
+
+    @Mock
+    private DefectTicketRepository ticketRepository;
+
+    private ObjectMapper objectMapper;
+    private BatchIngestionMessageHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        handler = new BatchIngestionMessageHandler(sfnClient, ticketRepository, objectMapper);
+        ReflectionTestUtils.setField(handler, "stateMachineArn", "arn:aws:states:us-east-1:000000000000:stateMachine:Test");
+    }
+
+    @Test
+    void shouldStartWorkflowForVerifiedBatchWithoutStoringTickets() throws Exception {
+        // Given
+        stubStoredTickets("t-1", "t-2");
+        when(sfnClient.startExecution(any(StartExecutionRequest.class)))
+                .thenReturn(StartExecutionResponse.builder().executionArn("arn:execution").build());
+
+        // When
+        handler.handle(message(reference(2, new BatchChecksum().add("t-2").add("t-1").value())));
+
+        // Then
+        ArgumentCaptor<StartExecutionRequest> request = ArgumentCaptor.forClass(StartExecutionRequest.class);
+        verify(sfnClient).startExecution(request.capture());
+        assertThat(request.getValue().input()).contains("\"batchId\":\"batch-001\"");
+        assertThat(request.getValue().name()).startsWith("batch-001-");
+        verify(ticketRepository, never()).save(any(DefectTicket.class));
+        verify(ticketRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldRetryWhileTicketsAreNotYetVisible() {
+        // Given
+        stubStoredTickets("t-1");
+
+        // When / Then
+        assertThatThrownBy(() -> handler.handle(message(reference(2, "0000000000000000"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 of 2 tickets visible");
+        verify(sfnClient, never()).startExecution(any(StartExecutionRequest.class));
+    }
+
+    @Test
+    void shouldRejectChecksumMismatch() {
+        // Given
+        stubStoredTickets("t-1", "t-3");
+
+        // When / Then
+        assertThatThrownBy(() -> handler.handle(message(reference(2, new BatchChecksum().add("t-1").add("t-2").value()))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("checksum");
+        verify(sfnClient, never()).startExecution(any(StartExecutionRequest.class));
+    }
+
+    @Test
+    void shouldStartOneWorkflowForCoalescedBatches() throws Exception {
+        // Given
+        stubStoredTickets("t-1", "t-2");
+        when(ticketRepository.findByBatchIdPage(eq("batch-002"), isNull(), anyInt()))
+                .thenReturn(new DefectTicketRepository.TicketPage(
+                        List.of(DefectTicket.builder().ticketId("t-3").batchId("batch-002").build()), null));
+        when(sfnClient.startExecution(any(StartExecutionRequest.class)))
+                .thenReturn(StartExecutionResponse.builder().executionArn("arn:execution").build());
+        BatchReference first = reference(2, new BatchChecksum().add("t-1").add("t-2").value());
+        BatchReference second = BatchReference.builder()
+                .batchId("batch-002")
+                .sourceSystem("JIRA")
+                .ticketCount(1)
+                .checksum(new BatchChecksum().add("t-3").value())
+                .build();
+        BatchReference combined = BatchReference.builder()
+                .batchId("coalesced-001")
+                .sourceSystem("JIRA")
+                .ticketCount(3)
+                .checksum(BatchChecksum.combine(List.of(first.getChecksum(), second.getChecksum())))
+                .batches(List.of(first, second))
+                .build();
+
+        // When
+        handler.handle(message(combined));
+
+        // Then
+        ArgumentCaptor<StartExecutionRequest> request = ArgumentCaptor.forClass(StartExecutionRequest.class);
+        verify(sfnClient).startExecution(request.capture());
+        assertThat(request.getValue().input()).contains("\"batchIds\":[\"batch-001\",\"batch-002\"]");
+        assertThat(request.getValue().name()).startsWith("coalesced-001-");
+    }
+
+    @Test
+    void shouldStartWorkflowForLegacyMessage() throws Exception {
+        // Given
+        when(sfnClient.startExecution(any(StartExecutionRequest.class)))
+                .thenReturn(StartExecutionResponse.builder().executionArn("arn:execution").build());
+
+        // When
+        handler.handle(Message.builder()
+                .messageId("m-1")
+                .body("{\"batchId\":\"batch-001\",\"sourceSystem\":\"JIRA\",\"tickets\":[]}")
+                .build());
+
+        // Then
+        verify(sfnClient).startExecution(any(StartExecutionRequest.class));
+        verify(ticketRepository, never()).findByBatchIdPage(any(), any(), anyInt());
+    }
+
+    private void stubStoredTickets(String... ticketIds) {
+        List<DefectTicket> tickets = Arrays.stream(ticketIds)
+                .map(id -> DefectTicket.builder().ticketId(id).batchId("batch-001").build())
+                .toList();
+        when(ticketRepository.findByBatchIdPage(eq("batch-001"), isNull(), anyInt()))
+                .thenReturn(new DefectTicketRepository.TicketPage(tickets, null));
+    }
+
+    private static BatchReference reference(int ticketCount, String checksum) {
+        return BatchReference.builder()
+                .batchId("batch-001")
+                .sourceSystem("JIRA")
+                .ticketCount(ticketCount)
+                .checksum(checksum)
+                .build();
+    }
+
+    private Message message(BatchReference reference) throws Exception {
+        return Message.builder().messageId("m-1").body(objectMapper.writeValueAsString(reference)).build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.client.defectticket.messaging.sqs;
+
+import com.client.defectticket.domain.service.BatchChecksum;
+import com.client.defectticket.lambda.handler.dto.BatchReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for IngestionCoalescer.
+ * Tests per-source buffering, one SendMessageBatch per flush, the max-tickets trigger
+ * and withdrawing a buffered request.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestionCoalescerTest {
+
+    private static final String QUEUE_URL = "https://sqs.test/queue";
+
+    @Mock
+    private SqsClient sqsClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IngestionCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void shouldCombineRequestsOfOneSourceIntoOneMessage() throws Exception {
+        // Given
+        coalescer = coalescer(100);
+        stubSendMessageBatch();
+        BatchReference first = reference("batch-001", "JIRA", "t-1");
+        BatchReference second = reference("batch-002", "JIRA", "t-2", "t-3");
+
+        // When
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> firstResult = coalescer.submit(first);
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> secondResult = coalescer.submit(second);
+        coalescer.flushAll();
+
+        // Then
+        ArgumentCaptor<SendMessageBatchRequest> request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(request.capture());
+        assertThat(request.getValue().entries()).hasSize(1);
+        BatchReference combined = objectMapper.readValue(
+                request.getValue().entries().get(0).messageBody(), BatchReference.class);
+        assertThat(combined.getTicketCount()).isEqualTo(3);
+        assertThat(combined.getChecksum())
+                .isEqualTo(new BatchChecksum().add("t-1").add("t-2").add("t-3").value());
+        assertThat(combined.getBatches()).extracting(BatchReference::getBatchId)
+                .containsExactly("batch-001", "batch-002");
+        assertThat(firstResult.get(1, TimeUnit.SECONDS)).isEqualTo(secondResult.get(1, TimeUnit.SECONDS));
+        assertThat(firstResult.get().batchId()).isEqualTo(combined.getBatchId());
+        assertThat(firstResult.get().requests()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSendBuffersOfAllSourcesInOneCall() throws Exception {
+        // Given
+        coalescer = coalescer(100);
+        stubSendMessageBatch();
+
+        // When
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> jira =
+                coalescer.submit(reference("batch-001", "JIRA", "t-1"));
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> serviceNow =
+                coalescer.submit(reference("batch-002", "SERVICENOW", "t-2"));
+        coalescer.flushAll();
+
+        // Then
+        ArgumentCaptor<SendMessageBatchRequest> request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(request.capture());
+        assertThat(request.getValue().entries()).hasSize(2);
+        assertThat(jira.get(1, TimeUnit.SECONDS).sqsMessageId())
+                .isNotEqualTo(serviceNow.get(1, TimeUnit.SECONDS).sqsMessageId());
+    }
+
+    @Test
+    void shouldSendFullBufferWithoutWaitingForDelay() throws Exception {
+        // Given
+        coalescer = coalescer(3);
+        stubSendMessageBatch();
+
+        // When
+        coalescer.submit(reference("batch-001", "JIRA", "t-1"));
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> result =
+                coalescer.submit(reference("batch-002", "JIRA", "t-2", "t-3"));
+
+        // Then
+        assertThat(result.get(5, TimeUnit.SECONDS).tickets()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldLeaveWithdrawnRequestOutOfCombinedMessage() throws Exception {
+        // Given
+        coalescer = coalescer(100);
+        stubSendMessageBatch();
+        BatchReference withdrawn = reference("batch-001", "JIRA", "t-1");
+        CompletableFuture<IngestionCoalescer.CoalescedBatch> withdrawnResult = coalescer.submit(withdrawn);
+        coalescer.submit(reference("batch-002", "JIRA", "t-2"));
+
+        // When
+        boolean removed = coalescer.withdraw(withdrawn, withdrawnResult);
+        coalescer.flushAll();
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(coalescer.withdraw(withdrawn, withdrawnResult)).isFalse();
+        ArgumentCaptor<SendMessageBatchRequest> request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(request.capture());
+        BatchReference combined = objectMapper.readValue(
+                request.getValue().entries().get(0).messageBody(), BatchReference.class);
+        assertThat(combined.getBatches()).extracting(BatchReference::getBatchId).containsExactly("batch-002");
+        assertThat(withdrawnResult).isNotDone();
+    }
+
+    @Test
+    void shouldOnlyAcceptSmallBatches() {
+        // Given
+        coalescer = coalescer(100);
+
+        // When / Then
+        assertThat(coalescer.accepts(10)).isTrue();
+        assertThat(coalescer.accepts(11)).isFalse();
+        assertThat(coalescer.accepts(0)).isFalse();
+    }
+
+    private IngestionCoalescer coalescer(int maxTickets) {
+        // The delay is long enough that only flushAll() and a full buffer send
+        return new IngestionCoalescer(sqsClient, objectMapper, QUEUE_URL, true, 10, maxTickets, 60_000);
+    }
+
+    private void stubSendMessageBatch() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+            SendMessageBatchRequest request = invocation.getArgument(0);
+            List<SendMessageBatchResultEntry> sent = request.entries().stream()
+                    .map(SendMessageBatchRequestEntry::id)
+                    .map(id -> SendMessageBatchResultEntry.builder().id(id).messageId("msg-" + id).build())
+                    .toList();
+            return SendMessageBatchResponse.builder().successful(sent).build();
+        });
+    }
+
+    private static BatchReference reference(String batchId, String sourceSystem, String... ticketIds) {
+        BatchChecksum checksum = new BatchChecksum();
+        for (String ticketId : ticketIds) {
+            checksum.add(ticketId);
+        }
+        return BatchReference.builder()
+                .batchId(batchId)
+                .sourceSystem(sourceSystem)
+                .ticketCount(checksum.count())
+                .checksum(checksum.value())
+                .build();
+    }
+}
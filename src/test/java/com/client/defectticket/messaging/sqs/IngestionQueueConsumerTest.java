@@ -0,0 +1,165 @@
+package com.client.defectticket.messaging.sqs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for IngestionQueueConsumer.
+ * Tests concurrent processing, batched acknowledgements, visibility heartbeats and poller scaling.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestionQueueConsumerTest {
+
+    private static final String QUEUE_URL = "https://sqs.test/queue";
+
+    @Mock
+    private SqsClient sqsClient;
+
+    @Mock
+    private BatchIngestionMessageHandler messageHandler;
+
+    @Test
+    void shouldDeleteOnlyProcessedMessagesInOneBatch() throws Exception {
+        // Given
+        IngestionQueueConsumer consumer = consumer(10, 60);
+        Message ok = message("m-1");
+        Message broken = message("m-2");
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(ok, broken).build());
+        doThrow(new IllegalStateException("bad payload")).when(messageHandler).handle(broken);
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+
+        // When
+        consumer.pollOnce();
+        awaitIdle(consumer);
+        consumer.flushAcknowledgements();
+
+        // Then
+        ArgumentCaptor<DeleteMessageBatchRequest> delete = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient).deleteMessageBatch(delete.capture());
+        assertThat(delete.getValue().entries())
+                .extracting(DeleteMessageBatchRequestEntry::receiptHandle)
+                .containsExactly("receipt-m-1");
+    }
+
+    @Test
+    void shouldRequestOnlyAsManyMessagesAsFreePermits() throws Exception {
+        // Given
+        IngestionQueueConsumer consumer = consumer(3, 60);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().build());
+
+        // When
+        consumer.pollOnce();
+
+        // Then
+        ArgumentCaptor<ReceiveMessageRequest> receive = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(sqsClient).receiveMessage(receive.capture());
+        assertThat(receive.getValue().maxNumberOfMessages()).isEqualTo(3);
+        assertThat(receive.getValue().visibilityTimeout()).isEqualTo(300);
+    }
+
+    @Test
+    void shouldExtendVisibilityOfLongRunningMessages() throws Exception {
+        // Given: heartbeat interval 0, so every in-flight message is due
+        IngestionQueueConsumer consumer = consumer(10, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        Message slow = message("m-1");
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(slow).build());
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(messageHandler).handle(slow);
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+
+        // When
+        consumer.pollOnce();
+        consumer.sendHeartbeats();
+        release.countDown();
+        awaitIdle(consumer);
+
+        // Then
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> heartbeat =
+                ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient).changeMessageVisibilityBatch(heartbeat.capture());
+        assertThat(heartbeat.getValue().entries()).hasSize(1);
+        assertThat(heartbeat.getValue().entries().get(0).receiptHandle()).isEqualTo("receipt-m-1");
+        assertThat(heartbeat.getValue().entries().get(0).visibilityTimeout()).isEqualTo(300);
+    }
+
+    @Test
+    void shouldNotSendHeartbeatsWhenNothingIsInFlight() {
+        // Given
+        IngestionQueueConsumer consumer = consumer(10, 0);
+
+        // When
+        consumer.sendHeartbeats();
+
+        // Then
+        verify(sqsClient, never()).changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class));
+    }
+
+    @Test
+    void shouldScalePollersWithBacklog() {
+        // Given
+        IngestionQueueConsumer consumer = consumer(10, 60);
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(GetQueueAttributesResponse.builder()
+                        .attributes(Map.of(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES, "450"))
+                        .build());
+
+        // When
+        consumer.scale();
+
+        // Then
+        assertThat(consumer.desiredPollerCount()).isEqualTo(5);
+        assertThat(IngestionQueueConsumer.pollersFor(0, 100, 1, 8)).isEqualTo(1);
+        assertThat(IngestionQueueConsumer.pollersFor(100_000, 100, 1, 8)).isEqualTo(8);
+    }
+
+    private IngestionQueueConsumer consumer(int maxInFlight, long heartbeatIntervalSeconds) {
+        return new IngestionQueueConsumer(sqsClient, messageHandler, QUEUE_URL, false,
+                1, 8, 100, maxInFlight, 300, heartbeatIntervalSeconds, 3600, 1000);
+    }
+
+    private static Message message(String id) {
+        return Message.builder().messageId(id).receiptHandle("receipt-" + id).body("{}").build();
+    }
+
+    private static void awaitIdle(IngestionQueueConsumer consumer) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (consumer.inFlightCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(consumer.inFlightCount()).isZero();
+    }
+}